@@ -17,15 +17,29 @@
  */
 package jgnash.bayes;
 
-import java.util.*;
-import java.util.Map.Entry;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Naive Bayes BayesClassifier.
  * Modeled after classifier presented in "Programming Collective Intelligence" by Toby Segaran
+ * <p>
+ * Features and classes are interned to integer identifiers and counts are kept in primitive tables.  Scoring is
+ * performed in log space to prevent underflow when classifying long strings.  The classifier may be trained and
+ * untrained incrementally and persisted with {@link #write(DataOutput, Function)}.
+ * <p>
+ * This class is not thread safe.
  *
  * @param <E> the type of mapped value
- * 
+ *
  * @author Craig Cavanaugh
  */
 public class BayesClassifier<E> {
@@ -38,160 +52,480 @@ public class BayesClassifier<E> {
     private static final double ASSUMED_PROBABILITY = 0.5;
     private static final double THRESHOLD = 1.0;
     private static final double WEIGHT = 1.0;
-    private static final String WHITE_SPACE_REGEX = "[,\\s]+";
-    // private final static String NUMBERS_REGEX = "(?>-?\\d+(?:[\\./]\\d+)?)";
 
-    private final Map<String, Map<E, Integer>> featureCounter = new HashMap<>();
-    private final Map<E, Integer> classCounter = new HashMap<>();
+    /**
+     * Log of the threshold, applied to log space scores.
+     */
+    private static final double LOG_THRESHOLD = Math.log(THRESHOLD);
+
+    /**
+     * Identifies a persisted classifier stream.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Interned feature identifiers.
+     */
+    private final Map<String, Integer> featureIds = new HashMap<>();
+
+    /**
+     * Interned class identifiers.
+     */
+    private final Map<E, Integer> classIds = new HashMap<>();
+
+    /**
+     * Classes indexed by class identifier.
+     */
+    private final List<E> classes = new ArrayList<>();
+
+    /**
+     * Training counts indexed by class identifier.
+     */
+    private int[] classCounts = new int[16];
+
+    /**
+     * Total occurrences of a feature across all classes, indexed by feature identifier.
+     */
+    private int[] featureTotals = new int[64];
+
+    /**
+     * Occurrences of a feature within a class, keyed by feature and class identifier.
+     */
+    private final LongIntCounter featureCounter = new LongIntCounter();
+
+    /**
+     * Total number of training calls for all classes.
+     */
+    private long trainedCount;
 
     /**
      * Constructor
-     * 
+     *
      * @param defaultClass the mapped type
      */
     public BayesClassifier(final E defaultClass) {
         this.defaultClass = defaultClass;
     }
 
-    private void incrementFeature(final String feature, final E classification) {
-        Map<E, Integer> featureMap = featureCounter.get(feature);
+    private static long key(final int featureId, final int classId) {
+        return ((long) featureId << 32) | (classId & 0xffffffffL);
+    }
 
-        if (featureMap == null) {
-            featureMap = new HashMap<>();
-            featureMap.put(classification, 1);
-            featureCounter.put(feature, featureMap);
-            return;
+    private int internFeature(final String feature) {
+        Integer id = featureIds.get(feature);
+
+        if (id == null) {
+            id = featureIds.size();
+            featureIds.put(feature, id);
+
+            if (id >= featureTotals.length) {
+                featureTotals = Arrays.copyOf(featureTotals, featureTotals.length * 2);
+            }
+        }
+
+        return id;
+    }
+
+    private int internClass(final E classification) {
+        Integer id = classIds.get(classification);
+
+        if (id == null) {
+            id = classes.size();
+            classIds.put(classification, id);
+            classes.add(classification);
+
+            if (id >= classCounts.length) {
+                classCounts = Arrays.copyOf(classCounts, classCounts.length * 2);
+            }
         }
 
-        Integer count = featureMap.get(classification);
-        count = (count == null) ? 1 : count + 1;
-        featureMap.put(classification, count);
+        return id;
     }
 
     /**
-     * Support method to increment a classification
+     * Splits a string into lower case features.  Commas and white space delimit features.
      *
-     * @param classification classification to increment
+     * @param item string to split
+     * @return list of features, empty features are discarded
      */
-    private void incrementClass(final E classification) {
-        Integer count = classCounter.get(classification);
-        count = (count == null) ? 1 : count + 1;
-        classCounter.put(classification, count);
+    static List<String> tokenize(final String item) {
+        final String lower = item.toLowerCase(Locale.getDefault());
+        final List<String> features = new ArrayList<>();
+
+        int start = -1;
+
+        for (int i = 0; i < lower.length(); i++) {
+            final char c = lower.charAt(i);
+
+            if (c == ',' || Character.isWhitespace(c)) {
+                if (start >= 0) {
+                    features.add(lower.substring(start, i));
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+
+        if (start >= 0) {
+            features.add(lower.substring(start));
+        }
+
+        return features;
     }
 
-    private int getClassCount(final E classification) {
-        Integer count = classCounter.get(classification);
+    private double getLogWeightedProbability(final int featureId, final int classId) {
+        final int totals = featureTotals[featureId];
+        final int classCount = classCounts[classId];
+
+        final double probability = classCount == 0 ? 0.0
+                : (double) featureCounter.get(key(featureId, classId)) / classCount;
 
-        return (count != null) ? count : 0;
+        return Math.log((WEIGHT * ASSUMED_PROBABILITY + totals * probability) / (WEIGHT + totals));
     }
 
     /**
-     * Gets the number of times the feature as occurred in the classification
+     * Trains the classifier
      *
-     * @param feature        feature to count
-     * @param classification class
-     * @return occurrence count
+     * @param item training string
+     * @param classification object being classified
      */
-    private int getFeatureCount(final String feature, final E classification) {
-        Map<E, Integer> featureMap = featureCounter.get(feature);
+    public void train(final String item, final E classification) {
+        final int classId = internClass(classification);
 
-        if (featureMap == null) {
-            return 0;
+        for (final String feature : tokenize(item)) {
+            final int featureId = internFeature(feature);
+
+            featureCounter.add(key(featureId, classId), 1);
+            featureTotals[featureId]++;
         }
-        Integer count = featureMap.get(classification);
 
-        return (count != null) ? count : 0;
+        classCounts[classId]++;
+        trainedCount++;
     }
 
-    private int getFeatureCount(final String feature) {
-        Map<E, Integer> featureMap = featureCounter.get(feature);
-        int count = 0;
+    /**
+     * Reverses a prior call to {@link #train(String, Object)} with the same arguments.
+     *
+     * @param item training string
+     * @param classification object that was classified
+     */
+    public void untrain(final String item, final E classification) {
+        final Integer classId = classIds.get(classification);
+
+        if (classId == null || classCounts[classId] == 0) {
+            return;
+        }
 
-        if (featureMap == null) {
-            return count;
-        }               
-        
-        for (Entry<E, Integer> entry : featureMap.entrySet()) {
-            count += entry.getValue();
-        }                    
+        for (final String feature : tokenize(item)) {
+            final Integer featureId = featureIds.get(feature);
 
-        return count;
+            if (featureId != null && featureCounter.add(key(featureId, classId), -1)) {
+                featureTotals[featureId]--;
+            }
+        }
+
+        classCounts[classId]--;
+        trainedCount--;
     }
 
-    private double getFeatureProbability(final String feature, final E classification) {
-        int count = getClassCount(classification);
-        return (count == 0) ? 0.0 : (double) getFeatureCount(feature, classification) / count;
+    /**
+     * Returns the best probabilistic match
+     *
+     * @param item String data to match
+     * @return best possible match
+     */
+    public E classify(final String item) {
+        return classify(item, defaultClass, null);
     }
 
-    private double getWeightedProbability(final String feature, final E classification) {
-        double probability = getFeatureProbability(feature, classification);
-        int totals = getFeatureCount(feature);
-        return (WEIGHT * ASSUMED_PROBABILITY + totals * probability) / (WEIGHT + totals);
+    /**
+     * Returns the best probabilistic match using an alternative default.  The alternative default is not considered
+     * a candidate for the match.
+     *
+     * @param item String data to match
+     * @param defaultClass the value to return if a match is not determinate
+     * @return best possible match
+     */
+    public E classify(final String item, final E defaultClass) {
+        return classify(item, defaultClass, defaultClass);
     }
 
-    private double getClassProbability(final String item, final E classification) {
-        double probability = 1;
+    private E classify(final String item, final E defaultClass, final E excludedClass) {
+        if (trainedCount == 0) {
+            return defaultClass;
+        }
+
+        // tokenize once, unknown features contribute equally to every class and are ignored
+        final List<String> features = tokenize(item);
+        final int[] ids = new int[features.size()];
+        int count = 0;
+
+        for (final String feature : features) {
+            final Integer id = featureIds.get(feature);
 
-        for (String feature : item.split(WHITE_SPACE_REGEX)) {
-            probability *= getWeightedProbability(feature, classification);
+            if (id != null) {
+                ids[count++] = id;
+            }
         }
 
-        return (double) classCounter.get(classification) / classCounter.size() * probability;
+        final Integer excludedId = excludedClass != null ? classIds.get(excludedClass) : null;
+        final double logTotal = Math.log(trainedCount);
+        final double[] scores = new double[classes.size()];
+
+        int bestId = -1;
+
+        // find the category with the highest log probability
+        for (int classId = 0; classId < scores.length; classId++) {
+            if (classCounts[classId] == 0 || (excludedId != null && excludedId == classId)) {
+                scores[classId] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+
+            double score = Math.log(classCounts[classId]) - logTotal;
+
+            for (int i = 0; i < count; i++) {
+                score += getLogWeightedProbability(ids[i], classId);
+            }
+
+            scores[classId] = score;
+
+            if (bestId < 0 || score > scores[bestId]) {
+                bestId = classId;
+            }
+        }
+
+        if (bestId < 0) {
+            return defaultClass;
+        }
+
+        // make sure the probability exceeds
+        for (int classId = 0; classId < scores.length; classId++) {
+            if (classId != bestId && scores[classId] + LOG_THRESHOLD >= scores[bestId]) {
+                return defaultClass;
+            }
+        }
+
+        return classes.get(bestId);
     }
 
-    private void train(final Collection<String> features, final E classification) {
-        for (String feature : features) {
-            incrementFeature(feature, classification);
+    /**
+     * Writes the trained state of the classifier.
+     *
+     * @param out output to write to
+     * @param keyMapper maps a class to a persistent key
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(final DataOutput out, final Function<E, String> keyMapper) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(trainedCount);
+
+        final String[] features = new String[featureIds.size()];
+        featureIds.forEach((feature, id) -> features[id] = feature);
+
+        out.writeInt(features.length);
+
+        for (int i = 0; i < features.length; i++) {
+            out.writeUTF(features[i]);
+            out.writeInt(featureTotals[i]);
+        }
+
+        out.writeInt(classes.size());
+
+        for (int i = 0; i < classes.size(); i++) {
+            out.writeUTF(keyMapper.apply(classes.get(i)));
+            out.writeInt(classCounts[i]);
+        }
+
+        out.writeInt(featureCounter.size());
+
+        final IOException[] exception = new IOException[1];
+
+        featureCounter.forEach((key, value) -> {
+            if (exception[0] == null) {
+                try {
+                    out.writeLong(key);
+                    out.writeInt(value);
+                } catch (final IOException e) {
+                    exception[0] = e;
+                }
+            }
+        });
+
+        if (exception[0] != null) {
+            throw exception[0];
         }
-        incrementClass(classification);
     }
 
     /**
-     * Trains the classifier
-     * 
-     * @param item training string
-     * @param classification object being classified
+     * Reads a classifier previously written with {@link #write(DataOutput, Function)}.
+     *
+     * @param in input to read from
+     * @param defaultClass the mapped type
+     * @param resolver resolves a persistent key to a class, may return {@code null} if the class no longer exists
+     * @param <E> the type of mapped value
+     * @return the restored classifier
+     * @throws IOException if an I/O error occurs or the stream is not a valid classifier
      */
-    public void train(final String item, final E classification) {
-        train(Arrays.asList(item.toLowerCase(Locale.getDefault()).split(WHITE_SPACE_REGEX)), classification);               
+    public static <E> BayesClassifier<E> read(final DataInput in, final E defaultClass,
+                                              final Function<String, E> resolver) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported classifier format");
+        }
+
+        final BayesClassifier<E> classifier = new BayesClassifier<>(defaultClass);
+
+        classifier.trainedCount = in.readLong();
+
+        final int featureCount = in.readInt();
+
+        for (int i = 0; i < featureCount; i++) {
+            final int id = classifier.internFeature(in.readUTF());
+            classifier.featureTotals[id] = in.readInt();
+        }
+
+        final int classCount = in.readInt();
+
+        // classes that no longer resolve keep their slot so feature keys stay valid, but are never matched
+        final boolean[] orphaned = new boolean[classCount];
+
+        for (int i = 0; i < classCount; i++) {
+            final E classification = resolver.apply(in.readUTF());
+            final int count = in.readInt();
+
+            if (classification != null && !classifier.classIds.containsKey(classification)) {
+                final int id = classifier.internClass(classification);
+                classifier.classCounts[id] = count;
+            } else {
+                classifier.classes.add(null);
+
+                if (i >= classifier.classCounts.length) {
+                    classifier.classCounts = Arrays.copyOf(classifier.classCounts, classifier.classCounts.length * 2);
+                }
+
+                classifier.trainedCount -= count;
+                orphaned[i] = true;
+            }
+        }
+
+        final int counterSize = in.readInt();
+
+        for (int i = 0; i < counterSize; i++) {
+            final long key = in.readLong();
+            final int value = in.readInt();
+
+            if (orphaned[(int) key]) {
+                classifier.featureTotals[(int) (key >>> 32)] -= value;
+            } else {
+                classifier.featureCounter.add(key, value);
+            }
+        }
+
+        return classifier;
     }
 
     /**
-     * Returns the best probabilistic match 
-     * 
-     * @param item String data to match
-     * @return best possible match
+     * Open addressing hash table of primitive {@code long} keys to {@code int} counts.  Counts that fall to zero
+     * are retained as zero to keep probe chains intact.
      */
-    public E classify(final String item) {
-        E bestClass = defaultClass;
-        double classProb;
-        double bestProbability;
-        double max = 0;
+    private static final class LongIntCounter {
+
+        private static final long EMPTY = -1L;
 
-        Map<E, Double> probabilities = new HashMap<>();
+        private long[] keys = newKeys(1024);
 
-        // find the category with the highest probability
-        for (final E classification : classCounter.keySet()) {
-            classProb = getClassProbability(item.toLowerCase(Locale.getDefault()), classification);
-            probabilities.put(classification, classProb);
-            if (classProb > max) {
-                max = classProb;
-                bestClass = classification;
+        private int[] values = new int[1024];
+
+        private int size;
+
+        private static long[] newKeys(final int capacity) {
+            final long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private static int hash(final long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        private int indexOf(final long[] table, final long key) {
+            final int mask = table.length - 1;
+            int i = hash(key) & mask;
+
+            while (table[i] != EMPTY && table[i] != key) {
+                i = (i + 1) & mask;
             }
+
+            return i;
         }
-                       
-        // make sure the probability exceeds
-        for (final Entry<E, Double> entry : probabilities.entrySet()) {
-            if (!entry.getKey().equals(bestClass)) {
-                classProb = entry.getValue();
-                bestProbability = probabilities.get(bestClass);
-                
-                if (classProb * THRESHOLD >= bestProbability) {
-                    return defaultClass;
+
+        int get(final long key) {
+            final int i = indexOf(keys, key);
+            return keys[i] == key ? values[i] : 0;
+        }
+
+        /**
+         * Adds to the count for a key.  A count will not fall below zero.
+         *
+         * @return {@code true} if the count was changed
+         */
+        boolean add(final long key, final int delta) {
+            int i = indexOf(keys, key);
+
+            if (keys[i] != key) {
+                if (delta <= 0) {
+                    return false;
+                }
+
+                if ((size + 1) * 4 > keys.length * 3) {
+                    rehash();
+                    i = indexOf(keys, key);
+                }
+
+                keys[i] = key;
+                size++;
+            }
+
+            if (values[i] + delta < 0) {
+                return false;
+            }
+
+            values[i] += delta;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(final LongIntConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    consumer.accept(keys[i], values[i]);
                 }
             }
-        }       
+        }
+
+        private void rehash() {
+            final long[] oldKeys = keys;
+            final int[] oldValues = values;
+
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[oldKeys.length * 2];
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    final int j = indexOf(keys, oldKeys[i]);
+                    keys[j] = oldKeys[i];
+                    values[j] = oldValues[i];
+                }
+            }
+        }
+    }
 
-        return bestClass;
+    @FunctionalInterface
+    private interface LongIntConsumer {
+        void accept(long key, int value);
     }
-}
\ No newline at end of file
+}
@@ -17,6 +17,13 @@
  */
 package jgnash.bayes;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.function.Function;
+
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -35,4 +42,73 @@ class BayesClassifierTest {
         assertEquals("Grocery", classifier.classify("Fish and chips"));
         assertEquals("default",  classifier.classify("flowers and shrubs"));
     }
+
+    @Test
+    void testLongItemDoesNotUnderflow() {
+        BayesClassifier<String> classifier = new BayesClassifier<>("default");
+
+        final StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < 2000; i++) {
+            builder.append("oil ");
+        }
+
+        classifier.train("Gasoline oil washer fluid brakes lights transmission auto", "Auto");
+        classifier.train("groceries bacon fish burger milk chips", "Grocery");
+
+        assertEquals("Auto", classifier.classify(builder.toString()));
+    }
+
+    @Test
+    void testUntrain() {
+        BayesClassifier<String> classifier = new BayesClassifier<>("default");
+
+        classifier.train("Gasoline oil washer fluid brakes lights transmission auto", "Auto");
+        classifier.train("groceries bacon fish burger milk chips", "Grocery");
+        classifier.train("fish bait hooks", "Sporting");
+
+        assertEquals("default", classifier.classify("fish"));
+
+        classifier.untrain("fish bait hooks", "Sporting");
+
+        assertEquals("Grocery", classifier.classify("fish"));
+    }
+
+    @Test
+    void testAlternativeDefault() {
+        BayesClassifier<String> classifier = new BayesClassifier<>("default");
+
+        classifier.train("Gasoline oil washer fluid brakes lights transmission auto", "Auto");
+        classifier.train("groceries bacon fish burger milk chips", "Grocery");
+
+        assertEquals("Auto", classifier.classify("oil"));
+        assertEquals("Checking", classifier.classify("flowers", "Checking"));
+    }
+
+    @Test
+    void testPersistence() throws IOException {
+        BayesClassifier<String> classifier = new BayesClassifier<>("default");
+
+        classifier.train("Gasoline oil washer fluid brakes lights transmission auto", "Auto");
+        classifier.train("groceries bacon fish burger milk chips", "Grocery");
+        classifier.train("movie video DVD music theater", "Entertainment");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            classifier.write(out, Function.identity());
+        }
+
+        // drop the entertainment class on restore
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            classifier = BayesClassifier.read(in, "default", key -> key.equals("Entertainment") ? null : key);
+        }
+
+        assertEquals("Auto", classifier.classify("Oil and washer fluid"));
+        assertEquals("Grocery", classifier.classify("Fish and chips"));
+        assertEquals("default", classifier.classify("movie theater"));
+
+        classifier.train("movie video DVD music theater", "Movies");
+        assertEquals("Movies", classifier.classify("movie theater"));
+    }
 }
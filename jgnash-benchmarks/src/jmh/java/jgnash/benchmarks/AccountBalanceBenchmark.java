@@ -0,0 +1,111 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import jgnash.engine.Account;
+import jgnash.engine.CurrencyNode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for account balance calculations.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountBalanceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class BalanceState {
+
+        Account bankAccount;
+
+        Account bankParent;
+
+        CurrencyNode currency;
+
+        LocalDate midDate;
+
+        LocalDate[] monthStarts;
+
+        LocalDate[] monthEnds;
+
+        @Setup(Level.Trial)
+        public void setup(final LedgerState ledger) {
+            currency = ledger.engine.getDefaultCurrency();
+            bankParent = ledger.engine.getAccountByName("Banks");
+            bankAccount = bankParent.getChildren().get(0);
+
+            final LocalDate startDate = ledger.scale.getStartDate();
+
+            midDate = startDate.plusDays(ledger.scale.days / 2);
+
+            final int months = (int) startDate.withDayOfMonth(1).until(LedgerGenerator.END_DATE).toTotalMonths() + 1;
+
+            monthStarts = new LocalDate[months];
+            monthEnds = new LocalDate[months];
+
+            for (int i = 0; i < months; i++) {
+                monthStarts[i] = startDate.withDayOfMonth(1).plusMonths(i);
+                monthEnds[i] = monthStarts[i].plusMonths(1).minusDays(1);
+            }
+        }
+    }
+
+    @Benchmark
+    public BigDecimal balance(final BalanceState state) {
+        return state.bankAccount.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal balanceAtDate(final BalanceState state) {
+        return state.bankAccount.getBalance(state.midDate);
+    }
+
+    @Benchmark
+    public BigDecimal balanceForPeriod(final BalanceState state) {
+        return state.bankAccount.getBalance(state.monthStarts[0], state.midDate);
+    }
+
+    @Benchmark
+    public BigDecimal treeBalance(final BalanceState state) {
+        return state.bankParent.getTreeBalance(LedgerGenerator.END_DATE, state.currency);
+    }
+
+    @Benchmark
+    public BigDecimal[] monthlyBalances(final BalanceState state) {
+        return state.bankAccount.getBalances(state.monthEnds, state.currency);
+    }
+
+    @Benchmark
+    public BigDecimal[] monthlyTreeBalances(final BalanceState state) {
+        return state.bankParent.getTreeBalances(state.monthStarts, state.monthEnds, state.currency);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.StoredObject;
+import jgnash.util.FileUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for writing and reading each type of data store.  Reading a relational data store measures the
+ * JPA boot.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DataStoreBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class WriteState {
+
+        @Param({"BINARY_XSTREAM", "SEGMENT", "XML"})
+        public DataStoreType target;
+
+        Collection<StoredObject> objects;
+
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setup(final LedgerState ledger) {
+            objects = ledger.engine.getStoredObjects();
+            file = ledger.directory.resolve("copy" + target.getDataStore().getFileExt());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ReadState {
+
+        @Param({"SMALL", "MEDIUM", "LARGE"})
+        public LedgerGenerator.Scale scale;
+
+        @Param({"BINARY_XSTREAM", "H2MV_DATABASE", "SEGMENT", "XML"})
+        public DataStoreType source;
+
+        Path directory;
+
+        String fileName;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("jgnash-benchmark");
+
+            // the ledger is generated in memory and then converted to the file type being read
+            final Path ledger = directory.resolve("ledger" + DataStoreType.BINARY_XSTREAM.getDataStore().getFileExt());
+
+            LedgerGenerator.createLedger(ledger, DataStoreType.BINARY_XSTREAM, scale);
+            EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+            if (source == DataStoreType.BINARY_XSTREAM) {
+                fileName = ledger.toString();
+            } else {
+                fileName = directory.resolve("source" + source.getDataStore().getFileExt()).toString();
+
+                EngineFactory.saveAs(ledger.toString(), fileName, EngineFactory.EMPTY_PASSWORD, value -> { });
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileUtils.deletePathAndContents(directory);
+        }
+    }
+
+    @Benchmark
+    public void write(final WriteState state) {
+        state.target.getDataStore().saveAs(state.file, state.objects, value -> { });
+    }
+
+    @Benchmark
+    public Engine openAndClose(final ReadState state) {
+        final Engine engine = EngineFactory.bootLocalEngine(state.fileName, EngineFactory.DEFAULT,
+                EngineFactory.EMPTY_PASSWORD, state.source);
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        return engine;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import jgnash.convert.importat.DateFormat;
+import jgnash.convert.importat.ofx.OfxBank;
+import jgnash.convert.importat.ofx.OfxV2Parser;
+import jgnash.convert.importat.qif.NoAccountException;
+import jgnash.convert.importat.qif.QifImport;
+import jgnash.convert.importat.qif.QifParser;
+import jgnash.util.FileUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for parsing OFX and QIF files.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImportBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ImportState {
+
+        @Param({"SMALL", "MEDIUM", "LARGE"})
+        public LedgerGenerator.Scale scale;
+
+        Path directory;
+
+        Path ofxV1;
+
+        Path ofxV2;
+
+        Path qif;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("jgnash-benchmark");
+
+            ofxV1 = directory.resolve("statement-v1.ofx");
+            ofxV2 = directory.resolve("statement-v2.ofx");
+            qif = directory.resolve("ledger.qif");
+
+            LedgerGenerator.writeOfx(ofxV1, scale, false);
+            LedgerGenerator.writeOfx(ofxV2, scale, true);
+            LedgerGenerator.writeQif(qif, scale);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileUtils.deletePathAndContents(directory);
+        }
+    }
+
+    @Benchmark
+    public OfxBank parseOfxV1(final ImportState state) throws Exception {
+        return OfxV2Parser.parse(state.ofxV1);
+    }
+
+    @Benchmark
+    public OfxBank parseOfxV2(final ImportState state) throws Exception {
+        return OfxV2Parser.parse(state.ofxV2);
+    }
+
+    @Benchmark
+    public QifParser parseQif(final ImportState state) throws NoAccountException {
+        final QifImport qifImport = new QifImport();
+
+        qifImport.doFullParse(state.qif.toFile(), DateFormat.US);
+
+        return qifImport.getParser();
+    }
+}
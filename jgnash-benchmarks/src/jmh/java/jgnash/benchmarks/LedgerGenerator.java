@@ -0,0 +1,570 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import jgnash.engine.Account;
+import jgnash.engine.AccountType;
+import jgnash.engine.CurrencyNode;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.DefaultCurrencies;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.SecurityHistoryNode;
+import jgnash.engine.SecurityNode;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionFactory;
+import jgnash.engine.budget.Budget;
+import jgnash.engine.budget.BudgetGoal;
+import jgnash.engine.recurring.MonthlyReminder;
+import jgnash.engine.recurring.Reminder;
+import jgnash.engine.recurring.WeeklyReminder;
+import jgnash.time.Period;
+
+/**
+ * Generates synthetic ledgers and import files for benchmarks.
+ * <p>
+ * A fixed seed is used so a given scale always produces the same ledger.  Transactions and security prices span
+ * {@link Scale#days} and end on {@link #END_DATE}.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class LedgerGenerator {
+
+    /**
+     * Size of a generated ledger
+     */
+    public enum Scale {
+        SMALL(12, 1_000, 2, 365, 1, 10),
+        MEDIUM(40, 10_000, 10, 3 * 365, 2, 50),
+        LARGE(120, 50_000, 25, 5 * 365, 4, 200);
+
+        final int accounts;
+
+        final int transactions;
+
+        final int securities;
+
+        final int days;
+
+        final int budgets;
+
+        final int reminders;
+
+        Scale(final int accounts, final int transactions, final int securities, final int days, final int budgets,
+              final int reminders) {
+            this.accounts = accounts;
+            this.transactions = transactions;
+            this.securities = securities;
+            this.days = days;
+            this.budgets = budgets;
+            this.reminders = reminders;
+        }
+
+        public LocalDate getStartDate() {
+            return END_DATE.minusDays(days - 1);
+        }
+    }
+
+    public static final LocalDate END_DATE = LocalDate.of(2019, Month.DECEMBER, 31);
+
+    private static final long SEED = 20191231L;
+
+    private static final String BASE_CURRENCY = "USD";
+
+    private static final String[] CURRENCIES = {"EUR", "GBP", "CAD"};
+
+    /**
+     * Units of each currency per unit of the base currency
+     */
+    private static final String[] RATES = {"0.90", "0.78", "1.31"};
+
+    private static final String[] INCOME = {"Salary", "Interest", "Dividends", "Other Income"};
+
+    private LedgerGenerator() {
+        // utility class
+    }
+
+    /**
+     * Creates a new ledger using the default engine name.  Any existing database is deleted first.
+     *
+     * @param file  file to create
+     * @param type  type of data store to create
+     * @param scale size of the ledger
+     * @return the open engine
+     */
+    public static Engine createLedger(final Path file, final DataStoreType type, final Scale scale) {
+        EngineFactory.deleteDatabase(file.toString());
+
+        final Engine engine = EngineFactory.bootLocalEngine(file.toString(), EngineFactory.DEFAULT,
+                EngineFactory.EMPTY_PASSWORD, type);
+
+        Objects.requireNonNull(engine, "Unable to boot the engine");
+
+        engine.setCreateBackups(false);
+
+        new Builder(engine, scale).build();
+
+        return engine;
+    }
+
+    /**
+     * Writes an OFX bank statement with one transaction per {@link Scale#transactions}.
+     *
+     * @param file  file to write
+     * @param scale size of the statement
+     * @param v2    {@code true} to write an OFX version 2 (XML) file, otherwise an OFX version 1 (SGML) file
+     * @throws IOException thrown if the file could not be written
+     */
+    public static void writeOfx(final Path file, final Scale scale, final boolean v2) throws IOException {
+        final Random random = new Random(SEED);
+        final DateTimeFormatter formatter = DateTimeFormatter.BASIC_ISO_DATE;
+
+        try (final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (v2) {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+                writer.write("<?OFX OFXHEADER=\"200\" VERSION=\"211\" SECURITY=\"NONE\" OLDFILEUID=\"NONE\" "
+                        + "NEWFILEUID=\"NONE\"?>\n");
+            } else {
+                writer.write("OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\nSECURITY:NONE\nENCODING:USASCII\n"
+                        + "CHARSET:1252\nCOMPRESSION:NONE\nOLDFILEUID:NONE\nNEWFILEUID:NONE\n\n");
+            }
+
+            writer.write("<OFX><SIGNONMSGSRSV1><SONRS>\n");
+            writer.write(ofxElement("STATUS", ofxElement("CODE", "0", v2) + ofxElement("SEVERITY", "INFO", v2), true));
+            writer.write(ofxElement("DTSERVER", END_DATE.format(formatter), v2));
+            writer.write(ofxElement("LANGUAGE", "ENG", v2));
+            writer.write("</SONRS></SIGNONMSGSRSV1>\n");
+            writer.write("<BANKMSGSRSV1><STMTTRNRS>\n");
+            writer.write(ofxElement("TRNUID", "0", v2));
+            writer.write(ofxElement("STATUS", ofxElement("CODE", "0", v2) + ofxElement("SEVERITY", "INFO", v2), true));
+            writer.write("<STMTRS>");
+            writer.write(ofxElement("CURDEF", BASE_CURRENCY, v2));
+            writer.write(ofxElement("BANKACCTFROM", ofxElement("BANKID", "100000009", v2)
+                    + ofxElement("ACCTID", "555555-S02", v2) + ofxElement("ACCTTYPE", "CHECKING", v2), true));
+            writer.write("<BANKTRANLIST>");
+            writer.write(ofxElement("DTSTART", scale.getStartDate().format(formatter), v2));
+            writer.write(ofxElement("DTEND", END_DATE.format(formatter), v2));
+            writer.write("\n");
+
+            BigDecimal balance = BigDecimal.ZERO;
+
+            for (int i = 0; i < scale.transactions; i++) {
+                final boolean deposit = random.nextInt(5) == 0;
+                final BigDecimal amount = deposit ? randomAmount(random, 500, 3000) : randomAmount(random, 5, 200).negate();
+
+                balance = balance.add(amount);
+
+                writer.write(ofxElement("STMTTRN", ofxElement("TRNTYPE", deposit ? "CREDIT" : "DEBIT", v2)
+                        + ofxElement("DTPOSTED", randomDate(random, scale).format(formatter), v2)
+                        + ofxElement("TRNAMT", amount.toPlainString(), v2)
+                        + ofxElement("FITID", "FIT" + i, v2)
+                        + ofxElement("NAME", "Payee " + random.nextInt(100), v2)
+                        + ofxElement("MEMO", "Memo " + i, v2), true));
+                writer.write("\n");
+            }
+
+            writer.write("</BANKTRANLIST>\n");
+            writer.write(ofxElement("LEDGERBAL", ofxElement("BALAMT", balance.toPlainString(), v2)
+                    + ofxElement("DTASOF", END_DATE.format(formatter), v2), true));
+            writer.write("</STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n");
+        }
+    }
+
+    private static String ofxElement(final String tag, final String value, final boolean closed) {
+        return "<" + tag + ">" + value + (closed ? "</" + tag + ">" : "");
+    }
+
+    /**
+     * Writes a QIF file with a category list and {@link Scale#accounts} bank accounts sharing
+     * {@link Scale#transactions}.
+     *
+     * @param file  file to write
+     * @param scale size of the file
+     * @throws IOException thrown if the file could not be written
+     */
+    public static void writeQif(final Path file, final Scale scale) throws IOException {
+        final Random random = new Random(SEED);
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+        final int expenseCount = Math.max(4, scale.accounts / 2);
+        final int accountCount = Math.max(2, scale.accounts / 4);
+
+        try (final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("!Type:Cat\n");
+
+            for (final String income : INCOME) {
+                writer.write("N" + income + "\nI\n^\n");
+            }
+
+            for (int i = 0; i < expenseCount; i++) {
+                writer.write("NExpense " + i + "\nE\n^\n");
+            }
+
+            for (int i = 0; i < accountCount; i++) {
+                writer.write("!Account\nNBank " + i + "\nTBank\n^\n!Type:Bank\n");
+
+                for (int j = 0; j < scale.transactions / accountCount; j++) {
+                    final boolean deposit = random.nextInt(5) == 0;
+
+                    writer.write("D" + randomDate(random, scale).format(formatter) + "\n");
+
+                    if (deposit) {
+                        writer.write("T" + randomAmount(random, 500, 3000).toPlainString() + "\n");
+                        writer.write("PPayee " + random.nextInt(100) + "\n");
+                        writer.write("L" + INCOME[random.nextInt(INCOME.length)] + "\n");
+                    } else {
+                        writer.write("T" + randomAmount(random, 5, 200).negate().toPlainString() + "\n");
+                        writer.write("PPayee " + random.nextInt(100) + "\n");
+                        writer.write("LExpense " + random.nextInt(expenseCount) + "\n");
+                    }
+
+                    writer.write("^\n");
+                }
+            }
+        }
+    }
+
+    private static BigDecimal randomAmount(final Random random, final int min, final int max) {
+        return BigDecimal.valueOf(min * 100L + random.nextInt((max - min) * 100), 2);
+    }
+
+    private static LocalDate randomDate(final Random random, final Scale scale) {
+        return scale.getStartDate().plusDays(random.nextInt(scale.days));
+    }
+
+    /**
+     * Populates an engine
+     */
+    private static final class Builder {
+
+        private final Engine engine;
+
+        private final Scale scale;
+
+        private final Random random = new Random(SEED);
+
+        private final Map<CurrencyNode, BigDecimal> rates = new HashMap<>();
+
+        private final List<Account> incomeAccounts = new ArrayList<>();
+
+        private final List<Account> expenseAccounts = new ArrayList<>();
+
+        private final List<Account> bankAccounts = new ArrayList<>();
+
+        private final List<Account> investAccounts = new ArrayList<>();
+
+        private final List<SecurityNode> securities = new ArrayList<>();
+
+        /**
+         * Daily closing prices of each security indexed by days from the start date
+         */
+        private final Map<SecurityNode, BigDecimal[]> prices = new HashMap<>();
+
+        /**
+         * Shares held of each security
+         */
+        private final Map<SecurityNode, BigDecimal> holdings = new HashMap<>();
+
+        private CurrencyNode baseCurrency;
+
+        private Account equityAccount;
+
+        private Account cashAccount;
+
+        Builder(final Engine engine, final Scale scale) {
+            this.engine = engine;
+            this.scale = scale;
+        }
+
+        void build() {
+            buildCurrencies();
+            buildAccounts();
+            buildSecurities();
+            buildTransactions();
+            buildBudgets();
+            buildReminders();
+        }
+
+        private void buildCurrencies() {
+            baseCurrency = DefaultCurrencies.buildCustomNode(BASE_CURRENCY);
+
+            engine.addCurrency(baseCurrency);
+            engine.setDefaultCurrency(baseCurrency);
+
+            rates.put(baseCurrency, BigDecimal.ONE);
+
+            for (int i = 0; i < CURRENCIES.length; i++) {
+                final CurrencyNode node = DefaultCurrencies.buildCustomNode(CURRENCIES[i]);
+                final BigDecimal rate = new BigDecimal(RATES[i]);
+
+                engine.addCurrency(node);
+                rates.put(node, rate);
+
+                // monthly exchange rate history with a small drift
+                for (LocalDate date = scale.getStartDate(); !date.isAfter(END_DATE); date = date.plusMonths(1)) {
+                    final BigDecimal drift = BigDecimal.valueOf(random.nextInt(200) - 100, 4);
+
+                    engine.setExchangeRate(baseCurrency, node, rate.add(drift), date);
+                }
+            }
+        }
+
+        private void buildAccounts() {
+            final Account root = engine.getRootAccount();
+
+            equityAccount = addAccount(root, AccountType.EQUITY, baseCurrency, "Opening Balances");
+
+            final Account incomeParent = addAccount(root, AccountType.INCOME, baseCurrency, "Income");
+
+            for (final String income : INCOME) {
+                incomeAccounts.add(addAccount(incomeParent, AccountType.INCOME, baseCurrency, income));
+            }
+
+            final Account expenseParent = addAccount(root, AccountType.EXPENSE, baseCurrency, "Expenses");
+
+            Account expenseGroup = expenseParent;
+
+            for (int i = 0; i < Math.max(4, scale.accounts / 2); i++) {
+                if (i % 5 == 0) {
+                    expenseGroup = addAccount(expenseParent, AccountType.EXPENSE, baseCurrency, "Expense Group " + i / 5);
+                }
+
+                expenseAccounts.add(addAccount(expenseGroup, AccountType.EXPENSE, baseCurrency, "Expense " + i));
+            }
+
+            final List<CurrencyNode> currencies = new ArrayList<>(engine.getCurrencies());
+            currencies.remove(baseCurrency);
+            currencies.add(0, baseCurrency);
+
+            final Account bankParent = addAccount(root, AccountType.ASSET, baseCurrency, "Banks");
+
+            for (int i = 0; i < Math.max(2, scale.accounts / 4); i++) {
+                final CurrencyNode currency = currencies.get(i % currencies.size());
+                final AccountType type = i % 2 == 0 ? AccountType.CHECKING : AccountType.BANK;
+
+                bankAccounts.add(addAccount(bankParent, type, currency, "Bank " + i + " " + currency.getSymbol()));
+            }
+
+            cashAccount = bankAccounts.get(0);    // always in the base currency
+
+            for (int i = 0; i < Math.max(1, scale.securities / 5); i++) {
+                investAccounts.add(addAccount(root, AccountType.INVEST, baseCurrency, "Brokerage " + i));
+            }
+        }
+
+        private Account addAccount(final Account parent, final AccountType type, final CurrencyNode currency,
+                                   final String name) {
+            final Account account = new Account(type, currency);
+            account.setName(name);
+
+            engine.addAccount(parent, account);
+
+            return account;
+        }
+
+        private void buildSecurities() {
+            final LocalDate startDate = scale.getStartDate();
+
+            for (int i = 0; i < scale.securities; i++) {
+                final SecurityNode node = new SecurityNode(baseCurrency);
+
+                node.setSymbol("SEC" + i);
+                node.setDescription("Security " + i);
+                node.setScale((byte) 2);
+
+                engine.addSecurity(node);
+                engine.addAccountSecurity(investAccounts.get(i % investAccounts.size()), node);
+
+                final BigDecimal[] history = new BigDecimal[scale.days];
+                final List<SecurityHistoryNode> historyNodes = new ArrayList<>();
+                BigDecimal price = BigDecimal.valueOf(10 + random.nextInt(90));
+
+                // random walk of daily prices, markets are closed on weekends
+                for (int day = 0; day < scale.days; day++) {
+                    final LocalDate date = startDate.plusDays(day);
+
+                    if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                        final BigDecimal change = price.multiply(BigDecimal.valueOf(random.nextInt(41) - 20, 3));
+
+                        price = price.add(change).max(BigDecimal.ONE).setScale(2, RoundingMode.HALF_EVEN);
+
+                        historyNodes.add(new SecurityHistoryNode(date, price, 1000 + random.nextInt(100_000),
+                                price.add(BigDecimal.ONE), price.subtract(BigDecimal.ONE)));
+                    }
+
+                    history[day] = price;
+                }
+
+                engine.addSecurityHistory(node, historyNodes);
+
+                securities.add(node);
+                prices.put(node, history);
+                holdings.put(node, BigDecimal.ZERO);
+            }
+        }
+
+        private void buildTransactions() {
+            final LocalDate startDate = scale.getStartDate();
+
+            for (final Account account : bankAccounts) {
+                engine.addTransaction(transfer(account, equityAccount, BigDecimal.valueOf(10_000), startDate,
+                        "Opening Balance"));
+            }
+
+            for (int i = 0; i < scale.transactions; i++) {
+                final LocalDate date = randomDate(random, scale);
+                final int kind = random.nextInt(10);
+
+                if (kind < 2) {
+                    engine.addTransaction(transfer(randomElement(bankAccounts), randomElement(incomeAccounts),
+                            randomAmount(random, 500, 3000), date, "Deposit " + i));
+                } else if (kind < 8 || securities.isEmpty()) {
+                    engine.addTransaction(transfer(randomElement(expenseAccounts), randomElement(bankAccounts),
+                            randomAmount(random, 5, 200), date, "Expense " + i));
+                } else if (kind == 8) {
+                    final Account credit = randomElement(bankAccounts);
+                    final Account debit = randomElement(bankAccounts);
+
+                    if (credit != debit) {
+                        engine.addTransaction(transfer(credit, debit, randomAmount(random, 50, 500), date,
+                                "Transfer " + i));
+                    }
+                } else {
+                    addInvestmentTransaction(date, i);
+                }
+            }
+        }
+
+        private void addInvestmentTransaction(final LocalDate date, final int index) {
+            final SecurityNode node = randomElement(securities);
+            final Account account = investAccounts.get(securities.indexOf(node) % investAccounts.size());
+            final BigDecimal price = prices.get(node)[(int) (date.toEpochDay() - scale.getStartDate().toEpochDay())];
+            final BigDecimal held = holdings.get(node);
+            final BigDecimal quantity = BigDecimal.valueOf(1 + random.nextInt(20));
+
+            // sell a third of the time if enough shares are held, otherwise buy
+            if (random.nextInt(3) == 0 && held.compareTo(quantity) >= 0) {
+                engine.addTransaction(TransactionFactory.generateSellXTransaction(cashAccount, account, node, price,
+                        quantity, BigDecimal.ONE, date, "Sell " + index, Collections.emptyList(),
+                        Collections.emptyList()));
+
+                holdings.put(node, held.subtract(quantity));
+            } else {
+                engine.addTransaction(TransactionFactory.generateBuyXTransaction(cashAccount, account, node, price,
+                        quantity, BigDecimal.ONE, date, "Buy " + index, Collections.emptyList()));
+
+                holdings.put(node, held.add(quantity));
+            }
+        }
+
+        /**
+         * Generates a transaction from the debit account to the credit account, converting the amount if the
+         * account currencies differ.
+         *
+         * @param creditAccount account receiving the funds
+         * @param debitAccount  account providing the funds
+         * @param amount        amount in the base currency
+         * @param date          transaction date
+         * @param memo          transaction memo
+         * @return new transaction
+         */
+        private Transaction transfer(final Account creditAccount, final Account debitAccount, final BigDecimal amount,
+                                     final LocalDate date, final String memo) {
+            final BigDecimal creditAmount = exchange(amount, creditAccount.getCurrencyNode());
+            final BigDecimal debitAmount = exchange(amount, debitAccount.getCurrencyNode());
+
+            if (creditAccount.getCurrencyNode().equals(debitAccount.getCurrencyNode())) {
+                return TransactionFactory.generateDoubleEntryTransaction(creditAccount, debitAccount, creditAmount,
+                        date, memo, "Payee " + random.nextInt(100), "");
+            }
+
+            return TransactionFactory.generateDoubleEntryTransaction(creditAccount, debitAccount, creditAmount,
+                    debitAmount.negate(), date, memo, "Payee " + random.nextInt(100), "");
+        }
+
+        private BigDecimal exchange(final BigDecimal amount, final CurrencyNode node) {
+            return amount.multiply(rates.get(node)).setScale(node.getScale(), RoundingMode.HALF_EVEN);
+        }
+
+        private <T> T randomElement(final List<T> list) {
+            return list.get(random.nextInt(list.size()));
+        }
+
+        private void buildBudgets() {
+            for (int i = 0; i < scale.budgets; i++) {
+                final Budget budget = new Budget();
+
+                budget.setName("Budget " + i);
+                budget.setDescription("Generated Budget " + i);
+                budget.setBudgetPeriod(i % 2 == 0 ? Period.MONTHLY : Period.WEEKLY);
+
+                for (final Account account : expenseAccounts) {
+                    final BigDecimal[] goals = new BigDecimal[BudgetGoal.PERIODS];
+
+                    for (int j = 0; j < goals.length; j++) {
+                        goals[j] = randomAmount(random, 1, 10);
+                    }
+
+                    final BudgetGoal goal = new BudgetGoal();
+
+                    goal.setGoals(goals);
+                    goal.setBudgetPeriod(Period.DAILY);
+
+                    budget.setBudgetGoal(account, goal);
+                }
+
+                engine.addBudget(budget);
+            }
+        }
+
+        private void buildReminders() {
+            for (int i = 0; i < scale.reminders; i++) {
+                final Reminder reminder = i % 2 == 0 ? new MonthlyReminder() : new WeeklyReminder();
+                final Account account = randomElement(bankAccounts);
+
+                reminder.setDescription("Reminder " + i);
+                reminder.setStartDate(randomDate(random, scale));
+                reminder.setIncrement(1);
+                reminder.setAccount(account);
+                reminder.setTransaction(transfer(randomElement(expenseAccounts), account,
+                        randomAmount(random, 20, 500), reminder.getStartDate(), "Reminder " + i));
+
+                engine.addReminder(reminder);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.util.FileUtils;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark state holding an open engine with a generated ledger.  The ledger is generated once per trial.
+ *
+ * @author Craig Cavanaugh
+ */
+@State(Scope.Benchmark)
+public class LedgerState {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public LedgerGenerator.Scale scale;
+
+    @Param({"BINARY_XSTREAM"})
+    public DataStoreType type;
+
+    public Engine engine;
+
+    Path directory;
+
+    @Setup(Level.Trial)
+    public void createLedger() throws IOException {
+        directory = Files.createTempDirectory("jgnash-benchmark");
+
+        engine = LedgerGenerator.createLedger(directory.resolve("ledger" + type.getDataStore().getFileExt()), type,
+                scale);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeLedger() throws IOException {
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        FileUtils.deletePathAndContents(directory);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jgnash.engine.Account;
+import jgnash.engine.AccountGroup;
+import jgnash.engine.InvestmentPerformanceSummary;
+import jgnash.engine.budget.BudgetPeriodDescriptor;
+import jgnash.engine.budget.BudgetResultsModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for budget results and investment performance calculations.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReportBenchmark {
+
+    /**
+     * Builds a new budget model and calculates the results of every account and account group for each period,
+     * which is the work performed when the budget view is opened or the cached results are cleared.
+     */
+    @Benchmark
+    public void budgetResults(final LedgerState ledger, final Blackhole blackhole) {
+        final BudgetResultsModel model = new BudgetResultsModel(ledger.engine.getBudgetList().get(0),
+                LedgerGenerator.END_DATE.getYear(), ledger.engine.getDefaultCurrency(), false);
+
+        for (final BudgetPeriodDescriptor descriptor : model.getDescriptorList()) {
+            for (final Account account : model.getAccounts()) {
+                blackhole.consume(model.getResults(descriptor, account));
+            }
+
+            for (final AccountGroup group : model.getAccountGroupList()) {
+                blackhole.consume(model.getResults(descriptor, group));
+            }
+        }
+    }
+
+    @Benchmark
+    public void investmentPerformance(final LedgerState ledger, final Blackhole blackhole) {
+        for (final Account account : ledger.engine.getInvestmentAccountList()) {
+            final InvestmentPerformanceSummary summary = new InvestmentPerformanceSummary(account,
+                    ledger.scale.getStartDate(), LedgerGenerator.END_DATE, false);
+
+            summary.runCalculations();
+
+            blackhole.consume(summary);
+        }
+    }
+}
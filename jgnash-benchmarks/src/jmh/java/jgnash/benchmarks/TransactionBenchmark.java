@@ -0,0 +1,95 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jgnash.engine.Account;
+import jgnash.engine.Engine;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for adding transactions to an engine.  Transactions added during an iteration are removed after
+ * the iteration so the size of the ledger remains stable.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TransactionState {
+
+        final List<Transaction> added = new ArrayList<>();
+
+        Engine engine;
+
+        Account bankAccount;
+
+        Account expenseAccount;
+
+        LocalDate startDate;
+
+        int days;
+
+        @Setup(Level.Trial)
+        public void setup(final LedgerState ledger) {
+            engine = ledger.engine;
+            bankAccount = engine.getAccountByName("Banks").getChildren().get(0);
+            expenseAccount = engine.getAccountByName("Expense 0");
+            startDate = ledger.scale.getStartDate();
+            days = ledger.scale.days;
+        }
+
+        @TearDown(Level.Iteration)
+        public void removeTransactions() {
+            for (final Transaction transaction : added) {
+                engine.removeTransaction(transaction);
+            }
+
+            added.clear();
+        }
+    }
+
+    @Benchmark
+    public boolean addTransaction(final TransactionState state) {
+        final Transaction transaction = TransactionFactory.generateDoubleEntryTransaction(state.expenseAccount,
+                state.bankAccount, BigDecimal.TEN, state.startDate.plusDays(state.added.size() % state.days),
+                "Benchmark", "", "");
+
+        state.added.add(transaction);
+
+        return state.engine.addTransaction(transaction);
+    }
+}
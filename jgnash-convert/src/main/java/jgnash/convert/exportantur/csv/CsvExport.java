@@ -33,6 +33,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jgnash.engine.Account;
+import jgnash.engine.EngineSnapshot;
 import jgnash.engine.ReconciledState;
 import jgnash.engine.Transaction;
 import jgnash.time.DateUtils;
@@ -52,7 +53,19 @@ public class CsvExport {
     private CsvExport() {
     }
 
-    public static void exportAccount(final Account account, final LocalDate startDate, final LocalDate endDate, final File file) {
+    /**
+     * Exports the transactions of an account.  The transactions are read from the supplied snapshot so edits are not
+     * blocked while the file is written.
+     *
+     * @param snapshot  snapshot of the engine to export from
+     * @param account   account to export
+     * @param startDate first transaction date to include
+     * @param endDate   last transaction date to include
+     * @param file      destination file, the extension is forced to csv
+     */
+    public static void exportAccount(final EngineSnapshot snapshot, final Account account, final LocalDate startDate,
+                                     final LocalDate endDate, final File file) {
+        Objects.requireNonNull(snapshot);
         Objects.requireNonNull(account);
         Objects.requireNonNull(startDate);
         Objects.requireNonNull(endDate);
@@ -72,14 +85,17 @@ public class CsvExport {
             writer.printRecord("Account", "Number", "Debit", "Credit", "Balance", "Date", "Timestamp",
                     "Memo", "Payee", "Reconciled");
 
-            // write the transactions
-            final List<Transaction> transactions = account.getTransactions(startDate, endDate);
+            final List<Transaction> transactions = snapshot.getTransactions(account, startDate, endDate);
+
+            final BigDecimal[] balances = snapshot.getRunningBalances(account, transactions);
 
             final DateTimeFormatter dateTimeFormatter = DateUtils.getExcelDateFormatter();
 
             final DateTimeFormatter timestampFormatter = DateUtils.getExcelTimestampFormatter();
 
-            for (final Transaction transaction : transactions) {
+            for (int i = 0; i < transactions.size(); i++) {
+                final Transaction transaction = transactions.get(i);
+
                 final String date = dateTimeFormatter.format(transaction.getLocalDate());
 
                 final String timeStamp = timestampFormatter.format(transaction.getTimestamp());
@@ -90,7 +106,7 @@ public class CsvExport {
                 final String debit = transaction.getAmount(account).compareTo(BigDecimal.ZERO) > 0 ? ""
                         : transaction.getAmount(account).abs().toPlainString();
 
-                final String balance = account.getBalanceAt(transaction).toPlainString();
+                final String balance = balances[i].toPlainString();
 
                 final String reconciled = transaction.getReconciled(account) == ReconciledState.NOT_RECONCILED
                         ? Boolean.FALSE.toString() : Boolean.TRUE.toString();
@@ -199,14 +199,14 @@ public class OfxExport implements OfxTags {
      * Writes all bank account transactions within the date range
      */
     private void writeBankTransactions() {
-        account.getTransactions(startDate, endDate).forEach(this::writeBankTransaction);
+        account.getTransactionRange(startDate, endDate).forEach(this::writeBankTransaction);
     }
 
     /**
      * Writes all investment account transactions within the date range
      */
     private void writeInvestmentTransactions() {
-        for (final Transaction transaction : account.getTransactions(startDate, endDate)) {
+        for (final Transaction transaction : account.getTransactionRange(startDate, endDate)) {
             if (transaction instanceof InvestmentTransaction) {
                 final InvestmentTransaction invTransaction = (InvestmentTransaction) transaction;
 
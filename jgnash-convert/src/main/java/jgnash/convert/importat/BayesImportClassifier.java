@@ -22,6 +22,7 @@ import java.util.Set;
 
 import jgnash.bayes.BayesClassifier;
 import jgnash.engine.Account;
+import jgnash.engine.EngineFactory;
 import jgnash.engine.Transaction;
 import jgnash.engine.TransactionType;
 
@@ -38,27 +39,58 @@ public class BayesImportClassifier {
     private BayesImportClassifier() {
     }
 
+    /**
+     * Classifies transactions against a classifier trained with the supplied transactions.
+     *
+     * @param list import transactions to classify
+     * @param transactions transactions to train with
+     * @param baseAccount account being imported into
+     */
     public static void classifyTransactions(final List<? extends ImportTransaction> list,
                                             final List<Transaction> transactions, final Account baseAccount) {
 
         final BayesClassifier<Account> classifier = generateClassifier(transactions, baseAccount);
 
         for (final ImportTransaction transaction : list) {
-            final StringBuilder builder = new StringBuilder();
-
-            builder.append(transaction.getPayee()).append(" ");
 
-            if (transaction.getMemo() != null) {
-                builder.append(transaction.getMemo());
+            // reinvested dividends do not have a cash account
+            if (transaction.getTransactionType() != TransactionType.REINVESTDIV) {
+                transaction.setAccount(classifier.classify(getDescription(transaction)));
             }
+        }
+    }
+
+    /**
+     * Classifies transactions against the persistent model trained with all transactions in the default engine.
+     *
+     * @param list import transactions to classify
+     * @param baseAccount account being imported into
+     * @see BayesImportModel
+     */
+    public static void classifyTransactions(final List<? extends ImportTransaction> list, final Account baseAccount) {
+        final BayesImportModel model = BayesImportModel.getModel(EngineFactory.DEFAULT);
+
+        for (final ImportTransaction transaction : list) {
 
             // reinvested dividends do not have a cash account
             if (transaction.getTransactionType() != TransactionType.REINVESTDIV) {
-                transaction.setAccount(classifier.classify(builder.toString()));
+                transaction.setAccount(model.classify(getDescription(transaction), baseAccount));
             }
         }
     }
 
+    private static String getDescription(final ImportTransaction transaction) {
+        final StringBuilder builder = new StringBuilder();
+
+        builder.append(transaction.getPayee()).append(" ");
+
+        if (transaction.getMemo() != null) {
+            builder.append(transaction.getMemo());
+        }
+
+        return builder.toString();
+    }
+
     private static BayesClassifier<Account> generateClassifier(List<Transaction> transactions,
                                                                final Account baseAccount) {
 
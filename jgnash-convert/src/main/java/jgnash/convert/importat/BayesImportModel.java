@@ -0,0 +1,329 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.convert.importat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jgnash.bayes.BayesClassifier;
+import jgnash.engine.Account;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.Transaction;
+import jgnash.engine.message.Message;
+import jgnash.engine.message.MessageBus;
+import jgnash.engine.message.MessageChannel;
+import jgnash.engine.message.MessageListener;
+import jgnash.engine.message.MessageProperty;
+import jgnash.util.FileUtils;
+import jgnash.util.NotNull;
+
+/**
+ * Persistent Bayes classifier trained against every transaction in an {@code Engine}.
+ * <p>
+ * The model is trained once and then kept current by listening for transaction events.  For local files, the model
+ * is saved alongside the data file when the file is closed and reloaded the next time it is needed.  A saved model is
+ * only reused if its fingerprint of the trained transactions, accounts, payees and memos matches the file.
+ *
+ * @author Craig Cavanaugh
+ */
+public class BayesImportModel implements MessageListener {
+
+    private static final String FILE_EXT = ".bayes";
+
+    private static final Logger logger = Logger.getLogger(BayesImportModel.class.getName());
+
+    /**
+     * Active models by engine name.  Holds a strong reference because the {@code MessageBus} does not
+     */
+    private static final Map<String, BayesImportModel> modelMap = new HashMap<>();
+
+    private final String engineName;
+
+    private final Path modelPath;
+
+    private BayesClassifier<Account> classifier;
+
+    /**
+     * The number of transaction and account pairs that have been trained.
+     */
+    private long trainedCount;
+
+    /**
+     * Order independent sum of the fingerprints of the trained transaction and account pairs.
+     */
+    private long trainedFingerprint;
+
+    private boolean dirty;
+
+    /**
+     * Transaction messages received while the model is trained or loaded, {@code null} once the model is current.
+     */
+    private List<Message> pendingMessages = new ArrayList<>();
+
+    private BayesImportModel(final Engine engine, final String engineName) {
+        this.engineName = engineName;
+
+        final String database = EngineFactory.getActiveDatabase();
+
+        if (database != null && !database.startsWith(EngineFactory.REMOTE_PREFIX)) {
+            modelPath = Paths.get(FileUtils.stripFileExtension(database) + FILE_EXT);
+        } else {
+            modelPath = null;
+        }
+
+        // listen first so changes made while the model is trained are not missed
+        MessageBus.getInstance(engineName).registerListener(this, MessageChannel.SYSTEM, MessageChannel.TRANSACTION);
+
+        final List<Transaction> transactions = engine.getTransactions();
+
+        synchronized (this) {
+            long expectedCount = 0;
+            long expectedFingerprint = 0;
+
+            for (final Transaction transaction : transactions) {
+                for (final Account account : transaction.getAccounts()) {
+                    expectedCount++;
+                    expectedFingerprint += fingerprint(transaction, account);
+                }
+            }
+
+            if (!load(engine, expectedCount, expectedFingerprint)) {
+                train(transactions);
+            }
+
+            replayPendingMessages(transactions);
+        }
+    }
+
+    /**
+     * Returns the model for the given engine, training or loading it as needed.
+     *
+     * @param engineName engine identifier
+     * @return the model
+     */
+    public static synchronized BayesImportModel getModel(@NotNull final String engineName) {
+        final Engine engine = EngineFactory.getEngine(engineName);
+        Objects.requireNonNull(engine);
+
+        return modelMap.computeIfAbsent(engineName, k -> new BayesImportModel(engine, engineName));
+    }
+
+    /**
+     * Returns the best account match for an import description.
+     *
+     * @param item description to classify
+     * @param baseAccount account being imported into, returned if a match is not determinate
+     * @return best possible match
+     */
+    public synchronized Account classify(final String item, final Account baseAccount) {
+        return classifier.classify(item, baseAccount);
+    }
+
+    private boolean load(final Engine engine, final long expectedCount, final long expectedFingerprint) {
+        if (modelPath == null || !Files.isReadable(modelPath)) {
+            return false;
+        }
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(modelPath)))) {
+            if (in.readLong() != expectedCount || in.readLong() != expectedFingerprint) {
+                logger.info("Bayes model is stale and will be retrained");
+                return false;
+            }
+
+            classifier = BayesClassifier.read(in, null, key -> engine.getAccountByUuid(UUID.fromString(key)));
+            trainedCount = expectedCount;
+            trainedFingerprint = expectedFingerprint;
+
+            return true;
+        } catch (final IOException | IllegalArgumentException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+            return false;
+        }
+    }
+
+    private void train(final List<Transaction> transactions) {
+        classifier = new BayesClassifier<>(null);
+        trainedCount = 0;
+        trainedFingerprint = 0;
+
+        for (final Transaction transaction : transactions) {
+            for (final Account account : transaction.getAccounts()) {
+                train(transaction, account);
+            }
+        }
+
+        dirty = true;
+    }
+
+    private void train(final Transaction transaction, final Account account) {
+        if (!transaction.getPayee().isEmpty()) {
+            classifier.train(transaction.getPayee(), account);
+        }
+
+        if (!transaction.getMemo().isEmpty()) {
+            classifier.train(transaction.getMemo(), account);
+        }
+
+        trainedCount++;
+        trainedFingerprint += fingerprint(transaction, account);
+    }
+
+    private void untrain(final Transaction transaction, final Account account) {
+        if (!transaction.getPayee().isEmpty()) {
+            classifier.untrain(transaction.getPayee(), account);
+        }
+
+        if (!transaction.getMemo().isEmpty()) {
+            classifier.untrain(transaction.getMemo(), account);
+        }
+
+        trainedCount--;
+        trainedFingerprint -= fingerprint(transaction, account);
+    }
+
+    /**
+     * Applies the messages received while the model was trained or loaded.  A transaction that was already part of
+     * the trained transactions is not trained again, and a removed transaction is only untrained if it was trained.
+     *
+     * @param transactions the transactions the model was trained or loaded with
+     */
+    private void replayPendingMessages(final List<Transaction> transactions) {
+        final Set<Transaction> trained = new HashSet<>(transactions);
+        final Set<Transaction> added = new HashSet<>();
+
+        for (final Message message : pendingMessages) {
+            final Transaction transaction = message.getObject(MessageProperty.TRANSACTION);
+            final Account account = message.getObject(MessageProperty.ACCOUNT);
+
+            switch (message.getEvent()) {
+                case TRANSACTION_ADD:
+                    if (!trained.contains(transaction)) {
+                        train(transaction, account);
+                        added.add(transaction);
+                        dirty = true;
+                    }
+                    break;
+                case TRANSACTION_REMOVE:
+                    if (trained.contains(transaction) || added.contains(transaction)) {
+                        untrain(transaction, account);
+                        dirty = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        pendingMessages = null;
+    }
+
+    /**
+     * Returns a well mixed fingerprint of a trained transaction and account pair.
+     */
+    private static long fingerprint(final Transaction transaction, final Account account) {
+        long hash = transaction.getUuid().getMostSignificantBits();
+
+        hash = hash * 31 + transaction.getUuid().getLeastSignificantBits();
+        hash = hash * 31 + account.getUuid().getMostSignificantBits();
+        hash = hash * 31 + account.getUuid().getLeastSignificantBits();
+        hash = hash * 31 + transaction.getPayee().hashCode();
+        hash = hash * 31 + transaction.getMemo().hashCode();
+
+        // 64 bit finalizer so the order independent sum of fingerprints remains sensitive to every pair
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    private void save() {
+        if (modelPath == null || !dirty) {
+            return;
+        }
+
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(modelPath)))) {
+            out.writeLong(trainedCount);
+            out.writeLong(trainedFingerprint);
+            classifier.write(out, account -> account.getUuid().toString());
+            dirty = false;
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+        }
+    }
+
+    @Override
+    public void messagePosted(final Message message) {
+        switch (message.getEvent()) {
+            case TRANSACTION_ADD:
+                synchronized (this) {
+                    if (pendingMessages != null) {
+                        pendingMessages.add(message);
+                        break;
+                    }
+
+                    train(message.getObject(MessageProperty.TRANSACTION), message.getObject(MessageProperty.ACCOUNT));
+                    dirty = true;
+                }
+                break;
+            case TRANSACTION_REMOVE:
+                synchronized (this) {
+                    if (pendingMessages != null) {
+                        pendingMessages.add(message);
+                        break;
+                    }
+
+                    untrain(message.getObject(MessageProperty.TRANSACTION), message.getObject(MessageProperty.ACCOUNT));
+                    dirty = true;
+                }
+                break;
+            case FILE_CLOSING:
+                MessageBus.getInstance(engineName).unregisterListener(this, MessageChannel.SYSTEM, MessageChannel.TRANSACTION);
+
+                synchronized (BayesImportModel.class) {
+                    modelMap.remove(engineName);
+                }
+
+                synchronized (this) {
+                    save();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -17,31 +17,37 @@
  */
 package jgnash.convert.importat.ofx;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+
 import jgnash.util.FileMagic;
 
 import static jgnash.util.LogUtil.logSevere;
+import static jgnash.convert.importat.ofx.Sanitize.joinLines;
 import static jgnash.convert.importat.ofx.Sanitize.sanitize;
 
 /**
  * Utility class to convert OFX version 1 (SGML) to OFX version 2 (XML)
+ * <p>
+ * Conversion is streamed.  A first pass over the file collects the names of elements that are explicitly closed and
+ * a second pass inserts the missing end tags as the file is read.
  *
  * @author Craig Cavanaugh
  */
 class OfxV1ToV2 {
 
-    private static final int READ_AHEAD_LIMIT = 2048;
+    private static final int BUFFER_SIZE = 8192;
 
     /*
     public static void main(final String[] args) {
@@ -60,58 +66,122 @@ class OfxV1ToV2 {
     }*/
 
     static String convertToXML(final Path path) {
-        String encoding = FileMagic.getOfxV1Encoding(path);
-
-        Logger.getLogger(OfxV1ToV2.class.getName()).log(Level.INFO, "OFX Version 1 file encoding was {0}", encoding);
-
-        return convertSgmlToXML(readFile(path, encoding));
+        try (final Reader reader = openXMLReader(path)) {
+            return readFully(reader);
+        } catch (final IOException e) {
+            logSevere(OfxV1ToV2.class, e);
+            return "";
+        }
     }
 
     static String convertToXML(final InputStream stream) {
-        return convertSgmlToXML(readFile(stream, System.getProperty("file.encoding")));
+        if (stream == null) {
+            logSevere(OfxV1ToV2.class, "InputStream was null");
+            return null;
+        }
+
+        try {
+            final String sgml = readFully(new InputStreamReader(stream, System.getProperty("file.encoding")));
+
+            try (final Reader reader = openXMLReader(new StringReader(sgml), collectEndTags(new StringReader(sgml)))) {
+                return readFully(reader);
+            }
+        } catch (final IOException e) {
+            logSevere(OfxV1ToV2.class, e);
+            return "";
+        }
     }
 
-    private static String convertSgmlToXML(final String sgml) {
-        StringBuilder xml = new StringBuilder(sgml);
+    /**
+     * Opens a {@code Reader} that returns sanitized OFX version 2 (XML) for an OFX version 1 file.  The file header is
+     * skipped.
+     *
+     * @param path OFX version 1 file
+     * @return Reader returning XML.  The caller is responsible for closing it
+     * @throws IOException thrown if IO error occurs
+     */
+    static Reader openXMLReader(final Path path) throws IOException {
+        final Charset charset = Charset.forName(FileMagic.getOfxV1Encoding(path));
 
-        int readPos = 0;
-        int tagEnd = 0;
+        Logger.getLogger(OfxV1ToV2.class.getName()).log(Level.INFO, "OFX Version 1 file encoding was {0}", charset);
 
-        while (readPos < xml.length() && readPos != -1) {
-            String tag;
+        final Set<String> endTags;
 
-            readPos = xml.indexOf("<", tagEnd);
+        try (final Reader reader = newReader(path, charset)) {
+            endTags = collectEndTags(reader);
+        }
 
-            if (readPos != -1) {
-                tagEnd = xml.indexOf(">", readPos);
+        return openXMLReader(newReader(path, charset), endTags);
+    }
 
-                if (tagEnd != -1) {
-                    tag = xml.substring(readPos + 1, tagEnd);
+    /**
+     * Opens a lenient {@code Reader}.  Banks often declare a charset that does not match the file, so malformed input
+     * is replaced instead of failing the import.
+     *
+     * @param path    file to read
+     * @param charset declared charset
+     * @return Reader for the file
+     * @throws IOException thrown if IO error occurs
+     */
+    private static Reader newReader(final Path path, final Charset charset) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(path), charset), BUFFER_SIZE);
+    }
 
-                    if (!tag.startsWith("/")) {
-                        if (xml.indexOf("</" + tag + ">", tagEnd) == -1) {
+    private static Reader openXMLReader(final Reader sgml, final Set<String> endTags) throws IOException {
+        final BufferedReader reader = new BufferedReader(sgml, BUFFER_SIZE);
 
-                            readPos = xml.indexOf("<", tagEnd);
-                            xml.insert(readPos, "</" + tag + ">");
-                        }
-                    }
-                } else {
-                    readPos = -1;
-                }
-            }
+        consumeHeader(reader);
+
+        return sanitize(new SgmlToXmlReader(joinLines(reader, true), endTags));
+    }
+
+    private static String readFully(final Reader reader) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        final char[] buffer = new char[BUFFER_SIZE];
+        int count;
+
+        while ((count = reader.read(buffer)) >= 0) {
+            builder.append(buffer, 0, count);
         }
 
-        return sanitize(xml.toString());
+        return builder.toString();
     }
 
-    private static String concat(final Collection<String> strings) {
-        StringBuilder b = new StringBuilder();
+    /**
+     * Scans the SGML for the names of all elements that are explicitly closed.
+     *
+     * @param reader SGML source
+     * @return names of closed elements
+     * @throws IOException thrown if IO error occurs
+     */
+    private static Set<String> collectEndTags(final Reader reader) throws IOException {
+        final Set<String> endTags = new HashSet<>();
+        final BufferedReader bufferedReader = new BufferedReader(reader, BUFFER_SIZE);
+        final StringBuilder name = new StringBuilder();
+
+        boolean inEndTag = false;
+        int previous = 0;
+        int c;
+
+        while ((c = bufferedReader.read()) >= 0) {
+            if (inEndTag) {
+                if (c == '>') {
+                    endTags.add(name.toString());
+                    inEndTag = false;
+                } else if (c == '<') {
+                    inEndTag = false;
+                } else {
+                    name.append((char) c);
+                }
+            } else if (previous == '<' && c == '/') {
+                name.setLength(0);
+                inEndTag = true;
+            }
 
-        for (String s : strings) {
-            b.append(s.trim());
+            previous = c;
         }
 
-        return b.toString();
+        return endTags;
     }
 
     /**
@@ -126,7 +196,7 @@ class OfxV1ToV2 {
         Logger logger = Logger.getLogger(OfxV1ToV2.class.getName());
 
         while (true) {
-            reader.mark(READ_AHEAD_LIMIT);
+            reader.mark(1);
 
             int character = reader.read();
 
@@ -143,52 +213,101 @@ class OfxV1ToV2 {
     }
 
     /**
-     * Reads a file, strips the header and reads the SGML content into one large
-     * string
-     *
-     * @param stream input stream
-     * @param characterSet assumed character set for the file being converted
-     * @return a String with the SGML content and header removed
+     * Inserts missing end tags into joined SGML.
+     * <p>
+     * An element with content is closed before the next tag unless the next tag closes it.  An element without
+     * content is an aggregate and left alone unless the element is never explicitly closed in the file.
      */
-    private static String readFile(final InputStream stream, final String characterSet) {
+    private static class SgmlToXmlReader extends TransformingReader {
 
-        if (stream == null) {
-            logSevere(OfxV1ToV2.class, "InputStream was null");
-            return null;
+        private final Set<String> endTags;
+
+        private final StringBuilder content = new StringBuilder();
+
+        /**
+         * Tag read ahead while deciding if the previous element must be closed.
+         */
+        private String nextTag;
+
+        SgmlToXmlReader(final Reader in, final Set<String> endTags) {
+            super(in);
+            this.endTags = endTags;
         }
 
-        List<String> strings = new ArrayList<>();
+        @Override
+        boolean fill(final StringBuilder out) throws IOException {
+            final String tag = nextTag != null ? nextTag : readTag();
+            nextTag = null;
+
+            if (tag == null) {
+                return readContent(out);
+            }
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, characterSet))) {
-            // consume the Ofx1 header
-            consumeHeader(reader);
+            out.append('<').append(tag).append('>');
 
-            String line = reader.readLine();
+            if (tag.startsWith("/") || tag.startsWith("?") || tag.startsWith("!")) {
+                return true;
+            }
 
-            while (line != null) {
+            content.setLength(0);
+            readContent(content);
+            out.append(content);
 
-                line = line.trim();
+            nextTag = readTag();
 
-                if (!line.isEmpty()) {
-                    strings.add(line);
+            if (!("/" + tag).equals(nextTag)) {
+                if (!content.toString().isBlank() || !endTags.contains(tag)) {
+                    out.append("</").append(tag).append('>');
                 }
+            }
+
+            return true;
+        }
 
-                line = reader.readLine();
+        /**
+         * Reads the next tag name if the stream is positioned at a tag.
+         *
+         * @return the tag name without brackets, or {@code null} if not at a tag
+         */
+        private String readTag() throws IOException {
+            final int c = in.read();
+
+            if (c != '<') {
+                if (c >= 0) {
+                    in.unread(c);
+                }
+                return null;
             }
-        } catch (final IOException e) {
-            logSevere(OfxV1ToV2.class, e);
+
+            final StringBuilder tag = new StringBuilder();
+            int next;
+
+            while ((next = in.read()) >= 0 && next != '>') {
+                tag.append((char) next);
+            }
+
+            return tag.toString();
         }
 
-        return concat(strings);
-    }
+        /**
+         * Reads content up to the next tag.
+         *
+         * @return {@code true} if any content was read
+         */
+        private boolean readContent(final StringBuilder out) throws IOException {
+            final int start = out.length();
+            int c;
+
+            while ((c = in.read()) >= 0 && c != '<') {
+                out.append((char) c);
+            }
 
-    private static String readFile(final Path path, final String characterSet) {
-    	try (final InputStream stream = new BufferedInputStream(Files.newInputStream(path))) {
-    		return readFile(stream, characterSet);
-    	} catch (final IOException e) {
-            logSevere(OfxV1ToV2.class, e);
-            return "";
-		}     	    	     
+            if (c == '<') {
+                in.unread(c);
+            }
+
+            return out.length() > start;
+        }
     }
 
     private OfxV1ToV2() {
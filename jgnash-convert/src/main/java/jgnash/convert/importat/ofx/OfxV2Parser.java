@@ -23,6 +23,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -56,6 +57,7 @@ import jgnash.resource.util.ResourceUtils;
 import jgnash.util.FileMagic;
 import jgnash.util.NotNull;
 
+import static jgnash.convert.importat.ofx.Sanitize.joinLines;
 import static jgnash.convert.importat.ofx.Sanitize.sanitize;
 
 /**
@@ -116,7 +118,10 @@ public class OfxV2Parser implements OfxTags {
 
         if (FileMagic.isOfxV1(file)) {
             logger.info("Parsing OFX Version 1 file");
-            parser.parse(OfxV1ToV2.convertToXML(file), FileMagic.getOfxV1Encoding(file));
+
+            try (final Reader reader = OfxV1ToV2.openXMLReader(file)) {
+                parser.parse(reader);
+            }
         } else if (FileMagic.isOfxV2(file)) {
             logger.info("Parsing OFX Version 2 file");
             parser.parseFile(file);
@@ -227,20 +232,31 @@ public class OfxV2Parser implements OfxTags {
      * @param stream InputStream to parse
      */
     public void parse(final InputStream stream) {
+        try (final Reader reader = sanitize(joinLines(new BufferedReader(new InputStreamReader(stream, ENCODING)), false))) {
+            parse(reader);
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.toString(), e);
+        }
+    }
 
-        final StringBuilder stringBuilder = new StringBuilder();
-
-        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, ENCODING))) {
-            String line;
+    /**
+     * Parses a Reader.  The XML is streamed to the StAX parser and is not buffered.
+     *
+     * @param input Reader to parse
+     */
+    private void parse(final Reader input) {
+        logger.entering(OfxV2Parser.class.getName(), "parse");
 
-            while ((line = reader.readLine()) != null) {
-                stringBuilder.append(line);
-            }
+        bank = new OfxBank();
 
-            parse(sanitize(stringBuilder.toString()), ENCODING);
-        } catch (final IOException e) {
+        try {
+            final XMLStreamReader reader = createInputFactory().createXMLStreamReader(input);
+            readOfx(reader);
+        } catch (final XMLStreamException e) {
             logger.log(Level.SEVERE, e.toString(), e);
         }
+
+        logger.exiting(OfxV2Parser.class.getName(), "parse");
     }
 
     /**
@@ -254,12 +270,8 @@ public class OfxV2Parser implements OfxTags {
 
         bank = new OfxBank();
 
-        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-
         try (final InputStream input = new BufferedInputStream(stream)) {
-            XMLStreamReader reader = inputFactory.createXMLStreamReader(input, encoding);
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(input, encoding);
             readOfx(reader);
         } catch (IOException | XMLStreamException e) {
             logger.log(Level.SEVERE, e.toString(), e);
@@ -268,6 +280,14 @@ public class OfxV2Parser implements OfxTags {
         logger.exiting(OfxV2Parser.class.getName(), "parse");
     }
 
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+        return inputFactory;
+    }
+
     private void parseFile(final Path path) {
 
         try (final InputStream stream = new BufferedInputStream(Files.newInputStream(path))) {
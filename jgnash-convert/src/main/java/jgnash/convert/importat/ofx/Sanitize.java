@@ -17,6 +17,9 @@
  */
 package jgnash.convert.importat.ofx;
 
+import java.io.IOException;
+import java.io.Reader;
+
 /**
  * Utility class for handling OFX files with invalid characters
  *
@@ -24,27 +27,149 @@ package jgnash.convert.importat.ofx;
  */
 class Sanitize {
 
+    /**
+     * Number of characters to process per fill.
+     */
+    private static final int CHUNK_SIZE = 8192;
+
     private Sanitize() {
         // utility class
     }
 
+    /**
+     * Replaces illegal XML characters with escaped characters as the stream is read.  XML declarations and
+     * processing instructions are removed as they are not needed.
+     *
+     * @param reader Reader to process
+     * @return Reader returning valid characters
+     */
+    static Reader sanitize(final Reader reader) {
+        return new SanitizingReader(reader);
+    }
 
     /**
-     * Replaces illegal XML characters with escaped characters
+     * Removes line breaks as the stream is read.
      *
-     * @param xml String to process
-     * @return valid string
+     * @param reader Reader to process
+     * @param trim {@code true} if leading and trailing white space of each line should be removed as well
+     * @return Reader returning the joined lines
      */
-    static String sanitize(final String xml) {
-        String ugly = xml;
+    static Reader joinLines(final Reader reader, final boolean trim) {
+        return new LineJoiningReader(reader, trim);
+    }
+
+    private static class SanitizingReader extends TransformingReader {
+
+        SanitizingReader(final Reader in) {
+            super(in);
+        }
+
+        @Override
+        boolean fill(final StringBuilder out) throws IOException {
+            while (out.length() < CHUNK_SIZE) {
+                final int c = in.read();
+
+                if (c < 0) {
+                    return out.length() > 0;
+                }
+
+                switch (c) {
+                    case '<':
+                        if ("?".equals(peek(1))) {
+                            skipProcessingInstruction();
+                        } else {
+                            out.append('<');
+                        }
+                        break;
+                    case '&':
+                        if ("amp;".equals(peek(4))) {
+                            in.skip(4);
+                        }
+                        out.append("&amp;");
+                        break;
+                    case '"':
+                        out.append("&quot;");
+                        break;
+                    case '\'':
+                        out.append("&apos;");
+                        break;
+                    default:
+                        out.append((char) c);
+                }
+            }
+
+            return true;
+        }
+
+        private void skipProcessingInstruction() throws IOException {
+            int previous = 0;
+            int c;
+
+            while ((c = in.read()) >= 0) {
+                if (previous == '?' && c == '>') {
+                    break;
+                }
+                previous = c;
+            }
+        }
+    }
+
+    private static class LineJoiningReader extends TransformingReader {
+
+        private final boolean trim;
+
+        private final StringBuilder whiteSpace = new StringBuilder();
+
+        private boolean started;
+
+        LineJoiningReader(final Reader in, final boolean trim) {
+            super(in);
+            this.trim = trim;
+        }
+
+        @Override
+        boolean fill(final StringBuilder out) throws IOException {
+            while (out.length() < CHUNK_SIZE) {
+                final int c = in.read();
+
+                if (c < 0) {
+                    return out.length() > 0;
+                }
+
+                if (trim && c <= ' ') {
+                    appendWhiteSpace(c, out);
+                } else if (c != '\r' && c != '\n') {
+                    out.append((char) c);
+                    started = true;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * White space runs are kept only if they do not span a line break and are not at the start or end of the
+         * stream, mirroring {@code String.trim()} applied to each line.
+         */
+        private void appendWhiteSpace(final int first, final StringBuilder out) throws IOException {
+            whiteSpace.setLength(0);
+            whiteSpace.append((char) first);
+
+            boolean lineBreak = first == '\r' || first == '\n';
+            int c;
 
-        // remove all XML declarations as they are not needed
-        ugly = ugly.replaceAll("<\\?xml.*\\?>", "");
+            while ((c = in.read()) >= 0 && c <= ' ') {
+                whiteSpace.append((char) c);
+                lineBreak |= c == '\r' || c == '\n';
+            }
 
-        ugly = ugly.replaceAll("&(?!(?:amp);)", "&amp;");
-        ugly = ugly.replaceAll("\"", "&quot;");
-        ugly = ugly.replaceAll("'", "&apos;");
+            if (c >= 0) {
+                in.unread(c);
 
-        return ugly;
+                if (started && !lineBreak) {
+                    out.append(whiteSpace);
+                }
+            }
+        }
     }
 }
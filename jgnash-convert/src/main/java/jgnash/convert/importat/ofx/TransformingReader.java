@@ -0,0 +1,114 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.convert.importat.ofx;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+
+/**
+ * Base class for readers that transform a character stream on the fly.
+ * <p>
+ * Subclasses produce output a small piece at a time so memory use is bounded by the largest piece rather than the
+ * size of the stream.
+ *
+ * @author Craig Cavanaugh
+ */
+abstract class TransformingReader extends Reader {
+
+    private static final int PUSHBACK_LIMIT = 8;
+
+    final PushbackReader in;
+
+    private final StringBuilder pending = new StringBuilder();
+
+    private int pendingPos;
+
+    private boolean eof;
+
+    TransformingReader(final Reader in) {
+        this.in = new PushbackReader(in, PUSHBACK_LIMIT);
+    }
+
+    /**
+     * Transforms the next piece of the underlying stream.
+     *
+     * @param out buffer to append transformed characters to
+     * @return {@code false} if the end of the underlying stream has been reached and nothing more will be appended
+     * @throws IOException if an I/O error occurs
+     */
+    abstract boolean fill(StringBuilder out) throws IOException;
+
+    /**
+     * Reads ahead without consuming.
+     *
+     * @param count maximum number of characters to peek, must not exceed the pushback limit
+     * @return the characters available, may be shorter than requested at the end of the stream
+     * @throws IOException if an I/O error occurs
+     */
+    String peek(final int count) throws IOException {
+        final char[] chars = new char[count];
+        int length = 0;
+
+        while (length < count) {
+            final int c = in.read();
+
+            if (c < 0) {
+                break;
+            }
+
+            chars[length++] = (char) c;
+        }
+
+        in.unread(chars, 0, length);
+
+        return new String(chars, 0, length);
+    }
+
+    @Override
+    public int read(final char[] buffer, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        while (pendingPos == pending.length()) {
+            pending.setLength(0);
+            pendingPos = 0;
+
+            if (eof || !fill(pending)) {
+                eof = true;
+
+                if (pending.length() == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        final int count = Math.min(length, pending.length() - pendingPos);
+
+        pending.getChars(pendingPos, pendingPos + count, buffer, offset);
+        pendingPos += count;
+
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -36,6 +36,15 @@ public class QifAccount extends ImportBank<QifTransaction> {
 
     private DateFormat dateFormat = null;
 
+    /**
+     * Date format, list and size of the last reparse.  Dates are only reparsed if one has changed
+     */
+    private DateFormat parsedDateFormat = null;
+
+    private List<QifTransaction> parsedList = null;
+
+    private int parsedSize = -1;
+
     @Override
     public List<QifTransaction> getTransactions() {
 
@@ -43,9 +52,13 @@ public class QifAccount extends ImportBank<QifTransaction> {
             setDateFormat(QifTransaction.determineDateFormat(super.getTransactions()));
         }
 
-        reparseDates(getDateFormat());  // reparse the dates before returning
+        final List<QifTransaction> transactions = super.getTransactions();
 
-        return super.getTransactions();
+        if (parsedDateFormat != getDateFormat() || parsedList != transactions || parsedSize != transactions.size()) {
+            reparseDates(getDateFormat());  // reparse the dates before returning
+        }
+
+        return transactions;
     }
 
     public QifTransaction get(final int index) {
@@ -62,9 +75,15 @@ public class QifAccount extends ImportBank<QifTransaction> {
 
         setDateFormat(dateFormat);
 
-        for (final QifTransaction transaction: super.getTransactions()) {
+        final List<QifTransaction> transactions = super.getTransactions();
+
+        for (final QifTransaction transaction: transactions) {
             transaction.setDatePosted(QifTransaction.parseDate(transaction.oDate, dateFormat));
         }
+
+        parsedDateFormat = dateFormat;
+        parsedList = transactions;
+        parsedSize = transactions.size();
     }
 
     public DateFormat getDateFormat() {
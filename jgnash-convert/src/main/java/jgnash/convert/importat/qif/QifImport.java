@@ -18,12 +18,20 @@
 package jgnash.convert.importat.qif;
 
 import java.io.File;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -40,6 +48,7 @@ import jgnash.engine.ReconciledState;
 import jgnash.engine.Transaction;
 import jgnash.engine.TransactionEntry;
 import jgnash.engine.TransactionFactory;
+import jgnash.engine.TransactionType;
 
 /**
  * QifImport takes a couple of simple steps to prevent importing a duplicate account. Other than that, duplicate
@@ -67,6 +76,26 @@ public class QifImport {
 
     private final HashMap<String, Account> accountMap = new HashMap<>();
 
+    /**
+     * Accounts by name, the first match in sorted order wins
+     */
+    private final Map<String, Account> accountNameMap = new HashMap<>();
+
+    /**
+     * QIF accounts by name for locating mirror transactions
+     */
+    private final Map<String, List<QifAccount>> qifAccountMap = new HashMap<>();
+
+    /**
+     * Mirror transactions that have been consumed by the other side of a transfer
+     */
+    private final Set<QifTransaction> removedMirrors = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Keys of the existing transactions of each account receiving imported transactions
+     */
+    private final Map<Account, Set<DuplicateKey>> duplicateKeys = new ConcurrentHashMap<>();
+
     private boolean partialImport = false;
 
     /**
@@ -120,6 +149,9 @@ public class QifImport {
                 List<QifAccount> list = parser.accountList;
                 if (list.size() == 1) {
                     QifAccount qAcc = list.get(0);
+
+                    loadQifAccountMap();
+                    loadDuplicateKeys(Collections.singleton(account));
                     addTransactions(qAcc, account);
                 } else {
                     logger.severe("Only one account expected");
@@ -215,20 +247,23 @@ public class QifImport {
             }
         }
 
-        logger.info("*** Importing Transactions ***");
+        loadAccountNameMap();
+        loadQifAccountMap();
+
+        // resolve the destination of each QIF account once
+        final Map<QifAccount, Account> destinations = new IdentityHashMap<>();
 
-        // go back and add the transactions;
         for (QifAccount qAcc : list) {
             Account acc = accountMap.get(qAcc.name);
 
             // try and match the closest
             if (acc == null) {
-                acc = engine.getAccountByName(qAcc.name);
+                acc = accountNameMap.get(qAcc.name);
             }
 
             // TODO Correct import of investment transactions
             if (acc != null && acc.getAccountType() != AccountType.INVEST) {
-                addTransactions(qAcc, acc);
+                destinations.put(qAcc, acc);
             } else {
                 if (acc != null) {
                     logger.severe("Investment transactions not fully supported");
@@ -237,24 +272,74 @@ public class QifImport {
                 }
             }
         }
+
+        loadDuplicateKeys(new HashSet<>(destinations.values()));
+
+        logger.info("*** Importing Transactions ***");
+
+        // go back and add the transactions, one batch per account;
+        for (QifAccount qAcc : list) {
+            final Account acc = destinations.get(qAcc);
+
+            if (acc != null) {
+                addTransactions(qAcc, acc);
+            }
+        }
+    }
+
+    /**
+     * Loads the account name map.  Accounts are sorted for the same search order as {@code Engine#getAccountByName}
+     */
+    private void loadAccountNameMap() {
+        final List<Account> list = engine.getAccountList();
+        Collections.sort(list);
+
+        for (final Account account : list) {
+            accountNameMap.putIfAbsent(account.getName(), account);
+        }
+    }
+
+    private void loadQifAccountMap() {
+        for (final QifAccount qAcc : parser.accountList) {
+            qifAccountMap.computeIfAbsent(qAcc.name, k -> new ArrayList<>()).add(qAcc);
+        }
+    }
+
+    private List<QifAccount> getQifAccounts(final String name) {
+        return qifAccountMap.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * Builds the duplicate keys of the existing transactions for each account in parallel.
+     *
+     * @param accounts accounts that will receive imported transactions
+     */
+    private void loadDuplicateKeys(final Set<Account> accounts) {
+        accounts.parallelStream().forEach(account -> {
+            final Set<DuplicateKey> keys = new HashSet<>();
+
+            for (final Transaction transaction : account.getSortedTransactionList()) {
+                keys.add(new DuplicateKey(transaction));
+            }
+
+            duplicateKeys.put(account, keys);
+        });
     }
 
     private void addTransactions(final QifAccount qAcc, final Account acc) {
         if (qAcc.getTransactions().isEmpty()) {
             return;
         }
+
+        final List<Transaction> batch = new ArrayList<>();
+
         List<QifTransaction> list = qAcc.getTransactions();
         for (QifTransaction aList : list) {
-            Transaction tran;
-
-            /*if (acc.getAccountType().equals(AccountType.INVEST)) {
-            //tran = generateInvestmentTransaction(aList, acc);
-            tran = generateTransaction(aList, acc);
-            } else {
-            tran = generateTransaction(aList, acc);
-            }*/
+            if (removedMirrors.contains(aList)) {   // the other side of a transfer has already been imported
+                continue;
+            }
 
-            tran = generateTransaction(aList, acc);
+            Transaction tran = generateTransaction(aList, acc);
 
             if (tran != null && isDuplicate(tran, acc)) { // strip and prevent NPE
                 logger.fine("duplicate found");
@@ -265,22 +350,31 @@ public class QifImport {
                 if (partialImport) {
                     tran.setFitid(FITID);   // importing a bank statement, flag as imported
                 }
-                engine.addTransaction(tran);
+
+                // later transactions in the import are checked against this one as well
+                final DuplicateKey key = new DuplicateKey(tran);
+
+                for (final Account account : tran.getAccounts()) {
+                    final Set<DuplicateKey> keys = duplicateKeys.get(account);
+
+                    if (keys != null) {
+                        keys.add(key);
+                    }
+                }
+
+                batch.add(tran);
             } else {
                 logger.warning("Null Transaction!");
             }
         }
-    }
 
-    private static boolean isDuplicate(final Transaction t, final Account a) {
+        engine.addTransactions(batch);
+    }
 
-        for (final Transaction tran : a.getSortedTransactionList()) {
-            if (tran.equalsIgnoreDate(t)) {
-                return true;
-            }
-        }
+    private boolean isDuplicate(final Transaction t, final Account a) {
+        final Set<DuplicateKey> keys = duplicateKeys.get(a);
 
-        return false;
+        return keys != null && keys.contains(new DuplicateKey(t));
     }
 
     /**
@@ -628,21 +722,15 @@ public class QifImport {
      */
     private void removeMirrorTransaction(final QifTransaction qTran, final Account acc) {
         String name = qTran.category.substring(1, qTran.category.length() - 1);
-        List<QifAccount> list = parser.accountList;
 
-        for (QifAccount qAcc : list) {
-            if (qAcc.name.equals(name)) {
-                List<QifTransaction> items = qAcc.getTransactions();
-                Iterator<QifTransaction> i = items.iterator();
-                QifTransaction tran;
-                while (i.hasNext()) {
-                    tran = i.next();
-                    if (tran.getAmount().compareTo(qTran.getAmount().negate()) == 0 && tran.getDatePosted().equals(qTran.getDatePosted()) && tran.category.contains(acc.getName())) {
-                        i.remove();
-                        logger.finest("Removed mirror transaction");
+        for (QifAccount qAcc : getQifAccounts(name)) {
+            for (QifTransaction tran : qAcc.getTransactions()) {
+                if (!removedMirrors.contains(tran) && tran.getAmount().compareTo(qTran.getAmount().negate()) == 0
+                        && tran.getDatePosted().equals(qTran.getDatePosted()) && tran.category.contains(acc.getName())) {
+                    removedMirrors.add(tran);
+                    logger.finest("Removed mirror transaction");
 
-                        return;
-                    }
+                    return;
                 }
             }
         }
@@ -651,24 +739,18 @@ public class QifImport {
     private void removeMirrorSplitTransaction(final QifSplitTransaction qTran) {
         String name = qTran.category.substring(1, qTran.category.length() - 1);
         logger.log(Level.FINE, "Category name is: {0}", name);
-        List<QifAccount> list = parser.accountList;
 
-        for (QifAccount qAcc : list) {
-            if (qAcc.name.equals(name)) {
-                List<QifTransaction> items = qAcc.getTransactions();
-                Iterator<QifTransaction> i = items.iterator();
-                QifTransaction tran;
-                while (i.hasNext()) {
-                    tran = i.next();
-                    if (tran != null) {
-                        if (tran.getAmount().compareTo(qTran.amount.negate()) == 0 && tran.getMemo().equals(qTran.memo)) {
-                            i.remove();
-                            logger.finest("Removed mirror split transaction");
-                            return;
-                        }
-                    } else { // should not occur anymore
-                        logger.log(Level.SEVERE, "There was a null QifTransaction in QifAccount: \n{0}", qAcc.toString());
+        for (QifAccount qAcc : getQifAccounts(name)) {
+            for (QifTransaction tran : qAcc.getTransactions()) {
+                if (tran != null) {
+                    if (!removedMirrors.contains(tran) && tran.getAmount().compareTo(qTran.amount.negate()) == 0
+                            && tran.getMemo().equals(qTran.memo)) {
+                        removedMirrors.add(tran);
+                        logger.finest("Removed mirror split transaction");
+                        return;
                     }
+                } else { // should not occur anymore
+                    logger.log(Level.SEVERE, "There was a null QifTransaction in QifAccount: \n{0}", qAcc.toString());
                 }
             }
         }
@@ -676,24 +758,64 @@ public class QifImport {
         // could be a split into a bank account... look a level higher
         // TODO add check against the base account... should point at each other..
         // qTran's category same as tran category?
-        for (QifAccount qAcc : list) {
-            if (qAcc.name.equals(name)) {
-                List<QifTransaction> items = qAcc.getTransactions();
-                Iterator<QifTransaction> i = items.iterator();
-                QifTransaction tran;
-                while (i.hasNext()) {
-                    tran = i.next();
-                    // is the match an account and the opposite value and does not have any splits?
-                    // is this a valid method?                                                           
-                    if (tran.getAmount().compareTo(qTran.amount.negate()) == 0 && isAccount(tran.category) && !tran.hasSplits()) {
-                        logger.log(Level.FINE, "Found a match:\n{0}", tran.toString());
-                        i.remove();
-                        return;
-                    }
+        for (QifAccount qAcc : getQifAccounts(name)) {
+            for (QifTransaction tran : qAcc.getTransactions()) {
+                // is the match an account and the opposite value and does not have any splits?
+                // is this a valid method?
+                if (!removedMirrors.contains(tran) && tran.getAmount().compareTo(qTran.amount.negate()) == 0
+                        && isAccount(tran.category) && !tran.hasSplits()) {
+                    logger.log(Level.FINE, "Found a match:\n{0}", tran.toString());
+                    removedMirrors.add(tran);
+                    return;
                 }
             }
         }
 
         logger.log(Level.WARNING, "Did not find matching mirror:" + "\n{0}", qTran.toString());
     }
+
+    /**
+     * Hashable form of the fields compared by {@code Transaction#equalsIgnoreDate(Transaction)}
+     */
+    private static final class DuplicateKey {
+
+        private final TransactionType type;
+
+        private final LocalDate date;
+
+        private final String payee;
+
+        private final BigDecimal amount;
+
+        private final String number;
+
+        DuplicateKey(final Transaction transaction) {
+            type = transaction.getTransactionType();
+            date = transaction.getLocalDate();
+            payee = transaction.getPayee().toLowerCase(Locale.ROOT);
+            amount = transaction.getAmount(transaction.getCommonAccount());
+            number = transaction.getNumber().toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof DuplicateKey)) {
+                return false;
+            }
+
+            final DuplicateKey other = (DuplicateKey) o;
+
+            return type == other.type && date.equals(other.date) && payee.equals(other.payee)
+                    && amount.equals(other.amount) && number.equals(other.number);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, date, payee, amount, number);
+        }
+    }
 }
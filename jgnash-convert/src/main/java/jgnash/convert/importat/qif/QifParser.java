@@ -150,10 +150,9 @@ public final class QifParser {
             throw new NoAccountException("The account was not found");
         }
 
-        // reparse the dates
-        for (final QifAccount account : accountList) {
-            account.reparseDates(QifTransaction.determineDateFormat(account.getTransactions()));
-        }
+        // reparse the dates, accounts are independent of each other
+        accountList.parallelStream().forEach(account ->
+                account.reparseDates(QifTransaction.determineDateFormat(account.getTransactions())));
     }
 
     private boolean parsePartialFile(final String fileName) {
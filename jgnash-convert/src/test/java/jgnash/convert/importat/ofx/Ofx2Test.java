@@ -689,4 +689,17 @@ class Ofx2Test {
         }
     }
 
+    @Test
+    void parseUglyFileStreaming() throws Exception {
+        final Path path = Paths.get(Ofx2Test.class.getResource("/uglyFormat.ofx").toURI());
+
+        assertTrue(FileMagic.isOfxV1(path));
+
+        final OfxBank ofxBank = OfxV2Parser.parse(path);
+
+        assertEquals(5, ofxBank.getTransactions().size());
+        assertTrue(ofxBank.getTransactions().get(4).getPayee().contains("& &"));
+        assertTrue(ofxBank.getTransactions().get(4).getPayee().contains("Am'ount"));
+        assertFalse(ofxBank.getTransactions().get(0).getPayee().contains("&"));
+    }
 }
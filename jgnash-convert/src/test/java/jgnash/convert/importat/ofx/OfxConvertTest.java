@@ -17,10 +17,18 @@
  */
 package jgnash.convert.importat.ofx;
 
+import io.github.glytching.junit.extension.folder.TemporaryFolder;
+import io.github.glytching.junit.extension.folder.TemporaryFolderExtension;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,4 +55,26 @@ class OfxConvertTest {
        
         assertTrue(true);
     }
+
+    @Test
+    @ExtendWith(TemporaryFolderExtension.class)
+    void parseMisdeclaredEncoding(final TemporaryFolder testFolder) throws IOException {
+        final Path path = testFolder.createFile("misdeclared.ofx").toPath();
+
+        // declares UTF-8, but the payee is encoded with Windows-1252
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.writeBytes(String.join("\r\n", "OFXHEADER:100", "DATA:OFXSGML", "VERSION:102", "ENCODING:UTF-8",
+                "CHARSET:NONE", "", "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST><STMTTRN><TRNAMT>-4.50<NAME>Caf")
+                .getBytes(StandardCharsets.US_ASCII));
+        bytes.write(0xE9);
+        bytes.writeBytes("</STMTTRN></BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\r\n"
+                .getBytes(StandardCharsets.US_ASCII));
+
+        Files.write(path, bytes.toByteArray());
+
+        final String xml = OfxV1ToV2.convertToXML(path);
+
+        assertTrue(xml.contains("<TRNAMT>-4.50</TRNAMT>"), xml);
+        assertTrue(xml.contains("<NAME>Caf\uFFFD</NAME>"), xml);
+    }
 }
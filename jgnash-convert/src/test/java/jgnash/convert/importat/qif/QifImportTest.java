@@ -0,0 +1,107 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.convert.importat.qif;
+
+import io.github.glytching.junit.extension.folder.TemporaryFolder;
+import io.github.glytching.junit.extension.folder.TemporaryFolderExtension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import jgnash.convert.importat.DateFormat;
+import jgnash.engine.Account;
+import jgnash.engine.CurrencyNode;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.DefaultCurrencies;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QIF import tests
+ *
+ * @author Craig Cavanaugh
+ */
+class QifImportTest {
+
+    private static final String QIF = String.join("\n",
+            "!Type:Cat", "NGroceries", "E", "^", "NSalary", "I", "^",
+            "!Account", "NChecking", "TBank", "^",
+            "!Type:Bank",
+            "D01/15/2019", "T1000.00", "PEmployer", "LSalary", "^",
+            "D01/20/2019", "T-50.00", "PMarket", "LGroceries", "^",
+            "D01/25/2019", "T-200.00", "PTransfer", "L[Savings]", "^",
+            "!Account", "NSavings", "TBank", "^",
+            "!Type:Bank",
+            "D01/25/2019", "T200.00", "PTransfer", "L[Checking]", "^", "");
+
+    @Test
+    @ExtendWith(TemporaryFolderExtension.class)
+    void testImportAndDuplicates(final TemporaryFolder testFolder) throws Exception {
+        final String database = testFolder.createFile("qif-test.xml").getAbsolutePath();
+        final File qifFile = testFolder.createFile("import.qif");
+
+        Files.write(qifFile.toPath(), QIF.getBytes(StandardCharsets.UTF_8));
+
+        EngineFactory.deleteDatabase(database);
+
+        final Engine e = EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+
+        assertNotNull(e);
+
+        e.setCreateBackups(false);
+
+        final CurrencyNode defaultCurrency = DefaultCurrencies.buildCustomNode("USD");
+
+        e.addCurrency(defaultCurrency);
+        e.setDefaultCurrency(defaultCurrency);
+
+        QifImport qifImport = new QifImport();
+        qifImport.doFullParse(qifFile, DateFormat.US);
+        qifImport.doFullImport();
+
+        final Account checking = e.getAccountByName("Checking");
+        final Account savings = e.getAccountByName("Savings");
+
+        assertNotNull(checking);
+        assertNotNull(savings);
+
+        assertEquals(0, qifImport.getDuplicateCount());
+        assertEquals(3, checking.getTransactionCount());
+        assertEquals(1, savings.getTransactionCount());   // the mirror of the transfer is not imported
+        assertEquals(0, checking.getBalance().compareTo(new BigDecimal("750.00")));
+
+        // importing the same file again should only find duplicates
+        qifImport = new QifImport();
+        qifImport.doFullParse(qifFile, DateFormat.US);
+        qifImport.doFullImport();
+
+        assertEquals(3, qifImport.getDuplicateCount());
+        assertEquals(3, checking.getTransactionCount());
+        assertEquals(1, savings.getTransactionCount());
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+    }
+}
@@ -20,15 +20,18 @@ package jgnash.engine;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -54,9 +57,10 @@ import javax.persistence.OrderBy;
 import javax.persistence.PostLoad;
 import javax.persistence.Transient;
 
-import jgnash.time.DateUtils;
 import jgnash.util.NotNull;
 import jgnash.util.Nullable;
+import jgnash.util.metrics.Counter;
+import jgnash.util.metrics.Metrics;
 
 /**
  * Account object.  The {@code Account} object is mutable.  Changes should be made using the {@code Engine} to
@@ -99,10 +103,24 @@ public class Account extends StoredObject implements Comparable<Account> {
 
     private static final Logger logger = Logger.getLogger(Account.class.getName());
 
+    private static final Counter balanceCacheHits = Metrics.counter("account.balance.cache.hit");
+
+    private static final Counter balanceCacheMisses = Metrics.counter("account.balance.cache.miss");
+
+    private static final Counter reconciledBalanceCacheHits = Metrics.counter("account.reconciledBalance.cache.hit");
+
+    private static final Counter reconciledBalanceCacheMisses = Metrics.counter("account.reconciledBalance.cache.miss");
+
     /**
      * String delimiter for reported account structure.
      */
-    private static String accountSeparator = ":";
+    private static volatile String accountSeparator = ":";
+
+    /**
+     * Incremented whenever an account is renamed, moved, added or removed, or the separator changes.  Cached path
+     * names and account indexes built against an older version are stale.
+     */
+    private static final AtomicLong pathVersion = new AtomicLong();
 
     @ManyToOne
     Account parentAccount;
@@ -183,6 +201,15 @@ public class Account extends StoredObject implements Comparable<Account> {
     @Transient
     private transient BigDecimal reconciledBalance;
 
+    /**
+     * Cached full path name of the account.
+     *
+     * The path depends on every ancestor, so validity is tracked with the global path version instead of walking
+     * the tree to invalidate children.
+     */
+    @Transient
+    private transient volatile CachedPathName cachedPathName;
+
     /**
      * User definable account number.
      */
@@ -249,7 +276,27 @@ public class Account extends StoredObject implements Comparable<Account> {
     }
 
     static void setAccountSeparator(final String separator) {
-        accountSeparator = separator;
+        if (!Objects.equals(accountSeparator, separator)) {
+            accountSeparator = separator;
+            invalidatePathNames();
+        }
+    }
+
+    /**
+     * Returns the current version of the account structure.  The version changes whenever an account name, parent
+     * or the account separator changes.
+     *
+     * @return the account path version
+     */
+    static long getPathVersion() {
+        return pathVersion.get();
+    }
+
+    /**
+     * Invalidates all cached path names.
+     */
+    static void invalidatePathNames() {
+        pathVersion.incrementAndGet();
     }
 
     ReadWriteLock getTransactionLock() {
@@ -294,9 +341,17 @@ public class Account extends StoredObject implements Comparable<Account> {
                 transactions.add(tran);
 
                 /* The cached list may already contain the transaction if it has not been initialized yet */
-                if (!getCachedSortedTransactionList().contains(tran)) {
-                    getCachedSortedTransactionList().add(tran);
-                    Collections.sort(getCachedSortedTransactionList());
+                final List<Transaction> sortedList = getCachedSortedTransactionList();
+                final int index = Collections.binarySearch(sortedList, tran);
+
+                if (index < 0) {
+                    // copy on write, published lists and range views are never modified
+                    final List<Transaction> list = new ArrayList<>(sortedList.size() + 1);
+
+                    list.addAll(sortedList);
+                    list.add(-index - 1, tran);
+
+                    cachedSortedTransactionList = list;
                 }
 
                 clearCachedBalances();
@@ -313,6 +368,48 @@ public class Account extends StoredObject implements Comparable<Account> {
         }
     }
 
+    /**
+     * Adds a batch of transactions to this account.  The sorted transaction list is only sorted once.
+     *
+     * @param batch the {@code Transactions} to be added
+     * @return the number of transactions that were added, transactions already attached to this account are skipped
+     */
+    int addTransactions(final Collection<Transaction> batch) {
+        if (placeHolder) {
+            logger.severe("Tried to add transactions to a place holder account");
+            return 0;
+        }
+
+        transactionLock.writeLock().lock();
+
+        try {
+            // force lazy initialization before the transaction set is modified, copy on write
+            final List<Transaction> sortedList = new ArrayList<>(getCachedSortedTransactionList());
+
+            int count = 0;
+
+            for (final Transaction tran : batch) {
+                if (transactions.add(tran)) {
+                    sortedList.add(tran);
+                    count++;
+                } else {
+                    logger.log(Level.SEVERE, "Account: {0}({1}){2}Already have transaction ID: {3}",
+                            new Object[]{getName(), hashCode(), System.lineSeparator(), tran.hashCode()});
+                }
+            }
+
+            if (count > 0) {
+                Collections.sort(sortedList);
+                cachedSortedTransactionList = sortedList;
+                clearCachedBalances();
+            }
+
+            return count;
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Removes the specified transaction from this account.
      *
@@ -328,7 +425,12 @@ public class Account extends StoredObject implements Comparable<Account> {
 
             if (contains(tran)) {
                 transactions.remove(tran);
-                getCachedSortedTransactionList().remove(tran);
+
+                // copy on write, published lists and range views are never modified
+                final List<Transaction> list = new ArrayList<>(getCachedSortedTransactionList());
+                list.remove(tran);
+                cachedSortedTransactionList = list;
+
                 clearCachedBalances();
 
                 result = true;
@@ -378,6 +480,8 @@ public class Account extends StoredObject implements Comparable<Account> {
     /**
      * Returns a sorted list of transactions for this account that is unmodifiable.
      *
+     * The list is a snapshot and will not reflect later changes to the account.
+     *
      * @return List of transactions
      */
     @NotNull
@@ -501,6 +605,7 @@ public class Account extends StoredObject implements Comparable<Account> {
                 result = true;
 
                 cachedSortedChildren.remove(child);
+                invalidatePathNames();
             }
             return result;
         } finally {
@@ -596,7 +701,10 @@ public class Account extends StoredObject implements Comparable<Account> {
             boolean result = false;
 
             if (account != this) {
-                parentAccount = account;
+                if (parentAccount != account) {
+                    parentAccount = account;
+                    invalidatePathNames();
+                }
                 result = true;
             }
 
@@ -633,8 +741,10 @@ public class Account extends StoredObject implements Comparable<Account> {
 
         try {
             if (accountBalance != null) {
+                balanceCacheHits.increment();
                 return accountBalance;
             }
+            balanceCacheMisses.increment();
             return accountBalance = getProxy().getBalance();
         } finally {
             transactionLock.readLock().unlock();
@@ -711,9 +821,11 @@ public class Account extends StoredObject implements Comparable<Account> {
 
         try {
             if (reconciledBalance != null) {
+                reconciledBalanceCacheHits.increment();
                 return reconciledBalance;
             }
 
+            reconciledBalanceCacheMisses.increment();
             return reconciledBalance = getProxy().getReconciledBalance();
         } finally {
             transactionLock.readLock().unlock();
@@ -805,21 +917,7 @@ public class Account extends StoredObject implements Comparable<Account> {
      * accounts.
      */
     public BigDecimal getTreeBalance(final LocalDate endDate, final CurrencyNode node) {
-        transactionLock.readLock().lock();
-        childLock.readLock().lock();
-
-        try {
-            BigDecimal balance = getBalance(endDate, node);
-
-            for (final Account child : cachedSortedChildren) {
-                balance = balance.add(child.getTreeBalance(endDate, node));
-            }
-
-            return balance;
-        } finally {
-            transactionLock.readLock().unlock();
-            childLock.readLock().unlock();
-        }
+        return getTreeBalances(new LocalDate[]{endDate}, node)[0];
     }
 
     /**
@@ -970,20 +1068,7 @@ public class Account extends StoredObject implements Comparable<Account> {
         Objects.requireNonNull(start);
         Objects.requireNonNull(end);
 
-        transactionLock.readLock().lock();
-        childLock.readLock().lock();
-
-        try {
-            BigDecimal returnValue = getBalance(start, end, node);
-
-            for (final Account child : cachedSortedChildren) {
-                returnValue = returnValue.add(child.getTreeBalance(start, end, node));
-            }
-            return returnValue;
-        } finally {
-            transactionLock.readLock().unlock();
-            childLock.readLock().unlock();
-        }
+        return getTreeBalances(new LocalDate[]{start}, new LocalDate[]{end}, node)[0];
     }
 
     /**
@@ -1020,6 +1105,102 @@ public class Account extends StoredObject implements Comparable<Account> {
         }
     }
 
+    /**
+     * Returns the account balances up to and inclusive of each of the supplied dates. The balances are computed
+     * with a single pass over the transactions and are converted to the specified commodity.
+     *
+     * @param dates The inclusive ending dates in ascending order
+     * @param node  The commodity to convert balances to
+     * @return the ending balances, one per date
+     * @throws IllegalArgumentException if the dates are not in ascending order
+     */
+    public BigDecimal[] getBalances(final LocalDate[] dates, final CurrencyNode node) {
+        Objects.requireNonNull(dates);
+
+        transactionLock.readLock().lock();
+
+        try {
+            return adjustForExchangeRate(getProxy().getBalances(dates), node);
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the balances of the transactions inclusive of each pair of start and end dates. The balances are
+     * computed with a single pass over the transactions and are converted to the specified commodity.
+     *
+     * @param startDates The inclusive start dates in ascending order
+     * @param endDates   The inclusive end dates in ascending order
+     * @param node       The commodity to convert balances to
+     * @return the period balances, one per pair of dates
+     * @throws IllegalArgumentException if the dates are not in ascending order or the arrays differ in length
+     */
+    public BigDecimal[] getBalances(final LocalDate[] startDates, final LocalDate[] endDates,
+                                    final CurrencyNode node) {
+        Objects.requireNonNull(startDates);
+        Objects.requireNonNull(endDates);
+
+        if (startDates.length != endDates.length) {
+            throw new IllegalArgumentException("Start and end dates must be the same length");
+        }
+
+        transactionLock.readLock().lock();
+
+        try {
+            return adjustForExchangeRate(getProxy().getBalances(startDates, endDates), node);
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the balances of the account plus any child accounts up to and inclusive of each of the supplied
+     * dates.
+     *
+     * @param dates The inclusive ending dates in ascending order
+     * @param node  The commodity to convert balances to
+     * @return the ending balances, one per date
+     * @see #getBalances(LocalDate[], CurrencyNode)
+     */
+    public BigDecimal[] getTreeBalances(final LocalDate[] dates, final CurrencyNode node) {
+        if (!isParent()) {
+            return getBalances(dates, node);
+        }
+
+        return AccountTreeSnapshot.of(this).getTreeBalances(dates, node).get(this);
+    }
+
+    /**
+     * Returns the balances of the account plus any child accounts inclusive of each pair of start and end dates.
+     *
+     * @param startDates The inclusive start dates in ascending order
+     * @param endDates   The inclusive end dates in ascending order
+     * @param node       The commodity to convert balances to
+     * @return the period balances, one per pair of dates
+     * @see #getBalances(LocalDate[], LocalDate[], CurrencyNode)
+     */
+    public BigDecimal[] getTreeBalances(final LocalDate[] startDates, final LocalDate[] endDates,
+                                        final CurrencyNode node) {
+        if (!isParent()) {
+            return getBalances(startDates, endDates, node);
+        }
+
+        return AccountTreeSnapshot.of(this).getTreeBalances(startDates, endDates, node).get(this);
+    }
+
+    private BigDecimal[] adjustForExchangeRate(final BigDecimal[] amounts, final CurrencyNode node) {
+        if (!node.equals(getCurrencyNode())) {
+            final BigDecimal rate = getCurrencyNode().getExchangeRate(node);
+
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = amounts[i].multiply(rate);
+            }
+        }
+
+        return amounts;
+    }
+
     /**
      * Returns a {@code List} of {@code Transaction} that occur during the specified period.
      * The specified dates are inclusive.
@@ -1029,17 +1210,97 @@ public class Account extends StoredObject implements Comparable<Account> {
      * @return a {@code List} of transactions that occurred within the specified dates
      */
     public List<Transaction> getTransactions(final LocalDate startDate, final LocalDate endDate) {
+        return new ArrayList<>(getTransactionRange(startDate, endDate));
+    }
+
+    /**
+     * Returns an unmodifiable, sorted view of the {@code Transactions} that occur during the specified period.
+     * The specified dates are inclusive.
+     *
+     * The view is backed by a snapshot of the sorted transaction list, so it is not copied and will not reflect later
+     * changes to the account.  Use {@link #getTransactions(LocalDate, LocalDate)} if a modifiable list is needed.
+     *
+     * @param startDate starting date
+     * @param endDate   ending date
+     * @return an unmodifiable view of the transactions that occurred within the specified dates
+     */
+    @NotNull
+    public List<Transaction> getTransactionRange(final LocalDate startDate, final LocalDate endDate) {
         transactionLock.readLock().lock();
 
         try {
-            return transactions.parallelStream().filter(transaction
-                    -> DateUtils.after(transaction.getLocalDate(), startDate)
-                    && DateUtils.before(transaction.getLocalDate(), endDate)).sorted().collect(Collectors.toList());
+            final List<Transaction> sortedList = getCachedSortedTransactionList();
+
+            final int fromIndex = firstIndexAfter(sortedList, startDate.minusDays(1));
+            final int toIndex = firstIndexAfter(sortedList, endDate);
+
+            if (fromIndex >= toIndex) {
+                return Collections.emptyList();
+            }
+
+            return Collections.unmodifiableList(sortedList.subList(fromIndex, toIndex));
         } finally {
             transactionLock.readLock().unlock();
         }
     }
 
+    /**
+     * Returns an iterator over the {@code Transactions} of this account and all of its descendants that occur during
+     * the specified period in sorted order.  The specified dates are inclusive.
+     *
+     * The sorted transaction lists are merged lazily without creating intermediate lists.  A transaction that
+     * is shared by more than one account of the tree is only returned once.
+     *
+     * @param startDate starting date
+     * @param endDate   ending date
+     * @return iterator over the transactions that occurred within the specified dates
+     */
+    @NotNull
+    public Iterator<Transaction> getTreeTransactionIterator(final LocalDate startDate, final LocalDate endDate) {
+        final List<List<Transaction>> ranges = new ArrayList<>();
+
+        collectTransactionRanges(this, startDate, endDate, ranges);
+
+        return new MergedTransactionIterator(ranges);
+    }
+
+    private static void collectTransactionRanges(final Account account, final LocalDate startDate,
+                                                 final LocalDate endDate, final List<List<Transaction>> ranges) {
+        final List<Transaction> range = account.getTransactionRange(startDate, endDate);
+
+        if (!range.isEmpty()) {
+            ranges.add(range);
+        }
+
+        for (final Account child : account.getChildren()) {
+            collectTransactionRanges(child, startDate, endDate, ranges);
+        }
+    }
+
+    /**
+     * Binary search for the first transaction that occurs after a date.
+     *
+     * @param sortedList sorted list of transactions
+     * @param date       search date
+     * @return index of the first transaction with a date after the search date, or the size of the list
+     */
+    private static int firstIndexAfter(final List<Transaction> sortedList, final LocalDate date) {
+        int low = 0;
+        int high = sortedList.size();
+
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+
+            if (sortedList.get(mid).getLocalDate().isAfter(date)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return low;
+    }
+
     /**
      * Returns the commodity node for this account
      *
@@ -1099,17 +1360,31 @@ public class Account extends StoredObject implements Comparable<Account> {
     public synchronized void setName(final String newName) {
         if (!newName.equals(name)) {
             name = newName;
+            invalidatePathNames();
         }
     }
 
-    public synchronized String getPathName() {
+    public String getPathName() {
+        final long version = getPathVersion();  // read before building the path so a concurrent change is not missed
+
+        final CachedPathName cached = cachedPathName;
+
+        if (cached != null && cached.version == version) {
+            return cached.pathName;
+        }
+
+        final String pathName;
         final Account parent = getParent();
 
         if (parent != null && parent.getAccountType() != AccountType.ROOT) {
-            return parent.getPathName() + getAccountSeparator() + getName();
+            pathName = parent.getPathName() + getAccountSeparator() + getName();
+        } else {
+            pathName = getName(); // this account is at the root level
         }
 
-        return getName(); // this account is at the root level
+        cachedPathName = new CachedPathName(pathName, version);
+
+        return pathName;
     }
 
     public AccountType getAccountType() {
@@ -1509,4 +1784,18 @@ public class Account extends StoredObject implements Comparable<Account> {
         super.clone();
         throw new CloneNotSupportedException("Accounts may not be cloned");
     }
+
+    /**
+     * Immutable path name paired with the path version it was built against.
+     */
+    private static final class CachedPathName {
+        final String pathName;
+
+        final long version;
+
+        CachedPathName(final String pathName, final long version) {
+            this.pathName = pathName;
+            this.version = version;
+        }
+    }
 }
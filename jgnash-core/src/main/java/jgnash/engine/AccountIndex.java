@@ -0,0 +1,87 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the account tree indexed by account name and full path name.
+ *
+ * A snapshot is only valid for the {@link Account#getPathVersion()} it was built against.  The {@code Engine} replaces
+ * the snapshot when the version changes, so readers never need a lock.
+ *
+ * @author Craig Cavanaugh
+ */
+final class AccountIndex {
+
+    private final long version;
+
+    private final Map<String, List<Account>> nameMap;
+
+    private final Map<String, Account> pathMap;
+
+    /**
+     * Builds a new index.
+     *
+     * @param accounts accounts to index, excluding the root account
+     * @param version  path version read before the account list was retrieved
+     */
+    AccountIndex(final List<Account> accounts, final long version) {
+        this.version = version;
+
+        final List<Account> sorted = new ArrayList<>(accounts);
+
+        // sort for consistent search order
+        Collections.sort(sorted);
+
+        final Map<String, List<Account>> names = new HashMap<>();
+        final Map<String, Account> paths = new HashMap<>();
+
+        for (final Account account : sorted) {
+            names.computeIfAbsent(account.getName(), k -> new ArrayList<>()).add(account);
+            paths.putIfAbsent(account.getPathName(), account);
+        }
+
+        names.replaceAll((k, v) -> Collections.unmodifiableList(v));
+
+        nameMap = Collections.unmodifiableMap(names);
+        pathMap = Collections.unmodifiableMap(paths);
+    }
+
+    boolean isCurrent() {
+        return version == Account.getPathVersion();
+    }
+
+    List<Account> getAccountsByName(final String name) {
+        return nameMap.getOrDefault(name, Collections.emptyList());
+    }
+
+    Account getAccountByName(final String name) {
+        final List<Account> accounts = nameMap.get(name);
+
+        return accounts != null ? accounts.get(0) : null;
+    }
+
+    Account getAccountByPathName(final String pathName) {
+        return pathMap.get(pathName);
+    }
+}
@@ -135,6 +135,95 @@ class AccountProxy {
         }
     }
 
+    /**
+     * Returns the account balances up to and inclusive of each of the supplied dates.
+     * <p>
+     * All balances are computed with a single pass over the sorted transactions.
+     *
+     * @param dates the inclusive ending dates in ascending order
+     * @return the ending balances, one per date
+     */
+    public BigDecimal[] getBalances(final LocalDate[] dates) {
+        return sweepBalances(dates)[0];
+    }
+
+    /**
+     * Returns the balances of the transactions inclusive of each pair of start and end dates.
+     * <p>
+     * All balances are computed with a single pass over the sorted transactions.
+     *
+     * @param startDates the inclusive start dates in ascending order
+     * @param endDates   the inclusive end dates in ascending order
+     * @return the period balances, one per pair of dates
+     */
+    public BigDecimal[] getBalances(final LocalDate[] startDates, final LocalDate[] endDates) {
+        final LocalDate[] openingDates = new LocalDate[startDates.length];
+
+        for (int i = 0; i < startDates.length; i++) {
+            openingDates[i] = startDates[i].minusDays(1);
+        }
+
+        final BigDecimal[][] balances = sweepBalances(openingDates, endDates);
+        final BigDecimal[] result = new BigDecimal[startDates.length];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = balances[1][i].subtract(balances[0][i]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Merges each ascending series of dates against the sorted transaction list and records the running balance at
+     * every date.
+     *
+     * @param series ascending arrays of inclusive ending dates
+     * @return the running balances in the same shape as {@code series}
+     */
+    private BigDecimal[][] sweepBalances(final LocalDate[]... series) {
+        final Lock l = account.getTransactionLock().readLock();
+        l.lock();
+
+        try {
+            final BigDecimal[][] balances = new BigDecimal[series.length][];
+            final int[] cursors = new int[series.length];
+
+            for (int s = 0; s < series.length; s++) {
+                for (int i = 1; i < series[s].length; i++) {
+                    if (series[s][i].isBefore(series[s][i - 1])) {
+                        throw new IllegalArgumentException("Dates must be in ascending order");
+                    }
+                }
+                balances[s] = new BigDecimal[series[s].length];
+            }
+
+            BigDecimal balance = BigDecimal.ZERO;
+
+            for (final Transaction t : account.getSortedTransactionList()) {
+                final LocalDate d = t.getLocalDate();
+
+                // record every date that closes before this transaction
+                for (int s = 0; s < series.length; s++) {
+                    while (cursors[s] < series[s].length && series[s][cursors[s]].isBefore(d)) {
+                        balances[s][cursors[s]++] = balance;
+                    }
+                }
+
+                balance = balance.add(t.getAmount(account));
+            }
+
+            for (int s = 0; s < series.length; s++) {
+                while (cursors[s] < series[s].length) {
+                    balances[s][cursors[s]++] = balance;
+                }
+            }
+
+            return balances;
+        } finally {
+            l.unlock();
+        }
+    }
+
     /**
      * Returns the cash balance of this account.
      *
@@ -0,0 +1,256 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+import jgnash.util.NotNull;
+
+/**
+ * Immutable snapshot of an account tree for evaluating subtree balances in parallel.
+ *
+ * The children of every account are captured once when the snapshot is created.  Balances are then evaluated with a
+ * fork-join task per subtree, and each account only locks itself while its own balances are computed, so no locks are
+ * nested while the tree is walked.  The results include the tree balance of every account in the snapshot, so group
+ * and subtree totals are available without evaluating the tree again.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class AccountTreeSnapshot {
+
+    /**
+     * Subtrees with fewer accounts are evaluated on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 8;
+
+    private static final Account[] NO_CHILDREN = new Account[0];
+
+    private final Account root;
+
+    private final Map<Account, Account[]> childMap;
+
+    /**
+     * Number of accounts in each subtree, including the subtree root.
+     */
+    private final Map<Account, Integer> sizeMap;
+
+    private AccountTreeSnapshot(final Account root, final Map<Account, Account[]> childMap,
+                                final Map<Account, Integer> sizeMap) {
+        this.root = root;
+        this.childMap = childMap;
+        this.sizeMap = sizeMap;
+    }
+
+    /**
+     * Captures the account tree below and including the supplied account.
+     *
+     * @param root root of the tree
+     * @return the snapshot
+     * @see Engine#getAccountTreeSnapshot()
+     */
+    @NotNull
+    public static AccountTreeSnapshot of(@NotNull final Account root) {
+        Objects.requireNonNull(root);
+
+        final Map<Account, Account[]> childMap = new HashMap<>();
+        final Deque<Account> stack = new ArrayDeque<>();
+        final Deque<Account> postOrder = new ArrayDeque<>();
+
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            final Account account = stack.pop();
+            final List<Account> children = account.getChildren();
+
+            childMap.put(account, children.isEmpty() ? NO_CHILDREN : children.toArray(NO_CHILDREN));
+            postOrder.push(account);
+
+            children.forEach(stack::push);
+        }
+
+        // children are always popped before their parents
+        final Map<Account, Integer> sizeMap = new HashMap<>();
+
+        while (!postOrder.isEmpty()) {
+            final Account account = postOrder.pop();
+
+            int size = 1;
+
+            for (final Account child : childMap.get(account)) {
+                size += sizeMap.get(child);
+            }
+
+            sizeMap.put(account, size);
+        }
+
+        return new AccountTreeSnapshot(root, Collections.unmodifiableMap(childMap),
+                Collections.unmodifiableMap(sizeMap));
+    }
+
+    @NotNull
+    public Account getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the number of accounts in the snapshot.
+     *
+     * @return number of accounts
+     */
+    public int size() {
+        return childMap.size();
+    }
+
+    /**
+     * Returns every account in the snapshot, including the root.
+     *
+     * @return unmodifiable set of accounts
+     */
+    @NotNull
+    public Set<Account> getAccounts() {
+        return childMap.keySet();
+    }
+
+    /**
+     * Returns the children of an account as they were when the snapshot was created.
+     *
+     * @param account account in the snapshot
+     * @return unmodifiable list of children
+     */
+    @NotNull
+    public List<Account> getChildren(@NotNull final Account account) {
+        final Account[] children = childMap.get(account);
+
+        return children != null ? List.of(children) : Collections.emptyList();
+    }
+
+    /**
+     * Returns the tree balances of every account in the snapshot up to and inclusive of each of the supplied dates.
+     *
+     * @param dates The inclusive ending dates in ascending order
+     * @param node  The commodity to convert balances to
+     * @return map of tree balances, one per date for each account
+     * @see Account#getBalances(LocalDate[], CurrencyNode)
+     */
+    @NotNull
+    public Map<Account, BigDecimal[]> getTreeBalances(@NotNull final LocalDate[] dates,
+                                                      @NotNull final CurrencyNode node) {
+        Objects.requireNonNull(dates);
+        Objects.requireNonNull(node);
+
+        return evaluate(account -> account.getBalances(dates, node));
+    }
+
+    /**
+     * Returns the tree balances of every account in the snapshot inclusive of each pair of start and end dates.
+     *
+     * @param startDates The inclusive start dates in ascending order
+     * @param endDates   The inclusive end dates in ascending order
+     * @param node       The commodity to convert balances to
+     * @return map of tree balances, one per pair of dates for each account
+     * @see Account#getBalances(LocalDate[], LocalDate[], CurrencyNode)
+     */
+    @NotNull
+    public Map<Account, BigDecimal[]> getTreeBalances(@NotNull final LocalDate[] startDates,
+                                                      @NotNull final LocalDate[] endDates,
+                                                      @NotNull final CurrencyNode node) {
+        Objects.requireNonNull(startDates);
+        Objects.requireNonNull(endDates);
+        Objects.requireNonNull(node);
+
+        return evaluate(account -> account.getBalances(startDates, endDates, node));
+    }
+
+    private Map<Account, BigDecimal[]> evaluate(final Function<Account, BigDecimal[]> balanceFunction) {
+        final Map<Account, BigDecimal[]> results = new ConcurrentHashMap<>(childMap.size() * 2);
+
+        final SubtreeTask task = new SubtreeTask(root, balanceFunction, results);
+
+        if (sizeMap.get(root) < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+
+        return Collections.unmodifiableMap(results);
+    }
+
+    /**
+     * Computes the tree balances of a subtree.  The returned array is owned by the results map and must not be
+     * modified once the task completes.
+     */
+    private class SubtreeTask extends RecursiveTask<BigDecimal[]> {
+
+        private final Account account;
+
+        private final Function<Account, BigDecimal[]> balanceFunction;
+
+        private final Map<Account, BigDecimal[]> results;
+
+        SubtreeTask(final Account account, final Function<Account, BigDecimal[]> balanceFunction,
+                    final Map<Account, BigDecimal[]> results) {
+            this.account = account;
+            this.balanceFunction = balanceFunction;
+            this.results = results;
+        }
+
+        @Override
+        protected BigDecimal[] compute() {
+            final Account[] children = childMap.get(account);
+
+            final SubtreeTask[] tasks = new SubtreeTask[children.length];
+
+            // fork the large subtrees and evaluate the small ones inline
+            for (int i = 0; i < children.length; i++) {
+                tasks[i] = new SubtreeTask(children[i], balanceFunction, results);
+
+                if (sizeMap.get(children[i]) >= PARALLEL_THRESHOLD) {
+                    tasks[i].fork();
+                }
+            }
+
+            final BigDecimal[] balances = balanceFunction.apply(account).clone();
+
+            for (int i = children.length - 1; i >= 0; i--) {
+                final BigDecimal[] childBalances = sizeMap.get(children[i]) >= PARALLEL_THRESHOLD
+                        ? tasks[i].join() : tasks[i].compute();
+
+                for (int j = 0; j < balances.length; j++) {
+                    balances[j] = balances[j].add(childBalances[j]);
+                }
+            }
+
+            results.put(account, balances);
+
+            return balances;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Deflater;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -53,6 +54,8 @@ public class Config extends StoredObject {
 
     private static final String REMOVE_BACKUPS = "RemoveBackups";
 
+    private static final String BACKUP_COMPRESSION_LEVEL = "BackupCompressionLevel";
+
     private static final String LAST_SECURITIES_UPDATE_TIMESTAMP = "LastSecuritiesUpdateTimestamp";
 
     private static final int MAX_BACKUPS_DEFAULT = 5;
@@ -219,6 +222,20 @@ public class Config extends StoredObject {
         setPreference(REMOVE_BACKUPS, Boolean.toString(removeOldBackups));
     }
 
+    int getBackupCompressionLevel() {
+        final String result = getPreference(BACKUP_COMPRESSION_LEVEL);
+
+        if (result != null) {
+            return Integer.parseInt(result);
+        }
+
+        return Deflater.DEFAULT_COMPRESSION;
+    }
+
+    void setBackupCompressionLevel(final int compressionLevel) {
+        setPreference(BACKUP_COMPRESSION_LEVEL, Integer.toString(compressionLevel));
+    }
+
     void setLastSecuritiesUpdateTimestamp(@NotNull final LocalDateTime localDateTime) {
         setPreference(LAST_SECURITIES_UPDATE_TIMESTAMP, localDateTime.toString());
     }
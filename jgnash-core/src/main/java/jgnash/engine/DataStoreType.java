@@ -21,6 +21,7 @@ import jgnash.engine.jpa.JpaH2DataStore;
 import jgnash.engine.jpa.JpaH2MvDataStore;
 import jgnash.engine.jpa.JpaHsqlDataStore;
 import jgnash.engine.xstream.BinaryXStreamDataStore;
+import jgnash.engine.xstream.SegmentDataStore;
 import jgnash.engine.xstream.XMLDataStore;
 import jgnash.resource.util.ResourceUtils;
 
@@ -51,6 +52,10 @@ public enum DataStoreType {
             ResourceUtils.getString("DataStoreType.HSQL"),
             true,
             JpaHsqlDataStore.class),
+    SEGMENT(
+            ResourceUtils.getString("DataStoreType.Segment"),
+            false,
+            SegmentDataStore.class),
     XML(
             ResourceUtils.getString("DataStoreType.XML"),
             false,
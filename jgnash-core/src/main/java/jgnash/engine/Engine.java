@@ -19,6 +19,7 @@ package jgnash.engine;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -27,8 +28,10 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -40,8 +43,10 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -49,10 +54,14 @@ import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 
 import jgnash.engine.attachment.AttachmentManager;
 import jgnash.engine.budget.Budget;
 import jgnash.engine.budget.BudgetGoal;
+import jgnash.engine.changes.ChangeLog;
+import jgnash.engine.changes.ChangeOperation;
+import jgnash.engine.changes.ChangeRecord;
 import jgnash.engine.concurrent.LockManager;
 import jgnash.engine.dao.AccountDAO;
 import jgnash.engine.dao.BudgetDAO;
@@ -67,17 +76,22 @@ import jgnash.engine.message.Message;
 import jgnash.engine.message.MessageBus;
 import jgnash.engine.message.MessageChannel;
 import jgnash.engine.message.MessageProperty;
+import jgnash.engine.recurring.CashFlowForecast;
 import jgnash.engine.recurring.MonthlyReminder;
 import jgnash.engine.recurring.PendingReminder;
 import jgnash.engine.recurring.RecurringIterator;
 import jgnash.engine.recurring.Reminder;
+import jgnash.engine.search.TransactionSearchIndex;
 import jgnash.net.currency.CurrencyUpdateFactory;
 import jgnash.net.security.UpdateFactory;
 import jgnash.resource.util.ResourceUtils;
 import jgnash.time.DateUtils;
+import jgnash.time.Period;
 import jgnash.util.DefaultDaemonThreadFactory;
 import jgnash.util.NotNull;
 import jgnash.util.Nullable;
+import jgnash.util.metrics.Metrics;
+import jgnash.util.metrics.Timer;
 
 import org.apache.commons.collections4.ListUtils;
 
@@ -105,6 +119,21 @@ public class Engine {
 
     private static final long MAXIMUM_TRASH_AGE = 2L * 60L * 1000L; // 2 minutes
 
+    /**
+     * Maximum number of trash objects removed while holding the write lock.
+     */
+    private static final int TRASH_BATCH_SIZE = 50;
+
+    /**
+     * Pause in milliseconds between trash batches.
+     */
+    private static final long TRASH_BATCH_PAUSE = 25;
+
+    /**
+     * Number of changes kept in memory by the change log.
+     */
+    private static final int CHANGE_LOG_CAPACITY = 4096;
+
     /**
      * The maximum number of network errors before scheduled tasks are stopped.
      */
@@ -136,6 +165,12 @@ public class Engine {
     private final ReentrantReadWriteLock dataLock;
 
     private final AtomicInteger backGroundCounter = new AtomicInteger();
+
+    /**
+     * Change data capture log, assigns the data version of each change.
+     */
+    private final ChangeLog changeLog = createChangeLog();
+
     /**
      * Named identifier for this engine instance.
      */
@@ -155,6 +190,11 @@ public class Engine {
      */
     private final ScheduledThreadPoolExecutor backgroundExecutorService;
 
+    /**
+     * Bounded pool for online currency / security updates so they do not serialize behind, or block, trash management
+     */
+    private final ThreadPoolExecutor updateExecutorService;
+
     /**
      * All engine instances will share the same message bus.
      */
@@ -177,6 +217,16 @@ public class Engine {
      */
     private String accountSeparator = null;
 
+    /**
+     * Name and path index of the account tree, rebuilt on demand when the account structure changes.
+     */
+    private volatile AccountIndex accountIndex;
+
+    /**
+     * Transaction search index, created on first use.
+     */
+    private volatile TransactionSearchIndex transactionSearchIndex;
+
     public Engine(final EngineDAO eDAO, final LockManager lockManager, final AttachmentManager attachmentManager, final String name) {
         Objects.requireNonNull(name, "The engine name may not be null");
         Objects.requireNonNull(eDAO, "The engineDAO may not be null");
@@ -192,19 +242,33 @@ public class Engine {
 
         messageBus = MessageBus.getInstance(name);
 
+        final Timer initializeTimer = Metrics.timer("engine.boot.initialize");
+        long start = initializeTimer.start();
+
         initialize();
 
+        initializeTimer.stop(start);
+
+        final Timer checkAndCorrectTimer = Metrics.timer("engine.boot.checkAndCorrect");
+        start = checkAndCorrectTimer.start();
+
         checkAndCorrect();
 
+        checkAndCorrectTimer.stop(start);
+
         backgroundExecutorService = new ScheduledThreadPoolExecutor(1,
                 new DefaultDaemonThreadFactory("Engine Background Executor"));
         backgroundExecutorService.setRemoveOnCancelPolicy(true);
         backgroundExecutorService.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
 
+        updateExecutorService = new ThreadPoolExecutor(UpdateFactory.MAX_WORKERS, UpdateFactory.MAX_WORKERS, 30L,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DefaultDaemonThreadFactory("Engine Update Executor"));
+        updateExecutorService.allowCoreThreadTimeOut(true);
+
         // run trash cleanup every 5 minutes 45 seconds after startup
         backgroundExecutorService.scheduleWithFixedDelay(() -> {
             if (!Thread.currentThread().isInterrupted()) {
-                emptyTrash();
+                emptyTrash(MAXIMUM_TRASH_AGE);
             }
         }, 45, 5L * 60L, TimeUnit.SECONDS);
 
@@ -371,8 +435,13 @@ public class Engine {
      * @param delay delay in seconds
      */
     public void startExchangeRateUpdate(final int delay) {
-        backgroundExecutorService.schedule(new BackgroundCallable(new CurrencyUpdateFactory.UpdateExchangeRatesCallable()), delay,
-                TimeUnit.SECONDS);
+        backgroundExecutorService.schedule(() -> {
+            try {
+                updateExecutorService.submit(new BackgroundCallable(new CurrencyUpdateFactory.UpdateExchangeRatesCallable()));
+            } catch (final RejectedExecutionException ignored) {
+                // ignore, race to shut down the executor was won
+            }
+        }, delay, TimeUnit.SECONDS);
     }
 
     /**
@@ -383,12 +452,10 @@ public class Engine {
     public void startSecuritiesUpdate(final int delay) {
         final List<BackgroundCallable> callables = new ArrayList<>();
 
-        getSecurities().stream().filter(securityNode ->
-                                                securityNode.getQuoteSource() != QuoteSource.NONE).forEach(securityNode -> { // failure will occur if source is not defined
-
-            callables.add(new BackgroundCallable(new UpdateFactory.UpdateSecurityNodeCallable(securityNode)));
-            callables.add(new BackgroundCallable(new UpdateFactory.UpdateSecurityNodeEventsCallable(securityNode)));
-        });
+        // price requests are batched and rate limited per quote provider by the UpdateFactory
+        for (final Callable<Boolean> callable : UpdateFactory.createUpdateCallables(getSecurities())) {
+            callables.add(new BackgroundCallable(callable));
+        }
 
         // Cleanup thread that monitors for excess network connection failures
         new SecuritiesUpdateRunnable(callables, delay).start();
@@ -524,6 +591,13 @@ public class Engine {
         logInfo("Controlled engine shutdown initiated");
 
         shutDownAndWait(backgroundExecutorService);
+        shutDownAndWait(updateExecutorService);
+
+        if (transactionSearchIndex != null) {
+            transactionSearchIndex.close();
+        }
+
+        changeLog.close();
 
         logInfo("Background services have been stopped");
     }
@@ -564,6 +638,16 @@ public class Engine {
         return eDAO.getTrashDAO();
     }
 
+    List<TrashObject> getTrashObjects() {
+        dataLock.readLock().lock();
+
+        try {
+            return getTrashDAO().getTrashObjects();
+        } finally {
+            dataLock.readLock().unlock();
+        }
+    }
+
     private boolean moveObjectToTrash(final Object object) {
         boolean result = false;
 
@@ -587,34 +671,64 @@ public class Engine {
 
     /**
      * Empty the trash if any objects are older than the defined time.
+     *
+     * Expired objects are removed in small batches.  The write lock is only held while a batch is removed and is
+     * released between batches so the application is not stalled when a large amount of trash has accumulated.
+     *
+     * @param maximumAge age in milliseconds a trash object must reach before it is removed
      */
-    private void emptyTrash() {
+    void emptyTrash(final long maximumAge) {
         if (backGroundCounter.incrementAndGet() == 1) {
             messageBus.fireEvent(new Message(MessageChannel.SYSTEM, ChannelEvent.BACKGROUND_PROCESS_STARTED,
                     Engine.this));
         }
 
-        dataLock.writeLock().lock();
-
         try {
             logger.info("Checking for trash");
 
-            final List<TrashObject> trash = getTrashDAO().getTrashObjects();
+            final List<TrashObject> trash;
+
+            dataLock.readLock().lock();
+
+            try {
+                trash = getTrashDAO().getTrashObjects();
+            } finally {
+                dataLock.readLock().unlock();
+            }
+
+            if (trash.isEmpty()) {
+                logger.info("No trash was found");
+                return;
+            }
+
+            final LocalDateTime now = LocalDateTime.now();
+
+            trash.removeIf(o -> ChronoUnit.MILLIS.between(o.getDate(), now) < maximumAge);
 
             /* always sort by the timestamp of the trash object to prevent
              * foreign key removal exceptions when multiple related accounts
              * or objects are removed */
             Collections.sort(trash);
 
-            if (trash.isEmpty()) {
-                logger.info("No trash was found");
-            }
+            for (final List<TrashObject> batch : ListUtils.partition(trash, TRASH_BATCH_SIZE)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
 
-            trash.stream().filter(o -> ChronoUnit.MILLIS.between(o.getDate(), LocalDateTime.now()) >= MAXIMUM_TRASH_AGE)
-                    .forEach(o -> getTrashDAO().remove(o));
-        } finally {
-            dataLock.writeLock().unlock();
+                dataLock.writeLock().lock();
+
+                try {
+                    getTrashDAO().remove(batch);
+                } finally {
+                    dataLock.writeLock().unlock();
+                }
 
+                // yield to foreground work before removing the next batch
+                Thread.sleep(TRASH_BATCH_PAUSE);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
             if (backGroundCounter.decrementAndGet() == 0) {
                 messageBus.fireEvent(new Message(MessageChannel.SYSTEM, ChannelEvent.BACKGROUND_PROCESS_STOPPED,
                         Engine.this));
@@ -644,6 +758,37 @@ public class Engine {
         return reminder;
     }
 
+    /**
+     * Creates the change log.  Changes evicted from memory are spilled to a temporary file if the
+     * {@code jgnash.changelog.spill} system property is set.
+     *
+     * @return the change log
+     */
+    private static ChangeLog createChangeLog() {
+        Path spillFile = null;
+
+        if (Boolean.getBoolean("jgnash.changelog.spill")) {
+            try {
+                spillFile = Files.createTempFile("jgnash-changes", ".log");
+            } catch (final IOException e) {
+                logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+            }
+        }
+
+        return new ChangeLog(CHANGE_LOG_CAPACITY, spillFile);
+    }
+
+    /**
+     * Publishes a change to the data set.  The change is recorded and assigned a data version before the message is
+     * posted, so a listener that takes a snapshot or queries the change log will see the change.
+     *
+     * @param message message describing the change
+     */
+    private void fireChangeEvent(final Message message) {
+        changeLog.record(message);
+        messageBus.fireEvent(message);
+    }
+
     public boolean addReminder(final Reminder reminder) {
         Objects.requireNonNull(reminder.getUuid());
 
@@ -662,7 +807,7 @@ public class Engine {
         }
 
         message.setObject(MessageProperty.REMINDER, reminder);
-        messageBus.fireEvent(message);
+        fireChangeEvent(message);
 
         return result;
     }
@@ -680,7 +825,7 @@ public class Engine {
             Message message = new Message(MessageChannel.REMINDER, ChannelEvent.REMINDER_REMOVE, this);
 
             message.setObject(MessageProperty.REMINDER, reminder);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             result = true;
         }
@@ -731,6 +876,24 @@ public class Engine {
         return pendingList;
     }
 
+    /**
+     * Projects account balances from today through the end date using all enabled reminders.
+     *
+     * @param endDate inclusive end date, no more than {@link CashFlowForecast#MAXIMUM_YEARS} years away
+     * @param period  length of each forecast period
+     * @return the forecast
+     */
+    @NotNull
+    public CashFlowForecast getCashFlowForecast(@NotNull final LocalDate endDate, @NotNull final Period period) {
+        dataLock.readLock().lock();
+
+        try {
+            return new CashFlowForecast(getReminders(), LocalDate.now(), endDate, period);
+        } finally {
+            dataLock.readLock().unlock();
+        }
+    }
+
     public static PendingReminder getPendingReminder(@NotNull Reminder reminder) {
         final RecurringIterator ri = reminder.getIterator();
         LocalDate next = ri.next();
@@ -865,7 +1028,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return status;
         } finally {
@@ -917,7 +1080,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return status;
         } finally {
@@ -961,7 +1124,57 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
+
+            return status;
+        } finally {
+            dataLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a collection of SecurityHistoryNodes to a SecurityNode.  Existing SecurityHistoryNodes with the same date are
+     * replaced.  The history is merged in a single pass, persisted in a single operation, and only one message is
+     * fired, which makes this the preferred method for loading large amounts of price history.
+     *
+     * @param node   SecurityNode to add to
+     * @param hNodes SecurityHistoryNodes to add.  Presorted input is cheapest but is not required
+     * @return <tt>true</tt> if successful
+     */
+    public boolean addSecurityHistory(@NotNull final SecurityNode node,
+                                      @NotNull final Collection<SecurityHistoryNode> hNodes) {
+        Objects.requireNonNull(node);
+        Objects.requireNonNull(hNodes);
+
+        if (hNodes.isEmpty()) {
+            return true;
+        }
+
+        dataLock.writeLock().lock();
+
+        try {
+            final List<SecurityHistoryNode> replaced = new ArrayList<>();
+            final List<SecurityHistoryNode> added = node.addHistoryNodes(hNodes, replaced);
+
+            for (final SecurityHistoryNode hNode : replaced) {
+                moveObjectToTrash(hNode);
+                logInfo(ResourceUtils.getString("Message.RemovingSecurityHistory", hNode.getLocalDate(),
+                        node.getSymbol()));
+            }
+
+            final boolean status = getCommodityDAO().addSecurityHistory(node, added, replaced);
+
+            Message message;
+
+            if (status) {
+                clearCachedAccountBalance(node);
+                message = new Message(MessageChannel.COMMODITY, ChannelEvent.SECURITY_HISTORY_ADD, this);
+            } else {
+                message = new Message(MessageChannel.COMMODITY, ChannelEvent.SECURITY_HISTORY_ADD_FAILED, this);
+            }
+
+            message.setObject(MessageProperty.COMMODITY, node);
+            fireChangeEvent(message);
 
             return status;
         } finally {
@@ -1003,7 +1216,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return status;
         } finally {
@@ -1243,7 +1456,7 @@ public class Engine {
                 message = new Message(MessageChannel.COMMODITY, ChannelEvent.CURRENCY_REMOVE_FAILED, this);
             }
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return status;
 
@@ -1280,7 +1493,7 @@ public class Engine {
                 message = new Message(MessageChannel.COMMODITY, ChannelEvent.SECURITY_REMOVE_FAILED, this);
             }
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return status;
 
@@ -1325,7 +1538,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return status;
         } finally {
@@ -1363,7 +1576,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return status;
         } finally {
@@ -1421,7 +1634,7 @@ public class Engine {
 
             Message message = new Message(MessageChannel.CONFIG, ChannelEvent.CONFIG_MODIFY, this);
             message.setObject(MessageProperty.CONFIG, currencyConfig);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             Account root = getRootAccount();
 
@@ -1431,7 +1644,7 @@ public class Engine {
 
             message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY, this);
             message.setObject(MessageProperty.ACCOUNT, root);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -1495,7 +1708,7 @@ public class Engine {
 
             message.setObject(MessageProperty.EXCHANGE_RATE, exchangeRate);
 
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -1524,7 +1737,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.EXCHANGE_RATE, exchangeRate);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -1593,7 +1806,7 @@ public class Engine {
                 }
             }
 
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
             return status;
         } finally {
             dataLock.writeLock().unlock();
@@ -1613,7 +1826,7 @@ public class Engine {
 
         message.setObject(MessageProperty.REMINDER, reminder);
 
-        messageBus.fireEvent(message);
+        fireChangeEvent(message);
 
         return result;
     }
@@ -1648,7 +1861,7 @@ public class Engine {
             Message message = new Message(MessageChannel.CONFIG, ChannelEvent.CONFIG_MODIFY, this);
             message.setObject(MessageProperty.CONFIG, localConfig);
 
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -1679,17 +1892,51 @@ public class Engine {
     public Account getAccountByName(@NotNull final String accountName) {
         Objects.requireNonNull(accountName);
 
-        final List<Account> list = getAccountList();
+        return getAccountIndex().getAccountByName(accountName);
+    }
+
+    /**
+     * Returns all accounts with a matching account name.
+     *
+     * @param accountName Account name to search for. <b>Must not be null</b>
+     * @return An unmodifiable list of matching accounts in natural sort order, empty if none are found
+     */
+    @NotNull
+    public List<Account> getAccountsByName(@NotNull final String accountName) {
+        Objects.requireNonNull(accountName);
 
-        // sort for consistent search order
-        Collections.sort(list);
+        return getAccountIndex().getAccountsByName(accountName);
+    }
 
-        for (final Account account : list) {
-            if (accountName.equals(account.getName())) {
-                return account;
-            }
+    /**
+     * Search for an account with a matching full path name.
+     *
+     * @param pathName Account path name to search for, using the current account separator. <b>Must not be null</b>
+     * @return The matching account. {@code null} if not found.
+     * @see Account#getPathName()
+     */
+    public Account getAccountByPathName(@NotNull final String pathName) {
+        Objects.requireNonNull(pathName);
+
+        return getAccountIndex().getAccountByPathName(pathName);
+    }
+
+    /**
+     * Returns a current account index without locking.  Concurrent rebuilds are harmless as the index is immutable.
+     *
+     * @return current account index
+     */
+    private AccountIndex getAccountIndex() {
+        AccountIndex index = accountIndex;
+
+        if (index == null || !index.isCurrent()) {
+            final long version = Account.getPathVersion();  // read first so a concurrent change forces a rebuild
+
+            index = new AccountIndex(getAccountList(), version);
+            accountIndex = index;
         }
-        return null;
+
+        return index;
     }
 
     /**
@@ -1724,6 +1971,11 @@ public class Engine {
 
     public void refresh(final StoredObject object) {
         eDAO.refresh(object);
+
+        // a refreshed account may have been renamed or moved by a remote client
+        if (object instanceof Account) {
+            Account.invalidatePathNames();
+        }
     }
 
     /**
@@ -1756,14 +2008,14 @@ public class Engine {
             if (result) {
                 message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_ADD, this);
                 message.setObject(MessageProperty.ACCOUNT, child);
-                messageBus.fireEvent(message);
+                fireChangeEvent(message);
 
                 logInfo(rb.getString("Message.AccountAdd"));
                 result = true;
             } else {
                 message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_ADD_FAILED, this);
                 message.setObject(MessageProperty.ACCOUNT, child);
-                messageBus.fireEvent(message);
+                fireChangeEvent(message);
                 result = false;
             }
             return result;
@@ -1772,6 +2024,97 @@ public class Engine {
         }
     }
 
+    /**
+     * Returns a consistent snapshot of the complete account tree.  Account structure changes are blocked while the
+     * snapshot is captured.
+     *
+     * @return snapshot of the account tree
+     */
+    @NotNull
+    public AccountTreeSnapshot getAccountTreeSnapshot() {
+        dataLock.readLock().lock();
+
+        try {
+            return AccountTreeSnapshot.of(getRootAccount());
+        } finally {
+            dataLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the current data version.  The version is incremented each time a change to the data set is recorded
+     * and may be compared to {@link EngineSnapshot#getVersion()} to test if a snapshot is stale.
+     *
+     * @return the current data version
+     */
+    public long getDataVersion() {
+        return changeLog.getVersion();
+    }
+
+    /**
+     * Returns the changes made after a data version.  Caches and clients remember the last version they have seen and
+     * use the changes to resynchronize incrementally.
+     *
+     * @param version the last data version the caller has seen
+     * @return the changes in version order, or an empty {@code Optional} if the changes are no longer available and
+     * the caller must reload
+     * @see ChangeLog#getChangesSince(long)
+     */
+    @NotNull
+    public Optional<List<ChangeRecord>> getChangesSince(final long version) {
+        return changeLog.getChangesSince(version);
+    }
+
+    /**
+     * Returns the changes made after a data version that was read from a change log.  The change log is replaced each
+     * time the engine boots, so a caller holding a version from a previous change log must reload.
+     *
+     * @param changeLogId id of the change log the version was read from
+     * @param version     the last data version the caller has seen
+     * @return the changes in version order, or an empty {@code Optional} if the change log has been replaced or the
+     * changes are no longer available and the caller must reload
+     * @see #getChangeLogId()
+     */
+    @NotNull
+    public Optional<List<ChangeRecord>> getChangesSince(@NotNull final UUID changeLogId, final long version) {
+        if (!changeLog.getId().equals(changeLogId)) {
+            return Optional.empty();
+        }
+
+        return changeLog.getChangesSince(version);
+    }
+
+    /**
+     * Returns the id of the change log.  Data versions are only comparable between calls that return the same id.
+     *
+     * @return change log id
+     */
+    @NotNull
+    public UUID getChangeLogId() {
+        return changeLog.getId();
+    }
+
+    /**
+     * Captures an immutable, versioned view of the accounts, transactions, security prices and exchange rates.
+     * <p>
+     * Writers are only blocked while the snapshot is captured.  The sorted transaction and security history lists are
+     * copy on write and are shared with the snapshot instead of copied, so a snapshot is cheap to take and long running
+     * readers such as reports and exports may work from it without holding any locks.
+     *
+     * @return a snapshot of the current data set
+     */
+    @NotNull
+    public EngineSnapshot snapshot() {
+        dataLock.readLock().lock();
+
+        try {
+            return EngineSnapshot.of(changeLog.getVersion(), getRootAccount(), getCommodityDAO().getCurrencies(),
+                    getCommodityDAO().getSecurities(), getCommodityDAO().getExchangeRates());
+        } finally {
+            dataLock.readLock().unlock();
+        }
+    }
+
     /**
      * Return the root account.
      *
@@ -1809,7 +2152,7 @@ public class Engine {
             if (account.contains(newParent)) {
                 Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY_FAILED, this);
                 message.setObject(MessageProperty.ACCOUNT, account);
-                messageBus.fireEvent(message);
+                fireChangeEvent(message);
 
                 logInfo(rb.getString("Message.AccountMoveFailed"));
 
@@ -1828,7 +2171,7 @@ public class Engine {
                 Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY, this);
                 message.setObject(MessageProperty.ACCOUNT, oldParent);
 
-                messageBus.fireEvent(message);
+                fireChangeEvent(message);
             }
 
             newParent.addChild(account);
@@ -1839,7 +2182,7 @@ public class Engine {
             Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY, this);
             message.setObject(MessageProperty.ACCOUNT, newParent);
 
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             logInfo(rb.getString(MESSAGE_ACCOUNT_MODIFY));
 
@@ -1864,13 +2207,13 @@ public class Engine {
         if (result) {
             final Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY, this);
             message.setObject(MessageProperty.ACCOUNT, account);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             logInfo(rb.getString(MESSAGE_ACCOUNT_MODIFY));
         } else {
             final Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY_FAILED, this);
             message.setObject(MessageProperty.ACCOUNT, account);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         }
 
         return result;
@@ -1917,13 +2260,13 @@ public class Engine {
             if (result) {
                 message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY, this);
                 message.setObject(MessageProperty.ACCOUNT, account);
-                messageBus.fireEvent(message);
+                fireChangeEvent(message);
 
                 logInfo(rb.getString(MESSAGE_ACCOUNT_MODIFY));
             } else {
                 message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY_FAILED, this);
                 message.setObject(MessageProperty.ACCOUNT, account);
-                messageBus.fireEvent(message);
+                fireChangeEvent(message);
             }
 
             /* Check to see if the account needs to be moved */
@@ -1976,7 +2319,7 @@ public class Engine {
 
             Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY, this);
             message.setObject(MessageProperty.ACCOUNT, account);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             logInfo(rb.getString(MESSAGE_ACCOUNT_MODIFY));
         } finally {
@@ -1996,7 +2339,7 @@ public class Engine {
         if (value != null && value.length() > Account.MAX_ATTRIBUTE_LENGTH) {
             Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY_FAILED, this);
             message.setObject(MessageProperty.ACCOUNT, account);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             logInfo("The maximum length of the attribute was exceeded");
 
@@ -2011,7 +2354,7 @@ public class Engine {
 
             Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_ATTRIBUTE_MODIFY, this);
             message.setObject(MessageProperty.ACCOUNT, account);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             logInfo(rb.getString(MESSAGE_ACCOUNT_MODIFY));
         } finally {
@@ -2066,13 +2409,13 @@ public class Engine {
             if (result) {
                 message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_REMOVE, this);
                 message.setObject(MessageProperty.ACCOUNT, account);
-                messageBus.fireEvent(message);
+                fireChangeEvent(message);
 
                 logInfo(rb.getString("Message.AccountRemove"));
             } else {
                 message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_REMOVE_FAILED, this);
                 message.setObject(MessageProperty.ACCOUNT, account);
-                messageBus.fireEvent(message);
+                fireChangeEvent(message);
             }
 
             return result;
@@ -2150,7 +2493,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.ACCOUNT, account);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -2184,7 +2527,7 @@ public class Engine {
 
             message.setObject(MessageProperty.ACCOUNT, account);
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return result;
 
@@ -2221,7 +2564,7 @@ public class Engine {
 
             message.setObject(MessageProperty.ACCOUNT, account);
             message.setObject(MessageProperty.COMMODITY, node);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return result;
 
@@ -2293,7 +2636,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.BUDGET, budget);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             return result;
 
@@ -2314,7 +2657,7 @@ public class Engine {
             Message message = new Message(MessageChannel.BUDGET, ChannelEvent.BUDGET_REMOVE, this);
 
             message.setObject(MessageProperty.BUDGET, budget);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             result = true;
         } catch (final Exception ex) {
@@ -2359,7 +2702,7 @@ public class Engine {
             message.setObject(MessageProperty.BUDGET, budget);
             message.setObject(MessageProperty.ACCOUNT, account);
 
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             logger.log(Level.FINE, "Budget goal updated for {0}", account.getPathName());
         } finally {
@@ -2385,7 +2728,7 @@ public class Engine {
             }
 
             message.setObject(MessageProperty.BUDGET, budget);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
 
             logger.log(Level.FINE, "Budget updated");
 
@@ -2516,21 +2859,7 @@ public class Engine {
 
                 /* If successful, extract and enter a default exchange rate for the transaction date if a rate has not been set */
                 if (result) {
-                    // no rate for the date has been set
-                    transaction.getTransactionEntries().stream()
-                            .filter(TransactionEntry::isMultiCurrency)
-                            .forEach(entry -> {
-                                final ExchangeRate rate = getExchangeRate(entry.getDebitAccount().getCurrencyNode(),
-                                        entry.getCreditAccount().getCurrencyNode());
-
-                                if (rate.getRate(transaction.getLocalDate()).equals(BigDecimal.ZERO)) { // no rate for the date has been set
-                                    final BigDecimal exchangeRate = entry.getDebitAmount()
-                                                                            .abs().divide(entry.getCreditAmount().abs(), MathConstants.mathContext);
-
-                                    setExchangeRate(entry.getCreditAccount().getCurrencyNode(),
-                                            entry.getDebitAccount().getCurrencyNode(), exchangeRate, transaction.getLocalDate());
-                                }
-                            });
+                    extractExchangeRates(transaction);
                 }
             }
 
@@ -2542,6 +2871,83 @@ public class Engine {
         }
     }
 
+    /**
+     * Adds a batch of transactions.  The engine lock is acquired once, each account sorts its transactions once and
+     * the transactions are committed to the data store together.  Invalid transactions are skipped.
+     *
+     * @param transactions transactions to add
+     * @return the transactions that were added
+     */
+    public List<Transaction> addTransactions(final Collection<Transaction> transactions) {
+
+        dataLock.writeLock().lock();
+
+        try {
+            final List<Transaction> valid = new ArrayList<>(transactions.size());
+            final Map<Account, List<Transaction>> accountBatches = new HashMap<>();
+
+            for (final Transaction transaction : transactions) {
+                if (isTransactionValid(transaction)) {
+                    valid.add(transaction);
+
+                    for (final Account account : transaction.getAccounts()) {
+                        accountBatches.computeIfAbsent(account, k -> new ArrayList<>()).add(transaction);
+                    }
+                } else {
+                    postTransactionAdd(transaction, false);
+                }
+            }
+
+            if (valid.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            accountBatches.forEach((account, batch) -> {
+                if (account.addTransactions(batch) != batch.size()) {
+                    logSevere("Failed to add the Transaction");
+                }
+            });
+
+            final boolean result = getTransactionDAO().addTransactions(valid);
+
+            logInfo(rb.getString("Message.TransactionAdd"));
+
+            if (result) {
+                valid.forEach(this::extractExchangeRates);
+            }
+
+            for (final Transaction transaction : valid) {
+                postTransactionAdd(transaction, result);
+            }
+
+            return result ? valid : Collections.emptyList();
+        } finally {
+            dataLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Extracts and enters a default exchange rate for the transaction date if a rate has not been set.
+     *
+     * @param transaction multi-currency transaction
+     */
+    private void extractExchangeRates(final Transaction transaction) {
+        transaction.getTransactionEntries().stream()
+                .filter(TransactionEntry::isMultiCurrency)
+                .forEach(entry -> {
+                    final ExchangeRate rate = getExchangeRate(entry.getDebitAccount().getCurrencyNode(),
+                            entry.getCreditAccount().getCurrencyNode());
+
+                    if (rate.getRate(transaction.getLocalDate()).equals(BigDecimal.ZERO)) { // no rate for the date has been set
+                        final BigDecimal exchangeRate = entry.getDebitAmount()
+                                                                .abs().divide(entry.getCreditAmount().abs(), MathConstants.mathContext);
+
+                        setExchangeRate(entry.getCreditAccount().getCurrencyNode(),
+                                entry.getDebitAccount().getCurrencyNode(), exchangeRate, transaction.getLocalDate());
+                    }
+                });
+    }
+
     public boolean removeTransaction(final Transaction transaction) {
 
         dataLock.writeLock().lock();
@@ -2623,7 +3029,7 @@ public class Engine {
             Message message = new Message(MessageChannel.CONFIG, ChannelEvent.CONFIG_MODIFY, this);
             message.setObject(MessageProperty.CONFIG, transactionConfig);
 
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -2638,6 +3044,36 @@ public class Engine {
         return getTransactionDAO().getTransactions();
     }
 
+    /**
+     * Returns the search index for all transactions.  The index is built on first use and then kept current as
+     * transactions are added and removed.
+     *
+     * @return transaction search index
+     */
+    @NotNull
+    public TransactionSearchIndex getTransactionSearchIndex() {
+        TransactionSearchIndex index = transactionSearchIndex;
+
+        if (index == null) {
+            synchronized (this) {
+                index = transactionSearchIndex;
+
+                if (index == null) {
+                    dataLock.readLock().lock();
+
+                    try {   // block transaction changes while the index is built
+                        index = new TransactionSearchIndex(this);
+                        transactionSearchIndex = index;
+                    } finally {
+                        dataLock.readLock().unlock();
+                    }
+                }
+            }
+        }
+
+        return index;
+    }
+
     /**
      * Returns a list of transactions with external links.
      *
@@ -2653,6 +3089,11 @@ public class Engine {
 
     private void postTransactionAdd(final Transaction transaction, final boolean result) {
 
+        // the change is recorded once, not once per account message
+        if (result) {
+            changeLog.append(ChangeOperation.ADD, transaction.getUuid(), MessageProperty.TRANSACTION);
+        }
+
         for (Account a : transaction.getAccounts()) {
             Message message;
 
@@ -2664,12 +3105,17 @@ public class Engine {
             message.setObject(MessageProperty.ACCOUNT, a);
             message.setObject(MessageProperty.TRANSACTION, transaction);
 
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         }
     }
 
     private void postTransactionRemove(final Transaction transaction, final boolean result) {
 
+        // the change is recorded once, not once per account message
+        if (result) {
+            changeLog.append(ChangeOperation.REMOVE, transaction.getUuid(), MessageProperty.TRANSACTION);
+        }
+
         for (Account a : transaction.getAccounts()) {
             Message message;
 
@@ -2681,7 +3127,7 @@ public class Engine {
             message.setObject(MessageProperty.ACCOUNT, a);
             message.setObject(MessageProperty.TRANSACTION, transaction);
 
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         }
     }
 
@@ -2705,7 +3151,7 @@ public class Engine {
 
             Message message = new Message(MessageChannel.CONFIG, ChannelEvent.CONFIG_MODIFY, this);
             message.setObject(MessageProperty.CONFIG, getConfig());
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -2755,7 +3201,7 @@ public class Engine {
 
             Message message = new Message(MessageChannel.CONFIG, ChannelEvent.CONFIG_MODIFY, this);
             message.setObject(MessageProperty.CONFIG, backupConfig);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -2778,7 +3224,7 @@ public class Engine {
 
             Message message = new Message(MessageChannel.CONFIG, ChannelEvent.CONFIG_MODIFY, this);
             message.setObject(MessageProperty.CONFIG, backupConfig);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -2788,6 +3234,44 @@ public class Engine {
         return getConfig().removeOldBackups();
     }
 
+    /**
+     * Returns the deflater compression level used for compressed backups.
+     *
+     * @return compression level from 0 to 9, or -1 for the default
+     */
+    public int getBackupCompressionLevel() {
+        return getConfig().getBackupCompressionLevel();
+    }
+
+    /**
+     * Sets the deflater compression level used for compressed backups.  Lower levels complete faster at the
+     * expense of larger files.
+     *
+     * @param compressionLevel compression level from 0 to 9, or -1 for the default
+     */
+    public void setBackupCompressionLevel(final int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
+
+        dataLock.writeLock().lock();
+
+        try {
+            final Config backupConfig = getConfig();
+
+            backupConfig.setBackupCompressionLevel(compressionLevel);
+            getConfigDAO().update(backupConfig);
+
+            config = null;  // clear stale cached reference
+
+            Message message = new Message(MessageChannel.CONFIG, ChannelEvent.CONFIG_MODIFY, this);
+            message.setObject(MessageProperty.CONFIG, backupConfig);
+            fireChangeEvent(message);
+        } finally {
+            dataLock.writeLock().unlock();
+        }
+    }
+
     public void setRemoveOldBackups(final boolean removeOldBackups) {
         dataLock.writeLock().lock();
 
@@ -2801,7 +3285,7 @@ public class Engine {
 
             Message message = new Message(MessageChannel.CONFIG, ChannelEvent.CONFIG_MODIFY, this);
             message.setObject(MessageProperty.CONFIG, backupConfig);
-            messageBus.fireEvent(message);
+            fireChangeEvent(message);
         } finally {
             dataLock.writeLock().unlock();
         }
@@ -2863,7 +3347,7 @@ public class Engine {
 
             int errors = 0;
 
-            final CompletionService<Boolean> completionService = new ExecutorCompletionService<>(backgroundExecutorService);
+            final CompletionService<Boolean> completionService = new ExecutorCompletionService<>(updateExecutorService);
 
             // submit the callables
             for (final BackgroundCallable backgroundCallable : backgroundCallables) {
@@ -26,16 +26,25 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.DoubleConsumer;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.Preferences;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import jgnash.engine.jpa.JpaNetworkServer;
 import jgnash.engine.jpa.SqlUtils;
@@ -44,6 +53,7 @@ import jgnash.engine.message.Message;
 import jgnash.engine.message.MessageBus;
 import jgnash.engine.message.MessageChannel;
 import jgnash.engine.xstream.BinaryXStreamDataStore;
+import jgnash.engine.xstream.SegmentDataStore;
 import jgnash.engine.xstream.XMLDataStore;
 import jgnash.resource.util.OS;
 import jgnash.resource.util.ResourceUtils;
@@ -51,6 +61,8 @@ import jgnash.util.FileMagic;
 import jgnash.util.FileMagic.FileType;
 import jgnash.util.FileUtils;
 import jgnash.util.Nullable;
+import jgnash.util.metrics.Metrics;
+import jgnash.util.metrics.Timer;
 
 /**
  * Factory class for obtaining an engine instance.
@@ -87,6 +99,15 @@ public class EngineFactory {
 
     private static final Logger logger = Logger.getLogger(EngineFactory.class.getName());
 
+    private static final int BACKUP_THREAD_KEEP_ALIVE = 5;
+
+    private static final int BACKUP_SHUTDOWN_TIMEOUT = 10;
+
+    /**
+     * Share of the reported save as progress used to collect the objects to write
+     */
+    private static final double COPY_PROGRESS = 0.1;
+
     private static final Map<String, Engine> engineMap = new HashMap<>();
 
     private static final Map<String, DataStore> dataStoreMap = new HashMap<>();
@@ -132,41 +153,110 @@ public class EngineFactory {
         return engineMap.get(name);
     }
 
-    private static void exportCompressedXML(final String engineName) {
-        final Engine oldEngine = engineMap.get(engineName);
-        final DataStore oldDataStore = dataStoreMap.get(engineName);
+    /**
+     * Writes compressed backups in the background after an engine has been closed.  The worker thread is not a
+     * daemon so the JVM will not exit before queued backups complete, and it is released once idle.
+     */
+    private static final ThreadPoolExecutor backupExecutor = new ThreadPoolExecutor(0, 1, BACKUP_THREAD_KEEP_ALIVE,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "Compressed Backup"));
 
-        exportCompressedXML(oldDataStore.getFileName(), oldEngine.getStoredObjects());
+    static {
+        // System.exit does not wait for non daemon threads
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            backupExecutor.shutdown();
+
+            try {
+                if (!backupExecutor.awaitTermination(BACKUP_SHUTDOWN_TIMEOUT, TimeUnit.MINUTES)) {
+                    logger.warning("Compressed backup did not complete before shutdown");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+
+    /**
+     * Blocks until all queued background backups have completed.
+     */
+    public static void waitForBackups() {
+        try {
+            backupExecutor.submit(() -> { }).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | RejectedExecutionException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
     }
 
     public static void exportCompressedXML(final String fileName, final Collection<StoredObject> objects) {
+        exportCompressedXML(fileName, objects, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Streams the objects as XML directly into a time stamped zip file next to the original file.  If the content
+     * is identical to the most recent existing backup, the new backup is discarded so unchanged files do not push
+     * older backups out of the retained limit.
+     *
+     * @param fileName         file name the backup is based on
+     * @param objects          objects to write, these must not be modified while the file is written
+     * @param compressionLevel deflater compression level
+     */
+    public static void exportCompressedXML(final String fileName, final Collection<StoredObject> objects,
+                                           final int compressionLevel) {
         final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd-HHmm");
 
-        final DataStore xmlDataStore = new XMLDataStore();
+        final String baseFile = FileUtils.stripFileExtension(fileName) + "-" + dateTimeFormatter.format(LocalDateTime.now());
 
-        Path xmlFile = Paths.get(FileUtils.stripFileExtension(fileName) + "-" + dateTimeFormatter.format(LocalDateTime.now())
-                + xmlDataStore.getFileExt());
+        final Path zipFile = Paths.get(baseFile + ".zip");
 
-        // push the intermediary file to the temporary directory
-        xmlFile = Paths.get(System.getProperty("java.io.tmpdir") + xmlFile.getFileSystem().getSeparator()
-                + xmlFile.getFileName().toString());
+        // strip the path when creating the zip entry
+        final String entryName = Paths.get(baseFile + XMLDataStore.FILE_EXT).getFileName().toString();
 
-        xmlDataStore.saveAs(xmlFile, objects, ignored -> { });
+        try {
+            XMLDataStore.saveAsCompressed(zipFile, entryName, objects, compressionLevel);
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            return;
+        }
 
-        Path zipFile = Paths.get(FileUtils.stripFileExtension(fileName) + "-" + dateTimeFormatter.format(LocalDateTime.now())
-                + ".zip");
+        final List<Path> backups = getCompressedXMLFiles(fileName);
+        backups.remove(zipFile);
 
-        FileUtils.compressFile(xmlFile, zipFile);
+        if (!backups.isEmpty() && isSameCompressedXML(backups.get(backups.size() - 1), zipFile)) {
+            try {
+                Files.delete(zipFile);
+                logger.info("Content has not changed since the last backup");
+            } catch (final IOException e) {
+                logger.log(Level.WARNING, "Was not able to delete the duplicate backup: {0}", zipFile);
+            }
+        }
+    }
 
-        try {
-            Files.delete(xmlFile);
+    /**
+     * Compares the checksum and size of the XML entries of two compressed backups.
+     *
+     * @param first  first backup
+     * @param second second backup
+     * @return {@code true} if the uncompressed content is the same
+     */
+    private static boolean isSameCompressedXML(final Path first, final Path second) {
+        try (final ZipFile firstZip = new ZipFile(first.toFile()); final ZipFile secondZip = new ZipFile(second.toFile())) {
+            if (firstZip.size() != 1 || secondZip.size() != 1) {
+                return false;
+            }
+
+            final ZipEntry firstEntry = firstZip.entries().nextElement();
+            final ZipEntry secondEntry = secondZip.entries().nextElement();
+
+            return firstEntry.getCrc() != -1 && firstEntry.getCrc() == secondEntry.getCrc()
+                    && firstEntry.getSize() == secondEntry.getSize();
         } catch (final IOException e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            logger.log(Level.WARNING, "Was not able to delete the temporary file: {0}", xmlFile);
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+            return false;
         }
     }
 
-    public static void removeOldCompressedXML(final String fileName, final int limit) {
+    private static List<Path> getCompressedXMLFiles(final String fileName) {
         final Path path = Paths.get(fileName);
 
         String baseFile = FileUtils.stripFileExtension(path.toString());
@@ -177,7 +267,11 @@ public class EngineFactory {
         }
 
         // old files use the base file name plus a '-' and a 8 digit date plus a '-' and a 4 digit time stamp
-        final List<Path> fileList = FileUtils.getDirectoryListing(path.getParent(), baseFile + "-\\d{8}-\\d{4}.zip");
+        return FileUtils.getDirectoryListing(path.getParent(), baseFile + "-\\d{8}-\\d{4}.zip");
+    }
+
+    public static void removeOldCompressedXML(final String fileName, final int limit) {
+        final List<Path> fileList = getCompressedXMLFiles(fileName);
 
         if (fileList.size() > limit) {
             for (int i = 0; i < fileList.size() - limit; i++) {
@@ -190,6 +284,23 @@ public class EngineFactory {
         }
     }
 
+    /**
+     * Creates a detached copy of the stored objects for a background backup.  The copy is taken while the data store
+     * is still open, so it does not depend on lazy loading or the state of the data store once it has been closed.
+     *
+     * @param engine engine to copy
+     * @return an unmodifiable copy of the stored objects, or {@code null} if the copy failed
+     */
+    @Nullable
+    private static Collection<StoredObject> getObjectsForBackup(final Engine engine) {
+        try {
+            return Collections.unmodifiableList(BinaryXStreamDataStore.copyStoredObjects(engine.getStoredObjects()));
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            return null;
+        }
+    }
+
     public static synchronized void closeEngine(final String engineName) {
         Engine oldEngine = engineMap.get(engineName);
         DataStore oldDataStore = dataStoreMap.get(engineName);
@@ -204,14 +315,27 @@ public class EngineFactory {
             MessageBus.getInstance(engineName).fireBlockingEvent(message);  // block until event has been completely processed
 
             if (oldEngine.isFileDirty()) {  // should a backup file be created?
-                // Dump an XML backup
-                if (oldEngine.createBackups() && oldDataStore.isLocal()) {
-                    exportCompressedXML(engineName);
-                }
-
-                // Purge old backups
-                if (oldEngine.removeOldBackups() && oldDataStore.isLocal()) {
-                    removeOldCompressedXML(oldDataStore.getFileName(), oldEngine.getRetainedBackupLimit());
+                if (oldDataStore.isLocal() && (oldEngine.createBackups() || oldEngine.removeOldBackups())) {
+                    final String fileName = oldDataStore.getFileName();
+
+                    // capture everything needed before shutdown
+                    final Collection<StoredObject> objects = oldEngine.createBackups()
+                            ? getObjectsForBackup(oldEngine) : null;
+                    final int compressionLevel = oldEngine.getBackupCompressionLevel();
+                    final boolean removeOldBackups = oldEngine.removeOldBackups();
+                    final int retainedBackupLimit = oldEngine.getRetainedBackupLimit();
+
+                    backupExecutor.execute(() -> {
+                        // Dump an XML backup
+                        if (objects != null) {
+                            exportCompressedXML(fileName, objects, compressionLevel);
+                        }
+
+                        // Purge old backups
+                        if (removeOldBackups) {
+                            removeOldCompressedXML(fileName, retainedBackupLimit);
+                        }
+                    });
                 }
             } else {
                 logger.info("File was not dirty");
@@ -275,8 +399,13 @@ public class EngineFactory {
 
         final DataStore dataStore = type.getDataStore();
 
+        final Timer openTimer = Metrics.timer("engine.boot.open." + type.name());
+        final long openStart = openTimer.start();
+
         final Engine engine = dataStore.getLocalEngine(fileName, engineName, password);
 
+        openTimer.stop(openStart);
+
         if (engine != null) {
             logger.info(ResourceUtils.getString("Message.EngineStart"));
             engineMap.put(engineName, engine);
@@ -362,6 +491,8 @@ public class EngineFactory {
                 return DataStoreType.XML;
             case BinaryXStream:
                 return DataStoreType.BINARY_XSTREAM;
+            case Segment:
+                return DataStoreType.SEGMENT;
             case h2:
                 return DataStoreType.H2_DATABASE;
             case h2mv:
@@ -391,6 +522,9 @@ public class EngineFactory {
             case BinaryXStream:
                 version = BinaryXStreamDataStore.getFileVersion(file);
                 break;
+            case Segment:
+                version = SegmentDataStore.getFileVersion(file);
+                break;
             case h2:
             case h2mv:
             case hsql:
@@ -510,65 +644,26 @@ public class EngineFactory {
         if (!current.equals(newFile)) {
             final DataStoreType currentType = dataStoreMap.get(EngineFactory.DEFAULT).getType();
 
-            // Need to create an interim copy when converting a relational database
-            if (currentType.supportsRemote && newFileType.supportsRemote) {
-                final Path tempFile = Files.createTempFile("jgnash-tmp", BinaryXStreamDataStore.FILE_EXT);
+            final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
 
-                Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
-
-                if (engine != null) {
-                    // Get collection of object to persist
-                    Collection<StoredObject> objects = engine.getStoredObjects();
-
-                    // Write everything to a temporary file
-                    DataStoreType.BINARY_XSTREAM.getDataStore().saveAs(tempFile, objects, value -> {
-                        percentCompleteConsumer.accept(value * 0.5);   // doing it twice
-                    });
+            if (engine != null) {
+                final Collection<StoredObject> objects = getObjectsForSaveAs(engine, currentType, newFileType,
+                        percentCompleteConsumer);
 
-                    // Close the current file
+                // a detached copy no longer needs the source, so release it before the copy is persisted
+                if (isCopyRequired(currentType, newFileType)) {
                     EngineFactory.closeEngine(EngineFactory.DEFAULT);
-
-                    // Boot the engine using the temporary file
-                    EngineFactory.bootLocalEngine(tempFile.toString(), EngineFactory.DEFAULT,
-                            EngineFactory.EMPTY_PASSWORD);
-
-                    engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
-
-                    if (engine != null) {
-
-                        // Get collection of object to persist
-                        objects = engine.getStoredObjects();
-
-                        // Write everything to the new file and close
-                        newFileType.getDataStore().saveAs(newFile, objects,
-                                value -> percentCompleteConsumer.accept(0.5 + value * 0.5));
-                        EngineFactory.closeEngine(EngineFactory.DEFAULT);
-
-                        percentCompleteConsumer.accept(1);
-
-                        // Boot the engine with the new file
-                        EngineFactory.bootLocalEngine(newFile.toString(), EngineFactory.DEFAULT,
-                                EngineFactory.EMPTY_PASSWORD);
-                    }
-
-                    try {
-                        Files.delete(tempFile);
-                    } catch (final IOException ioe) {
-                        Logger.getLogger(EngineFactory.class.getName())
-                                .info(ResourceUtils.getString("Message.Error.RemoveTempFile"));
-                    }
                 }
-            } else {    // Simple
-                Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
 
-                if (engine != null) {
-                    final Collection<StoredObject> objects = engine.getStoredObjects();
-                    newFileType.getDataStore().saveAs(newFile, objects, percentCompleteConsumer);
-                    EngineFactory.closeEngine(EngineFactory.DEFAULT);
+                newFileType.getDataStore().saveAs(newFile, objects,
+                        value -> percentCompleteConsumer.accept(COPY_PROGRESS + value * (1 - COPY_PROGRESS)));
+                EngineFactory.closeEngine(EngineFactory.DEFAULT);
 
-                    EngineFactory.bootLocalEngine(newFile.toString(), EngineFactory.DEFAULT,
-                            EngineFactory.EMPTY_PASSWORD);
-                }
+                percentCompleteConsumer.accept(1);
+
+                // Boot the engine with the new file
+                EngineFactory.bootLocalEngine(newFile.toString(), EngineFactory.DEFAULT,
+                        EngineFactory.EMPTY_PASSWORD);
             }
         }
     }
@@ -622,51 +717,67 @@ public class EngineFactory {
             // Create a utility engine instead of using the default
             Engine engine = EngineFactory.bootLocalEngine(fileName, ENGINE, password);
 
-            if (currentType.supportsRemote && newFileType.supportsRemote) { // Relational database
-                final Path tempFile = Files.createTempFile("jgnash", BinaryXStreamDataStore.FILE_EXT);
-
-                if (engine != null) {
-                    // Get collection of object to persist
-                    Collection<StoredObject> objects = engine.getStoredObjects();
+            if (engine != null) {
+                final Collection<StoredObject> objects = getObjectsForSaveAs(engine, currentType, newFileType,
+                        percentCompleteConsumer);
 
-                    // Write everything to a temporary file
-                    DataStoreType.BINARY_XSTREAM.getDataStore().saveAs(tempFile, objects,  value -> {
-                        percentCompleteConsumer.accept(value * 0.5);   // doing it twice
-                    });
+                // a detached copy no longer needs the source, so release it before the copy is persisted
+                if (isCopyRequired(currentType, newFileType)) {
                     EngineFactory.closeEngine(ENGINE);
+                }
+
+                newFileType.getDataStore().saveAs(newFile, objects,
+                        value -> percentCompleteConsumer.accept(COPY_PROGRESS + value * (1 - COPY_PROGRESS)));
+                EngineFactory.closeEngine(ENGINE);
 
-                    // Boot the engine with the temporary file
-                    engine = EngineFactory.bootLocalEngine(tempFile.toString(), ENGINE, EngineFactory.EMPTY_PASSWORD);
+                if (isCopyRequired(currentType, newFileType)) {
+                    // reset the password
+                    SqlUtils.changePassword(newFileName, EngineFactory.EMPTY_PASSWORD, password);
+                }
 
-                    if (engine != null) {
+                percentCompleteConsumer.accept(1);
+            }
+        }
+    }
 
-                        // Get collection of object to persist
-                        objects = engine.getStoredObjects();
+    /**
+     * Returns the objects to be written by a save as operation.  Objects loaded by a relational database remain
+     * bound to its persistence context, so they are streamed through an in memory copy before another relational
+     * database persists them.  This replaces writing and booting an intermediate file.
+     *
+     * @param engine                  source engine
+     * @param currentType             source {@code DataStoreType}
+     * @param newFileType             destination {@code DataStoreType}
+     * @param percentCompleteConsumer progress consumer
+     * @return objects to write in dependency order
+     * @throws IOException thrown if the objects could not be copied
+     */
+    private static Collection<StoredObject> getObjectsForSaveAs(final Engine engine, final DataStoreType currentType,
+                                                                final DataStoreType newFileType,
+                                                                final DoubleConsumer percentCompleteConsumer)
+            throws IOException {
 
-                        // Write everything to the new file
-                        newFileType.getDataStore().saveAs(newFile, objects,
-                                value -> percentCompleteConsumer.accept(0.5 + value * 0.5));
-                        EngineFactory.closeEngine(ENGINE);
+        percentCompleteConsumer.accept(0);
 
-                        // reset the password
-                        SqlUtils.changePassword(newFileName, EngineFactory.EMPTY_PASSWORD, password);
-                        percentCompleteConsumer.accept(1);
-                    }
+        Collection<StoredObject> objects = engine.getStoredObjects();
 
-                    try {
-                        Files.delete(tempFile);
-                    } catch (final IOException ioe) {
-                        Logger.getLogger(EngineFactory.class.getName())
-                                .info(ResourceUtils.getString("Message.Error.RemoveTempFile"));
-                    }
-                }
-            } else {    // Simple
-                if (engine != null) {
-                    final Collection<StoredObject> objects = engine.getStoredObjects();
-                    newFileType.getDataStore().saveAs(newFile, objects, percentCompleteConsumer);
-                    EngineFactory.closeEngine(ENGINE);
-                }
-            }
+        if (isCopyRequired(currentType, newFileType)) {
+            objects = BinaryXStreamDataStore.copyStoredObjects(objects);
         }
+
+        percentCompleteConsumer.accept(COPY_PROGRESS);
+
+        return objects;
+    }
+
+    /**
+     * Determines if a save as operation must persist a detached copy of the source objects.
+     *
+     * @param currentType source {@code DataStoreType}
+     * @param newFileType destination {@code DataStoreType}
+     * @return true if both data stores are relational
+     */
+    private static boolean isCopyRequired(final DataStoreType currentType, final DataStoreType newFileType) {
+        return currentType.supportsRemote && newFileType.supportsRemote;
     }
 }
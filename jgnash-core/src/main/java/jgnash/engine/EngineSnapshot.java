@@ -0,0 +1,371 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import jgnash.util.NotNull;
+
+/**
+ * Immutable, versioned view of the accounts, transactions, security prices and exchange rates of an {@code Engine}.
+ * <p>
+ * The sorted transaction list of each account and the sorted history of each security are copy on write, so the
+ * snapshot shares the lists that were current when it was captured instead of copying them.  Later changes replace
+ * those lists and are not visible to the snapshot.  Exchange rate histories are small and are copied.
+ * <p>
+ * The snapshot may be read from any thread without locks.  The captured objects themselves are not copied and must be
+ * treated as read only.
+ *
+ * @author Craig Cavanaugh
+ * @see Engine#snapshot()
+ */
+public final class EngineSnapshot {
+
+    private final long version;
+
+    private final AccountTreeSnapshot accountTree;
+
+    private final Map<Account, List<Transaction>> transactionMap;
+
+    private final List<CurrencyNode> currencies;
+
+    private final List<SecurityNode> securities;
+
+    private final Map<SecurityNode, List<SecurityHistoryNode>> securityHistoryMap;
+
+    private final Map<String, List<ExchangeRateHistoryNode>> exchangeRateHistoryMap;
+
+    private EngineSnapshot(final long version, final AccountTreeSnapshot accountTree,
+                           final Map<Account, List<Transaction>> transactionMap, final List<CurrencyNode> currencies,
+                           final List<SecurityNode> securities,
+                           final Map<SecurityNode, List<SecurityHistoryNode>> securityHistoryMap,
+                           final Map<String, List<ExchangeRateHistoryNode>> exchangeRateHistoryMap) {
+        this.version = version;
+        this.accountTree = accountTree;
+        this.transactionMap = transactionMap;
+        this.currencies = currencies;
+        this.securities = securities;
+        this.securityHistoryMap = securityHistoryMap;
+        this.exchangeRateHistoryMap = exchangeRateHistoryMap;
+    }
+
+    /**
+     * Captures a snapshot.  The caller must block writers while the snapshot is captured.
+     *
+     * @param version       data version of the captured state
+     * @param root          root of the account tree
+     * @param currencies    currencies to capture
+     * @param securities    securities to capture
+     * @param exchangeRates exchange rates to capture
+     * @return the snapshot
+     */
+    static EngineSnapshot of(final long version, final Account root, final List<CurrencyNode> currencies,
+                             final List<SecurityNode> securities, final List<ExchangeRate> exchangeRates) {
+
+        final AccountTreeSnapshot accountTree = AccountTreeSnapshot.of(root);
+
+        final Map<Account, List<Transaction>> transactionMap = new HashMap<>(accountTree.size() * 2);
+
+        for (final Account account : accountTree.getAccounts()) {
+            transactionMap.put(account, account.getSortedTransactionList());
+        }
+
+        final Map<SecurityNode, List<SecurityHistoryNode>> securityHistoryMap = new HashMap<>();
+
+        for (final SecurityNode node : securities) {
+            securityHistoryMap.put(node, node.getSortedHistoryNodes());
+        }
+
+        final Map<String, List<ExchangeRateHistoryNode>> exchangeRateHistoryMap = new HashMap<>();
+
+        for (final ExchangeRate exchangeRate : exchangeRates) {
+            exchangeRateHistoryMap.put(exchangeRate.getRateId(),
+                    Collections.unmodifiableList(exchangeRate.getHistory()));
+        }
+
+        return new EngineSnapshot(version, accountTree, Collections.unmodifiableMap(transactionMap),
+                List.copyOf(currencies), List.copyOf(securities), Collections.unmodifiableMap(securityHistoryMap),
+                Collections.unmodifiableMap(exchangeRateHistoryMap));
+    }
+
+    /**
+     * Returns the data version the snapshot was captured at.
+     *
+     * @return data version
+     * @see Engine#getDataVersion()
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the account tree as it was when the snapshot was captured.
+     *
+     * @return the account tree
+     */
+    @NotNull
+    public AccountTreeSnapshot getAccountTree() {
+        return accountTree;
+    }
+
+    /**
+     * Returns the sorted transactions of an account.
+     *
+     * @param account account in the snapshot
+     * @return unmodifiable list of sorted transactions, empty if the account is not part of the snapshot
+     */
+    @NotNull
+    public List<Transaction> getTransactions(@NotNull final Account account) {
+        return transactionMap.getOrDefault(account, Collections.emptyList());
+    }
+
+    /**
+     * Returns the sorted transactions of an account that occur during the specified period.  The dates are inclusive.
+     *
+     * @param account   account in the snapshot
+     * @param startDate inclusive start date
+     * @param endDate   inclusive end date
+     * @return unmodifiable list of sorted transactions
+     */
+    @NotNull
+    public List<Transaction> getTransactions(@NotNull final Account account, @NotNull final LocalDate startDate,
+                                             @NotNull final LocalDate endDate) {
+        final List<Transaction> transactions = getTransactions(account);
+
+        final int fromIndex = firstIndexAfter(transactions, startDate.minusDays(1));
+        final int toIndex = firstIndexAfter(transactions, endDate);
+
+        return fromIndex < toIndex ? transactions.subList(fromIndex, toIndex) : Collections.emptyList();
+    }
+
+    /**
+     * Returns the running balance of an account after each of the supplied transactions using the natural transaction
+     * sort order.  The balance of an investment account is the cash balance.
+     *
+     * @param account      account in the snapshot
+     * @param transactions consecutive sorted transactions of the account, usually a range returned by
+     *                     {@link #getTransactions(Account, LocalDate, LocalDate)}
+     * @return running balances, one per transaction
+     */
+    @NotNull
+    public BigDecimal[] getRunningBalances(@NotNull final Account account,
+                                           @NotNull final List<Transaction> transactions) {
+        final BigDecimal[] balances = new BigDecimal[transactions.size()];
+
+        if (transactions.isEmpty()) {
+            return balances;
+        }
+
+        final List<Transaction> sortedList = getTransactions(account);
+
+        final int fromIndex = Collections.binarySearch(sortedList, transactions.get(0));
+
+        if (fromIndex < 0) {
+            throw new IllegalArgumentException("The transactions are not part of the snapshot");
+        }
+
+        BigDecimal balance = BigDecimal.ZERO;
+
+        for (int i = 0; i < fromIndex; i++) {
+            balance = balance.add(sortedList.get(i).getAmount(account));
+        }
+
+        for (int i = 0; i < balances.length; i++) {
+            balance = balance.add(transactions.get(i).getAmount(account));
+            balances[i] = balance;
+        }
+
+        return balances;
+    }
+
+    /**
+     * Returns the balances of an account up to and inclusive of each of the supplied dates.  The balances are computed
+     * with a single pass over the captured transactions and are converted with the captured exchange rates.
+     * <p>
+     * Investment accounts are valued at market and are delegated to {@link Account#getBalances(LocalDate[],
+     * CurrencyNode)}.
+     *
+     * @param account account in the snapshot
+     * @param dates   The inclusive ending dates in ascending order
+     * @param node    The commodity to convert balances to
+     * @return the balances, one per date
+     * @throws IllegalArgumentException if the dates are not in ascending order
+     */
+    @NotNull
+    public BigDecimal[] getBalances(@NotNull final Account account, @NotNull final LocalDate[] dates,
+                                    @NotNull final CurrencyNode node) {
+        Objects.requireNonNull(dates);
+        Objects.requireNonNull(node);
+
+        if (account.memberOf(AccountGroup.INVEST)) {
+            return account.getBalances(dates, node);
+        }
+
+        final List<Transaction> transactions = getTransactions(account);
+
+        final BigDecimal rate = node.equals(account.getCurrencyNode()) ? null
+                : getExchangeRate(account.getCurrencyNode(), node);
+
+        final BigDecimal[] balances = new BigDecimal[dates.length];
+
+        BigDecimal balance = BigDecimal.ZERO;
+
+        int index = 0;
+
+        for (int i = 0; i < dates.length; i++) {
+            if (i > 0 && dates[i].isBefore(dates[i - 1])) {
+                throw new IllegalArgumentException("Dates must be in ascending order");
+            }
+
+            while (index < transactions.size() && !transactions.get(index).getLocalDate().isAfter(dates[i])) {
+                balance = balance.add(transactions.get(index++).getAmount(account));
+            }
+
+            balances[i] = rate != null ? balance.multiply(rate) : balance;
+        }
+
+        return balances;
+    }
+
+    /**
+     * Returns the currencies as they were when the snapshot was captured.
+     *
+     * @return unmodifiable list of currencies
+     */
+    @NotNull
+    public List<CurrencyNode> getCurrencies() {
+        return currencies;
+    }
+
+    /**
+     * Returns the securities as they were when the snapshot was captured.
+     *
+     * @return unmodifiable list of securities
+     */
+    @NotNull
+    public List<SecurityNode> getSecurities() {
+        return securities;
+    }
+
+    /**
+     * Returns the sorted price history of a security.  Prices are not adjusted for splits.
+     *
+     * @param node security in the snapshot
+     * @return unmodifiable list of history nodes, empty if the security is not part of the snapshot
+     */
+    @NotNull
+    public List<SecurityHistoryNode> getHistoryNodes(@NotNull final SecurityNode node) {
+        return securityHistoryMap.getOrDefault(node, Collections.emptyList());
+    }
+
+    /**
+     * Returns the latest price history of a security on or before a date.
+     *
+     * @param node security in the snapshot
+     * @param date date to search for
+     * @return the closest history node if found
+     */
+    @NotNull
+    public Optional<SecurityHistoryNode> getClosestHistoryNode(@NotNull final SecurityNode node,
+                                                               @NotNull final LocalDate date) {
+        final List<SecurityHistoryNode> history = getHistoryNodes(node);
+
+        int low = 0;
+        int high = history.size();
+
+        // first index with a date after the search date
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+
+            if (history.get(mid).getLocalDate().isAfter(date)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return low > 0 ? Optional.of(history.get(low - 1)) : Optional.empty();
+    }
+
+    /**
+     * Returns the sorted exchange rate history between two currencies.
+     *
+     * @param baseCurrency     base currency
+     * @param exchangeCurrency exchange currency
+     * @return unmodifiable list of history nodes, empty if a rate has not been set
+     */
+    @NotNull
+    public List<ExchangeRateHistoryNode> getExchangeRateHistory(@NotNull final CurrencyNode baseCurrency,
+                                                                @NotNull final CurrencyNode exchangeCurrency) {
+        Objects.requireNonNull(baseCurrency);
+        Objects.requireNonNull(exchangeCurrency);
+
+        return exchangeRateHistoryMap.getOrDefault(Engine.buildExchangeRateId(baseCurrency, exchangeCurrency),
+                Collections.emptyList());
+    }
+
+    /**
+     * Returns the latest exchange rate between two currencies.
+     *
+     * @param baseCurrency     base currency
+     * @param exchangeCurrency exchange currency
+     * @return the exchange rate, {@code BigDecimal.ONE} if a rate has not been set
+     * @see CurrencyNode#getExchangeRate(CurrencyNode)
+     */
+    @NotNull
+    public BigDecimal getExchangeRate(@NotNull final CurrencyNode baseCurrency,
+                                      @NotNull final CurrencyNode exchangeCurrency) {
+        if (baseCurrency.equals(exchangeCurrency)) {
+            return BigDecimal.ONE;
+        }
+
+        final List<ExchangeRateHistoryNode> history = getExchangeRateHistory(baseCurrency, exchangeCurrency);
+
+        BigDecimal rate = history.isEmpty() ? BigDecimal.ONE : history.get(history.size() - 1).getRate();
+
+        if (baseCurrency.getSymbol().compareToIgnoreCase(exchangeCurrency.getSymbol()) < 0) {
+            rate = BigDecimal.ONE.divide(rate, MathConstants.mathContext);
+        }
+
+        return rate;
+    }
+
+    private static int firstIndexAfter(final List<Transaction> sortedList, final LocalDate date) {
+        int low = 0;
+        int high = sortedList.size();
+
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+
+            if (sortedList.get(mid).getLocalDate().isAfter(date)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return low;
+    }
+}
@@ -54,6 +54,35 @@ class InvestmentAccountProxy extends AccountProxy {
         return getCashBalance(date).add(getMarketValue(date));
     }
 
+    /**
+     * Returns the cash balance plus the market value of the shares for each date.  The cash balances are
+     * computed in a single pass, but the market value must still be priced for each date.
+     *
+     * @param dates the inclusive ending dates in ascending order
+     * @return the ending balances, one per date
+     */
+    @Override
+    public BigDecimal[] getBalances(final LocalDate[] dates) {
+        final BigDecimal[] balances = super.getBalances(dates);
+
+        for (int i = 0; i < dates.length; i++) {
+            balances[i] = balances[i].add(getMarketValue(dates[i]));
+        }
+
+        return balances;
+    }
+
+    @Override
+    public BigDecimal[] getBalances(final LocalDate[] startDates, final LocalDate[] endDates) {
+        final BigDecimal[] balances = super.getBalances(startDates, endDates);
+
+        for (int i = 0; i < startDates.length; i++) {
+            balances[i] = balances[i].add(getMarketValue(startDates[i], endDates[i]));
+        }
+
+        return balances;
+    }
+
     /**
      * Returns the cash balance of this account.  Cash balance may be referred to as the "sweep" account where
      * the money market fund (cash) does not have it's own account number and the user see's it as a cash balance
@@ -113,7 +113,7 @@ public class InvestmentPerformanceSummary {
 
     private void collectSubAccountTransactions(final Account account, final List<Transaction> transactions) {
         for (final Account child : account.getChildren(Comparators.getAccountByCode())) {
-            transactions.addAll(child.getTransactions(getStartDate(), getEndDate()));
+            transactions.addAll(child.getTransactionRange(getStartDate(), getEndDate()));
 
             if (child.getChildCount() > 0) {
                 collectSubAccountTransactions(child, transactions);
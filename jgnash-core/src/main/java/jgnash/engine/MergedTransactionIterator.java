@@ -0,0 +1,110 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Iterates over several sorted lists of {@code Transactions} in sorted order using a k-way merge.
+ *
+ * A transaction found in more than one list is returned once.  Equal transactions are always merged next to each
+ * other because the natural order of transactions is total.
+ *
+ * @author Craig Cavanaugh
+ */
+final class MergedTransactionIterator implements Iterator<Transaction> {
+
+    private final PriorityQueue<Cursor> queue;
+
+    private Transaction last;
+
+    MergedTransactionIterator(final List<List<Transaction>> sortedLists) {
+        queue = new PriorityQueue<>(Math.max(1, sortedLists.size()));
+
+        for (final List<Transaction> list : sortedLists) {
+            final Iterator<Transaction> iterator = list.iterator();
+
+            if (iterator.hasNext()) {
+                queue.add(new Cursor(iterator));
+            }
+        }
+
+        skipDuplicates();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    public Transaction next() {
+        if (queue.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        last = advance();
+
+        skipDuplicates();
+
+        return last;
+    }
+
+    /**
+     * Removes the head of the queue and returns its transaction.
+     *
+     * @return the next transaction in sort order
+     */
+    private Transaction advance() {
+        final Cursor cursor = queue.poll();
+        final Transaction transaction = cursor.current;
+
+        if (cursor.iterator.hasNext()) {
+            cursor.current = cursor.iterator.next();
+            queue.add(cursor);
+        }
+
+        return transaction;
+    }
+
+    private void skipDuplicates() {
+        while (!queue.isEmpty() && queue.peek().current == last) {
+            advance();
+        }
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+
+        final Iterator<Transaction> iterator;
+
+        Transaction current;
+
+        Cursor(final Iterator<Transaction> iterator) {
+            this.iterator = iterator;
+            this.current = iterator.next();
+        }
+
+        @Override
+        public int compareTo(final Cursor other) {
+            return current.compareTo(other.current);
+        }
+    }
+}
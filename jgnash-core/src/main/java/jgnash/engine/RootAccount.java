@@ -55,7 +55,7 @@ public class RootAccount extends Account {
      * @return returns an empty string.
      */
     @Override
-    public synchronized String getPathName() {
+    public String getPathName() {
         return "";
     }
 }
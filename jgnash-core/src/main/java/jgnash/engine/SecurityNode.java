@@ -20,6 +20,7 @@ package jgnash.engine;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -166,8 +167,15 @@ public class SecurityNode extends CommodityNode {
         lock.writeLock().lock();
 
         try {
-            sortedHistoryNodeCache.add(node);
-            Collections.sort(sortedHistoryNodeCache);
+            final int index = indexOf(node.getLocalDate());
+
+            // insert at the sorted position instead of resorting the entire list, copy on write
+            final List<SecurityHistoryNode> list = new ArrayList<>(sortedHistoryNodeCache.size() + 1);
+
+            list.addAll(sortedHistoryNodeCache);
+            list.add(index < 0 ? -index - 1 : index, node);
+
+            sortedHistoryNodeCache = list;
 
             return historyNodes.add(node);
         } finally {
@@ -175,17 +183,111 @@ public class SecurityNode extends CommodityNode {
         }
     }
 
+    /**
+     * Merges a collection of {@code SecurityHistoryNode} into the history in a single pass.  A node with the same date
+     * as an existing node replaces it.  If the collection contains more than one node for a date, the last one wins.
+     *
+     * @param nodes    {@code SecurityHistoryNodes} to add
+     * @param replaced receives the existing {@code SecurityHistoryNodes} that were replaced
+     * @return the {@code SecurityHistoryNodes} that were added
+     */
+    List<SecurityHistoryNode> addHistoryNodes(final Collection<SecurityHistoryNode> nodes,
+                                              final List<SecurityHistoryNode> replaced) {
+        final List<SecurityHistoryNode> incoming = new ArrayList<>(nodes);
+
+        incoming.sort(null);    // stable, so the last node of a duplicated date stays last and presorted input is cheap
+
+        final List<SecurityHistoryNode> accepted = new ArrayList<>(incoming.size());
+
+        lock.writeLock().lock();
+
+        try {
+            final List<SecurityHistoryNode> merged = new ArrayList<>(sortedHistoryNodeCache.size() + incoming.size());
+
+            int i = 0;
+            int j = 0;
+
+            while (i < sortedHistoryNodeCache.size() || j < incoming.size()) {
+                if (j == incoming.size()) {
+                    merged.add(sortedHistoryNodeCache.get(i++));
+                    continue;
+                }
+
+                final SecurityHistoryNode node = incoming.get(j++);
+
+                // skip all but the last incoming node for a date
+                if (j < incoming.size() && incoming.get(j).getLocalDate().equals(node.getLocalDate())) {
+                    continue;
+                }
+
+                while (i < sortedHistoryNodeCache.size()
+                        && sortedHistoryNodeCache.get(i).getLocalDate().isBefore(node.getLocalDate())) {
+                    merged.add(sortedHistoryNodeCache.get(i++));
+                }
+
+                if (i < sortedHistoryNodeCache.size()
+                        && sortedHistoryNodeCache.get(i).getLocalDate().equals(node.getLocalDate())) {
+                    replaced.add(sortedHistoryNodeCache.get(i++));
+                }
+
+                merged.add(node);
+                accepted.add(node);
+            }
+
+            // equality is date based, so replaced nodes must be removed before the new nodes are added
+            replaced.forEach(historyNodes::remove);
+            historyNodes.addAll(accepted);
+
+            sortedHistoryNodeCache = merged;
+
+            return accepted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Binary search of the sorted history for a date.  Must be called with the lock held.
+     *
+     * @param date date to search for
+     * @return index of the node if found, otherwise {@code (-(insertion point) - 1)}
+     */
+    private int indexOf(final LocalDate date) {
+        int low = 0;
+        int high = sortedHistoryNodeCache.size() - 1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = sortedHistoryNodeCache.get(mid).getLocalDate().compareTo(date);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
     boolean removeHistoryNode(final LocalDate date) {
         lock.writeLock().lock();
 
         try {
-            final boolean result = historyNodes.removeIf(node -> node.getLocalDate().compareTo(date) == 0);
+            final int index = indexOf(date);
+
+            if (index >= 0) {
+                // copy on write, published lists are never modified
+                final List<SecurityHistoryNode> list = new ArrayList<>(sortedHistoryNodeCache);
 
-            if (result) {
-                sortedHistoryNodeCache.removeIf(node -> node.getLocalDate().compareTo(date) == 0);
+                historyNodes.remove(list.remove(index));
+
+                sortedHistoryNodeCache = list;
             }
 
-            return result;
+            return index >= 0;
         } finally {
             lock.writeLock().unlock();
         }
@@ -229,22 +331,13 @@ public class SecurityNode extends CommodityNode {
      * @return <tt>true</tt> if this SecurityNode contains a SecurityHistoryNode with the specified date
      */
     public boolean contains(final LocalDate date) {
-        boolean result = false;
-
         lock.readLock().lock();
 
         try {
-            for (final SecurityHistoryNode node : historyNodes) {
-                if (node.getLocalDate().compareTo(date) == 0) {
-                    result = true;
-                    break;
-                }
-            }
+            return indexOf(date) >= 0;
         } finally {
             lock.readLock().unlock();
         }
-
-        return result;
     }
 
     /**
@@ -309,6 +402,23 @@ public class SecurityNode extends CommodityNode {
         }
     }
 
+    /**
+     * Returns the sorted history without applying split adjustments.  The sorted history is copy on write, so the
+     * returned list is never modified and later changes to the history are not visible.
+     *
+     * @return unmodifiable list of history nodes
+     * @see EngineSnapshot
+     */
+    List<SecurityHistoryNode> getSortedHistoryNodes() {
+        lock.readLock().lock();
+
+        try {
+            return Collections.unmodifiableList(sortedHistoryNodeCache);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Returns the history node events split into groups by historical splits or reverse splits.
      *
@@ -389,19 +499,9 @@ public class SecurityNode extends CommodityNode {
         lock.readLock().lock();
 
         try {
-            SecurityHistoryNode hNode = null;
-
-            // Work backwards through the list as the newest date is requested the most
-            for (int i = sortedHistoryNodeCache.size() - 1; i >= 0; i--) {
-                final SecurityHistoryNode node = sortedHistoryNodeCache.get(i);
+            final int index = indexOf(date);
 
-                if (date.compareTo(node.getLocalDate()) == 0) {
-                    hNode = node;
-                    break;
-                }
-            }
-
-            return Optional.ofNullable(hNode);
+            return index >= 0 ? Optional.of(sortedHistoryNodeCache.get(index)) : Optional.empty();
         } finally {
             lock.readLock().unlock();
         }
@@ -0,0 +1,383 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.changes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jgnash.engine.StoredObject;
+import jgnash.engine.message.Message;
+import jgnash.engine.message.MessageChannel;
+import jgnash.engine.message.MessageProperty;
+import jgnash.util.NotNull;
+import jgnash.util.Nullable;
+
+/**
+ * Change data capture log.
+ * <p>
+ * Every change to the data set is assigned a monotonic version and recorded as a {@code ChangeRecord}.  The most
+ * recent records are kept in a bounded ring buffer.  If a spill file is supplied, records evicted from the ring buffer
+ * are appended to it so older changes remain available.  Consumers remember the last version they have seen and call
+ * {@link #getChangesSince(long)} to resynchronize incrementally instead of reloading everything.
+ * <p>
+ * Versions start over with each new change log, so every log is given a unique id.  A consumer that remembers a
+ * version must also remember the id and reload if the id has changed.
+ * <p>
+ * Every call to {@link #append} is a new change.  A transaction change is announced once per account, so the engine
+ * appends it once per operation and {@link #record(Message)} ignores the per-account transaction messages.
+ *
+ * @author Craig Cavanaugh
+ */
+public class ChangeLog implements AutoCloseable {
+
+    /**
+     * Version, operation, object UUID and type.
+     */
+    private static final int RECORD_SIZE = Long.BYTES + Byte.BYTES + Long.BYTES * 2 + Byte.BYTES;
+
+    private static final ChangeOperation[] OPERATIONS = ChangeOperation.values();
+
+    private static final MessageProperty[] TYPES = MessageProperty.values();
+
+    /**
+     * Number of spilled records read at a time.
+     */
+    private static final int SPILL_READ_RECORDS = 8192;
+
+    /**
+     * Largest number of changes that may be returned by a query.
+     */
+    private static final long MAX_CHANGES = Integer.MAX_VALUE - 8;
+
+    private static final Logger logger = Logger.getLogger(ChangeLog.class.getName());
+
+    private final UUID id = UUID.randomUUID();
+
+    private final ChangeRecord[] buffer;
+
+    /**
+     * Index of the oldest record in the ring buffer.
+     */
+    private int head;
+
+    private int size;
+
+    /**
+     * Version of the most recent change.
+     */
+    private long version;
+
+    private final Path spillFile;
+
+    private FileChannel spillChannel;
+
+    /**
+     * Number of records in the spill file.  The first record in the spill file is always version 1.
+     */
+    private long spillCount;
+
+    /**
+     * Creates a new change log.
+     *
+     * @param capacity  maximum number of records kept in memory
+     * @param spillFile file that evicted records are appended to, may be {@code null} to discard evicted records
+     */
+    public ChangeLog(final int capacity, @Nullable final Path spillFile) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+
+        buffer = new ChangeRecord[capacity];
+
+        this.spillFile = spillFile;
+
+        if (spillFile != null) {
+            try {
+                spillChannel = FileChannel.open(spillFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (final IOException e) {
+                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the unique id of this change log.
+     *
+     * @return change log id
+     */
+    @NotNull
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Returns the version of the most recent change.
+     *
+     * @return the current version, {@code 0} if nothing has changed
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Records the change described by an engine message.  Messages that do not describe a successful change are
+     * ignored, as are transaction messages because the engine appends those once per operation.
+     *
+     * @param message engine message
+     * @return the version of the change, or the current version if nothing was recorded
+     */
+    public long record(@NotNull final Message message) {
+        final ChangeOperation operation = getOperation(message);
+
+        if (operation != null && message.getChannel() != MessageChannel.TRANSACTION) {
+            final MessageProperty type = getType(message);
+            final StoredObject object = message.getObject(type);
+
+            if (object != null) {
+                return append(operation, object.getUuid(), type);
+            }
+        }
+
+        return getVersion();
+    }
+
+    /**
+     * Appends a change to the log.
+     *
+     * @param operation kind of change
+     * @param uuid      UUID of the changed object
+     * @param type      type of the changed object
+     * @return the version of the change
+     */
+    public synchronized long append(@NotNull final ChangeOperation operation, @NotNull final UUID uuid,
+                                    @NotNull final MessageProperty type) {
+        final ChangeRecord record = new ChangeRecord(++version, operation, uuid, type);
+
+        if (size == buffer.length) {
+            spill(buffer[head]);
+
+            buffer[head] = record;
+            head = (head + 1) % buffer.length;
+        } else {
+            buffer[(head + size) % buffer.length] = record;
+            size++;
+        }
+
+        return version;
+    }
+
+    /**
+     * Returns the changes made after a version in version order.
+     *
+     * @param since the last version the caller has seen
+     * @return the changes, or an empty {@code Optional} if some of the changes are no longer available, the version
+     * is newer than any change in this log or there are too many changes, and the caller must reload
+     */
+    @NotNull
+    public synchronized Optional<List<ChangeRecord>> getChangesSince(final long since) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Version may not be negative");
+        }
+
+        if (since == version) {
+            return Optional.of(Collections.emptyList());
+        }
+
+        // a version from another change log, or more changes than a list may hold
+        if (since > version || version - since > MAX_CHANGES) {
+            return Optional.empty();
+        }
+
+        final long oldest = version - size + 1;    // oldest version held in memory
+
+        final List<ChangeRecord> changes = new ArrayList<>((int) Math.min(version - since, buffer.length));
+
+        if (since + 1 < oldest) {
+            if (spillChannel == null || spillCount < oldest - 1 || !readSpill(since, changes)) {
+                return Optional.empty();
+            }
+        }
+
+        for (int i = (int) Math.max(since + 1 - oldest, 0); i < size; i++) {
+            changes.add(buffer[(head + i) % buffer.length]);
+        }
+
+        return Optional.of(Collections.unmodifiableList(changes));
+    }
+
+    /**
+     * Closes and deletes the spill file.
+     */
+    @Override
+    public synchronized void close() {
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+                Files.deleteIfExists(spillFile);
+            } catch (final IOException e) {
+                logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+            }
+
+            spillChannel = null;
+        }
+    }
+
+    private void spill(final ChangeRecord record) {
+        if (spillChannel != null) {
+            final ByteBuffer byteBuffer = ByteBuffer.allocate(RECORD_SIZE);
+
+            byteBuffer.putLong(record.getVersion());
+            byteBuffer.put((byte) record.getOperation().ordinal());
+            byteBuffer.putLong(record.getUuid().getMostSignificantBits());
+            byteBuffer.putLong(record.getUuid().getLeastSignificantBits());
+            byteBuffer.put((byte) record.getType().ordinal());
+            byteBuffer.flip();
+
+            try {
+                while (byteBuffer.hasRemaining()) {
+                    spillChannel.write(byteBuffer, spillCount * RECORD_SIZE + byteBuffer.position());
+                }
+
+                spillCount++;
+            } catch (final IOException e) {
+                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+                close();    // older changes are no longer complete
+            }
+        }
+    }
+
+    /**
+     * Reads the spilled records after a version.  Versions are contiguous, so the first record is read directly.  The
+     * records are read in bounded chunks.
+     */
+    private boolean readSpill(final long since, final List<ChangeRecord> changes) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(SPILL_READ_RECORDS * RECORD_SIZE);
+
+        long position = since * RECORD_SIZE;
+        final long end = spillCount * RECORD_SIZE;
+
+        while (position < end) {
+            byteBuffer.clear();
+            byteBuffer.limit((int) Math.min(byteBuffer.capacity(), end - position));
+
+            try {
+                while (byteBuffer.hasRemaining()) {
+                    if (spillChannel.read(byteBuffer, position + byteBuffer.position()) < 0) {
+                        return false;
+                    }
+                }
+            } catch (final IOException e) {
+                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+                return false;
+            }
+
+            position += byteBuffer.position();
+            byteBuffer.flip();
+
+            while (byteBuffer.hasRemaining()) {
+                final long recordVersion = byteBuffer.getLong();
+                final ChangeOperation operation = OPERATIONS[byteBuffer.get()];
+                final UUID uuid = new UUID(byteBuffer.getLong(), byteBuffer.getLong());
+                final MessageProperty type = TYPES[byteBuffer.get()];
+
+                changes.add(new ChangeRecord(recordVersion, operation, uuid, type));
+            }
+        }
+
+        return true;
+    }
+
+    @Nullable
+    private static ChangeOperation getOperation(final Message message) {
+        switch (message.getEvent()) {
+            case ACCOUNT_ADD:
+            case BUDGET_ADD:
+            case CURRENCY_ADD:
+            case REMINDER_ADD:
+            case SECURITY_ADD:
+            case TRANSACTION_ADD:
+                return ChangeOperation.ADD;
+            case ACCOUNT_REMOVE:
+            case BUDGET_REMOVE:
+            case CURRENCY_REMOVE:
+            case REMINDER_REMOVE:
+            case SECURITY_REMOVE:
+            case TRANSACTION_REMOVE:
+                return ChangeOperation.REMOVE;
+            case ACCOUNT_ATTRIBUTE_MODIFY:
+            case ACCOUNT_MODIFY:
+            case ACCOUNT_SECURITY_ADD:
+            case ACCOUNT_SECURITY_REMOVE:
+            case ACCOUNT_VISIBILITY_CHANGE:
+            case BUDGET_GOAL_UPDATE:
+            case BUDGET_UPDATE:
+            case CONFIG_MODIFY:
+            case CURRENCY_MODIFY:
+            case EXCHANGE_RATE_ADD:
+            case EXCHANGE_RATE_REMOVE:
+            case REMINDER_UPDATE:
+            case SECURITY_MODIFY:
+            case SECURITY_HISTORY_ADD:
+            case SECURITY_HISTORY_REMOVE:
+            case SECURITY_HISTORY_EVENT_ADD:
+            case SECURITY_HISTORY_EVENT_REMOVE:
+                return ChangeOperation.MODIFY;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the message property that holds the changed object.  History and rate changes modify the owning
+     * security or exchange rate.
+     */
+    private static MessageProperty getType(final Message message) {
+        switch (message.getChannel()) {
+            case ACCOUNT:
+                return MessageProperty.ACCOUNT;
+            case BUDGET:
+                return MessageProperty.BUDGET;
+            case CONFIG:
+                return MessageProperty.CONFIG;
+            case REMINDER:
+                return MessageProperty.REMINDER;
+            case TRANSACTION:
+                return MessageProperty.TRANSACTION;
+            default:
+                switch (message.getEvent()) {
+                    case EXCHANGE_RATE_ADD:
+                    case EXCHANGE_RATE_REMOVE:
+                        return MessageProperty.EXCHANGE_RATE;
+                    default:
+                        return MessageProperty.COMMODITY;
+                }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.changes;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+import jgnash.engine.message.MessageProperty;
+import jgnash.util.NotNull;
+
+/**
+ * Immutable record of a single change to the data set.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class ChangeRecord implements Serializable {
+
+    private final long version;
+
+    private final ChangeOperation operation;
+
+    private final UUID uuid;
+
+    private final MessageProperty type;
+
+    ChangeRecord(final long version, @NotNull final ChangeOperation operation, @NotNull final UUID uuid,
+                 @NotNull final MessageProperty type) {
+        this.version = version;
+        this.operation = Objects.requireNonNull(operation);
+        this.uuid = Objects.requireNonNull(uuid);
+        this.type = Objects.requireNonNull(type);
+    }
+
+    /**
+     * Returns the version assigned to the change.  Versions increase by one for each change.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @NotNull
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the UUID of the changed object.
+     *
+     * @return the object UUID
+     */
+    @NotNull
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Returns the type of the changed object.
+     *
+     * @return the object type
+     */
+    @NotNull
+    public MessageProperty getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof ChangeRecord)) {
+            return false;
+        }
+
+        final ChangeRecord that = (ChangeRecord) o;
+
+        return version == that.version && operation == that.operation && uuid.equals(that.uuid) && type == that.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(version);
+    }
+
+    @Override
+    public String toString() {
+        return version + " " + operation + " " + type + " " + uuid;
+    }
+}
@@ -21,6 +21,8 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import jgnash.util.metrics.Metrics;
+
 /**
  * Lock manager for local engine instances.
  *
@@ -31,6 +33,7 @@ public class LocalLockManager implements LockManager {
 
     @Override
     public ReentrantReadWriteLock getLock(final String lockId) {
-        return lockMap.computeIfAbsent(lockId, k -> new ReentrantReadWriteLock());
+        return lockMap.computeIfAbsent(lockId, k -> Metrics.isEnabled() ? new MeasuredReadWriteLock(k)
+                : new ReentrantReadWriteLock());
     }
 }
@@ -0,0 +1,148 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import jgnash.util.NotNull;
+import jgnash.util.metrics.Metrics;
+import jgnash.util.metrics.Timer;
+
+/**
+ * {@code ReentrantReadWriteLock} that records the time spent waiting for and holding each lock.  Hold times are
+ * measured from the outermost lock to the matching unlock of a reentrant hold.
+ * <p>
+ * Only used when metrics are enabled.
+ *
+ * @author Craig Cavanaugh
+ */
+class MeasuredReadWriteLock extends ReentrantReadWriteLock {
+
+    private final MeasuredReadWriteLock.ReadLock readLock;
+
+    private final MeasuredReadWriteLock.WriteLock writeLock;
+
+    /**
+     * Start of the outermost read hold for each thread
+     */
+    private final ThreadLocal<long[]> readHoldStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Start of the outermost write hold, the write lock is exclusive
+     */
+    private long writeHoldStart;
+
+    MeasuredReadWriteLock(final String lockId) {
+        super();
+
+        readLock = new MeasuredReadWriteLock.ReadLock(this, Metrics.timer("lock." + lockId + ".read.wait"),
+                Metrics.timer("lock." + lockId + ".read.hold"));
+
+        writeLock = new MeasuredReadWriteLock.WriteLock(this, Metrics.timer("lock." + lockId + ".write.wait"),
+                Metrics.timer("lock." + lockId + ".write.hold"));
+    }
+
+    @Override
+    @NotNull
+    public ReentrantReadWriteLock.ReadLock readLock() {
+        return readLock;
+    }
+
+    @Override
+    @NotNull
+    public ReentrantReadWriteLock.WriteLock writeLock() {
+        return writeLock;
+    }
+
+    class ReadLock extends ReentrantReadWriteLock.ReadLock {
+
+        private final Timer waitTimer;
+
+        private final Timer holdTimer;
+
+        ReadLock(final ReentrantReadWriteLock lock, final Timer waitTimer, final Timer holdTimer) {
+            super(lock);
+
+            this.waitTimer = waitTimer;
+            this.holdTimer = holdTimer;
+        }
+
+        @Override
+        public void lock() {
+            final long start = waitTimer.start();
+
+            super.lock();
+
+            waitTimer.stop(start);
+
+            if (getReadHoldCount() == 1) {
+                readHoldStart.get()[0] = holdTimer.start();
+            }
+        }
+
+        @Override
+        public void unlock() {
+            final boolean outermost = getReadHoldCount() == 1;
+
+            super.unlock();
+
+            if (outermost) {
+                holdTimer.stop(readHoldStart.get()[0]);
+            }
+        }
+    }
+
+    class WriteLock extends ReentrantReadWriteLock.WriteLock {
+
+        private final Timer waitTimer;
+
+        private final Timer holdTimer;
+
+        WriteLock(final ReentrantReadWriteLock lock, final Timer waitTimer, final Timer holdTimer) {
+            super(lock);
+
+            this.waitTimer = waitTimer;
+            this.holdTimer = holdTimer;
+        }
+
+        @Override
+        public void lock() {
+            final long start = waitTimer.start();
+
+            super.lock();
+
+            waitTimer.stop(start);
+
+            if (getHoldCount() == 1) {
+                writeHoldStart = holdTimer.start();
+            }
+        }
+
+        @Override
+        public void unlock() {
+            final long start = writeHoldStart;
+            final boolean outermost = getHoldCount() == 1;
+
+            super.unlock();
+
+            if (outermost) {
+                holdTimer.stop(start);
+            }
+        }
+    }
+}
@@ -28,6 +28,10 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import jgnash.util.metrics.Histogram;
+import jgnash.util.metrics.Metrics;
+import jgnash.util.metrics.Timer;
+
 /**
  * Decorator around a {@code ThreadPoolExecutor} that provides execution priority.
  *
@@ -41,14 +45,31 @@ public class PriorityThreadPoolExecutor {
 
     private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
 
+    private final Histogram queueDepth;
+
+    private final Timer waitTimer;
+
     public PriorityThreadPoolExecutor(ThreadFactory threadFactory) {
+        this(threadFactory, "priority.executor");
+    }
+
+    /**
+     * Creates a new executor.
+     *
+     * @param threadFactory thread factory
+     * @param metricsName   prefix of the queue depth and queue wait time metrics
+     */
+    public PriorityThreadPoolExecutor(final ThreadFactory threadFactory, final String metricsName) {
+        queueDepth = Metrics.histogram(metricsName + ".queue");
+        waitTimer = Metrics.timer(metricsName + ".wait");
+
         threadPoolExecutor = new ThreadPoolExecutor(1, 1, Long.MAX_VALUE, TimeUnit.DAYS,
                 queue, threadFactory) {
 
             // Wraps a Callable with a FutureTaskWrapper that respects the Priority
             @Override
             protected <v> RunnableFuture<v> newTaskFor(final Callable<v> c) {
-                return new FutureTaskWrapper<>((PriorityCallable<v>) c);
+                return new FutureTaskWrapper<>((PriorityCallable<v>) c, waitTimer);
             }
         };
 
@@ -60,6 +81,10 @@ public class PriorityThreadPoolExecutor {
     }
 
     private  <T> Future<T> submit(final Callable<T> callable, final Priority priority) {
+        if (Metrics.isEnabled()) {
+            queueDepth.update(queue.size());
+        }
+
         return threadPoolExecutor.submit(new PriorityCallable<>() {
             @Override
             public Priority getPriority() {
@@ -107,9 +132,22 @@ public class PriorityThreadPoolExecutor {
     static class FutureTaskWrapper<T> extends FutureTask<T> implements Comparable<FutureTaskWrapper<T>> {
         private final PriorityCallable<T> priorityCallable;
 
-        FutureTaskWrapper(final PriorityCallable<T> priorityCallable) {
+        private final Timer waitTimer;
+
+        private final long submitted;
+
+        FutureTaskWrapper(final PriorityCallable<T> priorityCallable, final Timer waitTimer) {
             super(priorityCallable);
             this.priorityCallable = priorityCallable;
+            this.waitTimer = waitTimer;
+
+            submitted = waitTimer.start();
+        }
+
+        @Override
+        public void run() {
+            waitTimer.stop(submitted);
+            super.run();
         }
 
         PriorityCallable<T> getPriorityCallable() {
@@ -17,6 +17,7 @@
  */
 package jgnash.engine.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -57,6 +58,18 @@ public interface CommodityDAO extends DAO {
      */
     boolean addSecurityHistory(final SecurityNode node, final SecurityHistoryNode historyNode);
 
+    /**
+     * Call after a batch of {@code SecurityHistoryNode} has been merged.  This pushes all of the updates
+     * to the underlying database in a single operation
+     * @param node {@code SecurityNode} to update
+     * @param historyNodes {@code SecurityHistoryNodes} that were added
+     * @param replacedNodes {@code SecurityHistoryNodes} that were replaced and removed
+     *
+     * @return true if successful
+     */
+    boolean addSecurityHistory(final SecurityNode node, final Collection<SecurityHistoryNode> historyNodes,
+                               final Collection<SecurityHistoryNode> replacedNodes);
+
     /**
      * Call after a {@code SecurityHistoryEvent} has been added.  This pushes the update
      * to the underlying database
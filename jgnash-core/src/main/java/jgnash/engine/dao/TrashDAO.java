@@ -17,6 +17,7 @@
  */
 package jgnash.engine.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import jgnash.engine.TrashObject;
@@ -34,5 +35,12 @@ public interface TrashDAO extends DAO {
 
     void remove(TrashObject trashObject);
 
+    /**
+     * Removes a batch of trash objects and the objects they hold as a single unit of work.
+     *
+     * @param trashObjects trash objects sorted by date
+     */
+    void remove(Collection<TrashObject> trashObjects);
+
     void addEntityTrash(Object entity);
 }
\ No newline at end of file
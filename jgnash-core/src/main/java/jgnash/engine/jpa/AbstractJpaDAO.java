@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
@@ -57,12 +58,14 @@ abstract class AbstractJpaDAO extends AbstractDAO implements DAO {
      */
     static final ReentrantLock emLock = new ReentrantLock();
 
+    private static final String EXECUTOR_METRICS = "jpa.executor";
+
     /**
      * This ExecutorService is to be used whenever the entity manager is
      * accessed because the EntityManager is not thread safe, but we want to return from some methods without blocking
      */
     static PriorityThreadPoolExecutor executorService =
-            new PriorityThreadPoolExecutor(new DefaultDaemonThreadFactory("JPA Priority Executor"));
+            new PriorityThreadPoolExecutor(new DefaultDaemonThreadFactory("JPA Priority Executor"), EXECUTOR_METRICS);
 
     /**
      * Entity manager reference.
@@ -92,7 +95,7 @@ abstract class AbstractJpaDAO extends AbstractDAO implements DAO {
             executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
 
             // Regenerate the executor service
-            executorService = new PriorityThreadPoolExecutor();
+            executorService = new PriorityThreadPoolExecutor(Executors.defaultThreadFactory(), EXECUTOR_METRICS);
 
         } catch (final InterruptedException e) {
             logSevere(AbstractJpaDAO.class, e);
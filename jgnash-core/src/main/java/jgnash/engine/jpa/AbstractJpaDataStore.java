@@ -218,8 +218,8 @@ abstract class AbstractJpaDataStore implements DataStore {
 
         if (initEmptyDatabase(path.toString())) {
 
-            final Properties properties = JpaConfiguration.getLocalProperties(getType(), path.toString(),
-                    new char[]{}, false);
+            final Properties properties = JpaConfiguration.getBulkLoadProperties(getType(), path.toString(),
+                    new char[]{});
 
             EntityManagerFactory emFactory = null;
             EntityManager entityManager = null;
@@ -232,17 +232,20 @@ abstract class AbstractJpaDataStore implements DataStore {
 
                 int writeCount = 0;
 
+                /* Commit each partition so the pending inserts and the database transaction stay bounded.  Each
+                 * commit still sends ordered, batched inserts.  The persistence context is not cleared because
+                 * cascades from accounts reach objects persisted by earlier partitions */
                 for (final List<StoredObject> partition : partitions) {
                     entityManager.getTransaction().begin();
 
                     for (final StoredObject o : partition) {
                         entityManager.persist(o);
-                        writeCount++;
-
-                        percentComplete.accept((double) writeCount / (double) collectionSize);
                     }
 
                     entityManager.getTransaction().commit();
+
+                    writeCount += partition.size();
+                    percentComplete.accept((double) writeCount / (double) collectionSize);
                 }
             } catch (final Exception e) {
                 logger.log(Level.SEVERE, e.getMessage(), e);
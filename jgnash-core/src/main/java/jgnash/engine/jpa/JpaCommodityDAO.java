@@ -17,6 +17,8 @@
  */
 package jgnash.engine.jpa;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -67,6 +69,18 @@ class JpaCommodityDAO extends AbstractJpaDAO implements CommodityDAO {
         return persist(historyNode, node);
     }
 
+    @Override
+    public boolean addSecurityHistory(final SecurityNode node, final Collection<SecurityHistoryNode> historyNodes,
+                                      final Collection<SecurityHistoryNode> replacedNodes) {
+        final List<Object> objects = new ArrayList<>(historyNodes.size() + replacedNodes.size() + 1);
+
+        objects.addAll(replacedNodes);
+        objects.addAll(historyNodes);
+        objects.add(node);
+
+        return persist(objects.toArray());   // single transaction
+    }
+
     @Override
     public boolean addSecurityHistoryEvent(final SecurityNode node, final SecurityHistoryEvent historyEvent) {
         return persist(historyEvent, node);
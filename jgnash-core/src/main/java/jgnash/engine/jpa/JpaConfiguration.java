@@ -45,6 +45,14 @@ class JpaConfiguration {
     private static final String JAVAX_PERSISTENCE_JDBC_PASSWORD = "javax.persistence.jdbc.password";
     private static final String HIBERNATE_DIALECT = "hibernate.dialect";
     private static final String HIBERNATE_HBM2DDL_AUTO = "hibernate.hbm2ddl.auto";
+    private static final String HIBERNATE_JDBC_BATCH_SIZE = "hibernate.jdbc.batch_size";
+    private static final String HIBERNATE_ORDER_INSERTS = "hibernate.order_inserts";
+    private static final String HIBERNATE_ORDER_UPDATES = "hibernate.order_updates";
+
+    /**
+     * Number of statements grouped into a single JDBC batch when bulk loading
+     */
+    static final int BATCH_SIZE = 100;
 
     private static final String UNKNOWN_DATABASE_TYPE = "Unknown database type";
 
@@ -132,6 +140,29 @@ class JpaConfiguration {
         return properties;
     }
 
+    /**
+     * Generates JPA properties for bulk loading a new local database.  Inserts are ordered by entity type and sent
+     * to the database in JDBC batches.
+     *
+     * @param dataStoreType DataStoreType type
+     * @param fileName local database file
+     * @param password database password
+     * @return JPA properties
+     */
+    static Properties getBulkLoadProperties(final DataStoreType dataStoreType, final String fileName,
+                                            final char[] password) {
+
+        // copy so the batch settings do not leak into the shared system properties
+        final Properties properties = new Properties();
+        properties.putAll(getLocalProperties(dataStoreType, fileName, password, false));
+
+        properties.setProperty(HIBERNATE_JDBC_BATCH_SIZE, Integer.toString(BATCH_SIZE));
+        properties.setProperty(HIBERNATE_ORDER_INSERTS, Boolean.TRUE.toString());
+        properties.setProperty(HIBERNATE_ORDER_UPDATES, Boolean.TRUE.toString());
+
+        return properties;
+    }
+
     /**
      * Generates and a JPA properties to connect to a remote database.
      *
@@ -329,6 +329,6 @@ public class JpaNetworkServer {
     private static void exportXML(final Engine engine, final String fileName) {
         ArrayList<StoredObject> list = new ArrayList<>(engine.getStoredObjects());
 
-        EngineFactory.exportCompressedXML(fileName, list);
+        EngineFactory.exportCompressedXML(fileName, list, engine.getBackupCompressionLevel());
     }
 }
@@ -20,6 +20,7 @@ package jgnash.engine.jpa;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -31,6 +32,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -175,6 +177,109 @@ class JpaTrashDAO extends AbstractJpaDAO implements TrashDAO {
         }
     }
 
+    @Override
+    public void remove(final Collection<TrashObject> trashObjects) {
+        try {
+            final Future<Void> future = executorService.submit(() -> {
+                emLock.lock();
+
+                try {
+                    em.getTransaction().begin();
+
+                    for (final TrashObject trashObject : trashObjects) {
+                        em.remove(trashObject.getObject());
+                        em.remove(trashObject);
+                    }
+
+                    em.getTransaction().commit();
+
+                    logger.log(Level.INFO, "Removed {0} TrashObjects", trashObjects.size());
+                } catch (final PersistenceException | IllegalStateException e) {
+                    logger.log(Level.WARNING, "Unable to remove the TrashObjects as a batch, removing individually", e);
+
+                    rollback();
+
+                    // a single failure should not keep the rest of the batch in the trash
+                    int count = 0;
+
+                    for (final TrashObject trashObject : trashObjects) {
+                        if (removeIndividually(trashObject)) {
+                            count++;
+                        }
+                    }
+
+                    logger.log(Level.INFO, "Removed {0} of {1} TrashObjects", new Object[]{count, trashObjects.size()});
+                } finally {
+                    emLock.unlock();
+                }
+
+                dirtyFlag.set(true);
+
+                return null;
+            }, Priority.BACKGROUND);
+
+            future.get(); // block
+        } catch (final InterruptedException | ExecutionException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Removes a single {@code TrashObject} and the object it holds in a transaction of its own.  The caller must
+     * hold the lock.
+     *
+     * @param trashObject {@code TrashObject} to remove
+     * @return true if successful
+     */
+    private boolean removeIndividually(final TrashObject trashObject) {
+        try {
+            em.getTransaction().begin();
+
+            final StoredObject object = getManaged(trashObject.getObject());
+
+            if (object != null) {
+                em.remove(object);
+            }
+
+            final StoredObject managedTrashObject = getManaged(trashObject);
+
+            if (managedTrashObject != null) {
+                em.remove(managedTrashObject);
+            }
+
+            em.getTransaction().commit();
+
+            return true;
+        } catch (final PersistenceException | IllegalStateException e) {
+            logger.log(Level.SEVERE, "Unable to remove TrashObject " + trashObject.getUuid(), e);
+
+            rollback();
+
+            return false;
+        }
+    }
+
+    /**
+     * Returns the managed instance of an object.  A failed transaction may have detached the instance held by the
+     * caller.
+     *
+     * @param object object to look up
+     * @return the managed instance or null if it no longer exists
+     */
+    private StoredObject getManaged(final StoredObject object) {
+        if (em.contains(object)) {
+            return object;
+        }
+
+        return em.find(object.getClass(), object.getUuid());
+    }
+
+    private void rollback() {
+        if (em.getTransaction().isActive()) {
+            em.getTransaction().rollback();
+        }
+    }
+
     @Override
     public void addEntityTrash(final Object entity) {
         try {
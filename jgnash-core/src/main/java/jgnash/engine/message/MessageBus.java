@@ -20,6 +20,7 @@ package jgnash.engine.message;
 import java.lang.ref.WeakReference;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -35,6 +36,8 @@ import java.util.logging.Logger;
 
 import jgnash.engine.DataStoreType;
 import jgnash.util.DefaultDaemonThreadFactory;
+import jgnash.util.metrics.Metrics;
+import jgnash.util.metrics.Timer;
 
 /**
  * Thread safe Message Bus.
@@ -55,6 +58,17 @@ public class MessageBus {
 
     private static final Logger logger = Logger.getLogger(MessageBus.class.getName());
 
+    /**
+     * Time to dispatch a message to all local listeners for each channel
+     */
+    private static final Map<MessageChannel, Timer> dispatchTimers = new EnumMap<>(MessageChannel.class);
+
+    static {
+        for (final MessageChannel channel : MessageChannel.values()) {
+            dispatchTimers.put(channel, Metrics.timer("messagebus.dispatch." + channel.name()));
+        }
+    }
+
     private final ConcurrentMap<MessageChannel, Set<WeakReference<MessageListener>>> map = new ConcurrentHashMap<>();
 
     private final ExecutorService pool = Executors.newSingleThreadExecutor(new DefaultDaemonThreadFactory("Message Bus Executor"));
@@ -252,6 +266,9 @@ public class MessageBus {
         return pool.submit(() -> {
             final Set<WeakReference<MessageListener>> staleListener = new HashSet<>();
 
+            final Timer dispatchTimer = dispatchTimers.get(message.getChannel());
+            final long start = dispatchTimer.start();
+
             // Look for and post to local listeners
             final Set<WeakReference<MessageListener>> set = map.get(message.getChannel());
 
@@ -266,6 +283,8 @@ public class MessageBus {
                 }
             }
 
+            dispatchTimer.stop(start);
+
             // purge stale references to prevent a slowdown and wasted memory during a long application session
             for (final WeakReference<MessageListener> staleReference : staleListener) {
                 set.remove(staleReference);
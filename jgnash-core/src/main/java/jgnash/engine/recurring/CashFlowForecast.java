@@ -0,0 +1,312 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.recurring;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import jgnash.engine.Account;
+import jgnash.engine.Transaction;
+import jgnash.time.Period;
+import jgnash.util.NotNull;
+
+/**
+ * Projects account balances from the transactions of enabled {@code Reminders}.
+ *
+ * Every reminder transaction is read directly, without a clone, and reduced once to the amounts it posts to each
+ * account.  The transaction is not referenced afterwards.  The occurrences of all reminders are then merged by date
+ * through a priority queue and applied to running balances in a single pass, so no {@code Transaction} is created per
+ * occurrence.  The balance of each account is recorded at the end of every period between the start and end dates.
+ *
+ * The reminders must not be modified while the forecast is created; {@code Engine} builds the forecast while holding
+ * its read lock.
+ *
+ * Occurrences before the start date have not been entered yet and are applied to the first period.
+ *
+ * @author Craig Cavanaugh
+ */
+public class CashFlowForecast {
+
+    /**
+     * Maximum number of years that may be forecast.
+     */
+    public static final int MAXIMUM_YEARS = 30;
+
+    private final List<LocalDate> dates;
+
+    private final Map<Account, Integer> accountIndex = new HashMap<>();
+
+    private final List<Account> accounts = new ArrayList<>();
+
+    /**
+     * Balances by account index and period index.
+     */
+    private final BigDecimal[][] balances;
+
+    /**
+     * Creates a new forecast.
+     *
+     * @param reminders reminders to project, disabled reminders are ignored
+     * @param startDate first day of the forecast, the starting balances are the balances on this date
+     * @param endDate   inclusive last day of the forecast
+     * @param period    length of each forecast period
+     * @throws IllegalArgumentException if the end date is before the start date or more than
+     *                                  {@link #MAXIMUM_YEARS} years after it
+     */
+    public CashFlowForecast(@NotNull final Collection<Reminder> reminders, @NotNull final LocalDate startDate,
+                            @NotNull final LocalDate endDate, @NotNull final Period period) {
+        Objects.requireNonNull(reminders);
+        Objects.requireNonNull(period);
+
+        if (endDate.isBefore(startDate) || endDate.isAfter(startDate.plusYears(MAXIMUM_YEARS))) {
+            throw new IllegalArgumentException("Invalid forecast range: " + startDate + " to " + endDate);
+        }
+
+        dates = Collections.unmodifiableList(getPeriodEndDates(startDate, endDate, period));
+
+        final PriorityQueue<Occurrence> queue = new PriorityQueue<>();
+
+        for (final Reminder reminder : reminders) {
+            final Transaction transaction = reminder.isEnabled() ? reminder.getTransaction() : null;
+
+            if (transaction != null) {
+                final Occurrence occurrence = new Occurrence(reminder.getIterator(), transaction);
+
+                if (occurrence.advance(endDate)) {
+                    queue.add(occurrence);
+                }
+            }
+        }
+
+        final BigDecimal[] running = new BigDecimal[accounts.size()];
+
+        for (int i = 0; i < running.length; i++) {
+            running[i] = accounts.get(i).getBalance(startDate);
+        }
+
+        balances = new BigDecimal[accounts.size()][dates.size()];
+
+        int index = 0;
+
+        // merge the occurrences of all reminders in date order
+        while (!queue.isEmpty()) {
+            final Occurrence occurrence = queue.poll();
+
+            // record the balances of every period that ended before this occurrence
+            while (occurrence.date.isAfter(dates.get(index))) {
+                recordBalances(running, index++);
+            }
+
+            for (int i = 0; i < occurrence.slots.length; i++) {
+                running[occurrence.slots[i]] = running[occurrence.slots[i]].add(occurrence.amounts[i]);
+            }
+
+            if (occurrence.advance(endDate)) {
+                queue.add(occurrence);
+            }
+        }
+
+        while (index < dates.size()) {
+            recordBalances(running, index++);
+        }
+    }
+
+    private void recordBalances(final BigDecimal[] running, final int period) {
+        for (int i = 0; i < running.length; i++) {
+            balances[i][period] = running[i];
+        }
+    }
+
+    /**
+     * Returns the account index, adding the account if needed.
+     */
+    private int indexOf(final Account account) {
+        return accountIndex.computeIfAbsent(account, a -> {
+            accounts.add(a);
+            return accounts.size() - 1;
+        });
+    }
+
+    /**
+     * Returns the inclusive end date of each period.
+     *
+     * @return list of dates
+     */
+    @NotNull
+    public List<LocalDate> getDates() {
+        return dates;
+    }
+
+    /**
+     * Returns the accounts affected by the forecast reminders.
+     *
+     * @return list of accounts
+     */
+    @NotNull
+    public List<Account> getAccounts() {
+        return Collections.unmodifiableList(accounts);
+    }
+
+    /**
+     * Returns the projected balance of an account at the end of each period.
+     *
+     * @param account account
+     * @return list of balances matching {@link #getDates()}, empty if the account is not affected by the forecast
+     */
+    @NotNull
+    public List<BigDecimal> getBalances(@NotNull final Account account) {
+        final Integer index = accountIndex.get(account);
+
+        if (index == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(balances[index]));
+    }
+
+    /**
+     * Returns the projected balance of an account at the end of the period containing a date.
+     *
+     * @param account account
+     * @param date    date within the forecast
+     * @return projected balance or {@code null} if the account or date is not part of the forecast
+     */
+    public BigDecimal getBalance(@NotNull final Account account, @NotNull final LocalDate date) {
+        final Integer index = accountIndex.get(account);
+
+        if (index == null || date.isAfter(dates.get(dates.size() - 1))) {
+            return null;
+        }
+
+        final int period = Collections.binarySearch(dates, date);
+
+        return balances[index][period >= 0 ? period : -period - 1];
+    }
+
+    private static List<LocalDate> getPeriodEndDates(final LocalDate startDate, final LocalDate endDate,
+                                                     final Period period) {
+        final List<LocalDate> list = new ArrayList<>();
+
+        LocalDate date = startDate;
+
+        while (!date.isAfter(endDate)) {
+            LocalDate periodEnd;
+
+            switch (period) {
+                case DAILY:
+                    periodEnd = date;
+                    break;
+                case WEEKLY:
+                    periodEnd = date.plusDays(6);
+                    break;
+                case BI_WEEKLY:
+                    periodEnd = date.plusDays(13);
+                    break;
+                case MONTHLY:
+                    periodEnd = date.with(TemporalAdjusters.lastDayOfMonth());
+                    break;
+                case QUARTERLY:
+                    periodEnd = date.with(IsoFields.DAY_OF_QUARTER, 1).plusMonths(3).minusDays(1);
+                    break;
+                case YEARLY:
+                default:
+                    periodEnd = date.with(TemporalAdjusters.lastDayOfYear());
+                    break;
+            }
+
+            if (periodEnd.isAfter(endDate)) {
+                periodEnd = endDate;
+            }
+
+            list.add(periodEnd);
+            date = periodEnd.plusDays(1);
+        }
+
+        return list;
+    }
+
+    /**
+     * The next occurrence of a reminder and the amounts it posts to each account.
+     */
+    private class Occurrence implements Comparable<Occurrence> {
+
+        private final RecurringIterator iterator;
+
+        /**
+         * Account indexes.
+         */
+        private final int[] slots;
+
+        private final BigDecimal[] amounts;
+
+        private LocalDate date;
+
+        Occurrence(final RecurringIterator iterator, final Transaction transaction) {
+            this.iterator = iterator;
+
+            final Set<Account> accountSet = transaction.getAccounts();
+
+            slots = new int[accountSet.size()];
+            amounts = new BigDecimal[accountSet.size()];
+
+            int i = 0;
+
+            for (final Account account : accountSet) {
+                slots[i] = indexOf(account);
+                amounts[i] = transaction.getAmount(account);
+                i++;
+            }
+        }
+
+        /**
+         * Moves to the next occurrence.
+         *
+         * @param endDate last date of the forecast
+         * @return {@code false} if there are no more occurrences within the forecast
+         */
+        boolean advance(final LocalDate endDate) {
+            final LocalDate next = iterator.next();
+
+            // protect against iterators that do not move forward
+            if (next == null || next.isAfter(endDate) || (date != null && !next.isAfter(date))) {
+                return false;
+            }
+
+            date = next;
+
+            return true;
+        }
+
+        @Override
+        public int compareTo(@NotNull final Occurrence other) {
+            return date.compareTo(other.date);
+        }
+    }
+}
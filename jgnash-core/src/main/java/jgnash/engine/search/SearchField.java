@@ -0,0 +1,43 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.search;
+
+/**
+ * Text fields of a {@code Transaction} that are indexed for searching.
+ *
+ * @author Craig Cavanaugh
+ */
+public enum SearchField {
+
+    PAYEE(3),
+    NUMBER(2),
+    MEMO(1);
+
+    /**
+     * Relative weight of a match in this field when ranking results.
+     */
+    private final transient int weight;
+
+    SearchField(final int weight) {
+        this.weight = weight;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import jgnash.engine.Account;
+import jgnash.engine.TransactionTag;
+import jgnash.util.NotNull;
+import jgnash.util.Nullable;
+
+/**
+ * Search criteria for the {@code TransactionSearchIndex}.
+ *
+ * The text is split into terms and every term must match at least one of the searched fields.  A term that ends with
+ * {@code *} is a prefix query, and a term containing {@code *} or {@code ?} elsewhere is a DOS style wildcard query.
+ * A plain term matches a word exactly or as a prefix; exact matches rank higher.  All other criteria are optional
+ * filters.
+ *
+ * @author Craig Cavanaugh
+ */
+public class TransactionQuery {
+
+    private String text = "";
+
+    private Set<SearchField> fields = EnumSet.allOf(SearchField.class);
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private BigDecimal minimumAmount;
+
+    private BigDecimal maximumAmount;
+
+    private TransactionTag tag;
+
+    private Account account;
+
+    private int limit = Integer.MAX_VALUE;
+
+    @NotNull
+    public String getText() {
+        return text;
+    }
+
+    public void setText(@Nullable final String text) {
+        this.text = text == null ? "" : text;
+    }
+
+    @NotNull
+    public Set<SearchField> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    public void setFields(@NotNull final Set<SearchField> fields) {
+        this.fields = fields.isEmpty() ? EnumSet.noneOf(SearchField.class) : EnumSet.copyOf(fields);
+    }
+
+    @Nullable
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Sets the inclusive start date.
+     *
+     * @param startDate start date, {@code null} for no limit
+     */
+    public void setStartDate(@Nullable final LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    @Nullable
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Sets the inclusive end date.
+     *
+     * @param endDate end date, {@code null} for no limit
+     */
+    public void setEndDate(@Nullable final LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    @Nullable
+    public BigDecimal getMinimumAmount() {
+        return minimumAmount;
+    }
+
+    /**
+     * Sets the inclusive minimum amount.  Amounts are compared by absolute value against each transaction entry.
+     *
+     * @param minimumAmount minimum amount, {@code null} for no limit
+     */
+    public void setMinimumAmount(@Nullable final BigDecimal minimumAmount) {
+        this.minimumAmount = minimumAmount == null ? null : minimumAmount.abs();
+    }
+
+    @Nullable
+    public BigDecimal getMaximumAmount() {
+        return maximumAmount;
+    }
+
+    /**
+     * Sets the inclusive maximum amount.  Amounts are compared by absolute value against each transaction entry.
+     *
+     * @param maximumAmount maximum amount, {@code null} for no limit
+     */
+    public void setMaximumAmount(@Nullable final BigDecimal maximumAmount) {
+        this.maximumAmount = maximumAmount == null ? null : maximumAmount.abs();
+    }
+
+    @Nullable
+    public TransactionTag getTag() {
+        return tag;
+    }
+
+    public void setTag(@Nullable final TransactionTag tag) {
+        this.tag = tag;
+    }
+
+    @Nullable
+    public Account getAccount() {
+        return account;
+    }
+
+    /**
+     * Limits the search to a single account.
+     *
+     * @param account account to search, {@code null} to search all accounts
+     */
+    public void setAccount(@Nullable final Account account) {
+        this.account = account;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of results to return.
+     *
+     * @param limit maximum number of results
+     */
+    public void setLimit(final int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The limit must be greater than zero");
+        }
+
+        this.limit = limit;
+    }
+}
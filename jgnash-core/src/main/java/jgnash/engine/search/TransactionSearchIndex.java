@@ -0,0 +1,495 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+import jgnash.engine.Engine;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionEntry;
+import jgnash.engine.TransactionTag;
+import jgnash.engine.message.Message;
+import jgnash.engine.message.MessageBus;
+import jgnash.engine.message.MessageChannel;
+import jgnash.engine.message.MessageListener;
+import jgnash.engine.message.MessageProperty;
+import jgnash.util.NotNull;
+import jgnash.util.SearchUtils;
+
+/**
+ * In memory search index for all {@code Transactions} of an {@code Engine}.
+ *
+ * An inverted index maps the words of the payee, memo and number of each transaction to the transactions containing
+ * them.  The words are held in sorted maps so that prefix and wildcard queries only have to visit the matching part
+ * of the dictionary instead of every transaction.  Additional sorted indexes by date and entry amount, and an index by
+ * tag, are used when a query does not contain any text.
+ *
+ * The index is updated incrementally from {@code TRANSACTION} messages.  Use
+ * {@link Engine#getTransactionSearchIndex()} to obtain the shared instance.
+ *
+ * @author Craig Cavanaugh
+ */
+public class TransactionSearchIndex implements MessageListener {
+
+    private static final Pattern WORD_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern QUERY_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}*?]+");
+
+    /**
+     * Exact word matches rank higher than prefix matches.
+     */
+    private static final int EXACT_MATCH_MULTIPLIER = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<SearchField, NavigableMap<String, Set<Transaction>>> termIndex = new EnumMap<>(SearchField.class);
+
+    private final NavigableMap<LocalDate, Set<Transaction>> dateIndex = new TreeMap<>();
+
+    private final NavigableMap<BigDecimal, Set<Transaction>> amountIndex = new TreeMap<>();
+
+    private final Map<TransactionTag, Set<Transaction>> tagIndex = new EnumMap<>(TransactionTag.class);
+
+    private final Set<Transaction> transactions = new HashSet<>();
+
+    private final MessageBus messageBus;
+
+    /**
+     * Builds the index and starts listening for changes.  The caller must prevent transaction changes until the
+     * constructor returns so that no change is missed.
+     *
+     * @param engine {@code Engine} to index
+     */
+    public TransactionSearchIndex(@NotNull final Engine engine) {
+        for (final SearchField field : SearchField.values()) {
+            termIndex.put(field, new TreeMap<>());
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            engine.getTransactions().forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        messageBus = MessageBus.getInstance(engine.getName());
+        messageBus.registerListener(this, MessageChannel.TRANSACTION);
+    }
+
+    /**
+     * Stops listening for changes.
+     */
+    public void close() {
+        messageBus.unregisterListener(this, MessageChannel.TRANSACTION);
+    }
+
+    @Override
+    public void messagePosted(final Message message) {
+        final Transaction transaction = message.getObject(MessageProperty.TRANSACTION);
+
+        if (transaction == null) {
+            return;
+        }
+
+        // a message is posted for every account of a transaction, so updates must be idempotent
+        switch (message.getEvent()) {
+            case TRANSACTION_ADD:
+                lock.writeLock().lock();
+
+                try {
+                    index(transaction);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                break;
+            case TRANSACTION_REMOVE:
+                lock.writeLock().lock();
+
+                try {
+                    unindex(transaction);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Returns the number of indexed transactions.
+     *
+     * @return number of transactions
+     */
+    public int size() {
+        lock.readLock().lock();
+
+        try {
+            return transactions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches all fields of all accounts.
+     *
+     * @param text search text
+     * @return ranked list of matching transactions
+     * @see TransactionQuery
+     */
+    @NotNull
+    public List<Transaction> search(@NotNull final String text) {
+        final TransactionQuery query = new TransactionQuery();
+        query.setText(text);
+
+        return search(query);
+    }
+
+    /**
+     * Searches for transactions.  If the query contains text, the results are ranked by relevance, otherwise by date
+     * with the newest transactions first.
+     *
+     * @param query search criteria
+     * @return ranked list of matching transactions, never more than the limit of the query
+     */
+    @NotNull
+    public List<Transaction> search(@NotNull final TransactionQuery query) {
+        final List<String> terms = parseQuery(query.getText());
+
+        lock.readLock().lock();
+
+        try {
+            Map<Transaction, Integer> scores = null;
+
+            // every term must match
+            for (final String term : terms) {
+                final Map<Transaction, Integer> termScores = matchTerm(term, query.getFields());
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((transaction, score) -> score + termScores.get(transaction));
+                }
+
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            final Collection<Transaction> candidates = scores != null ? scores.keySet() : getCandidates(query);
+
+            List<Transaction> results = new ArrayList<>();
+
+            for (final Transaction transaction : candidates) {
+                if (matchesFilters(transaction, query)) {
+                    results.add(transaction);
+                }
+            }
+
+            final Map<Transaction, Integer> finalScores = scores != null ? scores : Collections.emptyMap();
+
+            final Comparator<Transaction> comparator = Comparator.<Transaction>comparingInt(transaction ->
+                    finalScores.getOrDefault(transaction, 0)).reversed()
+                    .thenComparing(Comparator.<Transaction>naturalOrder().reversed());
+
+            // keep the best results in a bounded heap instead of sorting everything
+            if (results.size() > query.getLimit()) {
+                final PriorityQueue<Transaction> heap = new PriorityQueue<>(query.getLimit() + 1,
+                        comparator.reversed());
+
+                for (final Transaction transaction : results) {
+                    heap.add(transaction);
+
+                    if (heap.size() > query.getLimit()) {
+                        heap.poll();
+                    }
+                }
+
+                results = new ArrayList<>(heap);
+            }
+
+            results.sort(comparator);
+
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores the transactions matching a single query term.  Scores are summed across fields.
+     */
+    private Map<Transaction, Integer> matchTerm(final String term, final Set<SearchField> fields) {
+        final Map<Transaction, Integer> scores = new HashMap<>();
+
+        final int wildcard = indexOfWildcard(term);
+
+        for (final SearchField field : fields) {
+            final NavigableMap<String, Set<Transaction>> index = termIndex.get(field);
+            final Map<Transaction, Integer> fieldScores = new HashMap<>();
+
+            if (wildcard < 0) {
+                for (final Map.Entry<String, Set<Transaction>> entry : prefixMap(index, term).entrySet()) {
+                    final int score = entry.getKey().equals(term)
+                            ? field.getWeight() * EXACT_MATCH_MULTIPLIER : field.getWeight();
+
+                    addScores(fieldScores, entry.getValue(), score);
+                }
+            } else if (wildcard == term.length() - 1 && term.charAt(wildcard) == '*') {
+                for (final Set<Transaction> set : prefixMap(index, term.substring(0, wildcard)).values()) {
+                    addScores(fieldScores, set, field.getWeight());
+                }
+            } else {
+                final Pattern pattern = SearchUtils.createSearchPattern(term, false);
+
+                // only the words sharing the literal prefix need to be tested
+                for (final Map.Entry<String, Set<Transaction>> entry
+                        : prefixMap(index, term.substring(0, wildcard)).entrySet()) {
+                    if (pattern.matcher(entry.getKey()).matches()) {
+                        addScores(fieldScores, entry.getValue(), field.getWeight());
+                    }
+                }
+            }
+
+            fieldScores.forEach((transaction, score) -> scores.merge(transaction, score, Integer::sum));
+        }
+
+        return scores;
+    }
+
+    private static void addScores(final Map<Transaction, Integer> scores, final Set<Transaction> transactions,
+                                  final int score) {
+        for (final Transaction transaction : transactions) {
+            scores.merge(transaction, score, Math::max);
+        }
+    }
+
+    /**
+     * Narrows the transactions to check when a query does not contain text.
+     */
+    private Collection<Transaction> getCandidates(final TransactionQuery query) {
+        if (query.getStartDate() != null || query.getEndDate() != null) {
+            return flatten(subMap(dateIndex, query.getStartDate(), query.getEndDate()).values());
+        }
+
+        if (query.getMinimumAmount() != null || query.getMaximumAmount() != null) {
+            return flatten(subMap(amountIndex, query.getMinimumAmount(), query.getMaximumAmount()).values());
+        }
+
+        if (query.getTag() != null) {
+            return tagIndex.getOrDefault(query.getTag(), Collections.emptySet());
+        }
+
+        return transactions;
+    }
+
+    private static boolean matchesFilters(final Transaction transaction, final TransactionQuery query) {
+        final LocalDate date = transaction.getLocalDate();
+
+        if (query.getStartDate() != null && date.isBefore(query.getStartDate())) {
+            return false;
+        }
+
+        if (query.getEndDate() != null && date.isAfter(query.getEndDate())) {
+            return false;
+        }
+
+        if (query.getAccount() != null && !transaction.getAccounts().contains(query.getAccount())) {
+            return false;
+        }
+
+        if (query.getTag() != null || query.getMinimumAmount() != null || query.getMaximumAmount() != null) {
+            for (final TransactionEntry entry : transaction.getTransactionEntries()) {
+                if (matchesEntry(entry, query)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        return true;
+    }
+
+    private static boolean matchesEntry(final TransactionEntry entry, final TransactionQuery query) {
+        if (query.getTag() != null && entry.getTransactionTag() != query.getTag()) {
+            return false;
+        }
+
+        if (query.getMinimumAmount() == null && query.getMaximumAmount() == null) {
+            return true;
+        }
+
+        for (final BigDecimal amount : new BigDecimal[]{entry.getCreditAmount().abs(), entry.getDebitAmount().abs()}) {
+            if ((query.getMinimumAmount() == null || amount.compareTo(query.getMinimumAmount()) >= 0)
+                    && (query.getMaximumAmount() == null || amount.compareTo(query.getMaximumAmount()) <= 0)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void index(final Transaction transaction) {
+        if (!transactions.add(transaction)) {
+            return; // already indexed
+        }
+
+        forEachTerm(transaction, (field, term) ->
+                termIndex.get(field).computeIfAbsent(term, k -> new HashSet<>()).add(transaction));
+
+        dateIndex.computeIfAbsent(transaction.getLocalDate(), k -> new HashSet<>()).add(transaction);
+
+        for (final TransactionEntry entry : transaction.getTransactionEntries()) {
+            amountIndex.computeIfAbsent(entry.getCreditAmount().abs(), k -> new HashSet<>()).add(transaction);
+            amountIndex.computeIfAbsent(entry.getDebitAmount().abs(), k -> new HashSet<>()).add(transaction);
+            tagIndex.computeIfAbsent(entry.getTransactionTag(), k -> new HashSet<>()).add(transaction);
+        }
+    }
+
+    private void unindex(final Transaction transaction) {
+        if (!transactions.remove(transaction)) {
+            return; // not indexed
+        }
+
+        forEachTerm(transaction, (field, term) -> removePosting(termIndex.get(field), term, transaction));
+
+        removePosting(dateIndex, transaction.getLocalDate(), transaction);
+
+        for (final TransactionEntry entry : transaction.getTransactionEntries()) {
+            removePosting(amountIndex, entry.getCreditAmount().abs(), transaction);
+            removePosting(amountIndex, entry.getDebitAmount().abs(), transaction);
+            removePosting(tagIndex, entry.getTransactionTag(), transaction);
+        }
+    }
+
+    private static <K> void removePosting(final Map<K, Set<Transaction>> index, final K key,
+                                          final Transaction transaction) {
+        final Set<Transaction> set = index.get(key);
+
+        if (set != null) {
+            set.remove(transaction);
+
+            if (set.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static void forEachTerm(final Transaction transaction, final BiConsumer<SearchField, String> consumer) {
+        tokenize(transaction.getPayee()).forEach(term -> consumer.accept(SearchField.PAYEE, term));
+        tokenize(transaction.getNumber()).forEach(term -> consumer.accept(SearchField.NUMBER, term));
+
+        final Set<String> memoTerms = new HashSet<>(tokenize(transaction.getMemo()));
+
+        for (final TransactionEntry entry : transaction.getTransactionEntries()) {
+            memoTerms.addAll(tokenize(entry.getMemo()));
+        }
+
+        memoTerms.forEach(term -> consumer.accept(SearchField.MEMO, term));
+    }
+
+    private static List<String> tokenize(final String text) {
+        final List<String> terms = new ArrayList<>();
+
+        if (text != null) {
+            for (final String term : WORD_DELIMITER.split(text.toLowerCase(Locale.getDefault()))) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+
+        return terms;
+    }
+
+    private static List<String> parseQuery(final String text) {
+        final List<String> terms = new ArrayList<>();
+
+        for (final String term : QUERY_DELIMITER.split(text.toLowerCase(Locale.getDefault()))) {
+            if (!term.isEmpty() && !term.chars().allMatch(c -> c == '*')) {  // a lone '*' matches everything
+                terms.add(term);
+            }
+        }
+
+        return terms;
+    }
+
+    private static int indexOfWildcard(final String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (term.charAt(i) == '*' || term.charAt(i) == '?') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static NavigableMap<String, Set<Transaction>> prefixMap(final NavigableMap<String, Set<Transaction>> index,
+                                                                   final String prefix) {
+        if (prefix.isEmpty()) {
+            return index;
+        }
+
+        return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static <K extends Comparable<K>> NavigableMap<K, Set<Transaction>> subMap(
+            final NavigableMap<K, Set<Transaction>> index, final K from, final K to) {
+
+        if (from != null && to != null) {
+            return from.compareTo(to) > 0 ? Collections.emptyNavigableMap() : index.subMap(from, true, to, true);
+        } else if (from != null) {
+            return index.tailMap(from, true);
+        } else if (to != null) {
+            return index.headMap(to, true);
+        }
+
+        return index;
+    }
+
+    private static Set<Transaction> flatten(final Collection<Set<Transaction>> sets) {
+        final Set<Transaction> result = new HashSet<>();
+
+        sets.forEach(result::addAll);
+
+        return result;
+    }
+}
@@ -47,6 +47,7 @@ import jgnash.engine.SecurityHistoryEvent;
 import jgnash.engine.SecurityHistoryNode;
 import jgnash.engine.SecurityNode;
 import jgnash.engine.StoredObject;
+import jgnash.engine.StoredObjectComparator;
 import jgnash.engine.Transaction;
 import jgnash.engine.TransactionEntry;
 import jgnash.engine.TransactionEntryAddX;
@@ -59,6 +60,7 @@ import jgnash.engine.TransactionEntrySellX;
 import jgnash.engine.TransactionEntrySplitX;
 import jgnash.engine.budget.Budget;
 import jgnash.engine.budget.BudgetGoal;
+import jgnash.engine.recurring.Reminder;
 import jgnash.time.Period;
 import jgnash.util.FileLocker;
 import jgnash.util.FileUtils;
@@ -135,6 +137,32 @@ abstract class AbstractXStreamContainer {
                 .map(o -> (T) o).collect(Collectors.toList());
     }
 
+    /**
+     * Returns the top level objects that need to be written to persist the complete object graph.  Objects marked
+     * for removal are excluded and the list is sorted so references are written after the objects they refer to.
+     *
+     * @param objects Collection of StoredObjects to write
+     * @return sorted list of top level objects
+     */
+    @NotNull static List<StoredObject> getWritableObjects(final Collection<StoredObject> objects) {
+        final List<StoredObject> list = new ArrayList<>();
+
+        list.addAll(query(objects, Budget.class));
+        list.addAll(query(objects, Config.class));
+        list.addAll(query(objects, CommodityNode.class));
+        list.addAll(query(objects, ExchangeRate.class));
+        list.addAll(query(objects, RootAccount.class));
+        list.addAll(query(objects, Reminder.class));
+
+        // remove any objects marked for removal
+        list.removeIf(StoredObject::isMarkedForRemoval);
+
+        // sort the list
+        list.sort(new StoredObjectComparator());
+
+        return list;
+    }
+
     static XStream configureXStream(final XStreamJVM9 xstream) {
 
         // configure XStream security
@@ -239,6 +267,16 @@ abstract class AbstractXStreamContainer {
 
     abstract void commit();
 
+    /**
+     * Records objects that have been added, modified or removed since the last commit.  Containers that write the
+     * complete file on every commit do not need to track changes.
+     *
+     * @param changed changed objects
+     */
+    void markDirty(final Collection<? extends StoredObject> changed) {
+        // the complete file is written on every commit
+    }
+
     boolean set(final StoredObject object) {
 
         boolean result = false;
@@ -17,6 +17,8 @@
  */
 package jgnash.engine.xstream;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -26,6 +28,8 @@ import jgnash.engine.StoredObject;
 import jgnash.engine.dao.AbstractDAO;
 import jgnash.engine.dao.DAO;
 import jgnash.util.NotNull;
+import jgnash.util.metrics.Metrics;
+import jgnash.util.metrics.Timer;
 
 /**
  * Simple object container for StoredObjects that reads and writes and xml file.
@@ -47,6 +51,8 @@ abstract class AbstractXStreamDAO extends AbstractDAO implements DAO {
 
     private static final int MAX_COMMIT_COUNT = 250;
 
+    private static final Timer commitTimer = Metrics.timer("xstream.commit");
+
     AbstractXStreamDAO(@NotNull final AbstractXStreamContainer container) {
         Objects.requireNonNull(container);
 
@@ -69,7 +75,22 @@ abstract class AbstractXStreamDAO extends AbstractDAO implements DAO {
         return null;
     }
 
-    final void commit() {
+    /**
+     * Records a change and commits once enough changes have accumulated.
+     *
+     * @param changed objects that were added, modified or removed by the change
+     */
+    final void commit(final StoredObject... changed) {
+        commit(Arrays.asList(changed));
+    }
+
+    /**
+     * Records a change and commits once enough changes have accumulated.
+     *
+     * @param changed objects that were added, modified or removed by the change
+     */
+    final void commit(final Collection<? extends StoredObject> changed) {
+        container.markDirty(changed);
         dirtyFlag.set(true);
 
         if (commitCount.getAndIncrement() >= MAX_COMMIT_COUNT) {
@@ -78,6 +99,8 @@ abstract class AbstractXStreamDAO extends AbstractDAO implements DAO {
     }
 
     final void commitAndReset() {
+        final long start = commitTimer.start();
+
         commitLock.lock();
 
         try {
@@ -85,6 +108,8 @@ abstract class AbstractXStreamDAO extends AbstractDAO implements DAO {
             container.commit();
         } finally {
             commitLock.unlock();
+
+            commitTimer.stop(start);
         }
     }
 }
@@ -24,24 +24,23 @@ import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.function.DoubleConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import jgnash.engine.CommodityNode;
-import jgnash.engine.Config;
-import jgnash.engine.ExchangeRate;
-import jgnash.engine.RootAccount;
 import jgnash.engine.StoredObject;
 import jgnash.engine.StoredObjectComparator;
-import jgnash.engine.budget.Budget;
-import jgnash.engine.recurring.Reminder;
+import jgnash.engine.TrashObject;
 import jgnash.util.NotNull;
 
 import com.thoughtworks.xstream.XStream;
@@ -56,6 +55,8 @@ import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
  */
 class BinaryContainer extends AbstractXStreamContainer {
 
+    private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+
     BinaryContainer(final Path path) {
         super(path);
     }
@@ -105,22 +106,7 @@ class BinaryContainer extends AbstractXStreamContainer {
 
         createBackup(path);
 
-        List<StoredObject> list = new ArrayList<>();
-
-        list.addAll(query(objects, Budget.class));
-        list.addAll(query(objects, Config.class));
-        list.addAll(query(objects, CommodityNode.class));
-        list.addAll(query(objects, ExchangeRate.class));
-        list.addAll(query(objects, RootAccount.class));
-        list.addAll(query(objects, Reminder.class));
-
-        percentCompleteConsumer.accept(0.25);
-
-        // remove any objects marked for removal
-        list.removeIf(StoredObject::isMarkedForRemoval);
-
-        // sort the list
-        list.sort(new StoredObjectComparator());
+        final List<StoredObject> list = getWritableObjects(objects);
 
         percentCompleteConsumer.accept(0.5);
 
@@ -146,6 +132,62 @@ class BinaryContainer extends AbstractXStreamContainer {
         percentCompleteConsumer.accept(1);
     }
 
+    /**
+     * Creates a detached copy of the object graph by streaming the objects through the binary format in memory.
+     * The copy has no ties to the persistence layer of the source, so it may be persisted into another
+     * {@code DataStore} without an intermediate file.  TrashObjects and objects marked for removal are not copied.
+     *
+     * @param objects Collection of StoredObjects to copy
+     * @return all copied StoredObjects in dependency order
+     * @throws IOException thrown if the objects could not be copied
+     */
+    static List<StoredObject> copyObjects(@NotNull final Collection<StoredObject> objects) throws IOException {
+        final List<StoredObject> list = getWritableObjects(objects);
+        final List<StoredObject> copies = new ArrayList<>();
+
+        try (final PipedInputStream pipedInputStream = new PipedInputStream(PIPE_BUFFER_SIZE)) {
+            final PipedOutputStream pipedOutputStream = new PipedOutputStream(pipedInputStream);
+
+            // serialize on a second thread while this thread reads the copy
+            final FutureTask<Void> writer = new FutureTask<>(() -> {
+                final XStream xstream = configureXStream(new XStreamOut(new PureJavaReflectionProvider(),
+                        new BinaryStreamDriver()));
+
+                try (final ObjectOutputStream out = xstream.createObjectOutputStream(
+                        new BufferedOutputStream(pipedOutputStream))) {
+                    out.writeObject(list);
+                }
+                return null;
+            });
+
+            final Thread thread = new Thread(writer, "StoredObject Copy");
+            thread.setDaemon(true);
+            thread.start();
+
+            final XStream xstream = configureXStream(new XStreamJVM9(new StoredObjectReflectionProvider(copies),
+                    new BinaryStreamDriver()));
+
+            try (final ObjectInputStream in = xstream.createObjectInputStream(
+                    new BufferedInputStream(pipedInputStream))) {
+                in.readObject();
+            } catch (final ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+
+            writer.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (final ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        copies.removeIf(o -> o instanceof TrashObject);
+        copies.sort(new StoredObjectComparator());
+
+        return copies;
+    }
+
     void readBinary() {
 
         // A file lock will be held on Windows OS when reading
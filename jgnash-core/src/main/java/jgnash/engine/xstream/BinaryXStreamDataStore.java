@@ -17,6 +17,7 @@
  */
 package jgnash.engine.xstream;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -151,6 +152,18 @@ public class BinaryXStreamDataStore implements DataStore {
         BinaryContainer.writeBinary(objects, path, percentComplete);
     }
 
+    /**
+     * Creates a detached copy of the supplied objects that may be persisted into another {@code DataStore}.
+     * The copy is streamed through memory and does not require an intermediate file or engine.
+     *
+     * @param objects objects to copy
+     * @return copied objects in dependency order
+     * @throws IOException thrown if the objects could not be copied
+     */
+    public static List<StoredObject> copyStoredObjects(final Collection<StoredObject> objects) throws IOException {
+        return BinaryContainer.copyObjects(objects);
+    }
+
     /**
      * Opens the file in readonly mode and reads the version of the file format.
      *
@@ -0,0 +1,957 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.xstream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.DoubleConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import jgnash.engine.StoredObject;
+import jgnash.engine.TrashObject;
+import jgnash.util.NotNull;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.XStreamException;
+import com.thoughtworks.xstream.converters.DataHolder;
+import com.thoughtworks.xstream.converters.reflection.PureJavaReflectionProvider;
+import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+import com.thoughtworks.xstream.core.MapBackedDataHolder;
+import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
+import com.thoughtworks.xstream.io.binary.BinaryStreamReader;
+import com.thoughtworks.xstream.io.binary.BinaryStreamWriter;
+
+/**
+ * Object container for StoredObjects that reads and writes a segment file of length prefixed records.
+ * <p>
+ * Each {@code StoredObject} is written as a record of its own and references to other {@code StoredObjects} are
+ * written as UUIDs.  A commit appends only the records that have changed followed by a commit marker, so the file
+ * is not rewritten on every save.  Records following the last commit marker are ignored to protect against an
+ * interrupted commit.  Superseded records are dropped by rewriting the file once they outweigh the live records.
+ * <p>
+ * Only the objects reported by the DAOs are encoded by a commit.  Objects they refer to that have not been written
+ * yet are encoded with them, as are objects on the other end of a reference that was added or removed because their
+ * records change with it.
+ * <p>
+ * When opened, the file is memory mapped and a UUID to offset index is built from the record headers.  An instance
+ * is created for every indexed record before the records are read so references can be resolved in any order,
+ * which allows the records to be decoded in parallel.  If a record fails its checksum, the file is read again up
+ * to the last commit preceding the damaged record.
+ *
+ * @author Craig Cavanaugh
+ */
+class SegmentContainer extends AbstractXStreamContainer {
+
+    /**
+     * Identifies a segment file.  {@code FileMagic} must be kept in sync.
+     */
+    static final byte[] FILE_HEADER = "jGnash Segments".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_LENGTH = FILE_HEADER.length + Integer.BYTES;
+
+    private static final byte RECORD = 1;
+
+    private static final byte DELETE = 2;
+
+    private static final byte COMMIT = 3;
+
+    private static final int DELETE_LENGTH = Integer.BYTES + 1 + Long.BYTES * 2;
+
+    private static final int COMMIT_LENGTH = Integer.BYTES + 1;
+
+    /**
+     * Length of a record header following the length prefix, excluding the type name
+     */
+    private static final int RECORD_HEADER_LENGTH = 1 + Long.BYTES * 2 + Integer.BYTES + Short.BYTES;
+
+    /**
+     * Files smaller than this are not compacted
+     */
+    private static final long COMPACT_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Largest region of the file that is mapped at once
+     */
+    private static final long MAP_REGION_SIZE = 1L << 30;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String UUID_FIELD = "uuid";
+
+    /**
+     * Live records in file order
+     */
+    private final Map<UUID, IndexEntry> index = new LinkedHashMap<>();
+
+    /**
+     * Objects reported as changed since the last commit.  Guards {@code deletedRecords} as well.
+     */
+    private final Map<UUID, StoredObject> dirtyObjects = new LinkedHashMap<>();
+
+    /**
+     * Records to be removed by the next commit
+     */
+    private final Set<UUID> deletedRecords = new HashSet<>();
+
+    /**
+     * Length of the file up to and including the last commit marker
+     */
+    private long committedLength;
+
+    SegmentContainer(final Path path) {
+        super(path);
+    }
+
+    @Override
+    void markDirty(final Collection<? extends StoredObject> changed) {
+        synchronized (dirtyObjects) {
+            for (final StoredObject object : changed) {
+                dirtyObjects.put(object.getUuid(), object);
+            }
+        }
+    }
+
+    @Override
+    void delete(final StoredObject object) {
+        super.delete(object);
+
+        synchronized (dirtyObjects) {
+            dirtyObjects.remove(object.getUuid());
+            deletedRecords.add(object.getUuid());
+        }
+    }
+
+    @Override
+    synchronized void commit() {
+        final Logger logger = Logger.getLogger(SegmentContainer.class.getName());
+
+        final Map<UUID, StoredObject> dirty;
+        final Set<UUID> deleted;
+
+        synchronized (dirtyObjects) {
+            dirty = new LinkedHashMap<>(dirtyObjects);
+            deleted = new HashSet<>(deletedRecords);
+
+            dirtyObjects.clear();
+            deletedRecords.clear();
+        }
+
+        boolean committed = false;
+
+        readWriteLock.readLock().lock();
+
+        try {
+            final boolean exists = committedLength > 0 && Files.exists(path);
+
+            final List<Record> changed = new ArrayList<>();
+            final Set<UUID> removed = new LinkedHashSet<>();
+
+            if (exists) {
+                collectChanges(dirty, deleted, changed, removed);
+
+                if (changed.isEmpty() && removed.isEmpty()) {
+                    committed = true;
+                    return;
+                }
+            }
+
+            long appendedLength = committedLength + (long) DELETE_LENGTH * removed.size() + COMMIT_LENGTH;
+            long liveLength = HEADER_LENGTH + COMMIT_LENGTH;
+
+            for (final IndexEntry entry : index.values()) {
+                liveLength += entry.recordLength;
+            }
+
+            for (final Record record : changed) {
+                final IndexEntry entry = index.get(record.uuid);
+
+                appendedLength += record.bytes.length;
+                liveLength += record.bytes.length - (entry != null ? entry.recordLength : 0);
+            }
+
+            for (final UUID uuid : removed) {
+                liveLength -= index.get(uuid).recordLength;
+            }
+
+            releaseFileLock();
+
+            try {
+                if (!exists || (appendedLength > COMPACT_THRESHOLD && appendedLength > liveLength * 2)) {
+                    logger.info("Writing segment file");
+
+                    createBackup(path);
+
+                    final Map<UUID, IndexEntry> entries = writeRecords(encode(objects).values(), path, ignored -> { });
+
+                    index.clear();
+                    index.putAll(entries);
+                    committedLength = Files.size(path);
+                } else {
+                    appendRecords(changed, removed);
+                }
+
+                committed = true;
+            } finally {
+                if (!acquireFileLock()) { // lock the file on open
+                    logger.severe("Could not acquire the file lock");
+                }
+            }
+        } catch (final IOException | XStreamException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        } finally {
+            readWriteLock.readLock().unlock();
+
+            if (!committed) {   // retain the changes for the next attempt
+                synchronized (dirtyObjects) {
+                    dirty.forEach(dirtyObjects::putIfAbsent);
+                    deletedRecords.addAll(deleted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes the changed objects and determines which records must be appended or removed.  Objects that are not
+     * indexed yet and objects on the other end of an added or removed reference are visited as well.
+     *
+     * @param dirty   objects reported as changed
+     * @param deleted UUIDs of objects removed from the container
+     * @param changed records that differ from the indexed records
+     * @param removed UUIDs of indexed records that are no longer live
+     */
+    private void collectChanges(final Map<UUID, StoredObject> dirty, final Set<UUID> deleted,
+                                final List<Record> changed, final Set<UUID> removed) {
+
+        final XStream xstream = configureRecordXStream(new XStreamOut(new PureJavaReflectionProvider(),
+                new BinaryStreamDriver()));
+
+        final Deque<StoredObject> queue = new ArrayDeque<>(dirty.values());
+        final Set<UUID> visited = new HashSet<>();
+
+        // lazily built lookup for the objects at the other end of removed references
+        final Map<UUID, StoredObject> lookup = new HashMap<>();
+
+        for (final UUID uuid : deleted) {
+            visited.add(uuid);
+
+            final IndexEntry entry = index.get(uuid);
+
+            if (entry != null) {
+                removed.add(uuid);
+                enqueue(entry.references, lookup, queue);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final StoredObject object = queue.remove();
+
+            if (object instanceof TrashObject || !visited.add(object.getUuid())) {
+                continue;
+            }
+
+            final IndexEntry entry = index.get(object.getUuid());
+            final Set<UUID> previous = entry != null ? entry.references : Collections.emptySet();
+
+            if (object.isMarkedForRemoval()) {
+                if (entry != null) {
+                    removed.add(object.getUuid());
+                }
+
+                enqueue(previous, lookup, queue);
+                continue;
+            }
+
+            final List<StoredObject> references = new ArrayList<>();
+            final Record record = encodeRecord(xstream, object, references);
+
+            if (entry == null || entry.checksum != record.checksum || entry.length != record.payloadLength) {
+                changed.add(record);
+            }
+
+            for (final StoredObject reference : references) {
+                if (!previous.contains(reference.getUuid()) || !index.containsKey(reference.getUuid())) {
+                    queue.add(reference);
+                }
+            }
+
+            final Set<UUID> dropped = new HashSet<>(previous);
+            dropped.removeAll(record.references);
+
+            enqueue(dropped, lookup, queue);
+        }
+    }
+
+    private void enqueue(final Collection<UUID> uuids, final Map<UUID, StoredObject> lookup,
+                         final Deque<StoredObject> queue) {
+
+        if (!uuids.isEmpty() && lookup.isEmpty()) {
+            for (final StoredObject object : objects) {
+                lookup.put(object.getUuid(), object);
+            }
+        }
+
+        for (final UUID uuid : uuids) {
+            final StoredObject object = lookup.get(uuid);
+
+            if (object != null) {
+                queue.add(object);
+            }
+        }
+    }
+
+    /**
+     * Appends changed and deleted records followed by a commit marker.  The index is only updated once the commit
+     * marker has been written.
+     *
+     * @param changed new or modified records
+     * @param deleted UUIDs of records that are no longer referenced
+     * @throws IOException thrown if the records could not be written
+     */
+    private void appendRecords(final List<Record> changed, final Collection<UUID> deleted) throws IOException {
+        final Map<UUID, IndexEntry> entries = new HashMap<>();
+
+        long position = committedLength;
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(committedLength);  // discard any records left by an interrupted commit
+            channel.position(committedLength);
+
+            final OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+
+            for (final UUID uuid : deleted) {
+                out.write(ByteBuffer.allocate(DELETE_LENGTH).putInt(DELETE_LENGTH - Integer.BYTES).put(DELETE)
+                        .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array());
+
+                position += DELETE_LENGTH;
+            }
+
+            for (final Record record : changed) {
+                out.write(record.bytes);
+
+                entries.put(record.uuid, record.getIndexEntry(position));
+                position += record.bytes.length;
+            }
+
+            out.write(getCommitMarker());
+            out.flush();
+
+            channel.force(false);
+        }
+
+        index.keySet().removeAll(deleted);
+        index.putAll(entries);
+
+        committedLength = position + COMMIT_LENGTH;
+    }
+
+    /**
+     * Writes a new segment file given a collection of StoredObjects. TrashObjects and objects marked for removal are
+     * not written. If the file already exists, it will be overwritten.
+     *
+     * @param objects                 Collection of StoredObjects to write
+     * @param path                    file to write
+     * @param percentCompleteConsumer progress consumer
+     */
+    static synchronized void writeSegments(@NotNull final Collection<StoredObject> objects, @NotNull final Path path,
+                                           @NotNull final DoubleConsumer percentCompleteConsumer) {
+
+        final Logger logger = Logger.getLogger(SegmentContainer.class.getName());
+
+        if (!Files.exists(path.getParent())) {
+            try {
+                Files.createDirectories(path.getParent());
+                logger.info("Created missing directories");
+            } catch (final IOException e) {
+                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            }
+        }
+
+        percentCompleteConsumer.accept(0);
+
+        createBackup(path);
+
+        logger.info("Writing segment file");
+
+        try {
+            final Map<UUID, Record> records = encode(objects);
+
+            percentCompleteConsumer.accept(0.5);
+
+            writeRecords(records.values(), path, value -> percentCompleteConsumer.accept(0.5 + value / 2));
+        } catch (final IOException | XStreamException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+
+        logger.info("Writing segment file complete");
+
+        percentCompleteConsumer.accept(1);
+    }
+
+    /**
+     * Writes a complete segment file.  The records are written to a temporary file that replaces the original once
+     * complete.
+     *
+     * @param records         records to write
+     * @param path            file to write
+     * @param percentComplete progress consumer
+     * @return index of the written records
+     * @throws IOException thrown if the file could not be written
+     */
+    private static Map<UUID, IndexEntry> writeRecords(final Collection<Record> records, final Path path,
+                                                      final DoubleConsumer percentComplete) throws IOException {
+
+        final Map<UUID, IndexEntry> entries = new LinkedHashMap<>();
+        final Path tempFile = Paths.get(path.toString() + ".tmp");
+
+        try (final FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            final OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+
+            out.write(ByteBuffer.allocate(HEADER_LENGTH).put(FILE_HEADER).putInt(FORMAT_VERSION).array());
+
+            long position = HEADER_LENGTH;
+            int count = 0;
+
+            for (final Record record : records) {
+                out.write(record.bytes);
+
+                entries.put(record.uuid, record.getIndexEntry(position));
+                position += record.bytes.length;
+
+                percentComplete.accept((double) ++count / records.size());
+            }
+
+            out.write(getCommitMarker());
+            out.flush();
+
+            channel.force(true);
+        }
+
+        try {
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return entries;
+    }
+
+    private static byte[] getCommitMarker() {
+        return ByteBuffer.allocate(COMMIT_LENGTH).putInt(COMMIT_LENGTH - Integer.BYTES).put(COMMIT).array();
+    }
+
+    /**
+     * Serializes the object graph into one record per {@code StoredObject}.  The graph is walked from the top level
+     * objects so only reachable objects are written.
+     *
+     * @param objects Collection of StoredObjects to write
+     * @return records in the order they were reached
+     */
+    private static Map<UUID, Record> encode(final Collection<StoredObject> objects) {
+        final XStream xstream = configureRecordXStream(new XStreamOut(new PureJavaReflectionProvider(),
+                new BinaryStreamDriver()));
+
+        final Map<UUID, Record> records = new LinkedHashMap<>();
+        final Deque<StoredObject> queue = new ArrayDeque<>(getWritableObjects(objects));
+
+        while (!queue.isEmpty()) {
+            final StoredObject object = queue.remove();
+
+            if (!records.containsKey(object.getUuid())) {
+                final List<StoredObject> references = new ArrayList<>();
+
+                records.put(object.getUuid(), encodeRecord(xstream, object, references));
+
+                queue.addAll(references);
+            }
+        }
+
+        return records;
+    }
+
+    /**
+     * Serializes a single {@code StoredObject}.
+     *
+     * @param xstream    record XStream instance
+     * @param object     object to serialize
+     * @param references collection the referenced objects are added to
+     * @return the record
+     */
+    private static Record encodeRecord(final XStream xstream, final StoredObject object,
+                                       final List<StoredObject> references) {
+
+        final DataHolder dataHolder = new MapBackedDataHolder();
+        dataHolder.put(StoredObjectRecordConverter.RECORD_ROOT, object);
+        dataHolder.put(StoredObjectRecordConverter.REFERENCES, references);
+
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        final BinaryStreamWriter writer = new BinaryStreamWriter(stream);
+
+        xstream.marshal(object, writer, dataHolder);
+        writer.flush();
+
+        final Set<UUID> uuids = new HashSet<>();
+
+        for (final StoredObject reference : references) {
+            uuids.add(reference.getUuid());
+        }
+
+        return new Record(object.getUuid(), xstream.getMapper().serializedClass(object.getClass()),
+                stream.toByteArray(), uuids);
+    }
+
+    private static StoredObjectRecordConverter registerRecordConverter(final XStream xstream) {
+        final StoredObjectRecordConverter converter = new StoredObjectRecordConverter(xstream.getMapper(),
+                xstream.getReflectionProvider());
+
+        xstream.registerConverter(converter, XStream.PRIORITY_VERY_HIGH);
+
+        return converter;
+    }
+
+    private static XStream configureRecordXStream(final XStreamJVM9 xstream) {
+        configureXStream(xstream);
+        registerRecordConverter(xstream);
+
+        return xstream;
+    }
+
+    void readSegments() {
+        final Logger logger = Logger.getLogger(SegmentContainer.class.getName());
+
+        readWriteLock.writeLock().lock();
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedRegions file = new MappedRegions(channel, MAP_REGION_SIZE);
+
+            long limit = file.size;
+            long invalidOffset;
+
+            do {
+                readIndex(file, limit);
+
+                if (committedLength < limit) {
+                    logger.warning("Ignoring records following the last commit");
+                }
+
+                if (limit < file.size && index.isEmpty()) {
+                    throw new IOException("No valid commit was found in " + path);
+                }
+
+                invalidOffset = readRecords(file);
+
+                if (invalidOffset >= 0) {
+                    if (limit == file.size) {
+                        createBackup(path); // the damaged records are discarded by the next commit
+                    }
+
+                    logger.severe("Falling back to the last commit preceding offset " + invalidOffset);
+
+                    limit = invalidOffset;
+                }
+            } while (invalidOffset >= 0);
+        } catch (final IOException | XStreamException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+
+            // nothing was loaded, the next commit must not append to the file
+            index.clear();
+            committedLength = 0;
+        } finally {
+            if (!acquireFileLock()) { // lock the file on open
+                logger.severe("Could not acquire the file lock");
+            }
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index from the record headers without reading the record contents.  Changes are only applied to
+     * the index when the commit marker that follows them is found.
+     *
+     * @param file  mapped file
+     * @param limit records ending beyond this offset are ignored
+     * @throws IOException thrown if this is not a valid segment file
+     */
+    private void readIndex(final MappedRegions file, final long limit) throws IOException {
+        index.clear();
+
+        if (limit < HEADER_LENGTH) {
+            throw new IOException("Invalid segment file: " + path);
+        }
+
+        final ByteBuffer headerBuffer = file.read(0, HEADER_LENGTH);
+        final byte[] header = new byte[FILE_HEADER.length];
+
+        headerBuffer.get(header);
+
+        if (!Arrays.equals(header, FILE_HEADER)) {
+            throw new IOException("Invalid segment file: " + path);
+        }
+
+        final int version = headerBuffer.getInt();
+
+        if (version > FORMAT_VERSION) {
+            throw new IOException("Unsupported segment file version: " + version);
+        }
+
+        committedLength = HEADER_LENGTH;
+
+        final Map<UUID, IndexEntry> pending = new LinkedHashMap<>();   // null values are deletions
+
+        long position = HEADER_LENGTH;
+
+        try {
+            while (limit - position >= COMMIT_LENGTH) {
+                final int length = file.read(position, Integer.BYTES).getInt();
+                final long start = position + Integer.BYTES;
+                final long end = start + length;
+
+                if (length < 1 || end > limit) {
+                    break;  // interrupted commit
+                }
+
+                final ByteBuffer buffer = file.read(start, Math.min(length, RECORD_HEADER_LENGTH));
+                final byte kind = buffer.get();
+
+                switch (kind) {
+                    case COMMIT:
+                        for (final Map.Entry<UUID, IndexEntry> entry : pending.entrySet()) {
+                            if (entry.getValue() == null) {
+                                index.remove(entry.getKey());
+                            } else {
+                                index.remove(entry.getKey());   // keep the index in file order
+                                index.put(entry.getKey(), entry.getValue());
+                            }
+                        }
+
+                        pending.clear();
+                        committedLength = end;
+                        break;
+                    case DELETE:
+                        pending.put(new UUID(buffer.getLong(), buffer.getLong()), null);
+                        break;
+                    case RECORD:
+                        final UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+                        final int checksum = buffer.getInt();
+                        final byte[] type = new byte[buffer.getShort() & 0xFFFF];
+                        final long payloadOffset = start + RECORD_HEADER_LENGTH + type.length;
+
+                        if (payloadOffset > end) {
+                            throw new BufferUnderflowException();
+                        }
+
+                        file.get(start + RECORD_HEADER_LENGTH, type);
+
+                        pending.put(uuid, new IndexEntry(new String(type, StandardCharsets.UTF_8), payloadOffset,
+                                (int) (end - payloadOffset), checksum, (int) (end - position)));
+                        break;
+                    default:
+                        throw new IOException("Unknown record type: " + kind);
+                }
+
+                position = end;
+            }
+        } catch (final BufferUnderflowException e) {
+            Logger.getLogger(SegmentContainer.class.getName()).warning("Truncated record found");
+        }
+    }
+
+    /**
+     * Reads the indexed records.  An instance is created for each record before any are read so references
+     * between records are resolved regardless of order.  Records are then independent of each other and are
+     * decoded in parallel on the common fork join pool.  Initialization that depends on referenced objects
+     * is completed in a separate linking phase once every record has been decoded.
+     * <p>
+     * Records that can no longer be reached from the top level objects are not loaded and are removed by the next
+     * commit.  Nothing is loaded if a record fails its checksum.
+     *
+     * @param file mapped file
+     * @return the offset of the first record that failed its checksum, or -1 if the records were loaded
+     */
+    private long readRecords(final MappedRegions file) {
+        final XStreamJVM9 xstream = new XStreamJVM9(new PureJavaReflectionProvider(), new BinaryStreamDriver());
+        configureXStream(xstream);
+
+        final StoredObjectRecordConverter converter = registerRecordConverter(xstream);
+        final ReflectionProvider reflectionProvider = xstream.getReflectionProvider();
+
+        final Map<UUID, StoredObject> instances = new LinkedHashMap<>();
+
+        for (final Map.Entry<UUID, IndexEntry> entry : index.entrySet()) {
+            final Object instance = reflectionProvider.newInstance(xstream.getMapper().realClass(entry.getValue().type));
+
+            // the UUID is required up front, the instance may be placed in a hashed collection before it is read
+            reflectionProvider.writeField(instance, UUID_FIELD, entry.getKey(), StoredObject.class);
+            instances.put(entry.getKey(), (StoredObject) instance);
+        }
+
+        final LongAccumulator invalidOffset = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+        // decode, each record only populates its own instance and the instance map is no longer modified
+        new ArrayList<>(index.entrySet()).parallelStream().forEach(entry -> {
+            final IndexEntry indexEntry = entry.getValue();
+            final byte[] payload = new byte[indexEntry.length];
+
+            file.get(indexEntry.offset, payload);
+
+            if (getChecksum(payload) != indexEntry.checksum) {
+                Logger.getLogger(SegmentContainer.class.getName()).severe("Invalid checksum for " + entry.getKey());
+                invalidOffset.accumulate(indexEntry.offset);
+                return;
+            }
+
+            final Set<UUID> references = new HashSet<>();
+
+            final DataHolder dataHolder = new MapBackedDataHolder();
+            dataHolder.put(StoredObjectRecordConverter.RECORD_ROOT, instances.get(entry.getKey()));
+            dataHolder.put(StoredObjectRecordConverter.INSTANCES, instances);
+            dataHolder.put(StoredObjectRecordConverter.REFERENCES, references);
+
+            xstream.unmarshal(new BinaryStreamReader(new ByteArrayInputStream(payload)), null, dataHolder);
+
+            indexEntry.references = references;
+        });
+
+        if (invalidOffset.get() != Long.MAX_VALUE) {
+            return invalidOffset.get();
+        }
+
+        // only records reachable from the top level objects are live, as they are when the file is rewritten
+        final Set<UUID> reachable = new HashSet<>();
+        final Deque<UUID> queue = new ArrayDeque<>();
+
+        for (final StoredObject object : getWritableObjects(instances.values())) {
+            queue.add(object.getUuid());
+        }
+
+        while (!queue.isEmpty()) {
+            final UUID uuid = queue.remove();
+            final IndexEntry entry = index.get(uuid);
+
+            if (entry != null && reachable.add(uuid)) {
+                queue.addAll(entry.references);
+            }
+        }
+
+        instances.keySet().removeIf(uuid -> {
+            if (!reachable.contains(uuid)) {
+                deletedRecords.add(uuid);
+                return true;
+            }
+            return false;
+        });
+
+        // link, all references are populated so initialization may be completed
+        instances.values().parallelStream().forEach(converter::readResolve);
+
+        objects.addAll(instances.values());
+
+        return -1;
+    }
+
+    private static int getChecksum(final byte[] payload) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * A read only file mapped as consecutive regions so files larger than a single mapping can be read.  Reads that
+     * cross a region boundary are copied.
+     */
+    private static final class MappedRegions {
+
+        final long size;
+
+        private final long regionSize;
+
+        private final MappedByteBuffer[] regions;
+
+        MappedRegions(final FileChannel channel, final long regionSize) throws IOException {
+            this.size = channel.size();
+            this.regionSize = regionSize;
+
+            regions = new MappedByteBuffer[(int) ((size + regionSize - 1) / regionSize)];
+
+            for (int i = 0; i < regions.length; i++) {
+                final long position = i * regionSize;
+
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(regionSize, size - position));
+            }
+        }
+
+        /**
+         * Returns a buffer positioned at the start of the requested bytes.
+         *
+         * @param position file offset
+         * @param length   number of bytes
+         * @return buffer containing the requested bytes
+         */
+        ByteBuffer read(final long position, final int length) {
+            final MappedByteBuffer region = regions[(int) (position / regionSize)];
+            final int offset = (int) (position % regionSize);
+
+            if (offset + length <= region.limit()) {
+                final ByteBuffer view = region.duplicate();  // position is not shared between threads
+                view.position(offset);
+                view.limit(offset + length);
+
+                return view.slice();
+            }
+
+            final byte[] bytes = new byte[length];
+            get(position, bytes);
+
+            return ByteBuffer.wrap(bytes);
+        }
+
+        /**
+         * Copies bytes from the file.
+         *
+         * @param position    file offset
+         * @param destination filled with the bytes starting at the offset
+         */
+        void get(final long position, final byte[] destination) {
+            long current = position;
+            int copied = 0;
+
+            while (copied < destination.length) {
+                final ByteBuffer view = regions[(int) (current / regionSize)].duplicate();
+                view.position((int) (current % regionSize));
+
+                final int count = Math.min(destination.length - copied, view.remaining());
+
+                view.get(destination, copied, count);
+
+                copied += count;
+                current += count;
+            }
+        }
+    }
+
+    /**
+     * Location of a live record within the file.
+     */
+    private static final class IndexEntry {
+
+        final String type;
+
+        final long offset;
+
+        final int length;
+
+        final int checksum;
+
+        /**
+         * Length of the complete record including its header
+         */
+        final int recordLength;
+
+        /**
+         * UUIDs of the objects the record refers to, known once the record has been written or read
+         */
+        Set<UUID> references = Collections.emptySet();
+
+        IndexEntry(final String type, final long offset, final int length, final int checksum,
+                   final int recordLength) {
+            this.type = type;
+            this.offset = offset;
+            this.length = length;
+            this.checksum = checksum;
+            this.recordLength = recordLength;
+        }
+    }
+
+    /**
+     * A serialized {@code StoredObject} ready to be written.
+     */
+    private static final class Record {
+
+        final UUID uuid;
+
+        final byte[] bytes;
+
+        final int payloadLength;
+
+        final int checksum;
+
+        final Set<UUID> references;
+
+        private final String type;
+
+        Record(final UUID uuid, final String type, final byte[] payload, final Set<UUID> references) {
+            this.uuid = uuid;
+            this.type = type;
+            this.references = references;
+            this.payloadLength = payload.length;
+            this.checksum = getChecksum(payload);
+
+            final byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+            final int length = RECORD_HEADER_LENGTH + typeBytes.length + payload.length;
+
+            bytes = ByteBuffer.allocate(Integer.BYTES + length).putInt(length).put(RECORD)
+                    .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).putInt(checksum)
+                    .putShort((short) typeBytes.length).put(typeBytes).put(payload).array();
+        }
+
+        IndexEntry getIndexEntry(final long position) {
+            final IndexEntry entry = new IndexEntry(type, position + bytes.length - payloadLength, payloadLength,
+                    checksum, bytes.length);
+
+            entry.references = references;
+
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.xstream;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import jgnash.engine.StoredObject;
+
+import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.converters.reflection.ReflectionConverter;
+import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+/**
+ * XStream converter that limits a serialized graph to a single {@code StoredObject}.
+ * <p>
+ * The root object of a record is written with reflection while any other {@code StoredObject} it refers to is
+ * written as its UUID.  Referenced objects are collected so the caller can write them as records of their own.
+ * When reading, references are resolved against a map of instances that may not have been populated yet, which
+ * allows records to be read in any order, and the referenced UUIDs are collected.
+ * <p>
+ * {@code readResolve} is not called for the root object because the objects it refers to may not be populated.
+ * The caller is expected to call {@link #readResolve(Object)} once all records have been read.
+ *
+ * @author Craig Cavanaugh
+ */
+final class StoredObjectRecordConverter extends ReflectionConverter {
+
+    /**
+     * Context key for the {@code StoredObject} being written or the instance to populate when reading
+     */
+    static final String RECORD_ROOT = "recordRoot";
+
+    /**
+     * Context key for the {@code Collection} that referenced objects are added to when writing.  The UUIDs of
+     * referenced objects are added when reading.
+     */
+    static final String REFERENCES = "references";
+
+    /**
+     * Context key for the {@code Map} used to resolve UUIDs when reading
+     */
+    static final String INSTANCES = "instances";
+
+    StoredObjectRecordConverter(final Mapper mapper, final ReflectionProvider reflectionProvider) {
+        super(mapper, reflectionProvider);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean canConvert(final Class type) {
+        return type != null && StoredObject.class.isAssignableFrom(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void marshal(final Object source, final HierarchicalStreamWriter writer, final MarshallingContext context) {
+        if (source == context.get(RECORD_ROOT)) {
+            super.marshal(source, writer, context);
+        } else {
+            final StoredObject storedObject = (StoredObject) source;
+
+            writer.setValue(storedObject.getUuid().toString());
+            ((Collection<StoredObject>) context.get(REFERENCES)).add(storedObject);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object unmarshal(final HierarchicalStreamReader reader, final UnmarshallingContext context) {
+        final Object root = context.get(RECORD_ROOT);
+
+        if (root != null) {
+            context.put(RECORD_ROOT, null); // nested StoredObjects are references
+
+            return doUnmarshal(root, reader, context);
+        }
+
+        final UUID uuid = UUID.fromString(reader.getValue());
+        final StoredObject storedObject = ((Map<UUID, StoredObject>) context.get(INSTANCES)).get(uuid);
+
+        final Collection<UUID> references = (Collection<UUID>) context.get(REFERENCES);
+
+        if (references != null) {
+            references.add(uuid);
+        }
+
+        if (storedObject == null) {
+            Logger.getLogger(StoredObjectRecordConverter.class.getName())
+                    .warning("Unable to resolve a reference to " + uuid);
+        }
+
+        return storedObject;
+    }
+
+    /**
+     * Completes initialization of an object read as the root of a record.
+     *
+     * @param object populated root object
+     */
+    void readResolve(final Object object) {
+        serializationMembers.callReadResolve(object);
+    }
+}
@@ -17,30 +17,27 @@
  */
 package jgnash.engine.xstream;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.DoubleConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
-import jgnash.engine.CommodityNode;
-import jgnash.engine.Config;
 import jgnash.engine.Engine;
-import jgnash.engine.ExchangeRate;
-import jgnash.engine.RootAccount;
 import jgnash.engine.StoredObject;
-import jgnash.engine.StoredObjectComparator;
-import jgnash.engine.budget.Budget;
-import jgnash.engine.recurring.Reminder;
 
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.io.xml.StaxDriver;
@@ -85,39 +82,14 @@ class XMLContainer extends AbstractXStreamContainer {
 
         createBackup(path);
 
-        List<StoredObject> list = new ArrayList<>();
-
-        list.addAll(query(objects, Budget.class));
-        list.addAll(query(objects, Config.class));
-        list.addAll(query(objects, CommodityNode.class));
-        list.addAll(query(objects, ExchangeRate.class));
-        list.addAll(query(objects, RootAccount.class));
-        list.addAll(query(objects, Reminder.class));
-
-        percentCompleteConsumer.accept(0.25);
-
-        // remove any objects marked for removal
-        list.removeIf(StoredObject::isMarkedForRemoval);
-
-        // sort the list
-        list.sort(new StoredObjectComparator());
+        final List<StoredObject> list = getWritableObjects(objects);
 
         percentCompleteConsumer.accept(0.5);
 
         logger.info("Writing XML file");
 
         try (final Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
-            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-            writer.write("<?fileFormat " + Engine.CURRENT_MAJOR_VERSION + "." + Engine.CURRENT_MINOR_VERSION + "?>\n");
-
-            final XStream xstream = configureXStream(new XStreamOut(new PureJavaReflectionProvider(), new StaxDriver()));
-
-            try (final ObjectOutputStream out = xstream.createObjectOutputStream(new PrettyPrintWriter(writer))) {
-                out.writeObject(list);
-                out.flush();     // forcibly flush before letting go of the resources to help older windows systems write correctly
-            } catch (final Exception e) {
-                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            }
+            writeXML(list, writer);
         } catch (final IOException e) {
             logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
         }
@@ -127,6 +99,64 @@ class XMLContainer extends AbstractXStreamContainer {
         percentCompleteConsumer.accept(1);
     }
 
+    /**
+     * Writes a compressed XML file given a collection of StoredObjects.  The XML is streamed directly into a single
+     * zip entry without an intermediate file.  TrashObjects and objects marked for removal are not written. If the
+     * file already exists, it will be overwritten.
+     * <p>
+     * This method does not synchronize against other writers and the supplied objects must not be modified while
+     * the file is written.
+     *
+     * @param objects          Collection of StoredObjects to write
+     * @param path             zip file to write
+     * @param entryName        name of the XML entry within the zip file
+     * @param compressionLevel deflater compression level
+     * @throws IOException thrown if the file could not be written
+     */
+    static void writeCompressedXML(@NotNull final Collection<StoredObject> objects, @NotNull final Path path,
+                                   @NotNull final String entryName, final int compressionLevel) throws IOException {
+
+        if (!Files.exists(path.getParent())) {
+            Files.createDirectories(path.getParent());
+            Logger.getLogger(XMLContainer.class.getName()).info("Created missing directories");
+        }
+
+        final List<StoredObject> list = getWritableObjects(objects);
+
+        try (final ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            zipOut.setLevel(compressionLevel);
+            zipOut.putNextEntry(new ZipEntry(entryName));
+
+            final OutputStream entryOut = new BufferedOutputStream(zipOut) {
+                @Override
+                public void close() throws IOException {
+                    flush();    // the zip stream must remain open until the entry is finished
+                }
+            };
+
+            try (final Writer writer = new OutputStreamWriter(entryOut, StandardCharsets.UTF_8)) {
+                writeXML(list, writer);
+            }
+
+            zipOut.closeEntry();
+            zipOut.finish();
+        }
+    }
+
+    private static void writeXML(final List<StoredObject> list, final Writer writer) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<?fileFormat " + Engine.CURRENT_MAJOR_VERSION + "." + Engine.CURRENT_MINOR_VERSION + "?>\n");
+
+        final XStream xstream = configureXStream(new XStreamOut(new PureJavaReflectionProvider(), new StaxDriver()));
+
+        try (final ObjectOutputStream out = xstream.createObjectOutputStream(new PrettyPrintWriter(writer))) {
+            out.writeObject(list);
+            out.flush();     // forcibly flush before letting go of the resources to help older windows systems write correctly
+        } catch (final Exception e) {
+            Logger.getLogger(XMLContainer.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+    }
+
     @Override
     void commit() {
         writeXML();
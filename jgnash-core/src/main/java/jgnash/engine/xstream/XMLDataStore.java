@@ -17,6 +17,7 @@
  */
 package jgnash.engine.xstream;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -149,6 +150,20 @@ public class XMLDataStore implements DataStore {
         XMLContainer.writeXML(objects, path, percentComplete);
     }
 
+    /**
+     * Streams the objects as XML directly into a zip file without an intermediate file.
+     *
+     * @param path             zip file to write
+     * @param entryName        name of the XML entry within the zip file
+     * @param objects          objects to write, these must not be modified while the file is written
+     * @param compressionLevel deflater compression level
+     * @throws IOException thrown if the file could not be written
+     */
+    public static void saveAsCompressed(final Path path, final String entryName, final Collection<StoredObject> objects,
+                                        final int compressionLevel) throws IOException {
+        XMLContainer.writeCompressedXML(objects, path, entryName, compressionLevel);
+    }
+
     /**
      * Opens the file in readonly mode and reads the version of the file format.
      *
@@ -37,7 +37,7 @@ class XStreamBudgetDAO extends AbstractXStreamDAO implements BudgetDAO {
     @Override
     public boolean add(final Budget budget) {
         container.set(budget);
-        commit();
+        commit(budget);
 
         return true;
     }
@@ -45,7 +45,7 @@ class XStreamBudgetDAO extends AbstractXStreamDAO implements BudgetDAO {
     @Override
     public boolean update(final Budget budget) {
         container.set(budget);
-        commit();
+        commit(budget);
 
         return true;
     }
@@ -49,7 +49,7 @@ class XStreamConfigDAO extends AbstractXStreamDAO implements ConfigDAO {
         if (defaultConfig == null) {
             defaultConfig = new Config();
             container.set(defaultConfig);
-            commit();
+            commit(defaultConfig);
             logger.info("Generating new default config");
         }
 
@@ -59,6 +59,6 @@ class XStreamConfigDAO extends AbstractXStreamDAO implements ConfigDAO {
     @Override
     public void update(final Config config) {
         container.set(config);
-        commit();
+        commit(config);
     }
 }
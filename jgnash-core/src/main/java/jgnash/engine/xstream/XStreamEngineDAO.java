@@ -171,6 +171,6 @@ class XStreamEngineDAO extends AbstractXStreamDAO implements EngineDAO {
 
     @Override
     public void bulkUpdate(List<? extends StoredObject> objectList) {
-        commit();
+        commit(objectList);
     }
 }
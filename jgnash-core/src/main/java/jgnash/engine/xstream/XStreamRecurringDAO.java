@@ -42,7 +42,7 @@ class XStreamRecurringDAO extends AbstractXStreamDAO implements RecurringDAO {
     @Override
     public boolean addReminder(final Reminder reminder) {
         container.set(reminder);
-        commit();
+        commit(reminder);
         return true;
     }
 
@@ -53,7 +53,12 @@ class XStreamRecurringDAO extends AbstractXStreamDAO implements RecurringDAO {
 
     @Override
     public boolean updateReminder(final Reminder reminder) {
-        commit();
+        // the transaction is not managed by the container and may have been modified in place
+        if (reminder.getTransaction() != null) {
+            commit(reminder, reminder.getTransaction());
+        } else {
+            commit(reminder);
+        }
         return true;
     }
 }
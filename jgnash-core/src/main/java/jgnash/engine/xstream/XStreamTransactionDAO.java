@@ -17,6 +17,7 @@
  */
 package jgnash.engine.xstream;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -43,7 +44,15 @@ class XStreamTransactionDAO extends AbstractXStreamDAO implements TransactionDAO
     @Override
     public boolean addTransaction(final Transaction transaction) {
         container.set(transaction);
-        commit();
+        commit(transaction);
+
+        return true;
+    }
+
+    @Override
+    public boolean addTransactions(final Collection<Transaction> transactions) {
+        transactions.forEach(container::set);
+        commit(transactions);
 
         return true;
     }
@@ -55,7 +64,7 @@ class XStreamTransactionDAO extends AbstractXStreamDAO implements TransactionDAO
 
     @Override
     public boolean removeTransaction(final Transaction transaction) {
-        commit();
+        commit(transaction);
         return true;
     }
 
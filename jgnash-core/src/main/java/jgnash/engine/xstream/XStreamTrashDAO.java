@@ -20,7 +20,9 @@ package jgnash.engine.xstream;
 import jgnash.engine.TrashObject;
 import jgnash.engine.dao.TrashDAO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -44,7 +46,7 @@ class XStreamTrashDAO extends AbstractXStreamDAO implements TrashDAO {
     @Override
     public void add(final TrashObject trashObject) {
         container.set(trashObject);
-        commit();
+        commit(trashObject.getObject());
     }
 
     @Override
@@ -57,6 +59,18 @@ class XStreamTrashDAO extends AbstractXStreamDAO implements TrashDAO {
         logger.info("Removed TrashObject");
     }
 
+    @Override
+    public void remove(final Collection<TrashObject> trashObjects) {
+        for (final TrashObject trashObject : trashObjects) {
+            container.delete(trashObject.getObject());
+            container.delete(trashObject);
+        }
+
+        commit();
+
+        logger.log(Level.INFO, "Removed {0} TrashObjects", trashObjects.size());
+    }
+
     @Override
     public void addEntityTrash(Object entity) {
         // XStream does not need to do anything with entity trash
@@ -0,0 +1,67 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.net;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces requests to an online service so that no more than one request is started per interval.
+ * <p>
+ * Permits are handed out in order of arrival and waiting threads sleep outside of the lock.
+ *
+ * @author Craig Cavanaugh
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+
+    /**
+     * Time at which the next permit becomes available, guarded by {@code this}.
+     */
+    private long nextPermit;
+
+    public RateLimiter(final long interval, final TimeUnit unit) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("The interval may not be negative");
+        }
+
+        intervalNanos = unit.toNanos(interval);
+        nextPermit = System.nanoTime();
+    }
+
+    /**
+     * Blocks until a request may be started.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        final long wait;
+
+        synchronized (this) {
+            final long now = System.nanoTime();
+            final long permit = nextPermit - now > 0 ? nextPermit : now;
+
+            nextPermit = permit + intervalNanos;
+            wait = permit - now;
+        }
+
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -21,10 +21,12 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import jgnash.engine.CurrencyNode;
 import jgnash.engine.Engine;
 import jgnash.engine.EngineFactory;
+import jgnash.net.RateLimiter;
 
 /**
  * Fetches latest exchange rates in the background.
@@ -35,6 +37,15 @@ public class CurrencyUpdateFactory {
 
     private static final String UPDATE_ON_STARTUP = "updateCurrenciesOnStartup";
 
+    /**
+     * The free conversion service is throttled, no more than 2 requests per second.
+     */
+    private static final RateLimiter rateLimiter = new RateLimiter(500, TimeUnit.MILLISECONDS);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final long RETRY_DELAY = 1000;   // milliseconds, doubles for each retry
+
     private CurrencyUpdateFactory() {
     }
 
@@ -63,6 +74,13 @@ public class CurrencyUpdateFactory {
 
         final CurrencyParser parser = new CurrencyConverterParser();
 
+        try {
+            rateLimiter.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return optional;
+        }
+
         if (parser.parse(source.getSymbol(), target.getSymbol())) {
             final BigDecimal exchangeRate = parser.getConversion();
 
@@ -74,6 +92,34 @@ public class CurrencyUpdateFactory {
         return optional;
     }
 
+    /**
+     * Retries a failed exchange rate request with an exponential backoff.
+     *
+     * @param source source currency
+     * @param target target currency
+     * @return exchange rate if successful
+     */
+    private static Optional<BigDecimal> getExchangeRateWithRetry(final CurrencyNode source, final CurrencyNode target) {
+        long delay = RETRY_DELAY;
+
+        for (int attempt = 1; ; attempt++) {
+            final Optional<BigDecimal> rate = getExchangeRate(source, target);
+
+            if (rate.isPresent() || attempt >= MAX_ATTEMPTS || Thread.currentThread().isInterrupted()) {
+                return rate;
+            }
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return rate;
+            }
+
+            delay *= 2;
+        }
+    }
+
     public static class UpdateExchangeRatesCallable implements Callable<Boolean> {
 
         @Override
@@ -90,7 +136,7 @@ public class CurrencyUpdateFactory {
                     list.stream().filter(target -> !source.equals(target)
                             && source.getSymbol().compareToIgnoreCase(target.getSymbol()) > 0).forEach(target -> {
 
-                        final Optional<BigDecimal> rate = CurrencyUpdateFactory.getExchangeRate(source, target);
+                        final Optional<BigDecimal> rate = getExchangeRateWithRetry(source, target);
 
                         rate.ifPresent(value -> engine.setExchangeRate(source, target, value));
                     });
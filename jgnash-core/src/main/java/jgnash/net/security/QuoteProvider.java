@@ -0,0 +1,100 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.net.security;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jgnash.engine.SecurityHistoryEvent;
+import jgnash.engine.SecurityHistoryNode;
+import jgnash.engine.SecurityNode;
+
+/**
+ * Source of online security prices and events used by the background update.
+ * <p>
+ * Implementations must be thread safe.  The {@code UpdateFactory} limits the request rate and retries failed requests,
+ * so implementations should simply throw an {@code IOException} on failure.
+ *
+ * @author Craig Cavanaugh
+ * @see UpdateFactory#setQuoteProvider(QuoteProvider)
+ */
+public interface QuoteProvider {
+
+    /**
+     * Returns the maximum number of securities that may be requested at once.
+     *
+     * @return maximum batch size, {@code 1} if multiple symbol requests are not supported
+     */
+    default int getMaxBatchSize() {
+        return 1;
+    }
+
+    /**
+     * Returns the minimum time between requests.
+     *
+     * @return minimum request interval in milliseconds
+     */
+    default long getRequestInterval() {
+        return 0;
+    }
+
+    /**
+     * Returns the delay before the first retry of a failed request.  The delay doubles for each additional retry.
+     *
+     * @return initial retry delay in milliseconds
+     */
+    default long getRetryDelay() {
+        return 1000;
+    }
+
+    /**
+     * Returns the maximum number of attempts for a request.
+     *
+     * @return maximum number of attempts
+     */
+    default int getMaxAttempts() {
+        return 3;
+    }
+
+    /**
+     * Retrieves the price history for a batch of securities.
+     *
+     * @param securityNodes securities to retrieve, never more than {@link #getMaxBatchSize()}
+     * @param startDate     start date
+     * @param endDate       end date
+     * @return the price history of each security.  Securities without a history may be omitted
+     * @throws IOException if the request failed
+     */
+    Map<SecurityNode, List<SecurityHistoryNode>> getHistoricalPrices(Collection<SecurityNode> securityNodes,
+                                                                    LocalDate startDate, LocalDate endDate)
+            throws IOException;
+
+    /**
+     * Retrieves the dividend and split events for a security.
+     *
+     * @param securityNode security to retrieve
+     * @param endDate      end date
+     * @return security events
+     * @throws IOException if the request failed
+     */
+    Set<SecurityHistoryEvent> getHistoryEvents(SecurityNode securityNode, LocalDate endDate) throws IOException;
+}
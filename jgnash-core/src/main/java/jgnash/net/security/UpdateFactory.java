@@ -23,16 +23,21 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Handler;
@@ -45,6 +50,8 @@ import jgnash.engine.QuoteSource;
 import jgnash.engine.SecurityHistoryEvent;
 import jgnash.engine.SecurityHistoryNode;
 import jgnash.engine.SecurityNode;
+import jgnash.net.RateLimiter;
+import jgnash.util.DefaultDaemonThreadFactory;
 import jgnash.util.LogUtil;
 import jgnash.util.NotNull;
 import jgnash.resource.util.ResourceUtils;
@@ -63,6 +70,28 @@ public class UpdateFactory {
 
     private static final int TIMEOUT = 1;   // default timeout in minutes
 
+    /**
+     * Maximum number of concurrent update requests.
+     */
+    public static final int MAX_WORKERS = 4;
+
+    /**
+     * Shared pool for single security updates requested by the UI.
+     */
+    private static final ThreadPoolExecutor updateExecutor = new ThreadPoolExecutor(MAX_WORKERS, MAX_WORKERS,
+            30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DefaultDaemonThreadFactory("Security Update"));
+
+    /**
+     * Rate limiters are shared by all requests to the same provider.
+     */
+    private static final Map<QuoteProvider, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    private static volatile QuoteProvider quoteProvider = new YahooQuoteProvider();
+
+    static {
+        updateExecutor.allowCoreThreadTimeOut(true);
+    }
+
     /**
      * Registers a {@code Handler} with the class logger.
      *
@@ -72,6 +101,20 @@ public class UpdateFactory {
         logger.addHandler(handler);
     }
 
+    /**
+     * Sets the {@code QuoteProvider} used for security updates.  A local stand-in may be installed for offline use.
+     *
+     * @param provider {@code QuoteProvider} to use
+     */
+    public static void setQuoteProvider(@NotNull final QuoteProvider provider) {
+        quoteProvider = Objects.requireNonNull(provider);
+    }
+
+    @NotNull
+    public static QuoteProvider getQuoteProvider() {
+        return quoteProvider;
+    }
+
     public static void setUpdateOnStartup(final boolean update) {
         final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
 
@@ -156,30 +199,109 @@ public class UpdateFactory {
     private static boolean waitForCallable(final Callable<Boolean> callable) {
         boolean result = false;
 
-        final ExecutorService service = Executors.newSingleThreadExecutor();
-        final Future<Boolean> future = service.submit(callable);
+        final Future<Boolean> future = updateExecutor.submit(callable);
 
         try {
             result = future.get(TIMEOUT, TimeUnit.MINUTES);
-            service.shutdown();
         } catch (final InterruptedException | ExecutionException e) { // intentionally interrupted
             logger.log(Level.FINEST, e.getLocalizedMessage(), e);
         } catch (final TimeoutException e) {
+            future.cancel(true);
             logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
         }
 
-
         return result;
     }
 
+    /**
+     * Creates the callables for a full update of the supplied securities.  Price requests are batched to the
+     * maximum size the {@code QuoteProvider} supports.  The callables are independent and may be run concurrently as
+     * requests to the provider are rate limited.
+     *
+     * @param securityNodes securities to update
+     * @return list of update callables
+     */
+    public static List<Callable<Boolean>> createUpdateCallables(final Collection<SecurityNode> securityNodes) {
+        final QuoteProvider provider = quoteProvider;
+
+        final List<SecurityNode> nodes = new ArrayList<>();
+
+        for (final SecurityNode securityNode : securityNodes) {
+            if (securityNode.getQuoteSource() != QuoteSource.NONE) { // failure will occur if source is not defined
+                nodes.add(securityNode);
+            }
+        }
+
+        final int batchSize = Math.max(1, provider.getMaxBatchSize());
+
+        final List<Callable<Boolean>> callables = new ArrayList<>();
+
+        for (int i = 0; i < nodes.size(); i += batchSize) {
+            callables.add(new UpdateSecuritiesCallable(nodes.subList(i, Math.min(i + batchSize, nodes.size())),
+                    provider));
+        }
+
+        for (final SecurityNode securityNode : nodes) {
+            callables.add(new UpdateSecurityNodeEventsCallable(securityNode, provider));
+        }
+
+        return callables;
+    }
+
+    /**
+     * Performs a rate limited request and retries with an exponential backoff if the request fails.
+     *
+     * @param provider {@code QuoteProvider} the request is made to
+     * @param request  request to perform
+     * @param <T>      result type
+     * @return request result
+     * @throws IOException          if the last attempt failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static <T> T request(final QuoteProvider provider, final QuoteRequest<T> request)
+            throws IOException, InterruptedException {
+
+        final RateLimiter rateLimiter = rateLimiters.computeIfAbsent(provider,
+                p -> new RateLimiter(p.getRequestInterval(), TimeUnit.MILLISECONDS));
+
+        long delay = provider.getRetryDelay();
+
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire();
+
+            try {
+                return request.call();
+            } catch (final IOException e) {
+                if (attempt >= provider.getMaxAttempts()) {
+                    throw e;
+                }
+
+                logger.log(Level.INFO, "Quote request failed, retrying in {0} ms", delay);
+
+                TimeUnit.MILLISECONDS.sleep(delay);
+                delay *= 2;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface QuoteRequest<T> {
+        T call() throws IOException;
+    }
+
     public static List<SecurityHistoryNode> downloadHistory(final SecurityNode securityNode, final LocalDate startDate,
                                                             final LocalDate endDate) {
 
         List<SecurityHistoryNode> newSecurityNodes;
 
+        final QuoteProvider provider = quoteProvider;
+
         try {
-            newSecurityNodes = YahooEventParser.retrieveHistoricalPrice(securityNode,
-                    startDate, endDate);
+            newSecurityNodes = new ArrayList<>(request(provider, () ->
+                    provider.getHistoricalPrices(Collections.singletonList(securityNode), startDate, endDate))
+                    .getOrDefault(securityNode, Collections.emptyList()));
+
+            newSecurityNodes.removeIf(Objects::isNull);    // unparsable lines are returned as null
 
             if (!newSecurityNodes.isEmpty()) {
                 logger.info(ResourceUtils.getString("Message.UpdatedPrice", securityNode.getSymbol()));
@@ -188,6 +310,9 @@ public class UpdateFactory {
         } catch (final IOException ex) {
             newSecurityNodes = Collections.emptyList();
             LogUtil.logSevere(UpdateFactory.class, ex);
+        } catch (final InterruptedException ex) {
+            newSecurityNodes = Collections.emptyList();
+            Thread.currentThread().interrupt();
         }
 
         return newSecurityNodes;
@@ -204,6 +329,28 @@ public class UpdateFactory {
             this.securityNode = securityNode;
         }
 
+        @Override
+        public Boolean call() {
+            return new UpdateSecuritiesCallable(Collections.singletonList(securityNode), quoteProvider).call();
+        }
+    }
+
+    /**
+     * Updates historical information for one day for a batch of securities.  The history of each security is added
+     * to the engine with a single bulk insert.
+     */
+    public static class UpdateSecuritiesCallable implements Callable<Boolean> {
+
+        private final List<SecurityNode> securityNodes;
+
+        private final QuoteProvider provider;
+
+        public UpdateSecuritiesCallable(@NotNull final List<SecurityNode> securityNodes,
+                                        @NotNull final QuoteProvider provider) {
+            this.securityNodes = new ArrayList<>(securityNodes);
+            this.provider = provider;
+        }
+
         @Override
         public Boolean call() {
             boolean result = true;
@@ -211,23 +358,38 @@ public class UpdateFactory {
             final Engine e = EngineFactory.getEngine(EngineFactory.DEFAULT);
 
             if (e != null) {    // protect against a call in process during a shutdown
-                // check for thread interruption
-                if (securityNode.getQuoteSource() != QuoteSource.NONE && !Thread.currentThread().isInterrupted()) {
+                final List<SecurityNode> nodes = new ArrayList<>();
 
+                for (final SecurityNode securityNode : securityNodes) {
+                    if (securityNode.getQuoteSource() != QuoteSource.NONE) {
+                        nodes.add(securityNode);
+                    }
+                }
+
+                // check for thread interruption
+                if (!nodes.isEmpty() && !Thread.currentThread().isInterrupted()) {
                     try {
-                        final List<SecurityHistoryNode> nodes = YahooEventParser.retrieveHistoricalPrice(securityNode,
-                                LocalDate.now().minusDays(1), LocalDate.now());
+                        final Map<SecurityNode, List<SecurityHistoryNode>> history = request(provider,
+                                () -> provider.getHistoricalPrices(nodes, LocalDate.now().minusDays(1),
+                                        LocalDate.now()));
+
+                        for (final Map.Entry<SecurityNode, List<SecurityHistoryNode>> entry : history.entrySet()) {
+                            final List<SecurityHistoryNode> historyNodes = new ArrayList<>(entry.getValue());
+
+                            historyNodes.removeIf(Objects::isNull);    // unparsable lines are returned as null
 
-                        for (final SecurityHistoryNode node : nodes) {
-                            if (!Thread.currentThread().isInterrupted()) { // check for thread interruption
-                                if (e.addSecurityHistory(securityNode, node)) {
-                                    logger.info(ResourceUtils.getString("Message.UpdatedPrice", securityNode.getSymbol()));
+                            if (!historyNodes.isEmpty() && !Thread.currentThread().isInterrupted()) {
+                                if (e.addSecurityHistory(entry.getKey(), historyNodes)) {
+                                    logger.info(ResourceUtils.getString("Message.UpdatedPrice",
+                                            entry.getKey().getSymbol()));
                                 }
                             }
                         }
                     } catch (final IOException ex) {
                         result = false;
                         LogUtil.logSevere(UpdateFactory.class, ex);
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
                     }
                 }
             }
@@ -240,8 +402,16 @@ public class UpdateFactory {
 
         private final SecurityNode securityNode;
 
+        private final QuoteProvider provider;
+
         public UpdateSecurityNodeEventsCallable(@NotNull final SecurityNode securityNode) {
+            this(securityNode, quoteProvider);
+        }
+
+        public UpdateSecurityNodeEventsCallable(@NotNull final SecurityNode securityNode,
+                                                @NotNull final QuoteProvider provider) {
             this.securityNode = securityNode;
+            this.provider = provider;
         }
 
         @Override
@@ -251,13 +421,17 @@ public class UpdateFactory {
 
             final Engine e = EngineFactory.getEngine(EngineFactory.DEFAULT);
 
-            final LocalDate oldest = securityNode.getHistoryNodes().get(0).getLocalDate();
+            final List<SecurityHistoryNode> historyNodes = securityNode.getHistoryNodes();
+
+            // events older than the price history are not of interest, nothing to do without a price history
+            if (e != null && securityNode.getQuoteSource() != QuoteSource.NONE && !historyNodes.isEmpty()) {
+                final LocalDate oldest = historyNodes.get(0).getLocalDate();
 
-            if (e != null && securityNode.getQuoteSource() != QuoteSource.NONE) {
                 try {
                     final Set<SecurityHistoryEvent> oldHistoryEvents = new HashSet<>(securityNode.getHistoryEvents());
 
-                    for (final SecurityHistoryEvent securityHistoryEvent : YahooEventParser.retrieveNew(securityNode, LocalDate.now())) {
+                    for (final SecurityHistoryEvent securityHistoryEvent : request(provider,
+                            () -> provider.getHistoryEvents(securityNode, LocalDate.now()))) {
                         if (!Thread.currentThread().isInterrupted()) { // check for thread interruption
                             if (securityHistoryEvent.getDate().isAfter(oldest) || securityHistoryEvent.getDate().isEqual(oldest)) {
                                 if (!oldHistoryEvents.contains(securityHistoryEvent)) {
@@ -273,6 +447,8 @@ public class UpdateFactory {
                 } catch (final IOException ex) {
                     result = false;
                     LogUtil.logSevere(UpdateFactory.class, ex);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
                 }
             }
 
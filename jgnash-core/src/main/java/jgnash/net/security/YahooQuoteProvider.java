@@ -0,0 +1,67 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.net.security;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jgnash.engine.SecurityHistoryEvent;
+import jgnash.engine.SecurityHistoryNode;
+import jgnash.engine.SecurityNode;
+
+/**
+ * {@code QuoteProvider} for Yahoo.  The download API only accepts a single symbol per request.
+ *
+ * @author Craig Cavanaugh
+ */
+public class YahooQuoteProvider implements QuoteProvider {
+
+    /**
+     * Be polite and avoid throttling, no more than 4 requests per second.
+     */
+    private static final long REQUEST_INTERVAL = 250;
+
+    @Override
+    public long getRequestInterval() {
+        return REQUEST_INTERVAL;
+    }
+
+    @Override
+    public Map<SecurityNode, List<SecurityHistoryNode>> getHistoricalPrices(final Collection<SecurityNode> securityNodes,
+                                                                           final LocalDate startDate,
+                                                                           final LocalDate endDate) throws IOException {
+        final Map<SecurityNode, List<SecurityHistoryNode>> map = new HashMap<>();
+
+        for (final SecurityNode securityNode : securityNodes) {
+            map.put(securityNode, YahooEventParser.retrieveHistoricalPrice(securityNode, startDate, endDate));
+        }
+
+        return map;
+    }
+
+    @Override
+    public Set<SecurityHistoryEvent> getHistoryEvents(final SecurityNode securityNode, final LocalDate endDate)
+            throws IOException {
+        return YahooEventParser.retrieveNew(securityNode, endDate);
+    }
+}
@@ -40,6 +40,7 @@ import jgnash.engine.Comparators;
 import jgnash.engine.CurrencyNode;
 import jgnash.engine.Engine;
 import jgnash.engine.EngineFactory;
+import jgnash.engine.EngineSnapshot;
 import jgnash.time.DateUtils;
 import jgnash.util.NotNull;
 import jgnash.util.Nullable;
@@ -102,7 +103,10 @@ public class BalanceByMonthCSVReport {
 
         final LocalDate[] dates = getLastDays(startDate, endDate);
 
-        buildLists(engine.getRootAccount(), dates);
+        // balances are evaluated from a snapshot so edits are not blocked while the report is built
+        final EngineSnapshot snapshot = engine.snapshot();
+
+        buildLists(snapshot, snapshot.getAccountTree().getRoot(), dates);
 
         try {
             logger.info("Writing file");
@@ -132,23 +136,22 @@ public class BalanceByMonthCSVReport {
 
     }
 
-    private void buildLists(final Account account, final LocalDate[] dates) {
-        for (final Account child : account.getChildren(Comparators.getAccountByCode())) {
-            if (child.getTransactionCount() > 0) {
+    private void buildLists(final EngineSnapshot snapshot, final Account account, final LocalDate[] dates) {
+        final List<Account> children = new ArrayList<>(snapshot.getAccountTree().getChildren(account));
+        children.sort(Comparators.getAccountByCode());
+
+        for (final Account child : children) {
+            if (!snapshot.getTransactions(child).isEmpty()) {
                 accountList.add(child); // add the account
-                final BigDecimal[] bigDecimals = new BigDecimal[dates.length];
-                for (int i = 0; i < dates.length; i++) {
-                    if (baseCommodity != null) {
-                        bigDecimals[i] = balanceConverter.apply(child.getAccountType(), child.getBalance(dates[i],
-                                baseCommodity));
-                    } else {
-                        bigDecimals[i] = balanceConverter.apply(child.getAccountType(), child.getBalance(dates[i]));
-                    }
+                final BigDecimal[] bigDecimals = snapshot.getBalances(child, dates,
+                        baseCommodity != null ? baseCommodity : child.getCurrencyNode());
+                for (int i = 0; i < bigDecimals.length; i++) {
+                    bigDecimals[i] = balanceConverter.apply(child.getAccountType(), bigDecimals[i]);
                 }
                 balanceList.add(bigDecimals);
             }
-            if (child.isParent()) {
-                buildLists(child, dates);
+            if (!snapshot.getAccountTree().getChildren(child).isEmpty()) {
+                buildLists(snapshot, child, dates);
             }
         }
     }
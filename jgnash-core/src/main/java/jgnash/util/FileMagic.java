@@ -62,6 +62,8 @@ public class FileMagic {
 
     private static final byte[] HSQL_HEADER = "SET DATABASE UNIQUE NAME HSQLDB".getBytes(StandardCharsets.UTF_8);
 
+    private static final byte[] SEGMENT_HEADER = "jGnash Segments".getBytes(StandardCharsets.US_ASCII);
+
     private static final byte[] XML_HEADER = "<?xml version=\"1.0\"".getBytes(StandardCharsets.UTF_8);
 
     private static final String USASCII = "USASCII";
@@ -83,6 +85,8 @@ public class FileMagic {
             return FileType.jGnash2XML;
         } else if (isBinaryXStreamFile(path)) {
             return FileType.BinaryXStream;
+        } else if (isSegmentFile(path)) {
+            return FileType.Segment;
         } else if (isH2File(path)) {
             return FileType.h2;
         } else if (isH2MvFile(path)) {
@@ -262,6 +266,10 @@ public class FileMagic {
         return isFile(path, BINARY_XSTREAM_HEADER);
     }
 
+    private static boolean isSegmentFile(final Path path) {
+        return isFile(path, SEGMENT_HEADER);
+    }
+
     private static boolean isH2File(final Path path) {
         return isFile(path, H2_HEADER);
     }
@@ -365,6 +373,6 @@ public class FileMagic {
     }
 
     public enum FileType {
-        BinaryXStream, OfxV1, OfxV2, jGnash2XML, h2, h2mv, hsql, unknown
+        BinaryXStream, OfxV1, OfxV2, Segment, jGnash2XML, h2, h2mv, hsql, unknown
     }
 }
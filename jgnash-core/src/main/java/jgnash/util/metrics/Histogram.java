@@ -0,0 +1,133 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of non-negative values.
+ * <p>
+ * Values are counted in power of two buckets so recording a value is constant time and does not allocate.  The
+ * resulting percentiles are accurate to within a factor of two which is sufficient to spot a slow path.
+ *
+ * @author Craig Cavanaugh
+ */
+public class Histogram implements HistogramMXBean {
+
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    Histogram() {
+    }
+
+    /**
+     * Records a value if metrics are enabled.
+     *
+     * @param value value to record, negative values are recorded as zero
+     */
+    public void update(final long value) {
+        if (Metrics.ENABLED) {
+            record(value);
+        }
+    }
+
+    void record(final long value) {
+        final long clamped = Math.max(0, value);
+
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(clamped));
+        count.increment();
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getSum() {
+        return sum.sum();
+    }
+
+    @Override
+    public double getMean() {
+        final long n = getCount();
+
+        return n > 0 ? (double) getSum() / n : 0;
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public long getMedian() {
+        return getPercentile(0.5);
+    }
+
+    @Override
+    public long get95thPercentile() {
+        return getPercentile(0.95);
+    }
+
+    @Override
+    public long get99thPercentile() {
+        return getPercentile(0.99);
+    }
+
+    /**
+     * Returns the approximate value at the given percentile.
+     *
+     * @param percentile percentile between 0 and 1
+     * @return upper bound of the bucket containing the percentile, never more than the maximum recorded value
+     */
+    long getPercentile(final double percentile) {
+        final long rank = (long) Math.ceil(percentile * getCount());
+
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+
+            if (seen >= rank && seen > 0) {
+                final long upperBound = i == 0 ? 0 : i >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+
+                return Math.min(upperBound, getMax());
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", mean=" + Math.round(getMean()) + ", p50=" + getMedian() + ", p95="
+                + get95thPercentile() + ", p99=" + get99thPercentile() + ", max=" + getMax();
+    }
+}
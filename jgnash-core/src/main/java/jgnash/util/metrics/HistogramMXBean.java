@@ -0,0 +1,41 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util.metrics;
+
+/**
+ * JMX view of a {@code Histogram}.  Percentiles are approximate and reported as the upper bound of the power of
+ * two bucket that contains them.
+ *
+ * @author Craig Cavanaugh
+ */
+public interface HistogramMXBean {
+
+    long getCount();
+
+    long getSum();
+
+    double getMean();
+
+    long getMax();
+
+    long getMedian();
+
+    long get95thPercentile();
+
+    long get99thPercentile();
+}
@@ -0,0 +1,148 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registry of named counters, histograms and timers.
+ * <p>
+ * Metrics are disabled unless the {@code jgnash.metrics} system property is {@code true}.  When disabled, metrics
+ * may still be obtained and updated, but updates return immediately without reading the clock or allocating.
+ * Metrics should be obtained once and held in a static field rather than looked up on a hot path.
+ * <p>
+ * When enabled, each metric is registered with the platform MBean server under the {@code jgnash.metrics} domain.
+ * If the {@code jgnash.metrics.dump} system property is also {@code true}, all metrics are logged at shutdown.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class Metrics {
+
+    /**
+     * Metrics collection state, fixed for the life of the JVM so the checks may be optimized away.
+     */
+    static final boolean ENABLED = Boolean.getBoolean("jgnash.metrics");
+
+    private static final String DOMAIN = "jgnash.metrics";
+
+    private static final Map<String, Object> metrics = new ConcurrentSkipListMap<>();
+
+    private static final Logger logger = Logger.getLogger(Metrics.class.getName());
+
+    static {
+        if (ENABLED && Boolean.getBoolean("jgnash.metrics.dump")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> logger.info(getReport()), "Metrics Dump"));
+        }
+    }
+
+    private Metrics() {
+        // utility class
+    }
+
+    /**
+     * Indicates if metrics are being collected.
+     *
+     * @return {@code true} if enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns the named {@code Counter}, creating it if needed.
+     *
+     * @param name metric name
+     * @return shared {@code Counter}
+     * @throws IllegalArgumentException if the name is in use by a different type of metric
+     */
+    public static Counter counter(final String name) {
+        return getMetric(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * Returns the named {@code Histogram}, creating it if needed.
+     *
+     * @param name metric name
+     * @return shared {@code Histogram}
+     * @throws IllegalArgumentException if the name is in use by a different type of metric
+     */
+    public static Histogram histogram(final String name) {
+        return getMetric(name, Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Returns the named {@code Timer}, creating it if needed.
+     *
+     * @param name metric name
+     * @return shared {@code Timer}
+     * @throws IllegalArgumentException if the name is in use by a different type of metric
+     */
+    public static Timer timer(final String name) {
+        return getMetric(name, Timer.class, Timer::new);
+    }
+
+    private static <T> T getMetric(final String name, final Class<T> type, final Supplier<T> supplier) {
+        final Object metric = metrics.computeIfAbsent(name, key -> {
+            final T newMetric = supplier.get();
+
+            if (ENABLED) {
+                register(key, newMetric);
+            }
+
+            return newMetric;
+        });
+
+        if (metric.getClass() != type) {
+            throw new IllegalArgumentException(name + " is already registered as a "
+                    + metric.getClass().getSimpleName());
+        }
+
+        return type.cast(metric);
+    }
+
+    private static void register(final String name, final Object metric) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metric, new ObjectName(DOMAIN + ":type="
+                    + metric.getClass().getSimpleName() + ",name=" + ObjectName.quote(name)));
+        } catch (final JMException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a report of all metrics sorted by name.  Timer values are in nanoseconds.
+     *
+     * @return multi-line report
+     */
+    public static String getReport() {
+        final StringBuilder builder = new StringBuilder("Metrics");
+
+        metrics.forEach((name, metric) -> builder.append(System.lineSeparator()).append(name).append(": ")
+                .append(metric));
+
+        return builder.toString();
+    }
+}
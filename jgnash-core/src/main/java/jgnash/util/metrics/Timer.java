@@ -0,0 +1,60 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util.metrics;
+
+/**
+ * Histogram of elapsed times in nanoseconds.
+ * <p>
+ * Typical use:
+ * <pre>
+ *     final long start = TIMER.start();
+ *     try {
+ *         ...
+ *     } finally {
+ *         TIMER.stop(start);
+ *     }
+ * </pre>
+ * When metrics are disabled, neither method reads the clock.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class Timer extends Histogram {
+
+    Timer() {
+    }
+
+    /**
+     * Returns the start time of a measurement.
+     *
+     * @return start time, 0 if metrics are disabled
+     */
+    public long start() {
+        return Metrics.ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time elapsed since a call to {@link #start()}.
+     *
+     * @param start value returned by {@link #start()}
+     */
+    public void stop(final long start) {
+        if (Metrics.ENABLED) {
+            record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package jgnash.engine;
+
+import io.github.glytching.junit.extension.folder.TemporaryFolder;
+import io.github.glytching.junit.extension.folder.TemporaryFolderExtension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountBalancesTest {
+
+    @Test
+    @ExtendWith(TemporaryFolderExtension.class)
+    void testBatchedBalances(final TemporaryFolder testFolder) throws IOException {
+        final String database = testFolder.createFile("balances-test.xml").getAbsolutePath();
+
+        EngineFactory.deleteDatabase(database);
+
+        try {
+            Engine e = EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                    DataStoreType.XML);
+
+            e.setCreateBackups(false);
+
+            CurrencyNode defaultCurrency = DefaultCurrencies.buildCustomNode("USD");
+
+            e.addCurrency(defaultCurrency);
+            e.setDefaultCurrency(defaultCurrency);
+
+            Account incomeAccount = new Account(AccountType.INCOME, defaultCurrency);
+            incomeAccount.setName("Income Account");
+            e.addAccount(e.getRootAccount(), incomeAccount);
+
+            Account bankAccount = new Account(AccountType.BANK, defaultCurrency);
+            bankAccount.setName("Bank Account");
+            e.addAccount(e.getRootAccount(), bankAccount);
+
+            Account childAccount = new Account(AccountType.BANK, defaultCurrency);
+            childAccount.setName("Child Account");
+            e.addAccount(bankAccount, childAccount);
+
+            final LocalDate start = LocalDate.of(2019, 1, 1);
+
+            // one deposit on the 15th of each month and one on the last day of each month to the child
+            for (int i = 0; i < 12; i++) {
+                final LocalDate month = start.plusMonths(i);
+
+                e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(bankAccount, incomeAccount,
+                        new BigDecimal("100.00"), month.withDayOfMonth(15), "", "", ""));
+
+                e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(childAccount, incomeAccount,
+                        new BigDecimal("10.00"), month.plusMonths(1).minusDays(1), "", "", ""));
+            }
+
+            final LocalDate[] startDates = new LocalDate[14];
+            final LocalDate[] endDates = new LocalDate[14];
+
+            // include periods before and after the transactions
+            for (int i = 0; i < startDates.length; i++) {
+                startDates[i] = start.plusMonths(i - 1);
+                endDates[i] = startDates[i].plusMonths(1).minusDays(1);
+            }
+
+            final BigDecimal[] running = bankAccount.getBalances(endDates, defaultCurrency);
+            final BigDecimal[] periods = bankAccount.getBalances(startDates, endDates, defaultCurrency);
+            final BigDecimal[] treeRunning = bankAccount.getTreeBalances(endDates, defaultCurrency);
+            final BigDecimal[] treePeriods = bankAccount.getTreeBalances(startDates, endDates, defaultCurrency);
+
+            for (int i = 0; i < endDates.length; i++) {
+                assertEquals(bankAccount.getBalance(endDates[i]), running[i]);
+                assertEquals(bankAccount.getBalance(startDates[i], endDates[i]).compareTo(periods[i]), 0);
+                assertEquals(bankAccount.getTreeBalance(endDates[i], defaultCurrency).compareTo(treeRunning[i]), 0);
+                assertEquals(bankAccount.getTreeBalance(startDates[i], endDates[i], defaultCurrency)
+                        .compareTo(treePeriods[i]), 0);
+            }
+
+            assertEquals(BigDecimal.ZERO, running[0]);
+            assertEquals(0, new BigDecimal("1200.00").compareTo(running[13]));
+            assertEquals(0, new BigDecimal("110.00").compareTo(treePeriods[6]));
+
+            // overlapping periods are allowed as long as each series is ascending
+            final BigDecimal[] overlapping = bankAccount.getBalances(new LocalDate[]{start, start.plusMonths(1)},
+                    new LocalDate[]{start.plusMonths(6), start.plusMonths(12)}, defaultCurrency);
+
+            assertEquals(0, new BigDecimal("600.00").compareTo(overlapping[0]));
+            assertEquals(0, new BigDecimal("1100.00").compareTo(overlapping[1]));
+
+            assertThrows(IllegalArgumentException.class, () -> bankAccount.getBalances(
+                    new LocalDate[]{endDates[1], endDates[0]}, defaultCurrency));
+
+            EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        } catch (final Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    @ExtendWith(TemporaryFolderExtension.class)
+    void testTransactionRanges(final TemporaryFolder testFolder) throws IOException {
+        final String database = testFolder.createFile("ranges-test.xml").getAbsolutePath();
+
+        EngineFactory.deleteDatabase(database);
+
+        final Engine e = EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+
+        assertNotNull(e);
+
+        e.setCreateBackups(false);
+
+        final CurrencyNode defaultCurrency = DefaultCurrencies.buildCustomNode("USD");
+
+        e.addCurrency(defaultCurrency);
+        e.setDefaultCurrency(defaultCurrency);
+
+        final Account bankAccount = new Account(AccountType.BANK, defaultCurrency);
+        bankAccount.setName("Bank Account");
+        e.addAccount(e.getRootAccount(), bankAccount);
+
+        final Account childAccount = new Account(AccountType.BANK, defaultCurrency);
+        childAccount.setName("Child Account");
+        e.addAccount(bankAccount, childAccount);
+
+        final LocalDate start = LocalDate.of(2019, 1, 1);
+
+        // two deposits per day to the parent and a transfer to the child every other day
+        for (int i = 0; i < 10; i++) {
+            e.addTransaction(TransactionFactory.generateSingleEntryTransaction(bankAccount, BigDecimal.ONE,
+                    start.plusDays(i), "", "", ""));
+            e.addTransaction(TransactionFactory.generateSingleEntryTransaction(bankAccount, BigDecimal.TEN,
+                    start.plusDays(i), "", "", ""));
+
+            if (i % 2 == 0) {
+                e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(childAccount, bankAccount,
+                        BigDecimal.ONE, start.plusDays(i), "", "", ""));
+            }
+        }
+
+        final List<Transaction> range = bankAccount.getTransactionRange(start.plusDays(2), start.plusDays(4));
+
+        assertEquals(8, range.size());  // 6 deposits and 2 transfers, the bounds are inclusive
+        assertEquals(bankAccount.getTransactions(start.plusDays(2), start.plusDays(4)), range);
+        assertThrows(UnsupportedOperationException.class, range::clear);
+
+        assertTrue(bankAccount.getTransactionRange(start.plusDays(20), start.plusDays(30)).isEmpty());
+        assertTrue(bankAccount.getTransactionRange(start.plusDays(4), start.plusDays(2)).isEmpty());
+
+        // the view is a snapshot and is not affected by later changes
+        e.addTransaction(TransactionFactory.generateSingleEntryTransaction(bankAccount, BigDecimal.ONE,
+                start.plusDays(3), "", "", ""));
+
+        assertEquals(8, range.size());
+        assertEquals(9, bankAccount.getTransactionRange(start.plusDays(2), start.plusDays(4)).size());
+
+        // the transfers are shared by both accounts, but must only be returned once by the tree iterator
+        final List<Transaction> merged = new ArrayList<>();
+        final Iterator<Transaction> iterator = bankAccount.getTreeTransactionIterator(start, start.plusDays(9));
+
+        iterator.forEachRemaining(merged::add);
+
+        assertEquals(bankAccount.getTransactionCount(), merged.size());
+
+        for (int i = 1; i < merged.size(); i++) {
+            assertTrue(merged.get(i - 1).compareTo(merged.get(i)) < 0);
+        }
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import io.github.glytching.junit.extension.folder.TemporaryFolder;
+import io.github.glytching.junit.extension.folder.TemporaryFolderExtension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests the account name and path index.
+ *
+ * @author Craig Cavanaugh
+ */
+class AccountIndexTest {
+
+    @Test
+    @ExtendWith(TemporaryFolderExtension.class)
+    void testNameAndPathLookups(final TemporaryFolder testFolder) throws IOException {
+        final String database = testFolder.createFile("index-test.xml").getAbsolutePath();
+
+        EngineFactory.deleteDatabase(database);
+
+        final Engine e = EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+
+        assertNotNull(e);
+
+        e.setCreateBackups(false);
+
+        final CurrencyNode defaultCurrency = DefaultCurrencies.buildCustomNode("USD");
+
+        e.addCurrency(defaultCurrency);
+        e.setDefaultCurrency(defaultCurrency);
+
+        final Account bank = new Account(AccountType.BANK, defaultCurrency);
+        bank.setName("Bank");
+        e.addAccount(e.getRootAccount(), bank);
+
+        final Account savings = new Account(AccountType.BANK, defaultCurrency);
+        savings.setName("Savings");
+        e.addAccount(bank, savings);
+
+        final Account other = new Account(AccountType.BANK, defaultCurrency);
+        other.setName("Other");
+        e.addAccount(e.getRootAccount(), other);
+
+        final Account otherSavings = new Account(AccountType.BANK, defaultCurrency);
+        otherSavings.setName("Savings");
+        e.addAccount(other, otherSavings);
+
+        assertSame(bank, e.getAccountByName("Bank"));
+        assertEquals(2, e.getAccountsByName("Savings").size());
+        assertSame(savings, e.getAccountByPathName("Bank:Savings"));
+        assertSame(otherSavings, e.getAccountByPathName("Other:Savings"));
+        assertNull(e.getAccountByPathName("Savings"));
+
+        // rename of a parent must update the path of children
+        final Account template = new Account(AccountType.BANK, defaultCurrency);
+        template.setName("Checking");
+        template.setParent(e.getRootAccount());
+        e.modifyAccount(template, bank);
+
+        assertEquals("Checking:Savings", savings.getPathName());
+        assertSame(savings, e.getAccountByPathName("Checking:Savings"));
+        assertNull(e.getAccountByPathName("Bank:Savings"));
+        assertNull(e.getAccountByName("Bank"));
+
+        // move
+        e.moveAccount(otherSavings, bank);
+        assertEquals("Checking:Savings", otherSavings.getPathName());
+        assertNull(e.getAccountByPathName("Other:Savings"));
+
+        // separator change
+        e.setAccountSeparator("/");
+        assertEquals("Checking/Savings", savings.getPathName());
+        assertNotNull(e.getAccountByPathName("Checking/Savings"));
+        assertNull(e.getAccountByPathName("Checking:Savings"));
+
+        e.setAccountSeparator(":");
+
+        // removal
+        assertEquals(1, e.getAccountsByName("Other").size());
+        e.removeAccount(other);
+        assertNull(e.getAccountByName("Other"));
+        assertEquals(0, e.getAccountsByName("Other").size());
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests parallel evaluation of account tree balances.
+ *
+ * @author Craig Cavanaugh
+ */
+class AccountTreeSnapshotTest {
+
+    private static final LocalDate DATE = LocalDate.of(2019, 1, 1);
+
+    private static BigDecimal[] sumTree(final Account account, final LocalDate[] dates, final CurrencyNode node) {
+        final BigDecimal[] balances = account.getBalances(dates, node);
+
+        for (final Account child : account.getChildren()) {
+            final BigDecimal[] childBalances = sumTree(child, dates, node);
+
+            for (int i = 0; i < balances.length; i++) {
+                balances[i] = balances[i].add(childBalances[i]);
+            }
+        }
+
+        return balances;
+    }
+
+    @Test
+    void testTreeBalances() {
+        final CurrencyNode node = DefaultCurrencies.buildCustomNode("USD");
+
+        final RootAccount root = new RootAccount(node);
+
+        final Account expense = new Account(AccountType.EXPENSE, node);
+        expense.setName("Expense");
+        root.addChild(expense);
+
+        final Account bank = new Account(AccountType.BANK, node);
+        bank.setName("Bank");
+        root.addChild(bank);
+
+        int amount = 1;
+
+        // wide and deep enough to fork subtrees
+        for (int i = 0; i < 12; i++) {
+            final Account child = new Account(AccountType.BANK, node);
+            child.setName("Child " + i);
+            bank.addChild(child);
+
+            for (int j = 0; j < 10; j++) {
+                final Account leaf = new Account(AccountType.BANK, node);
+                leaf.setName("Leaf " + i + "-" + j);
+                child.addChild(leaf);
+
+                final Transaction transaction = TransactionFactory.generateDoubleEntryTransaction(leaf, expense,
+                        BigDecimal.valueOf(amount++), DATE.plusDays(i * 10 + j), "", "", "");
+
+                leaf.addTransaction(transaction);
+                expense.addTransaction(transaction);
+            }
+        }
+
+        final LocalDate[] dates = {DATE.plusDays(30), DATE.plusDays(60), DATE.plusDays(365)};
+        final LocalDate[] starts = {DATE, DATE.plusDays(31), DATE.plusDays(61)};
+
+        final AccountTreeSnapshot snapshot = AccountTreeSnapshot.of(root);
+
+        assertEquals(2 + 12 + 12 * 10 + 1, snapshot.size());
+        assertEquals(root.getChildren(), snapshot.getChildren(root));
+
+        final Map<Account, BigDecimal[]> balances = snapshot.getTreeBalances(dates, node);
+
+        for (final Account account : new Account[]{root, bank, expense, bank.getChildren().get(3)}) {
+            assertArrayEquals(sumTree(account, dates, node), balances.get(account));
+        }
+
+        // the total of all leaves is 1 + 2 + ... + 120
+        assertEquals(0, BigDecimal.valueOf(120 * 121 / 2).compareTo(bank.getTreeBalances(dates, node)[2].abs()));
+
+        final BigDecimal[] periods = bank.getTreeBalances(starts, dates, node);
+
+        for (int i = 0; i < periods.length; i++) {
+            assertEquals(0, bank.getTreeBalance(starts[i], dates[i], node).compareTo(periods[i]));
+        }
+
+        assertEquals(0, periods[0].add(periods[1]).add(periods[2]).compareTo(bank.getTreeBalance(dates[2], node)));
+    }
+}
@@ -0,0 +1,144 @@
+package jgnash.engine;
+
+import io.github.glytching.junit.extension.folder.TemporaryFolder;
+import io.github.glytching.junit.extension.folder.TemporaryFolderExtension;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import jgnash.engine.jpa.JpaH2DataStore;
+import jgnash.util.FileUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBackupTest {
+
+    @Test
+    @ExtendWith(TemporaryFolderExtension.class)
+    void testBackupOnClose(final TemporaryFolder testFolder) throws IOException {
+        final String database = testFolder.createFile("backup-test.xml").getAbsolutePath();
+
+        EngineFactory.deleteDatabase(database);
+
+        Engine e = EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+
+        e.setCreateBackups(true);
+        e.setBackupCompressionLevel(Deflater.BEST_SPEED);
+
+        assertThrows(IllegalArgumentException.class, () -> e.setBackupCompressionLevel(10));
+        assertEquals(Deflater.BEST_SPEED, e.getBackupCompressionLevel());
+
+        CurrencyNode defaultCurrency = DefaultCurrencies.buildCustomNode("USD");
+
+        e.addCurrency(defaultCurrency);
+        e.setDefaultCurrency(defaultCurrency);
+
+        Account bankAccount = new Account(AccountType.BANK, defaultCurrency);
+        bankAccount.setName("Backup Bank Account");
+        e.addAccount(e.getRootAccount(), bankAccount);
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        EngineFactory.waitForBackups();
+
+        final Path path = Paths.get(database);
+
+        final List<Path> backups = FileUtils.getDirectoryListing(path.getParent(),
+                FileUtils.stripFileExtension(database) + "-\\d{8}-\\d{4}.zip");
+
+        assertEquals(1, backups.size());
+
+        try (final ZipFile zipFile = new ZipFile(backups.get(0).toFile())) {
+            assertEquals(1, zipFile.size());
+
+            final ZipEntry entry = zipFile.entries().nextElement();
+
+            assertTrue(entry.getName().endsWith(".xml"));
+
+            try (final BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry),
+                    StandardCharsets.UTF_8))) {
+                assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>", reader.readLine());
+                assertTrue(reader.lines().anyMatch(line -> line.contains("Backup Bank Account")));
+            }
+        }
+    }
+
+    @Test
+    @ExtendWith(TemporaryFolderExtension.class)
+    void testJpaBackupOnClose(final TemporaryFolder testFolder) throws IOException {
+        final String database = testFolder.createFile("jpa-backup-test" + JpaH2DataStore.H2_FILE_EXT)
+                .getAbsolutePath();
+
+        EngineFactory.deleteDatabase(database);
+
+        Engine e = EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.H2_DATABASE);
+
+        e.setCreateBackups(true);
+
+        CurrencyNode defaultCurrency = DefaultCurrencies.buildCustomNode("USD");
+        CurrencyNode cadCurrency = DefaultCurrencies.buildCustomNode("CAD");
+
+        e.addCurrency(defaultCurrency);
+        e.addCurrency(cadCurrency);
+        e.setDefaultCurrency(defaultCurrency);
+
+        e.setExchangeRate(defaultCurrency, cadCurrency, new BigDecimal("1.25"));
+
+        Account bankAccount = new Account(AccountType.BANK, defaultCurrency);
+        bankAccount.setName("Backup Bank Account");
+        e.addAccount(e.getRootAccount(), bankAccount);
+        e.setAccountAttribute(bankAccount, "backup-key", "backup-value");
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        EngineFactory.waitForBackups();
+
+        final Path path = Paths.get(database);
+
+        final List<Path> backups = FileUtils.getDirectoryListing(path.getParent(),
+                FileUtils.stripFileExtension(database) + "-\\d{8}-\\d{4}.zip");
+
+        assertEquals(1, backups.size());
+
+        final Path restored = path.resolveSibling("restored.xml");
+
+        try (final ZipFile zipFile = new ZipFile(backups.get(0).toFile())) {
+            assertEquals(1, zipFile.size());
+
+            try (final InputStream inputStream = zipFile.getInputStream(zipFile.entries().nextElement())) {
+                Files.copy(inputStream, restored);
+            }
+        }
+
+        // the backup must load on its own after the original data store has been closed
+        e = EngineFactory.bootLocalEngine(restored.toString(), EngineFactory.DEFAULT,
+                EngineFactory.EMPTY_PASSWORD, DataStoreType.XML);
+
+        final Account account = e.getAccountByName("Backup Bank Account");
+
+        assertNotNull(account);
+        assertEquals("backup-value", Engine.getAccountAttribute(account, "backup-key"));
+
+        final ExchangeRate rate = e.getExchangeRate(e.getDefaultCurrency(), e.getCurrency("CAD"));
+
+        assertNotNull(rate);
+        assertEquals(1, rate.getHistory().size());
+        assertEquals(0, new BigDecimal("1.25").compareTo(rate.getRate()));
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests versioned engine snapshots.
+ *
+ * @author Craig Cavanaugh
+ */
+class EngineSnapshotTest extends AbstractEngineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2019, 1, 1);
+
+    @Override
+    protected Engine createEngine() throws IOException {
+        database = testFolder.createFile("snapshot-test.bxds").getAbsolutePath();
+        EngineFactory.deleteDatabase(database);
+
+        return EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.BINARY_XSTREAM);
+    }
+
+    private void addTransaction(final String amount, final int day) {
+        assertTrue(e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(usdBankAccount, incomeAccount,
+                new BigDecimal(amount), DATE.plusDays(day), "", "", "")));
+    }
+
+    @Test
+    void testSnapshotIsolation() {
+        addTransaction("10.00", 0);
+        addTransaction("20.00", 10);
+
+        assertTrue(e.addSecurityHistory(securityNode1, new SecurityHistoryNode(DATE, BigDecimal.TEN, 0, null, null)));
+
+        final EngineSnapshot snapshot = e.snapshot();
+
+        assertEquals(e.getDataVersion(), snapshot.getVersion());
+        assertTrue(snapshot.getAccountTree().getAccounts().contains(usdBankAccount));
+
+        // edits made after the snapshot are not visible
+        addTransaction("30.00", 5);
+        e.removeTransaction(usdBankAccount.getSortedTransactionList().get(0));
+
+        assertTrue(e.addSecurityHistory(securityNode1, new SecurityHistoryNode(DATE.plusDays(1), BigDecimal.ONE, 0,
+                null, null)));
+        assertTrue(e.removeSecurityHistory(securityNode1, DATE));
+
+        final Account account = new Account(AccountType.BANK, e.getDefaultCurrency());
+        account.setName("Late Account");
+        assertTrue(e.addAccount(e.getRootAccount(), account));
+
+        assertTrue(e.getDataVersion() > snapshot.getVersion());
+
+        final List<Transaction> transactions = snapshot.getTransactions(usdBankAccount);
+
+        assertEquals(2, transactions.size());
+        assertEquals(DATE, transactions.get(0).getLocalDate());
+        assertEquals(DATE.plusDays(10), transactions.get(1).getLocalDate());
+
+        assertEquals(1, snapshot.getHistoryNodes(securityNode1).size());
+        assertEquals(0, BigDecimal.TEN.compareTo(snapshot.getClosestHistoryNode(securityNode1, DATE.plusDays(5))
+                .orElseThrow().getPrice()));
+        assertFalse(snapshot.getClosestHistoryNode(securityNode1, DATE.minusDays(1)).isPresent());
+
+        assertFalse(snapshot.getAccountTree().getAccounts().contains(account));
+
+        // a new snapshot sees the edits
+        final EngineSnapshot current = e.snapshot();
+
+        assertEquals(2, current.getTransactions(usdBankAccount).size());
+        assertEquals(DATE.plusDays(1), current.getHistoryNodes(securityNode1).get(0).getLocalDate());
+        assertTrue(current.getAccountTree().getAccounts().contains(account));
+    }
+
+    @Test
+    void testBalances() {
+        addTransaction("10.00", 0);
+        addTransaction("20.00", 10);
+        addTransaction("30.00", 20);
+
+        final EngineSnapshot snapshot = e.snapshot();
+
+        final List<Transaction> range = snapshot.getTransactions(usdBankAccount, DATE.plusDays(5), DATE.plusDays(20));
+
+        assertEquals(2, range.size());
+
+        final BigDecimal[] running = snapshot.getRunningBalances(usdBankAccount, range);
+
+        for (int i = 0; i < range.size(); i++) {
+            assertEquals(0, usdBankAccount.getBalanceAt(range.get(i)).compareTo(running[i]));
+        }
+
+        assertEquals(0, new BigDecimal("60.00").compareTo(running[1].abs()));
+
+        final LocalDate[] dates = {DATE.minusDays(1), DATE.plusDays(10), DATE.plusDays(30)};
+
+        assertArrayEquals(usdBankAccount.getBalances(dates, e.getDefaultCurrency()),
+                snapshot.getBalances(usdBankAccount, dates, e.getDefaultCurrency()));
+
+        // balances are converted with the captured exchange rate
+        final CurrencyNode cad = e.getCurrency("CAD");
+
+        e.setExchangeRate(e.getDefaultCurrency(), cad, new BigDecimal("1.25"), DATE);
+
+        final EngineSnapshot converted = e.snapshot();
+
+        assertEquals(0, usdBankAccount.getBalance(DATE.plusDays(30), cad).compareTo(converted.getBalances(usdBankAccount,
+                new LocalDate[]{DATE.plusDays(30)}, cad)[0]));
+        assertEquals(0, e.getDefaultCurrency().getExchangeRate(cad)
+                .compareTo(converted.getExchangeRate(e.getDefaultCurrency(), cad)));
+    }
+}
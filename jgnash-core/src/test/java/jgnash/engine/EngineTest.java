@@ -518,6 +518,43 @@ public abstract class EngineTest {
     }
 
 
+    @Test
+    void testBulkSecurityHistory() {
+        final SecurityNode securityNode = new SecurityNode(e.getDefaultCurrency());
+        securityNode.setSymbol("BULK");
+        assertTrue(e.addSecurity(securityNode));
+
+        final LocalDate startDate = LocalDate.of(2019, Month.JANUARY, 1);
+
+        assertTrue(e.addSecurityHistory(securityNode, new SecurityHistoryNode(startDate.plusDays(5),
+                BigDecimal.ONE, 0, BigDecimal.ONE, BigDecimal.ONE)));
+
+        final List<SecurityHistoryNode> nodes = new ArrayList<>();
+
+        // unsorted input with one overlapping date and one duplicated date
+        for (int i = 9; i >= 0; i--) {
+            final BigDecimal price = BigDecimal.valueOf(10 + i);
+            nodes.add(new SecurityHistoryNode(startDate.plusDays(i), price, 0, price, price));
+        }
+
+        nodes.add(new SecurityHistoryNode(startDate, BigDecimal.TEN, 0, BigDecimal.TEN, BigDecimal.TEN));
+
+        assertTrue(e.addSecurityHistory(securityNode, nodes));
+
+        final List<SecurityHistoryNode> history = securityNode.getHistoryNodes();
+
+        assertEquals(10, history.size());
+
+        for (int i = 0; i < history.size(); i++) {
+            assertEquals(startDate.plusDays(i), history.get(i).getLocalDate());
+        }
+
+        assertEquals(BigDecimal.TEN, history.get(0).getPrice());    // last duplicate wins
+        assertEquals(BigDecimal.valueOf(15), securityNode.getHistoryNode(startDate.plusDays(5)).get().getPrice());
+        assertTrue(securityNode.contains(startDate.plusDays(9)));
+        assertFalse(securityNode.contains(startDate.plusDays(10)));
+    }
+
     @Test
     void testSecurityHistory() {
         BigDecimal securityPrice1 = new BigDecimal("2.00");
@@ -1000,6 +1037,55 @@ public abstract class EngineTest {
         assertEquals(0, a.getTransactionCount());
     }
 
+    @Test
+    void testEmptyTrashInBatches() {
+        final CurrencyNode node = e.getDefaultCurrency();
+
+        final Account bankAccount = new Account(AccountType.BANK, node);
+        bankAccount.setName("Trash Bank Account");
+        assertTrue(e.addAccount(e.getRootAccount(), bankAccount));
+
+        final Account expenseAccount = new Account(AccountType.EXPENSE, node);
+        expenseAccount.setName("Trash Expense Account");
+        assertTrue(e.addAccount(e.getRootAccount(), expenseAccount));
+
+        final int initialTrash = e.getTrashObjects().size();
+
+        // enough trash for more than two batches
+        final int count = 120;
+        final List<Transaction> transactions = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            final Transaction transaction = TransactionFactory.generateDoubleEntryTransaction(bankAccount,
+                    expenseAccount, BigDecimal.ONE, LocalDate.now(), "trash " + i, "", "");
+
+            assertTrue(e.addTransaction(transaction));
+            transactions.add(transaction);
+        }
+
+        for (final Transaction transaction : transactions) {
+            assertTrue(e.removeTransaction(transaction));
+        }
+
+        assertEquals(initialTrash + count, e.getTrashObjects().size());
+
+        e.emptyTrash(0);
+
+        assertEquals(0, e.getTrashObjects().size());
+
+        for (final Transaction transaction : transactions) {
+            assertNull(e.getStoredObjectByUuid(Transaction.class, transaction.getUuid()));
+        }
+
+        // close and reopen to force check for persistence
+        closeEngine();
+        e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+
+        assertEquals(0, e.getTrashObjects().size());
+        assertEquals(0, e.getAccountByName("Trash Bank Account").getTransactionCount());
+        assertEquals(0, e.getAccountByName("Trash Expense Account").getTransactionCount());
+    }
+
     @Test
     void testGetTransactionsWithAttachments() {
         final String ACCOUNT_NAME = "testAccount";
@@ -18,15 +18,22 @@
 package jgnash.engine;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jgnash.engine.jpa.JpaH2DataStore;
+import jgnash.engine.jpa.JpaHsqlDataStore;
 import jgnash.engine.jpa.SqlUtils;
+import jgnash.engine.xstream.XMLDataStore;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -68,4 +75,41 @@ public class JpaH2EngineTest extends EngineTest {
 
         tableNames.forEach(System.out::println);
     }
+
+    @Test
+    void saveAsRoundTrip() throws IOException {
+        final int transactionCount = 250;   // more than a single partition of persisted objects
+
+        for (int i = 0; i < transactionCount; i++) {
+            assertTrue(e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(usdBankAccount,
+                    checkingAccount, BigDecimal.ONE, LocalDate.now(), "Round trip " + i, "Payee", "")));
+        }
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        final Path folder = testFolder.createDirectory("save-as").toPath();
+        final String hsqlFile = folder.resolve("save-as-test" + JpaHsqlDataStore.FILE_EXT).toString();
+        final String xmlFile = folder.resolve("save-as-test" + XMLDataStore.FILE_EXT).toString();
+
+        // relational to relational uses a detached copy, then back out to a file based store
+        EngineFactory.saveAs(testFile, hsqlFile, EngineFactory.EMPTY_PASSWORD, value -> { });
+        EngineFactory.saveAs(hsqlFile, xmlFile, EngineFactory.EMPTY_PASSWORD, value -> { });
+
+        e = EngineFactory.bootLocalEngine(xmlFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+
+        assertNotNull(e);
+
+        final Account checking = e.getAccountByName(checkingAccount.getName());
+        final Account bank = e.getAccountByName(usdBankAccount.getName());
+
+        assertEquals(transactionCount, checking.getTransactionCount());
+        assertEquals(transactionCount, bank.getTransactionCount());
+        assertEquals(0, new BigDecimal(-transactionCount).compareTo(checking.getBalance()));
+        assertEquals(0, new BigDecimal(transactionCount).compareTo(bank.getBalance()));
+        assertNotNull(e.getSecurity(securityNode1.getSymbol()));
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        EngineFactory.deleteDatabase(hsqlFile);
+    }
 }
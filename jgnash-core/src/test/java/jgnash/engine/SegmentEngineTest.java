@@ -0,0 +1,162 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Engine test for the segment file.
+ *
+ * @author Craig Cavanaugh
+ */
+public class SegmentEngineTest extends EngineTest {
+
+    private static String tempFile;
+
+    @Override
+    public Engine createEngine() {
+        try {
+            testFile = Files.createTempFile("jgnash-", DataStoreType.SEGMENT.getDataStore().getFileExt())
+                    .toString();
+
+            tempFile = testFile;
+
+        } catch (final IOException e1) {
+            Logger.getLogger(SegmentEngineTest.class.getName()).log(Level.SEVERE, e1.getLocalizedMessage(), e1);
+        }
+
+        EngineFactory.deleteDatabase(testFile);
+
+        return EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.SEGMENT);
+    }
+
+    @Test
+    void testChangesSurviveReopen() {
+        Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+        assertNotNull(engine);
+
+        Account bankAccount = new Account(AccountType.BANK, engine.getDefaultCurrency());
+        bankAccount.setName("Segment Bank Account");
+        assertTrue(engine.addAccount(engine.getRootAccount(), bankAccount));
+
+        final Account expenseAccount = new Account(AccountType.EXPENSE, engine.getDefaultCurrency());
+        expenseAccount.setName("Segment Expense Account");
+        assertTrue(engine.addAccount(engine.getRootAccount(), expenseAccount));
+
+        assertTrue(engine.addTransaction(TransactionFactory.generateDoubleEntryTransaction(bankAccount,
+                expenseAccount, BigDecimal.TEN, LocalDate.now(), "kept", "", "")));
+        assertTrue(engine.addTransaction(TransactionFactory.generateDoubleEntryTransaction(bankAccount,
+                expenseAccount, BigDecimal.ONE, LocalDate.now(), "removed", "", "")));
+
+        engine = reopen();
+
+        bankAccount = engine.getAccountByName("Segment Bank Account");
+        assertEquals(2, bankAccount.getTransactionCount());
+
+        for (final Transaction transaction : bankAccount.getSortedTransactionList()) {
+            if (transaction.getMemo().equals("removed")) {
+                assertTrue(engine.removeTransaction(transaction));
+            }
+        }
+
+        engine.setAccountAttribute(bankAccount, "segment", "modified");
+
+        engine = reopen();
+
+        bankAccount = engine.getAccountByName("Segment Bank Account");
+
+        assertEquals(1, bankAccount.getTransactionCount());
+        assertEquals("kept", bankAccount.getSortedTransactionList().get(0).getMemo());
+        assertEquals(1, engine.getAccountByName("Segment Expense Account").getTransactionCount());
+        assertEquals("modified", Engine.getAccountAttribute(bankAccount, "segment"));
+    }
+
+    @Test
+    void testFallbackToLastValidCommit() throws IOException {
+        Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+        assertNotNull(engine);
+
+        final Account committedAccount = new Account(AccountType.BANK, engine.getDefaultCurrency());
+        committedAccount.setName("Committed Account");
+        assertTrue(engine.addAccount(engine.getRootAccount(), committedAccount));
+
+        engine = reopen();
+
+        final Account damagedAccount = new Account(AccountType.BANK, engine.getDefaultCurrency());
+        damagedAccount.setName("Damaged Account");
+        assertTrue(engine.addAccount(engine.getRootAccount(), damagedAccount));
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        // damage the last record of the last commit, it precedes the five byte commit marker
+        final Path path = Paths.get(testFile);
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long position = channel.size() - 6;
+            final ByteBuffer buffer = ByteBuffer.allocate(1);
+
+            channel.read(buffer, position);
+            buffer.put(0, (byte) ~buffer.get(0));
+            buffer.rewind();
+            channel.write(buffer, position);
+        }
+
+        engine = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+        assertNotNull(engine);
+
+        assertNotNull(engine.getAccountByName("Committed Account"));
+        assertNull(engine.getAccountByName("Damaged Account"));
+
+        assertTrue(Files.deleteIfExists(Paths.get(testFile + ".backup")));
+    }
+
+    private Engine reopen() {
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        final Engine engine = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT,
+                EngineFactory.EMPTY_PASSWORD);
+
+        assertNotNull(engine);
+
+        return engine;
+    }
+
+    @AfterAll
+    static void cleanup() throws IOException {
+        Files.deleteIfExists(Paths.get(tempFile));
+    }
+}
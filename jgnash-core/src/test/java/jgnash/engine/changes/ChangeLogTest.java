@@ -0,0 +1,202 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.changes;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import jgnash.engine.AbstractEngineTest;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionFactory;
+import jgnash.engine.message.MessageProperty;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Change log tests.
+ *
+ * @author Craig Cavanaugh
+ */
+class ChangeLogTest extends AbstractEngineTest {
+
+    @Override
+    protected Engine createEngine() throws IOException {
+        database = testFolder.createFile("changes-test.bxds").getAbsolutePath();
+        EngineFactory.deleteDatabase(database);
+
+        return EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.BINARY_XSTREAM);
+    }
+
+    @Test
+    void testRingBuffer() {
+        try (final ChangeLog changeLog = new ChangeLog(4, null)) {
+            assertEquals(0, changeLog.getVersion());
+            assertTrue(changeLog.getChangesSince(0).orElseThrow().isEmpty());
+
+            final UUID uuid = UUID.randomUUID();
+
+            assertEquals(1, changeLog.append(ChangeOperation.ADD, uuid, MessageProperty.TRANSACTION));
+
+            // repeated changes to the same object are separate changes
+            assertEquals(2, changeLog.append(ChangeOperation.ADD, uuid, MessageProperty.TRANSACTION));
+            assertEquals(3, changeLog.append(ChangeOperation.REMOVE, uuid, MessageProperty.TRANSACTION));
+
+            for (int i = 0; i < 4; i++) {
+                changeLog.append(ChangeOperation.MODIFY, UUID.randomUUID(), MessageProperty.ACCOUNT);
+            }
+
+            assertEquals(7, changeLog.getVersion());
+
+            final List<ChangeRecord> changes = changeLog.getChangesSince(4).orElseThrow();
+
+            assertEquals(3, changes.size());
+            assertEquals(5, changes.get(0).getVersion());
+            assertEquals(7, changes.get(2).getVersion());
+
+            assertEquals(4, changeLog.getChangesSince(3).orElseThrow().size());
+
+            // the first three changes have been evicted
+            assertFalse(changeLog.getChangesSince(2).isPresent());
+
+            // a version from a previous change log
+            assertFalse(changeLog.getChangesSince(8).isPresent());
+
+            try (final ChangeLog other = new ChangeLog(4, null)) {
+                assertNotEquals(changeLog.getId(), other.getId());
+            }
+        }
+    }
+
+    @Test
+    void testSpill() throws IOException {
+        final Path spillFile = testFolder.createFile("changes.log").toPath();
+
+        final UUID uuid = UUID.randomUUID();
+
+        try (final ChangeLog changeLog = new ChangeLog(2, spillFile)) {
+            changeLog.append(ChangeOperation.ADD, uuid, MessageProperty.BUDGET);
+
+            for (int i = 0; i < 9; i++) {
+                changeLog.append(ChangeOperation.MODIFY, UUID.randomUUID(), MessageProperty.COMMODITY);
+            }
+
+            final List<ChangeRecord> changes = changeLog.getChangesSince(0).orElseThrow();
+
+            assertEquals(10, changes.size());
+
+            for (int i = 0; i < changes.size(); i++) {
+                assertEquals(i + 1, changes.get(i).getVersion());
+            }
+
+            assertEquals(new ChangeRecord(1, ChangeOperation.ADD, uuid, MessageProperty.BUDGET), changes.get(0));
+            assertEquals(5, changeLog.getChangesSince(5).orElseThrow().size());
+        }
+
+        assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    void testSpillChunks() throws IOException {
+        final Path spillFile = testFolder.createFile("changes-chunks.log").toPath();
+
+        try (final ChangeLog changeLog = new ChangeLog(16, spillFile)) {
+            for (int i = 0; i < 20000; i++) {
+                changeLog.append(ChangeOperation.MODIFY, UUID.randomUUID(), MessageProperty.ACCOUNT);
+            }
+
+            final List<ChangeRecord> changes = changeLog.getChangesSince(100).orElseThrow();
+
+            assertEquals(19900, changes.size());
+
+            for (int i = 0; i < changes.size(); i++) {
+                assertEquals(i + 101, changes.get(i).getVersion());
+            }
+        }
+    }
+
+    @Test
+    void testEngineChanges() {
+        final long version = e.getDataVersion();
+
+        final Transaction transaction = TransactionFactory.generateDoubleEntryTransaction(usdBankAccount,
+                checkingAccount, BigDecimal.TEN, LocalDate.now(), "", "", "");
+
+        assertTrue(e.addTransaction(transaction));
+        assertTrue(e.removeTransaction(transaction));
+
+        final List<ChangeRecord> changes = e.getChangesSince(version).orElseThrow();
+
+        // the transaction is announced once per account, but recorded once per change
+        assertEquals(2, changes.size());
+        assertEquals(version + 2, e.getDataVersion());
+
+        assertEquals(ChangeOperation.ADD, changes.get(0).getOperation());
+        assertEquals(ChangeOperation.REMOVE, changes.get(1).getOperation());
+        assertEquals(transaction.getUuid(), changes.get(1).getUuid());
+        assertEquals(MessageProperty.TRANSACTION, changes.get(1).getType());
+
+        // failed changes are not recorded, the removed transaction is marked for removal
+        assertFalse(e.addTransaction(transaction));
+        assertEquals(version + 2, e.getDataVersion());
+    }
+
+    @Test
+    void testRepeatedChanges() {
+        final long version = e.getDataVersion();
+
+        e.setAccountAttribute(checkingAccount, "note", "first");
+        assertEquals(version + 1, e.getDataVersion());
+
+        e.setAccountAttribute(checkingAccount, "note", "second");
+        assertEquals(version + 2, e.getDataVersion());
+
+        final List<ChangeRecord> changes = e.getChangesSince(version + 1).orElseThrow();
+
+        assertEquals(1, changes.size());
+        assertEquals(new ChangeRecord(version + 2, ChangeOperation.MODIFY, checkingAccount.getUuid(),
+                MessageProperty.ACCOUNT), changes.get(0));
+    }
+
+    @Test
+    void testChangeLogId() {
+        final UUID changeLogId = e.getChangeLogId();
+        final long version = e.getDataVersion();
+
+        e.setAccountAttribute(checkingAccount, "note", "changed");
+
+        assertEquals(1, e.getChangesSince(changeLogId, version).orElseThrow().size());
+
+        // a version read before the engine was restarted
+        assertFalse(e.getChangesSince(UUID.randomUUID(), version).isPresent());
+        assertFalse(e.getChangesSince(e.getDataVersion() + 1).isPresent());
+    }
+}
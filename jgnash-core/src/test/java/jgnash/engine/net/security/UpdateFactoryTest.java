@@ -0,0 +1,178 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.net.security;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jgnash.engine.AbstractEngineTest;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.QuoteSource;
+import jgnash.engine.SecurityHistoryEvent;
+import jgnash.engine.SecurityHistoryNode;
+import jgnash.engine.SecurityNode;
+import jgnash.net.security.QuoteProvider;
+import jgnash.net.security.UpdateFactory;
+import jgnash.net.security.YahooQuoteProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the batched, rate limited security update using a local stand-in quote source.
+ *
+ * @author Craig Cavanaugh
+ */
+class UpdateFactoryTest extends AbstractEngineTest {
+
+    private static final int SECURITIES = 7;
+
+    @Override
+    protected Engine createEngine() throws IOException {
+        database = testFolder.createFile("update-test.bxds").getAbsolutePath();
+        EngineFactory.deleteDatabase(database);
+
+        return EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.BINARY_XSTREAM);
+    }
+
+    @AfterEach
+    void restoreQuoteProvider() {
+        UpdateFactory.setQuoteProvider(new YahooQuoteProvider());
+    }
+
+    @Test
+    void testBatchedUpdate() throws Exception {
+        final LocalQuoteProvider provider = new LocalQuoteProvider();
+        UpdateFactory.setQuoteProvider(provider);
+
+        final List<SecurityNode> securities = new ArrayList<>();
+
+        for (int i = 0; i < SECURITIES; i++) {
+            final SecurityNode node = new SecurityNode(e.getDefaultCurrency());
+            node.setSymbol("LOCAL" + i);
+            node.setScale((byte) 2);
+            node.setQuoteSource(QuoteSource.YAHOO);
+
+            assertTrue(e.addSecurity(node));
+            assertTrue(e.addSecurityHistory(node, new SecurityHistoryNode(LocalDate.now().minusDays(30),
+                    BigDecimal.ONE, 0, BigDecimal.ONE, BigDecimal.ONE)));
+
+            securities.add(node);
+        }
+
+        final List<Callable<Boolean>> callables = UpdateFactory.createUpdateCallables(securities);
+
+        // 3 price batches and one event request per security
+        assertEquals(3 + SECURITIES, callables.size());
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(UpdateFactory.MAX_WORKERS);
+
+        try {
+            for (final Future<Boolean> future : executorService.invokeAll(callables)) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        for (final SecurityNode node : securities) {
+            assertEquals(2, node.getHistoryNodes().size());
+            assertEquals(BigDecimal.TEN, node.getHistoryNode(LocalDate.now()).get().getPrice());
+        }
+
+        assertEquals(3, provider.priceRequests.get());
+        assertEquals(1, provider.failures.get());   // the failed request was retried
+        assertEquals(SECURITIES, provider.eventRequests.get());
+    }
+
+    /**
+     * Offline stand-in that supports three symbols per request and fails the first request.
+     */
+    private static class LocalQuoteProvider implements QuoteProvider {
+
+        final AtomicInteger priceRequests = new AtomicInteger();
+
+        final AtomicInteger eventRequests = new AtomicInteger();
+
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public int getMaxBatchSize() {
+            return 3;
+        }
+
+        @Override
+        public long getRequestInterval() {
+            return 5;
+        }
+
+        @Override
+        public long getRetryDelay() {
+            return 10;
+        }
+
+        @Override
+        public Map<SecurityNode, List<SecurityHistoryNode>> getHistoricalPrices(final Collection<SecurityNode> nodes,
+                                                                               final LocalDate startDate,
+                                                                               final LocalDate endDate)
+                throws IOException {
+
+            assertTrue(nodes.size() <= getMaxBatchSize());
+
+            if (failures.compareAndSet(0, 1)) {
+                throw new IOException("Simulated network failure");
+            }
+
+            priceRequests.incrementAndGet();
+
+            final Map<SecurityNode, List<SecurityHistoryNode>> map = new HashMap<>();
+
+            for (final SecurityNode node : nodes) {
+                map.put(node, Collections.singletonList(new SecurityHistoryNode(endDate, BigDecimal.TEN, 100,
+                        BigDecimal.TEN, BigDecimal.TEN)));
+            }
+
+            return map;
+        }
+
+        @Override
+        public Set<SecurityHistoryEvent> getHistoryEvents(final SecurityNode securityNode, final LocalDate endDate) {
+            eventRequests.incrementAndGet();
+            return Collections.emptySet();
+        }
+    }
+}
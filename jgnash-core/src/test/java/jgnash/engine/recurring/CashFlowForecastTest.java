@@ -0,0 +1,129 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.recurring;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+import jgnash.engine.AbstractEngineTest;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.TransactionFactory;
+import jgnash.time.Period;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the cash flow forecast.
+ *
+ * @author Craig Cavanaugh
+ */
+class CashFlowForecastTest extends AbstractEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2019, Month.JANUARY, 1);
+
+    @Override
+    protected Engine createEngine() throws IOException {
+        database = testFolder.createFile("forecast-test.bxds").getAbsolutePath();
+        EngineFactory.deleteDatabase(database);
+
+        return EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.BINARY_XSTREAM);
+    }
+
+    private Reminder createReminder(final Reminder reminder, final LocalDate startDate, final String amount) {
+        reminder.setDescription("Reminder " + startDate);
+        reminder.setStartDate(startDate);
+        reminder.setTransaction(TransactionFactory.generateDoubleEntryTransaction(usdBankAccount, checkingAccount,
+                new BigDecimal(amount), startDate, "memo", "payee", ""));
+
+        return reminder;
+    }
+
+    @Test
+    void testMonthlyForecast() {
+        final List<Reminder> reminders = new ArrayList<>();
+
+        final Reminder monthly = createReminder(new MonthlyReminder(), LocalDate.of(2019, Month.JANUARY, 15), "100");
+        reminders.add(monthly);
+
+        final Reminder weekly = createReminder(new WeeklyReminder(), LocalDate.of(2019, Month.JANUARY, 7), "10");
+        reminders.add(weekly);
+
+        final Reminder disabled = createReminder(new DailyReminder(), START, "1000");
+        disabled.setEnabled(false);
+        reminders.add(disabled);
+
+        final CashFlowForecast forecast = new CashFlowForecast(reminders, START,
+                LocalDate.of(2019, Month.DECEMBER, 31), Period.MONTHLY);
+
+        assertEquals(12, forecast.getDates().size());
+        assertEquals(LocalDate.of(2019, Month.JANUARY, 31), forecast.getDates().get(0));
+        assertEquals(2, forecast.getAccounts().size());
+
+        final BigDecimal monthlyAmount = monthly.getTransaction().getAmount(usdBankAccount);
+        final BigDecimal weeklyAmount = weekly.getTransaction().getAmount(usdBankAccount);
+
+        // 4 weekly occurrences in January (7, 14, 21, 28) and 52 in the year
+        assertEquals(0, monthlyAmount.add(weeklyAmount.multiply(BigDecimal.valueOf(4)))
+                .compareTo(forecast.getBalances(usdBankAccount).get(0)));
+
+        final BigDecimal yearTotal = monthlyAmount.multiply(BigDecimal.valueOf(12))
+                .add(weeklyAmount.multiply(BigDecimal.valueOf(52)));
+
+        assertEquals(0, yearTotal.compareTo(forecast.getBalance(usdBankAccount, forecast.getDates().get(11))));
+
+        assertEquals(forecast.getBalances(checkingAccount).get(0),
+                forecast.getBalance(checkingAccount, LocalDate.of(2019, Month.JANUARY, 2)));
+
+        assertNull(forecast.getBalance(usdBankAccount, LocalDate.of(2020, Month.JANUARY, 1)));
+        assertTrue(forecast.getBalances(investAccount).isEmpty());
+    }
+
+    @Test
+    void testLongDailyForecast() {
+        final List<Reminder> reminders = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            reminders.add(createReminder(new MonthlyReminder(), START.plusDays(i % 28), "1"));
+        }
+
+        final LocalDate end = START.plusYears(10).minusDays(1);
+
+        final CashFlowForecast forecast = new CashFlowForecast(reminders, START, end, Period.DAILY);
+
+        final BigDecimal amount = reminders.get(0).getTransaction().getAmount(usdBankAccount);
+
+        assertEquals(3653, forecast.getDates().size());
+        assertEquals(0, amount.multiply(BigDecimal.valueOf(200 * 120))
+                .compareTo(forecast.getBalance(usdBankAccount, end)));
+
+        assertThrows(IllegalArgumentException.class, () -> new CashFlowForecast(reminders, START,
+                START.plusYears(CashFlowForecast.MAXIMUM_YEARS).plusDays(1), Period.DAILY));
+    }
+}
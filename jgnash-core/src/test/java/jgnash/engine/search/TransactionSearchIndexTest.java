@@ -0,0 +1,142 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.search;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import jgnash.engine.AbstractEngineTest;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionFactory;
+import jgnash.engine.message.ChannelEvent;
+import jgnash.engine.message.Message;
+import jgnash.engine.message.MessageBus;
+import jgnash.engine.message.MessageChannel;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transaction search index tests.
+ *
+ * @author Craig Cavanaugh
+ */
+class TransactionSearchIndexTest extends AbstractEngineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2019, 3, 1);
+
+    @Override
+    protected Engine createEngine() throws IOException {
+        database = testFolder.createFile("search-test.bxds").getAbsolutePath();
+        EngineFactory.deleteDatabase(database);
+
+        return EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.BINARY_XSTREAM);
+    }
+
+    private Transaction addTransaction(final String amount, final int day, final String memo, final String payee,
+                                       final String number) {
+        final Transaction transaction = TransactionFactory.generateDoubleEntryTransaction(checkingAccount,
+                usdBankAccount, new BigDecimal(amount), DATE.plusDays(day), memo, payee, number);
+
+        assertTrue(e.addTransaction(transaction));
+
+        return transaction;
+    }
+
+    /**
+     * Messages are delivered in order, so a blocking message ensures prior messages have been processed.
+     */
+    private void waitForMessages() {
+        MessageBus.getInstance(e.getName()).fireBlockingEvent(new Message(MessageChannel.SYSTEM,
+                ChannelEvent.BACKGROUND_PROCESS_STOPPED, e));
+    }
+
+    @Test
+    void testSearch() {
+        final Transaction grocery = addTransaction("45.10", 0, "Weekly groceries", "Corner Market", "101");
+        final Transaction hardware = addTransaction("120.00", 1, "Paint and brushes", "Hardware Store", "102");
+        final Transaction market = addTransaction("12.50", 2, "Market street parking", "City Parking", "");
+
+        final TransactionSearchIndex index = e.getTransactionSearchIndex();
+
+        assertEquals(3, index.size());
+
+        // payee matches rank above memo matches
+        assertEquals(List.of(grocery, market), index.search("market"));
+
+        assertEquals(List.of(hardware), index.search("hard*"));
+        assertEquals(List.of(hardware), index.search("PAINT brush"));
+        assertEquals(List.of(grocery), index.search("gro?eries"));
+        assertEquals(List.of(hardware), index.search("102"));
+        assertTrue(index.search("paint market").isEmpty());
+
+        final TransactionQuery query = new TransactionQuery();
+        query.setText("market");
+        query.setFields(EnumSet.of(SearchField.MEMO));
+
+        assertEquals(List.of(market), index.search(query));
+
+        // no text, newest first; amounts match either sign
+        final TransactionQuery amountQuery = new TransactionQuery();
+        amountQuery.setMinimumAmount(new BigDecimal("-10"));
+        amountQuery.setMaximumAmount(new BigDecimal("40"));
+
+        assertEquals(List.of(market), index.search(amountQuery));
+
+        amountQuery.setMaximumAmount(null);
+        assertEquals(List.of(market, hardware, grocery), index.search(amountQuery));
+
+        amountQuery.setLimit(2);
+        assertEquals(List.of(market, hardware), index.search(amountQuery));
+
+        final TransactionQuery dateQuery = new TransactionQuery();
+        dateQuery.setStartDate(DATE.plusDays(1));
+        dateQuery.setEndDate(DATE.plusDays(1));
+
+        assertEquals(List.of(hardware), index.search(dateQuery));
+
+        assertThrows(IllegalArgumentException.class, () -> dateQuery.setLimit(0));
+    }
+
+    @Test
+    void testIncrementalUpdate() {
+        final TransactionSearchIndex index = e.getTransactionSearchIndex();
+
+        final Transaction transaction = addTransaction("10.00", 0, "Refund", "Book Shop", "");
+        waitForMessages();
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(transaction), index.search("book"));
+
+        assertTrue(e.removeTransaction(transaction));
+        waitForMessages();
+
+        assertEquals(0, index.size());
+        assertTrue(index.search("book").isEmpty());
+    }
+}
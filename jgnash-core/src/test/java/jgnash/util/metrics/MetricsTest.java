@@ -0,0 +1,65 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Metrics tests.
+ *
+ * @author Craig Cavanaugh
+ */
+class MetricsTest {
+
+    @Test
+    void testRegistry() {
+        assertSame(Metrics.timer("test.timer"), Metrics.timer("test.timer"));
+        assertNotSame(Metrics.counter("test.counter.a"), Metrics.counter("test.counter.b"));
+
+        assertThrows(IllegalArgumentException.class, () -> Metrics.histogram("test.timer"));
+    }
+
+    @Test
+    void testHistogram() {
+        final Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.getMedian());
+        assertEquals(0, histogram.getMean(), 0);
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 0.001);
+
+        // percentiles are reported as the upper bound of a power of two bucket
+        assertEquals(63, histogram.getMedian());
+        assertEquals(100, histogram.get95thPercentile());
+        assertEquals(100, histogram.get99thPercentile());
+
+        histogram.record(-1);   // negative values count as zero
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0.001));
+    }
+}
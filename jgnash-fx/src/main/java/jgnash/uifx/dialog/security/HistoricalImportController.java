@@ -186,16 +186,18 @@ public class HistoricalImportController {
                 long processedHistory = 0;
 
                 for (final Map.Entry<SecurityNode, List<SecurityHistoryNode>> entry : historyMap.entrySet()) {
-                    if (!requestCancel) {
-                        for (final SecurityHistoryNode historyNode : entry.getValue()) {
-                            if (!requestCancel) {
-                                engine.addSecurityHistory(entry.getKey(), historyNode);
-                                updateProgress(++processedHistory, historyCount);
-
-                                updateMessage(ResourceUtils.getString("Message.UpdatedPriceDate", entry.getKey().getSymbol(),
-                                        dateTimeFormatter.format(historyNode.getLocalDate())));
-                            }
-                        }
+                    if (!requestCancel && !entry.getValue().isEmpty()) {
+
+                        // the history of each security is merged and persisted as a single batch
+                        engine.addSecurityHistory(entry.getKey(), entry.getValue());
+
+                        processedHistory += entry.getValue().size();
+                        updateProgress(processedHistory, historyCount);
+
+                        final SecurityHistoryNode lastNode = entry.getValue().get(entry.getValue().size() - 1);
+
+                        updateMessage(ResourceUtils.getString("Message.UpdatedPriceDate", entry.getKey().getSymbol(),
+                                dateTimeFormatter.format(lastNode.getLocalDate())));
                     }
                 }
 
@@ -24,12 +24,12 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import jgnash.engine.Account;
@@ -41,6 +41,9 @@ import jgnash.engine.Engine;
 import jgnash.engine.EngineFactory;
 import jgnash.engine.MathConstants;
 import jgnash.report.pdf.Report;
+import jgnash.report.pipeline.BalanceRequest;
+import jgnash.report.pipeline.CancellationToken;
+import jgnash.report.pipeline.ReportPipeline;
 import jgnash.report.table.AbstractReportTableModel;
 import jgnash.report.table.ColumnStyle;
 import jgnash.report.table.Row;
@@ -87,6 +90,8 @@ public abstract class AbstractSumByTypeReport extends Report {
 
     private Period reportPeriod = Period.MONTHLY;
 
+    private final ReportPipeline pipeline = new ReportPipeline(EngineFactory.DEFAULT);
+
     /**
      * Returns a list of AccountGroup that will be reported on
      *
@@ -116,8 +121,44 @@ public abstract class AbstractSumByTypeReport extends Report {
         this.title = title;
     }
 
+    /**
+     * Creates the report model on the calling thread.
+     *
+     * @param startDate               report start date
+     * @param endDate                 report end date
+     * @param hideZeroBalanceAccounts true to remove accounts with only zero balances
+     * @return the report model
+     */
     ReportModel createReportModel(final LocalDate startDate, final LocalDate endDate,
                                   final boolean hideZeroBalanceAccounts) {
+        return createReportModel(startDate, endDate, hideZeroBalanceAccounts, new CancellationToken());
+    }
+
+    /**
+     * Creates the report model in the background.  Any model still being created is cancelled.
+     *
+     * @param startDate               report start date
+     * @param endDate                 report end date
+     * @param hideZeroBalanceAccounts true to remove accounts with only zero balances
+     * @return future for the report model, completed with a {@code CancellationException} if superseded
+     */
+    CompletableFuture<ReportModel> createReportModelAsync(final LocalDate startDate, final LocalDate endDate,
+                                                          final boolean hideZeroBalanceAccounts) {
+        return pipeline.submit(token -> createReportModel(startDate, endDate, hideZeroBalanceAccounts, token));
+    }
+
+    /**
+     * Creates the report model.  Concurrent calls are serialized because the report dates are shared.
+     *
+     * @param startDate               report start date
+     * @param endDate                 report end date
+     * @param hideZeroBalanceAccounts true to remove accounts with only zero balances
+     * @param token                   cancellation token checked between steps
+     * @return the report model
+     */
+    protected synchronized ReportModel createReportModel(final LocalDate startDate, final LocalDate endDate,
+                                                         final boolean hideZeroBalanceAccounts,
+                                                         final CancellationToken token) {
 
         percentileMap.clear();
 
@@ -139,44 +180,26 @@ public abstract class AbstractSumByTypeReport extends Report {
             accounts.addAll(getAccountList(AccountType.getAccountTypes(group)));
         }
 
-        // remove any account that will report a zero balance for all periods
-        if (hideZeroBalanceAccounts) {
-            final Iterator<Account> i = accounts.iterator();
-
-            while (i.hasNext()) {
-                final Account account = i.next();
-                boolean remove = true;
+        final String reportType = getClass().getName();
+        final LocalDate[] starts = startDates.toArray(new LocalDate[0]);
+        final LocalDate[] ends = endDates.toArray(new LocalDate[0]);
 
-                if (runningTotal) {
-                    for (final LocalDate date : startDates) {
-                        if (account.getBalance(date).compareTo(BigDecimal.ZERO) != 0) {
-                            remove = false;
-                            break;
-                        }
-                    }
-
-                    for (final LocalDate date : endDates) {
-                        if (account.getBalance(date).compareTo(BigDecimal.ZERO) != 0) {
-                            remove = false;
-                            break;
-                        }
-                    }
+        // balances are requested for every account so display options do not change the memoization key
+        final Map<Account, BigDecimal[]> balances = pipeline.getBalances(runningTotal
+                ? BalanceRequest.runningBalances(reportType, accounts, ends, baseCurrency)
+                : BalanceRequest.periodBalances(reportType, accounts, starts, ends, baseCurrency), token, null);
 
+        // remove any account that will report a zero balance for all periods
+        if (hideZeroBalanceAccounts) {
+            final Map<Account, BigDecimal[]> startBalances = runningTotal ? pipeline.getBalances(
+                    BalanceRequest.runningBalances(reportType, accounts, starts, baseCurrency), token, null) : null;
 
-                } else {
-                    for (int j = 0; j < startDates.size(); j++) {
-                        if (account.getBalance(startDates.get(j), endDates.get(j)).compareTo(BigDecimal.ZERO) != 0) {
-                            remove = false;
-                            break;
-                        }
-                    }
-                }
-                if (remove) {
-                    i.remove();
-                }
-            }
+            accounts.removeIf(account -> isZero(balances.get(account))
+                    && (startBalances == null || isZero(startBalances.get(account))));
         }
 
+        token.throwIfCancelled();
+
         switch (sortOrder) {    // sort the accounts
             case BY_NAME:
                 accounts.sort(showFullAccountPath ? Comparators.getAccountByPathName() : Comparators.getAccountByName());
@@ -190,13 +213,16 @@ public abstract class AbstractSumByTypeReport extends Report {
 
         // cross tabulate account percentages by group
         if (addPercentileColumn) {
+            final Map<Account, BigDecimal[]> totals = pipeline.getBalances(BalanceRequest.periodBalances(reportType,
+                    accounts, new LocalDate[]{startDate}, new LocalDate[]{endDate}, baseCurrency), token, null);
+
             for (final AccountGroup group : getAccountGroups()) {
 
                 // sum the group
                 BigDecimal groupTotal = BigDecimal.ZERO;
                 for (final Account a : accounts) {
                     if (a.getAccountType().getAccountGroup() == group) {
-                        groupTotal = groupTotal.add(a.getBalance(startDate, endDate, baseCurrency));
+                        groupTotal = groupTotal.add(totals.get(a)[0]);
                     }
                 }
 
@@ -204,19 +230,31 @@ public abstract class AbstractSumByTypeReport extends Report {
                 for (final Account a : accounts) {
                     if (a.getAccountType().getAccountGroup() == group) {
 
-                        BigDecimal sum = a.getBalance(startDate, endDate, baseCurrency);
+                        BigDecimal sum = totals.get(a)[0];
                         percentileMap.put(a, sum.divide(groupTotal, MathConstants.mathContext));
                     }
                 }
             }
         }
 
-        final ReportModel model = new ReportModel(baseCurrency);
+        token.throwIfCancelled();
+
+        final ReportModel model = new ReportModel(baseCurrency, balances);
         model.addAccounts(accounts);
 
         return model;
     }
 
+    private static boolean isZero(final BigDecimal[] balances) {
+        for (final BigDecimal balance : balances) {
+            if (balance.compareTo(BigDecimal.ZERO) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private void updateResolution(final LocalDate startDate, final LocalDate endDate) {
 
         final DateTimeFormatter dateFormat = DateUtils.getShortDateFormatter();
@@ -311,10 +349,16 @@ public abstract class AbstractSumByTypeReport extends Report {
 
         private final CurrencyNode baseCurrency;
 
+        /**
+         * Balances of the report accounts, shared with the report pipeline.
+         */
+        private final Map<Account, BigDecimal[]> balanceMap;
+
         private final ResourceBundle rb = ResourceUtils.getBundle();
 
-        ReportModel(final CurrencyNode currency) {
+        ReportModel(final CurrencyNode currency, final Map<Account, BigDecimal[]> balanceMap) {
             this.baseCurrency = currency;
+            this.balanceMap = balanceMap;
         }
 
         @Override
@@ -464,10 +508,33 @@ public abstract class AbstractSumByTypeReport extends Report {
 
         private class AccountRow extends Row<Account> {
 
+            /**
+             * Period balances
+             */
+            private BigDecimal[] balances;
+
             AccountRow(final Account account) {
                 super(account);
             }
 
+            private BigDecimal[] getBalances() {
+                if (balances == null) {
+                    final BigDecimal[] shared = balanceMap.get(getValue());
+
+                    if (runningTotal) {
+                        balances = shared;
+                    } else {    // negate a copy, the shared balances are memoized by the pipeline
+                        balances = new BigDecimal[shared.length];
+
+                        for (int i = 0; i < balances.length; i++) {
+                            balances[i] = shared[i].negate();
+                        }
+                    }
+                }
+
+                return balances;
+            }
+
             @Override
             public Object getValueAt(final int columnIndex) {
 
@@ -490,12 +557,7 @@ public abstract class AbstractSumByTypeReport extends Report {
                 } else if (columnIndex == getColumnCount() - 1) { // group column
                     return getValue().getAccountType().getAccountGroup().toString();
                 } else if (columnIndex > 0 && columnIndex <= startDates.size()) {
-                    if (runningTotal) {
-                        return getValue().getBalance(endDates.get(columnIndex - 1), getCurrencyNode());
-                    }
-
-                    return getValue().getBalance(startDates.get(columnIndex - 1), endDates.get(columnIndex - 1),
-                            getCurrencyNode()).negate();
+                    return getBalances()[columnIndex - 1];
                 }
 
                 return null;
@@ -19,6 +19,7 @@ package jgnash.uifx.report;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -328,33 +329,41 @@ public class AccountBalanceChartController {
 
         barChart.setLegendVisible(selectedAccounts.size() > 1);
 
+        final LocalDate[] startDates = new LocalDate[descriptors.size()];
+        final LocalDate[] endDates = new LocalDate[descriptors.size()];
+
+        for (int i = 0; i < descriptors.size(); i++) {
+            startDates[i] = descriptors.get(i).getStartDate();
+            endDates[i] = descriptors.get(i).getEndDate();
+        }
+
         for (final Account account : selectedAccounts) {
 
             final XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName(account.getName());
             barChart.getData().add(series);
 
-            for (final ReportPeriodUtils.Descriptor descriptor : descriptors) {
-                final BigDecimal income;
+            // compute every period with a single pass over the account transactions
+            final BigDecimal[] balances;
 
-                if (!includeSubAccounts.isSelected()) {
+            if (!includeSubAccounts.isSelected()) {
 
-                    if (runningBalanceRadioButton.isSelected()) {
-                        income = account.getBalance(descriptor.getEndDate());
-                    } else {    // ending balance
-                        income = account.getBalance(descriptor.getStartDate(), descriptor.getEndDate());
-                    }
-                } else {
-                    if (runningBalanceRadioButton.isSelected()) {
-                        income = account.getTreeBalance(descriptor.getEndDate(), account.getCurrencyNode());
-                    } else {    // ending balance
-                        income = account.getTreeBalance(descriptor.getStartDate(), descriptor.getEndDate(),
-                                account.getCurrencyNode());
-                    }
+                if (runningBalanceRadioButton.isSelected()) {
+                    balances = account.getBalances(endDates, account.getCurrencyNode());
+                } else {    // ending balance
+                    balances = account.getBalances(startDates, endDates, account.getCurrencyNode());
+                }
+            } else {
+                if (runningBalanceRadioButton.isSelected()) {
+                    balances = account.getTreeBalances(endDates, account.getCurrencyNode());
+                } else {    // ending balance
+                    balances = account.getTreeBalances(startDates, endDates, account.getCurrencyNode());
                 }
+            }
 
-                series.getData().add(new XYChart.Data<>(descriptor.getLabel(),
-                        invertBalance(income, account.getAccountType())));
+            for (int i = 0; i < descriptors.size(); i++) {
+                series.getData().add(new XYChart.Data<>(descriptors.get(i).getLabel(),
+                        invertBalance(balances[i], account.getAccountType())));
             }
 
             for (final XYChart.Data<String, Number> data : series.getData()) {
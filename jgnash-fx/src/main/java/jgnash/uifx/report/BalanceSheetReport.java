@@ -23,6 +23,7 @@ import jgnash.engine.AccountGroup;
 import jgnash.engine.CurrencyNode;
 import jgnash.engine.Engine;
 import jgnash.engine.EngineFactory;
+import jgnash.report.pipeline.CancellationToken;
 import jgnash.report.table.Row;
 
 import java.math.BigDecimal;
@@ -47,8 +48,10 @@ public class BalanceSheetReport extends AbstractSumByTypeReport {
     }
 
     @Override
-    protected ReportModel createReportModel(final LocalDate startDate, final LocalDate endDate, final boolean hideZeroBalanceAccounts) {
-        ReportModel model = super.createReportModel(startDate, endDate, hideZeroBalanceAccounts);
+    protected synchronized ReportModel createReportModel(final LocalDate startDate, final LocalDate endDate,
+                                                         final boolean hideZeroBalanceAccounts,
+                                                         final CancellationToken token) {
+        ReportModel model = super.createReportModel(startDate, endDate, hideZeroBalanceAccounts, token);
 
 
         // load retained profit and loss row
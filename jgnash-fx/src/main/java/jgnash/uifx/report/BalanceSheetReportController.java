@@ -19,6 +19,7 @@ package jgnash.uifx.report;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
 import java.util.function.Consumer;
 import java.util.prefs.Preferences;
 
@@ -32,6 +33,7 @@ import jgnash.resource.util.ResourceUtils;
 import jgnash.time.DateUtils;
 import jgnash.time.Period;
 import jgnash.uifx.Options;
+import jgnash.uifx.StaticUIMethods;
 import jgnash.uifx.control.DatePickerEx;
 import jgnash.uifx.report.pdf.ReportController;
 import jgnash.uifx.util.JavaFXUtils;
@@ -121,12 +123,22 @@ public class BalanceSheetReportController implements ReportController {
                 endDatePicker.getValue()).size());
         preferences.putInt(PERIOD, resolutionComboBox.getValue().ordinal());
 
-        addTable();
-
-        // send notification the report has been updated
-        if (refreshRunnable != null) {
-            refreshRunnable.run();
-        }
+        updateReportOptions();
+
+        // build the model in the background, a newer refresh cancels this one
+        report.createReportModelAsync(startDatePicker.getValue(), endDatePicker.getValue(),
+                hideZeroBalanceAccounts.isSelected()).whenCompleteAsync((model, throwable) -> {
+            if (model != null) {
+                addTable(model);
+
+                // send notification the report has been updated
+                if (refreshRunnable != null) {
+                    refreshRunnable.run();
+                }
+            } else if (!(throwable instanceof CancellationException)) {
+                StaticUIMethods.displayException(throwable);
+            }
+        }, JavaFXUtils::runLater);
     }
 
     private void resetDates() {
@@ -138,9 +150,7 @@ public class BalanceSheetReportController implements ReportController {
         startDatePicker.setValue(DateUtils.getFirstDayOfTheMonth(LocalDate.now().minusMonths(months - 1)));
     }
 
-    private void addTable() {
-        final AbstractReportTableModel model = createReportModel();
-
+    private void addTable(final AbstractReportTableModel model) {
         report.clearReport();
         report.setTitle(ResourceUtils.getString("Title.BalanceSheet"));
 
@@ -152,9 +162,13 @@ public class BalanceSheetReportController implements ReportController {
         }
     }
 
+    private void updateReportOptions() {
+        report.setReportPeriod(resolutionComboBox.getValue());
+    }
+
     @Override
     public AbstractReportTableModel createReportModel() {
-        report.setReportPeriod(resolutionComboBox.getValue());
+        updateReportOptions();
 
         return report.createReportModel(startDatePicker.getValue(), endDatePicker.getValue(),
                 hideZeroBalanceAccounts.isSelected());
@@ -398,7 +398,7 @@ public class IncomeExpensePayeePieChartDialogController {
     private List<TranTuple> getTransactions(final Account account, final List<TranTuple> transactions,
                                             final LocalDate startDate, final LocalDate endDate) {
 
-        for (final Transaction transaction : account.getTransactions(startDate, endDate)) {
+        for (final Transaction transaction : account.getTransactionRange(startDate, endDate)) {
             TranTuple tuple = new TranTuple(account, transaction);
             transactions.add(tuple);
         }
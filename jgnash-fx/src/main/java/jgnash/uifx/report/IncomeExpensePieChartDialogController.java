@@ -17,8 +17,10 @@
  */
 package jgnash.uifx.report;
 
+import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
 import java.util.UUID;
@@ -40,6 +42,7 @@ import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
 import jgnash.engine.Account;
+import jgnash.engine.AccountTreeSnapshot;
 import jgnash.engine.AccountType;
 import jgnash.engine.CurrencyNode;
 import jgnash.engine.Engine;
@@ -158,12 +161,16 @@ public class IncomeExpensePieChartDialogController {
 
             final ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
 
-            double total = a.getTreeBalance(startDatePicker.getValue(), endDatePicker.getValue(),
-                    defaultCurrency).doubleValue();
+            // evaluate the account and all child subtrees in a single parallel pass
+            final AccountTreeSnapshot snapshot = AccountTreeSnapshot.of(a);
+            final Map<Account, BigDecimal[]> treeBalances = snapshot.getTreeBalances(
+                    new LocalDate[]{startDatePicker.getValue()}, new LocalDate[]{endDatePicker.getValue()},
+                    defaultCurrency);
 
-            for (final Account child : a.getChildren()) {
-                double balance = child.getTreeBalance(startDatePicker.getValue(), endDatePicker.getValue(),
-                        defaultCurrency).doubleValue();
+            double total = treeBalances.get(a)[0].doubleValue();
+
+            for (final Account child : snapshot.getChildren(a)) {
+                double balance = treeBalances.get(child)[0].doubleValue();
 
                 if (balance > 0 || balance < 0) {
                     final String label = child.getName() + " - " + numberFormat.format(balance);
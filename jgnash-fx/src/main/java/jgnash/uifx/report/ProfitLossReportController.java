@@ -19,6 +19,7 @@ package jgnash.uifx.report;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
 import java.util.function.Consumer;
 import java.util.prefs.Preferences;
 
@@ -35,6 +36,7 @@ import jgnash.resource.util.ResourceUtils;
 import jgnash.time.DateUtils;
 import jgnash.time.Period;
 import jgnash.uifx.Options;
+import jgnash.uifx.StaticUIMethods;
 import jgnash.uifx.control.DatePickerEx;
 import jgnash.uifx.report.pdf.ReportController;
 import jgnash.uifx.util.JavaFXUtils;
@@ -156,12 +158,22 @@ public class ProfitLossReportController implements ReportController {
         preferences.putBoolean(SHOW_FULL_ACCOUNT_PATH, showLongNamesCheckBox.isSelected());
         preferences.getBoolean(SHOW_PERCENTAGES, showAccountPercentages.isSelected());
 
-        addTable();
-
-        // send notification the report has been updated
-        if (refreshRunnable != null) {
-            refreshRunnable.run();
-        }
+        updateReportOptions();
+
+        // build the model in the background, a newer refresh cancels this one
+        report.createReportModelAsync(startDatePicker.getValue(), endDatePicker.getValue(),
+                hideZeroBalanceAccounts.isSelected()).whenCompleteAsync((model, throwable) -> {
+            if (model != null) {
+                addTable(model);
+
+                // send notification the report has been updated
+                if (refreshRunnable != null) {
+                    refreshRunnable.run();
+                }
+            } else if (!(throwable instanceof CancellationException)) {
+                StaticUIMethods.displayException(throwable);
+            }
+        }, JavaFXUtils::runLater);
     }
 
     private void resetDates() {
@@ -173,9 +185,7 @@ public class ProfitLossReportController implements ReportController {
         startDatePicker.setValue(DateUtils.getFirstDayOfTheMonth(LocalDate.now().minusMonths(months - 1)));
     }
 
-    private void addTable() {
-        AbstractReportTableModel model = createReportModel();
-
+    private void addTable(final AbstractReportTableModel model) {
         report.clearReport();
         report.setTitle(ResourceUtils.getString("Title.ProfitLoss"));
 
@@ -188,14 +198,18 @@ public class ProfitLossReportController implements ReportController {
         }
     }
 
-    @Override
-    public AbstractReportTableModel createReportModel() {
+    private void updateReportOptions() {
         report.setAddPercentileColumn(showAccountPercentages.isSelected());
 
         report.setSortOrder(sortOrderComboBox.getValue());
         report.setReportPeriod(resolutionComboBox.getValue());
 
         report.setShowFullAccountPath(showLongNamesCheckBox.isSelected());
+    }
+
+    @Override
+    public AbstractReportTableModel createReportModel() {
+        updateReportOptions();
 
         return report.createReportModel(startDatePicker.getValue(), endDatePicker.getValue(),
                 hideZeroBalanceAccounts.isSelected());
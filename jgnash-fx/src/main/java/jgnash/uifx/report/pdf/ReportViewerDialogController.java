@@ -17,6 +17,7 @@
  */
 package jgnash.uifx.report.pdf;
 
+import jgnash.report.pdf.PageRenderer;
 import jgnash.report.pdf.Report;
 import jgnash.report.poi.Workbook;
 import jgnash.report.table.AbstractReportTableModel;
@@ -32,7 +33,6 @@ import jgnash.uifx.views.main.MainView;
 import jgnash.util.DefaultDaemonThreadFactory;
 import jgnash.util.FileUtils;
 
-import java.awt.image.BufferedImage;
 import java.awt.print.PageFormat;
 
 import java.io.File;
@@ -61,6 +61,7 @@ import javafx.concurrent.Task;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -95,6 +96,25 @@ public class ReportViewerDialogController {
 
     private static final int UP_SCALING = 2;
 
+    /**
+     * Additional scaling applied when zoomed in beyond 100%.
+     */
+    private static final int HIGH_ZOOM_SCALING = 2;
+
+    /**
+     * Number of pages above and below the visible pages to render in advance.
+     */
+    private static final int PREFETCH_PAGES = 2;
+
+    private static final int RENDER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static final long MAX_CACHE_BYTES = 128L * 1024L * 1024L;
+
+    /**
+     * Node property key for the DPI an ImageView has requested.
+     */
+    private static final String REQUESTED_DPI = "requestedDpi";
+
     private static final float MIN_ZOOM = 0.5f;
 
     private static final float MAX_ZOOM = 10f;
@@ -186,6 +206,11 @@ public class ReportViewerDialogController {
 
     private ReportController reportController;
 
+    /**
+     * Renders pages of the current report, only accessed from the application thread.
+     */
+    private PageRenderer pageRenderer;
+
     /**
      * Used to limit report update rates.
      */
@@ -267,8 +292,13 @@ public class ReportViewerDialogController {
 
             scrollPane.setFitToWidth(pagePane.prefWidth(-1) < newValue.getWidth());
             scrollPane.setFitToHeight(pagePane.prefHeight(-1) < newValue.getHeight());
+
+            updateVisiblePages();
         });
 
+        // wait for layout to complete before looking for visible pages
+        zoomProperty.addListener((observable, oldValue, newValue) -> Platform.runLater(this::updateVisiblePages));
+
         scrollPane.vvalueProperty().addListener(
                 (ObservableValue<? extends Number> observable, Number oldValue, Number newValue) -> {
 
@@ -293,6 +323,8 @@ public class ReportViewerDialogController {
 
                         setPageIndex(newPageIndex); // decrease the page index to match the scroll position
                     }
+
+                    updateVisiblePages();
                 }
         );
 
@@ -312,6 +344,10 @@ public class ReportViewerDialogController {
         parent.addListener((observable, oldValue, newValue) -> {
             if (newValue != null) {
                 parent.get().getWindow().setOnCloseRequest(event -> {
+                    if (pageRenderer != null) {
+                        pageRenderer.close();
+                    }
+
                     try {
                         report.get().close();
                     } catch (IOException e) {
@@ -391,42 +427,23 @@ public class ReportViewerDialogController {
         reportExecutor.schedule(() -> {
             if (reportExecutor.getQueue().size() < 1) {   // ignore if we already have one waiting in the queue
 
-                final Task<Void> task = new Task<>() {
+                final Task<PageRenderer> task = new Task<>() {
                     @Override
-                    protected Void call() {
+                    protected PageRenderer call() throws IOException {
                         updateMessage(resources.getString("Message.CompilingReport"));
                         updateProgress(-1, Long.MAX_VALUE);
 
                         if (report.get() != null) {
-
-                            for (int i = 0; i < report.get().getPageCount(); i++) {
-
-                                // report resolution is fixed and the ImageView width and height are adjusted to the zoom value
-                                final BufferedImage bufferedImage = report.get().renderImage(i, REPORT_RESOLUTION * UP_SCALING);
-
-                                JavaFXUtils.runLater(() -> {
-
-                                    final ImageView imageView = new ImageView(SwingFXUtils.toFXImage(bufferedImage, null));
-
-                                    imageView.setEffect(dropShadow);
-
-                                    // bind the width and height to the zoom level
-                                    imageView.fitWidthProperty().bind(zoomProperty.multiply(bufferedImage.getWidth() / UP_SCALING));
-                                    imageView.fitHeightProperty().bind(zoomProperty.multiply(bufferedImage.getHeight() / UP_SCALING));
-
-                                    children.add(imageView);
-
-                                    pageCount.set(pageCount.get() + 1);
-                                });
-                            }
+                            return new PageRenderer(report.get(), RENDER_THREADS, MAX_CACHE_BYTES);
                         }
 
-                        JavaFXUtils.runLater(() -> setPageIndex(0));
-
                         return null;
                     }
                 };
 
+                task.setOnSucceeded(event -> setPageRenderer(task.getValue()));
+                task.setOnFailed(event -> StaticUIMethods.displayException(task.getException()));
+
                 Platform.runLater(() -> {
                     busyPane.setTask(task);
                     new Thread(task).start();
@@ -436,6 +453,140 @@ public class ReportViewerDialogController {
         }, UPDATE_PERIOD, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Installs a new page renderer and creates a sized placeholder for every page.  Page images are rendered as the
+     * pages become visible.
+     *
+     * @param renderer new page renderer
+     */
+    private void setPageRenderer(final PageRenderer renderer) {
+        if (pageRenderer != null) {
+            pageRenderer.close();
+        }
+
+        pageRenderer = renderer;
+
+        final List<Node> children = pagePane.getChildren();
+        children.clear();
+
+        if (renderer == null) {
+            pageCount.set(0);
+            return;
+        }
+
+        final PageFormat pageFormat = report.get().getPageFormat();
+
+        for (int i = 0; i < report.get().getPageCount(); i++) {
+            final ImageView imageView = new ImageView();
+
+            // bind the width and height to the zoom level
+            imageView.fitWidthProperty().bind(zoomProperty.multiply(pageFormat.getWidth()));
+            imageView.fitHeightProperty().bind(zoomProperty.multiply(pageFormat.getHeight()));
+
+            final StackPane page = new StackPane(imageView);
+
+            page.setStyle("-fx-background-color: white;");
+            page.setEffect(dropShadow);
+            page.minWidthProperty().bind(imageView.fitWidthProperty());
+            page.maxWidthProperty().bind(imageView.fitWidthProperty());
+            page.minHeightProperty().bind(imageView.fitHeightProperty());
+            page.maxHeightProperty().bind(imageView.fitHeightProperty());
+
+            children.add(page);
+        }
+
+        pageCount.set(children.size());
+        setPageIndex(0);
+
+        // wait for layout to complete before looking for visible pages
+        Platform.runLater(this::updateVisiblePages);
+    }
+
+    /**
+     * Returns the resolution to render at for the current zoom level.
+     *
+     * @return DPI
+     */
+    private int getRenderDpi() {
+        if (zoomProperty.get() > 1) {
+            return REPORT_RESOLUTION * UP_SCALING * HIGH_ZOOM_SCALING;
+        }
+
+        return REPORT_RESOLUTION * UP_SCALING;
+    }
+
+    /**
+     * Requests images for the visible pages and their neighbors and releases the images of pages far from view.
+     * Rendered pages remain in the page renderer cache.
+     */
+    private void updateVisiblePages() {
+        final List<Node> children = pagePane.getChildren();
+
+        if (pageRenderer == null || children.isEmpty()) {
+            return;
+        }
+
+        final Bounds viewportBounds = scrollPane.getViewportBounds();
+        final double contentsHeight = pagePane.getBoundsInLocal().getHeight();
+        final double top = scrollPane.getVvalue() * Math.max(0, contentsHeight - viewportBounds.getHeight());
+        final double bottom = top + viewportBounds.getHeight();
+
+        int first = -1;
+        int last = -1;
+
+        for (int i = 0; i < children.size(); i++) {
+            final Bounds bounds = children.get(i).getBoundsInParent();
+
+            if (bounds.getMaxY() >= top && bounds.getMinY() <= bottom) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+
+        if (first < 0) {
+            first = last = pageIndex.get();
+        }
+
+        pageRenderer.setFocusPage(first);
+
+        final int dpi = getRenderDpi();
+
+        for (int i = 0; i < children.size(); i++) {
+            final ImageView imageView = (ImageView) ((StackPane) children.get(i)).getChildren().get(0);
+
+            if (i >= first - PREFETCH_PAGES && i <= last + PREFETCH_PAGES) {
+                requestPage(i, imageView, dpi);
+            } else if (imageView.getImage() != null) {
+                imageView.setImage(null);
+                imageView.getProperties().remove(REQUESTED_DPI);
+            }
+        }
+    }
+
+    private void requestPage(final int index, final ImageView imageView, final int dpi) {
+        if (Integer.valueOf(dpi).equals(imageView.getProperties().get(REQUESTED_DPI))) {
+            return; // already showing or waiting for the correct image
+        }
+
+        imageView.getProperties().put(REQUESTED_DPI, dpi);
+
+        final PageRenderer renderer = pageRenderer;
+
+        renderer.renderImage(index, dpi).whenComplete((bufferedImage, throwable) -> JavaFXUtils.runLater(() -> {
+
+            // discard if the report or zoom level changed while rendering
+            if (renderer == pageRenderer && Integer.valueOf(dpi).equals(imageView.getProperties().get(REQUESTED_DPI))) {
+                if (bufferedImage != null) {
+                    imageView.setImage(SwingFXUtils.toFXImage(bufferedImage, null));
+                } else {
+                    imageView.getProperties().remove(REQUESTED_DPI);
+                }
+            }
+        }));
+    }
+
     private void updateStatus(final String status) {
         Platform.runLater(() -> statusLabel.setText(status));
     }
@@ -489,8 +640,8 @@ public class ReportViewerDialogController {
     private void setPage(final int index) {
         double contentsHeight = pagePane.getBoundsInLocal().getHeight();
         double viewportHeight = scrollPane.getViewportBounds().getHeight();
-        ImageView iv = (ImageView) pagePane.getChildren().get(index);
-        scrollPane.setVvalue(iv.getBoundsInParent().getMinY() / (contentsHeight - viewportHeight));
+        Node page = pagePane.getChildren().get(index);
+        scrollPane.setVvalue(page.getBoundsInParent().getMinY() / (contentsHeight - viewportHeight));
         setPageIndex(index);
     }
 
@@ -0,0 +1,217 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.uifx.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.text.Text;
+
+import jgnash.util.NotNull;
+import jgnash.util.Nullable;
+
+import static jgnash.util.LogUtil.logSevere;
+
+/**
+ * Caches the advance width of individual characters for a text style so that strings may be measured
+ * arithmetically from any thread.
+ * <p>
+ * Character widths are measured on the JavaFX Application Thread the first time they are seen.  All unknown
+ * characters of a string are measured with a single handoff, and the Latin range is measured when the cache is
+ * created.  Kerning is ignored, so measured widths may be slightly wider than the rendered text.
+ * <p>
+ * Widths are not adjusted for the font scale; callers are expected to apply the current scale.
+ *
+ * @author Craig Cavanaugh
+ */
+final class GlyphWidthCache {
+
+    /**
+     * Characters below this value are stored in an array, the remainder in a map
+     */
+    private static final int DIRECT_RANGE = 0x0250;
+
+    private static final Map<String, GlyphWidthCache> caches = new ConcurrentHashMap<>();
+
+    private final String style;
+
+    /**
+     * Advance widths for the direct range, {@code NaN} if not measured yet
+     */
+    private final double[] advances = new double[DIRECT_RANGE];
+
+    private final Map<Integer, Double> extendedAdvances = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean initialized = new AtomicBoolean();
+
+    private GlyphWidthCache(@Nullable final String style) {
+        this.style = style;
+
+        Arrays.fill(advances, Double.NaN);
+    }
+
+    /**
+     * Returns the glyph cache for a text style.
+     *
+     * @param style text style, may be null
+     * @return the shared cache for the style
+     */
+    static GlyphWidthCache getInstance(@Nullable final String style) {
+        final GlyphWidthCache cache = caches.computeIfAbsent(style != null ? style : "", GlyphWidthCache::new);
+
+        // measure outside of computeIfAbsent to avoid holding the map lock while waiting on the platform thread
+        if (cache.initialized.compareAndSet(false, true)) {
+            cache.measureDirectRange();
+        }
+
+        return cache;
+    }
+
+    private void measureDirectRange() {
+        final StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < DIRECT_RANGE; i++) {
+            if (Character.isDefined(i) && !Character.isISOControl(i)) {
+                builder.append((char) i);
+            } else {
+                advances[i] = 0;    // control characters are not displayed
+            }
+        }
+
+        measure(builder.toString());
+    }
+
+    /**
+     * Returns the unscaled width of a string.  The JavaFX Application Thread is only used if the string
+     * contains characters that have not been seen before.
+     *
+     * @param displayString displayed text
+     * @return width of the displayed string
+     */
+    double getTextWidth(@NotNull final String displayString) {
+        StringBuilder unknown = null;
+
+        for (int i = 0; i < displayString.length(); ) {
+            final int codePoint = displayString.codePointAt(i);
+
+            if (Double.isNaN(getAdvance(codePoint))) {
+                if (unknown == null) {
+                    unknown = new StringBuilder();
+                }
+                unknown.appendCodePoint(codePoint);
+            }
+
+            i += Character.charCount(codePoint);
+        }
+
+        if (unknown != null) {
+            measure(unknown.toString());
+        }
+
+        double width = 0;
+
+        for (int i = 0; i < displayString.length(); ) {
+            final int codePoint = displayString.codePointAt(i);
+            final double advance = getAdvance(codePoint);
+
+            if (!Double.isNaN(advance)) {   // a failed measurement is treated as zero width
+                width += advance;
+            }
+
+            i += Character.charCount(codePoint);
+        }
+
+        return Math.ceil(width);
+    }
+
+    private double getAdvance(final int codePoint) {
+        if (codePoint < DIRECT_RANGE) {
+            return advances[codePoint];
+        }
+
+        return extendedAdvances.getOrDefault(codePoint, Double.NaN);
+    }
+
+    /**
+     * Measures each code point of the supplied string on the JavaFX Application Thread and blocks until complete.
+     *
+     * @param codePoints characters to measure
+     */
+    private void measure(final String codePoints) {
+        if (codePoints.isEmpty()) {
+            return;
+        }
+
+        final FutureTask<double[]> futureTask = new FutureTask<>(() -> measureOnPlatform(codePoints));
+
+        if (Platform.isFxApplicationThread()) {
+            futureTask.run();
+        } else {
+            Platform.runLater(futureTask);
+        }
+
+        try {
+            final double[] widths = futureTask.get();
+
+            for (int i = 0, j = 0; i < codePoints.length(); j++) {
+                final int codePoint = codePoints.codePointAt(i);
+
+                if (codePoint < DIRECT_RANGE) {
+                    advances[codePoint] = widths[j];
+                } else {
+                    extendedAdvances.put(codePoint, widths[j]);
+                }
+
+                i += Character.charCount(codePoint);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            logSevere(GlyphWidthCache.class, e);
+        }
+    }
+
+    private double[] measureOnPlatform(final String codePoints) {
+        final double[] widths = new double[codePoints.codePointCount(0, codePoints.length())];
+
+        final Text text = new Text();
+
+        new Scene(new Group(text)); // text must be placed into a Scene for bounds to be calculated correctly.
+
+        text.setStyle(style);
+        text.applyCss();
+
+        for (int i = 0, j = 0; i < codePoints.length(); j++) {
+            final int codePoint = codePoints.codePointAt(i);
+
+            text.setText(new String(Character.toChars(codePoint)));
+            widths[j] = text.getLayoutBounds().getWidth();
+
+            i += Character.charCount(codePoint);
+        }
+
+        return widths;
+    }
+}
@@ -19,12 +19,16 @@ package jgnash.uifx.util;
 
 import java.text.Format;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
-import java.util.OptionalDouble;
-import java.util.Set;
+import java.util.Queue;
+import java.util.TreeMap;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -39,11 +43,13 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableColumnBase;
 import javafx.scene.control.TableView;
 import javafx.util.Callback;
 
+import jgnash.uifx.skin.ThemeManager;
 import jgnash.util.EncodeDecode;
 import jgnash.util.NotNull;
 
@@ -122,6 +128,15 @@ public class TableViewManager<S> {
      */
     private final AtomicLong packCounter = new AtomicLong();
 
+    /**
+     * Measured content widths of fixed width columns, updated incrementally as rows are added and removed.  Columns
+     * with values that change without a list event must be invalidated by the owner of the table.  Only the pack
+     * executor measures content; the application thread just queues row changes.
+     */
+    private final Map<TableColumnBase<S, ?>, ColumnContentWidth> contentWidths = new ConcurrentHashMap<>();
+
+    private final ListChangeListener<S> itemsChangeListener = this::onItemsChanged;
+
     public TableViewManager(@NotNull final TableView<S> tableView, @NotNull final String preferencesUserRoot) {
         this.tableView = tableView;
         this.preferencesUserRoot = preferencesUserRoot;
@@ -147,6 +162,21 @@ public class TableViewManager<S> {
                 TimeUnit.DAYS, new ArrayBlockingQueue<>(1));
         saveColumnWidthExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardOldestPolicy());
 
+        // track row changes and start over if the item list is replaced
+        tableView.getItems().addListener(itemsChangeListener);
+
+        tableView.itemsProperty().addListener((observable, oldValue, newValue) -> {
+            if (oldValue != null) {
+                oldValue.removeListener(itemsChangeListener);
+            }
+
+            if (newValue != null) {
+                newValue.addListener(itemsChangeListener);
+            }
+
+            clearContentWidths();
+        });
+
         // repack and reset column properties if the user changes settings
         manualPacking.addListener((observable, oldValue, newValue) -> {
             if (packCounter.get() > 0) {
@@ -187,35 +217,87 @@ public class TableViewManager<S> {
      * @return preferred width
      */
     private double getCalculatedColumnWidth(final TableColumnBase<S, ?> column) {
-        double maxWidth = 0;
+        final double fontScale = ThemeManager.fontScaleProperty().doubleValue();
+
+        double maxWidth = getContentWidth(column).getMaxWidth() * fontScale;
 
-        /* Collect all the unique cell items and remove null*/
-        final Set<Object> cellItems = new HashSet<>();
+        //noinspection SuspiciousMethodCalls
+        maxWidth = Math.max(maxWidth, Math.max(column.getMinWidth(), minimumColumnWidthFactory
+                .get().call(tableView.getColumns().indexOf(column))));
+
+        // header text width
+        maxWidth = Math.max(maxWidth, GlyphWidthCache.getInstance(column.getStyle()).getTextWidth(column.getText())
+                * fontScale * BOLD_MULTIPLIER);
+
+        return Math.ceil(maxWidth + COLUMN_PADDING);
+    }
+
+    /**
+     * Returns the content width tracker for a column, building it from the current table items if needed.
+     *
+     * @param column {@code TableColumn} to measure content
+     * @return content width tracker with all pending row changes applied
+     */
+    private ColumnContentWidth getContentWidth(final TableColumnBase<S, ?> column) {
+        ColumnContentWidth contentWidth = contentWidths.get(column);
 
-        for (int i = 0; i < tableView.getItems().size(); i++) {
-            cellItems.add(column.getCellData(i));
+        // a style change invalidates the measured widths
+        if (contentWidth == null || !Objects.equals(contentWidth.style, column.getStyle())) {
+            contentWidth = new ColumnContentWidth(column);
+
+            /* register before the scan so rows added during the scan are not missed.  A row that is added again
+             * replaces the text it was counted with */
+            contentWidths.put(column, contentWidth);
+
+            for (final S item : new ArrayList<>(tableView.getItems())) {
+                contentWidth.add(item);
+            }
         }
-        cellItems.remove(null);
 
-        if (cellItems.size() > 0) { // don't try if there is no data or the stream function will throw an error
+        contentWidth.applyPendingChanges();
 
-            final OptionalDouble max = cellItems.parallelStream().filter(Objects::nonNull).mapToDouble(o -> {
-                final Format format = columnFormatFactory.get().call(column);   // thread local format per thread
-                return JavaFXUtils.getDisplayedTextWidth(format != null ? format.format(o) : o.toString(), column.getStyle());
-            }).max();
+        return contentWidth;
+    }
+
+    /**
+     * Discards the measured content of a column so it is measured again on the next pack.  This must be called when
+     * the values of a column change without a list event, such as a running balance after a recalculation.
+     *
+     * @param column {@code TableColumn} with changed content
+     */
+    public void invalidateColumnContent(final TableColumnBase<S, ?> column) {
+        contentWidths.remove(column);
+    }
 
-            maxWidth = max.isPresent() ? max.getAsDouble() : 0;
+    /**
+     * Records added and removed rows so column content widths can be updated incrementally.  Measurement is
+     * deferred until the next pack so the application thread is not delayed.
+     *
+     * @param change list change
+     */
+    private void onItemsChanged(final ListChangeListener.Change<? extends S> change) {
+        if (contentWidths.isEmpty()) {
+            return;
         }
 
-        //noinspection SuspiciousMethodCalls
-        maxWidth = Math.max(maxWidth, Math.max(column.getMinWidth(), minimumColumnWidthFactory
-                .get().call(tableView.getColumns().indexOf(column))));
+        while (change.next()) {
+            for (final ColumnContentWidth contentWidth : contentWidths.values()) {
+                for (final S item : change.getRemoved()) {
+                    contentWidth.pendingChanges.add(new PendingChange<>(item, false));
+                }
 
-        // header text width
-        maxWidth = Math.max(maxWidth,
-                JavaFXUtils.getDisplayedTextWidth(column.getText(), column.getStyle()) * BOLD_MULTIPLIER);
+                for (final S item : change.getAddedSubList()) {
+                    contentWidth.pendingChanges.add(new PendingChange<>(item, true));
+                }
+            }
+        }
+    }
 
-        return Math.ceil(maxWidth + COLUMN_PADDING);
+    /**
+     * Discards all measured column content so it will be rebuilt on the next pack.
+     */
+    private void clearContentWidths() {
+        contentWidths.clear();
     }
 
     private void saveColumnWidths() {
@@ -481,6 +563,7 @@ public class TableViewManager<S> {
      */
     public void setColumnFormatFactory(final Callback<TableColumnBase<S, ?>, Format> cellFormat) {
         this.columnFormatFactory.set(cellFormat);
+        clearContentWidths();
     }
 
     public void setColumnWeightFactory(final Callback<Integer, Double> weightFactory) {
@@ -530,4 +613,112 @@ public class TableViewManager<S> {
             });
         }
     }
+
+    private static final class PendingChange<T> {
+        final T item;
+
+        final boolean added;
+
+        PendingChange(final T item, final boolean added) {
+            this.item = item;
+            this.added = added;
+        }
+    }
+
+    /**
+     * Tracks the displayed text widths of a column.  Each distinct display string is measured once and reference
+     * counted so the maximum width can be maintained as rows are added and removed.  The text counted for each row is
+     * remembered, so a row is always removed with the text it was added with.
+     */
+    private final class ColumnContentWidth {
+
+        private final TableColumnBase<S, ?> column;
+
+        private final String style;
+
+        private final GlyphWidthCache glyphWidthCache;
+
+        private final Format format;
+
+        private final Queue<PendingChange<S>> pendingChanges = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Display string counted for each row
+         */
+        private final Map<S, String> itemTexts = new HashMap<>();
+
+        /**
+         * Occurrence count of each display string
+         */
+        private final Map<String, Integer> textCounts = new HashMap<>();
+
+        /**
+         * Occurrence count of each measured width, sorted for quick retrieval of the maximum
+         */
+        private final NavigableMap<Double, Integer> widthCounts = new TreeMap<>();
+
+        ColumnContentWidth(final TableColumnBase<S, ?> column) {
+            this.column = column;
+            this.style = column.getStyle();
+            this.glyphWidthCache = GlyphWidthCache.getInstance(style);
+            this.format = columnFormatFactory.get().call(column);
+        }
+
+        double getMaxWidth() {
+            return widthCounts.isEmpty() ? 0 : widthCounts.lastKey();
+        }
+
+        void applyPendingChanges() {
+            PendingChange<S> change;
+
+            while ((change = pendingChanges.poll()) != null) {
+                if (change.added) {
+                    add(change.item);
+                } else {
+                    remove(change.item);
+                }
+            }
+        }
+
+        void add(final S item) {
+            add(item, getDisplayString(item));
+        }
+
+        void remove(final S item) {
+            if (itemTexts.containsKey(item)) {
+                removeText(itemTexts.remove(item));
+            }
+        }
+
+        private void add(final S item, final String text) {
+            final boolean tracked = itemTexts.containsKey(item);
+            final String previous = itemTexts.put(item, text);
+
+            if (tracked) {
+                removeText(previous);
+            }
+
+            if (text != null && textCounts.merge(text, 1, Integer::sum) == 1) {
+                widthCounts.merge(glyphWidthCache.getTextWidth(text), 1, Integer::sum);
+            }
+        }
+
+        private void removeText(final String text) {
+            if (text != null && textCounts.containsKey(text)
+                    && textCounts.merge(text, -1, (count, delta) -> count + delta == 0 ? null : count + delta) == null) {
+                widthCounts.merge(glyphWidthCache.getTextWidth(text), -1,
+                        (count, delta) -> count + delta == 0 ? null : count + delta);
+            }
+        }
+
+        private String getDisplayString(final S item) {
+            final Object value = column.getCellData(item);
+
+            if (value == null) {
+                return null;
+            }
+
+            return format != null ? format.format(value) : value.toString();
+        }
+    }
 }
@@ -76,6 +76,8 @@ abstract class AbstractTransactionEntryDialog extends Stage {
 
     private TableViewManager<TransactionEntry> tableViewManager;
 
+    private TableColumn<TransactionEntry, BigDecimal> balanceColumn;
+
     private final ObservableList<TransactionEntry> transactionEntries = FXCollections.observableArrayList();
 
     private final SortedList<TransactionEntry> sortedList = new SortedList<>(transactionEntries);
@@ -118,8 +120,9 @@ abstract class AbstractTransactionEntryDialog extends Stage {
             // If the list changes, clear the selection
             tableView.getSelectionModel().clearSelection();
 
-            // Repack when the list contents change and this dialog is showing
+            // Repack when the list contents change and this dialog is showing, running totals have changed
             if (isShowing()) {
+                tableViewManager.invalidateColumnContent(balanceColumn);
                 tableViewManager.packTable();
             }
 
@@ -201,7 +204,7 @@ abstract class AbstractTransactionEntryDialog extends Stage {
                 getAmount(accountProperty().getValue())));
         decreaseColumn.setCellFactory(cellFactory);
 
-        final TableColumn<TransactionEntry, BigDecimal> balanceColumn = new TableColumn<>(columnNames[5]);
+        balanceColumn = new TableColumn<>(columnNames[5]);
         balanceColumn.setCellValueFactory(param -> new SimpleObjectProperty<>(getBalanceAt(param.getValue())));
         balanceColumn.setCellFactory(cell -> new TransactionEntryCommodityFormatTableCell(NumericFormats.
                 getFullCommodityFormat(account.get().getCurrencyNode())));
@@ -127,7 +127,7 @@ public class BasicRegisterTableController extends RegisterTableController {
         decreaseColumn.setCellFactory(shortDecimalCellFactory);
         tableView.getColumns().add(decreaseColumn);
 
-        final TableColumn<Transaction, BigDecimal> balanceColumn = new TableColumn<>(columnNames[9]);
+        balanceColumn = new TableColumn<>(columnNames[9]);
         balanceColumn.setCellValueFactory(param -> {
             final AccountType accountType = accountProperty().getValue().getAccountType();
 
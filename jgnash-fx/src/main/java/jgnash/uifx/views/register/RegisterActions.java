@@ -190,6 +190,9 @@ public final class RegisterActions {
 
             pref.put(EXPORT_DIR, exportFile.getParentFile().getAbsolutePath());
 
+            final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+            Objects.requireNonNull(engine);
+
             final Task<Void> exportTask = new Task<>() {
                 @Override
                 protected Void call() {
@@ -205,7 +208,7 @@ public final class RegisterActions {
 
                         Workbook.export(reportTableModel, exportFile);
                     } else {
-                        CsvExport.exportAccount(account, startDate, endDate, exportFile);
+                        CsvExport.exportAccount(engine.snapshot(), account, startDate, endDate, exportFile);
                     }
                     return null;
                 }
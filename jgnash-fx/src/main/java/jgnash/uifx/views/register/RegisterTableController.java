@@ -56,6 +56,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
@@ -168,6 +169,11 @@ abstract class RegisterTableController {
 
     TableViewManager<Transaction> tableViewManager;
 
+    /**
+     * Running balance column, {@code null} if the register does not display a running balance
+     */
+    TableColumn<Transaction, BigDecimal> balanceColumn;
+
     // Used for formatting of the selection summary tooltip
     private NumberFormat numberFormat = NumberFormat.getNumberInstance();
 
@@ -248,7 +254,10 @@ abstract class RegisterTableController {
 
         selectionSize.addListener(new WeakChangeListener<>(selectionSizeListener));
 
-        accountBalanceDisplayModeChangeListener = (observable, oldValue, newValue) -> tableView.refresh();
+        accountBalanceDisplayModeChangeListener = (observable, oldValue, newValue) -> {
+            invalidateBalanceColumn();
+            tableView.refresh();
+        };
 
         // For the table view to refresh itself if the mode changes
         AccountBalanceDisplayManager.accountBalanceDisplayMode()
@@ -330,6 +339,16 @@ abstract class RegisterTableController {
         Platform.runLater(this::loadTable);
     }
 
+    /**
+     * Running balances change without a list event, so the measured width of the balance column is discarded
+     * whenever the balances are recalculated.
+     */
+    private void invalidateBalanceColumn() {
+        if (balanceColumn != null) {
+            tableViewManager.invalidateColumnContent(balanceColumn);
+        }
+    }
+
     abstract Callback<Integer, Double> getColumnWeightFactory();
 
     abstract Callback<Integer, Boolean> getColumnVisibilityFactory();
@@ -659,6 +678,7 @@ abstract class RegisterTableController {
 
         private void refreshTable() {
             updateTableExecutor.execute(() -> {
+                invalidateBalanceColumn();
                 tableView.refresh();
                 tableViewManager.packTable();
             });
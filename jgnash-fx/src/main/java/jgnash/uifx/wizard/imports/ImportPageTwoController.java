@@ -23,7 +23,6 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.ResourceBundle;
 
 import javafx.application.Platform;
@@ -56,9 +55,6 @@ import jgnash.convert.importat.ImportUtils;
 import jgnash.engine.Account;
 import jgnash.engine.AccountType;
 import jgnash.engine.CurrencyNode;
-import jgnash.engine.Engine;
-import jgnash.engine.EngineFactory;
-import jgnash.engine.Transaction;
 import jgnash.engine.TransactionType;
 import jgnash.uifx.resource.font.FontAwesomeLabel;
 import jgnash.uifx.Options;
@@ -367,13 +363,7 @@ public class ImportPageTwoController extends AbstractWizardPaneController<Import
 
             // classify the transactions
             if (Options.globalBayesProperty().get()) {
-                final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
-                Objects.requireNonNull(engine);
-
-                final List<Transaction> transactions = engine.getTransactions();
-                transactions.sort(null);
-
-                BayesImportClassifier.classifyTransactions(list, transactions, baseAccount);
+                BayesImportClassifier.classifyTransactions(list, baseAccount);
             } else {
                 BayesImportClassifier.classifyTransactions(list, baseAccount.getSortedTransactionList(), baseAccount);
             }
@@ -0,0 +1,321 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.report.pdf;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jgnash.util.DefaultDaemonThreadFactory;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+/**
+ * Renders the pages of a completed {@code Report} to images using a small pool of worker threads.
+ * <p>
+ * {@code PDDocument} is not thread safe, so each worker renders from a private copy of the document and reuses a
+ * single {@code PDFRenderer} for all of its pages.  Pending requests closest to the focus page are rendered first and
+ * rendered images are held in a size bounded LRU cache keyed by page and DPI.
+ * <p>
+ * A {@code PageRenderer} is a snapshot of the report at the time of creation and must be replaced if the report
+ * changes.
+ *
+ * @author Craig Cavanaugh
+ */
+public class PageRenderer implements AutoCloseable {
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final byte[] document;
+
+    private final int threads;
+
+    private final long maxCacheBytes;
+
+    private final ExecutorService executorService;
+
+    /**
+     * Rendered images in access order.
+     */
+    private final LinkedHashMap<Long, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cacheBytes;
+
+    /**
+     * Requests waiting for a worker.
+     */
+    private final Map<Long, CompletableFuture<BufferedImage>> pending = new LinkedHashMap<>();
+
+    /**
+     * Requests waiting for a worker or being rendered, used to merge duplicate requests.
+     */
+    private final Map<Long, CompletableFuture<BufferedImage>> inFlight = new HashMap<>();
+
+    private final ThreadLocal<PDFRenderer> renderer = new ThreadLocal<>();
+
+    private final List<PDDocument> openDocuments = new ArrayList<>();
+
+    private int activeWorkers;
+
+    private int focusPage;
+
+    private boolean closed;
+
+    /**
+     * Creates a renderer for the current state of a report.
+     *
+     * @param report        report to render
+     * @param threads       maximum number of pages to render concurrently
+     * @param maxCacheBytes upper limit for the memory used by cached images
+     * @throws IOException if the report could not be copied
+     */
+    public PageRenderer(final Report report, final int threads, final long maxCacheBytes) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        report.pdfDocument.save(outputStream);
+
+        this.document = outputStream.toByteArray();
+        this.threads = Math.max(1, threads);
+        this.maxCacheBytes = maxCacheBytes;
+
+        executorService = Executors.newFixedThreadPool(this.threads, new DefaultDaemonThreadFactory("Report Page Renderer"));
+    }
+
+    private static long key(final int pageIndex, final int dpi) {
+        return ((long) pageIndex << 32) | dpi;
+    }
+
+    /**
+     * Sets the page the user is looking at.  Pending requests are rendered in order of distance from this page.
+     *
+     * @param pageIndex focus page
+     */
+    public synchronized void setFocusPage(final int pageIndex) {
+        focusPage = pageIndex;
+    }
+
+    /**
+     * Returns a cached image without rendering.
+     *
+     * @param pageIndex page index
+     * @param dpi       DPI for the image
+     * @return the image or {@code null} if it has not been rendered or was evicted
+     */
+    public synchronized BufferedImage getCachedImage(final int pageIndex, final int dpi) {
+        return cache.get(key(pageIndex, dpi));
+    }
+
+    /**
+     * Requests a page image.  The returned future completes immediately if the image is cached.
+     *
+     * @param pageIndex page index
+     * @param dpi       DPI for the image
+     * @return future for the image
+     */
+    public synchronized CompletableFuture<BufferedImage> renderImage(final int pageIndex, final int dpi) {
+        final long key = key(pageIndex, dpi);
+
+        final BufferedImage image = cache.get(key);
+
+        if (image != null) {
+            return CompletableFuture.completedFuture(image);
+        }
+
+        CompletableFuture<BufferedImage> future = inFlight.get(key);
+
+        if (future == null) {
+            future = new CompletableFuture<>();
+
+            if (closed) {
+                future.cancel(false);
+                return future;
+            }
+
+            inFlight.put(key, future);
+            pending.put(key, future);
+
+            if (activeWorkers < threads) {
+                activeWorkers++;
+                executorService.execute(this::drain);
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Discards pending requests that have not started rendering.
+     */
+    public synchronized void cancelPending() {
+        for (final Map.Entry<Long, CompletableFuture<BufferedImage>> entry : pending.entrySet()) {
+            inFlight.remove(entry.getKey());
+            entry.getValue().cancel(false);
+        }
+
+        pending.clear();
+    }
+
+    /**
+     * Removes the pending request closest to the focus page.
+     *
+     * @return key of the request, or {@code null} if nothing is pending and the worker should exit
+     */
+    private synchronized Long nextRequest() {
+        Long best = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (final Long key : pending.keySet()) {
+            final int distance = Math.abs((int) (key >>> 32) - focusPage);
+
+            if (distance < bestDistance) {
+                best = key;
+                bestDistance = distance;
+            }
+        }
+
+        if (best == null) {
+            activeWorkers--;
+        } else {
+            pending.remove(best);
+        }
+
+        return best;
+    }
+
+    private void drain() {
+        Long key;
+
+        while ((key = nextRequest()) != null) {
+            final int pageIndex = (int) (key >>> 32);
+            final int dpi = (int) (key & 0xffffffffL);
+
+            BufferedImage image = null;
+            Exception exception = null;
+
+            try {
+                image = getRenderer().renderImageWithDPI(pageIndex, dpi, ImageType.RGB);
+            } catch (final IOException | RuntimeException e) {
+                exception = e;
+            }
+
+            final CompletableFuture<BufferedImage> future;
+
+            synchronized (this) {
+                future = inFlight.remove(key);
+
+                if (image != null && !closed) {
+                    addToCache(key, image);
+                }
+            }
+
+            if (future != null) {
+                if (image != null) {
+                    future.complete(image);
+                } else {
+                    Logger.getLogger(PageRenderer.class.getName()).log(Level.WARNING, exception.getLocalizedMessage(), exception);
+                    future.completeExceptionally(exception);
+                }
+            }
+        }
+    }
+
+    private void addToCache(final long key, final BufferedImage image) {
+        cache.put(key, image);
+        cacheBytes += (long) image.getWidth() * image.getHeight() * BYTES_PER_PIXEL;
+
+        final Iterator<BufferedImage> iterator = cache.values().iterator();
+
+        // evict least recently used, but always keep the newest image
+        while (cacheBytes > maxCacheBytes && cache.size() > 1) {
+            final BufferedImage eldest = iterator.next();
+            cacheBytes -= (long) eldest.getWidth() * eldest.getHeight() * BYTES_PER_PIXEL;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns the renderer for the calling worker thread, loading a private copy of the document if needed.
+     */
+    private PDFRenderer getRenderer() throws IOException {
+        PDFRenderer pdfRenderer = renderer.get();
+
+        if (pdfRenderer == null) {
+            final PDDocument pdDocument = PDDocument.load(document, "", null, null, MemoryUsageSetting.setupMainMemoryOnly());
+
+            synchronized (this) {
+                if (closed) {
+                    pdDocument.close();
+                    throw new IOException("Renderer was closed");
+                }
+
+                openDocuments.add(pdDocument);
+            }
+
+            pdfRenderer = new PDFRenderer(pdDocument);
+            renderer.set(pdfRenderer);
+        }
+
+        return pdfRenderer;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            cancelPending();
+            cache.clear();
+            cacheBytes = 0;
+        }
+
+        executorService.shutdown();
+
+        // close the document copies once active renders have completed
+        CompletableFuture.runAsync(() -> {
+            try {
+                executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            synchronized (this) {
+                for (final PDDocument pdDocument : openDocuments) {
+                    try {
+                        pdDocument.close();
+                    } catch (final IOException e) {
+                        Logger.getLogger(PageRenderer.class.getName()).log(Level.WARNING, e.getLocalizedMessage(), e);
+                    }
+                }
+                openDocuments.clear();
+            }
+        });
+    }
+}
@@ -40,6 +40,7 @@ import jgnash.engine.MathConstants;
 import jgnash.report.table.AbstractReportTableModel;
 import jgnash.report.table.ColumnStyle;
 import jgnash.report.table.GroupInfo;
+import jgnash.report.table.ReportTableSnapshot;
 import jgnash.report.ui.ReportPrintFactory;
 import jgnash.resource.util.ResourceUtils;
 import jgnash.text.NumericFormats;
@@ -109,6 +110,11 @@ public abstract class Report implements AutoCloseable {
 
     final PDDocument pdfDocument;
 
+    /**
+     * Renderer is reused because it reads the pages of the document as they are rendered.
+     */
+    private PDFRenderer pdfRenderer;
+
     private PageFormat pageFormat;
 
     private boolean forceGroupPagination = false;
@@ -263,7 +269,10 @@ public abstract class Report implements AutoCloseable {
         return ResourceUtils.getString("Word.Subtotal");
     }
 
-    public void addTable(final AbstractReportTableModel reportModel) throws IOException {
+    public void addTable(final AbstractReportTableModel model) throws IOException {
+
+        // evaluate the model once, the table is queried repeatedly while laying out pages
+        final AbstractReportTableModel reportModel = ReportTableSnapshot.of(model);
 
         final String title = reportModel.getTitle();
         final String subTitle = reportModel.getSubTitle();
@@ -903,7 +912,9 @@ public abstract class Report implements AutoCloseable {
      * @return the image
      */
     public BufferedImage renderImage(final int pageIndex, final int dpi) {
-        final PDFRenderer pdfRenderer = new PDFRenderer(pdfDocument);
+        if (pdfRenderer == null) {
+            pdfRenderer = new PDFRenderer(pdfDocument);
+        }
 
         try {
             return pdfRenderer.renderImageWithDPI(pageIndex, dpi, ImageType.RGB);
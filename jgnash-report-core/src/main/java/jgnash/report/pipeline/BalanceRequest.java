@@ -0,0 +1,148 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.report.pipeline;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import jgnash.engine.Account;
+import jgnash.engine.CurrencyNode;
+import jgnash.util.NotNull;
+import jgnash.util.Nullable;
+
+/**
+ * Immutable description of the account balances needed by a report.  Requests with equal report types, accounts,
+ * dates and currency produce the same balances and share memoized results.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class BalanceRequest {
+
+    private final String reportType;
+
+    private final List<Account> accounts;
+
+    /**
+     * Period start dates, {@code null} for running balances.
+     */
+    private final LocalDate[] startDates;
+
+    private final LocalDate[] endDates;
+
+    private final CurrencyNode currency;
+
+    private final int hash;
+
+    private BalanceRequest(final String reportType, final Collection<Account> accounts,
+                           @Nullable final LocalDate[] startDates, final LocalDate[] endDates,
+                           final CurrencyNode currency) {
+        this.reportType = Objects.requireNonNull(reportType);
+        this.accounts = Collections.unmodifiableList(new ArrayList<>(accounts));
+        this.startDates = startDates != null ? startDates.clone() : null;
+        this.endDates = endDates.clone();
+        this.currency = Objects.requireNonNull(currency);
+
+        hash = Objects.hash(reportType, this.accounts, Arrays.hashCode(this.startDates),
+                Arrays.hashCode(this.endDates), currency);
+    }
+
+    /**
+     * Creates a request for the balances of each account up to and inclusive of each date.
+     *
+     * @param reportType report identifier
+     * @param accounts   accounts to compute
+     * @param dates      inclusive end dates in ascending order
+     * @param currency   currency to convert balances to
+     * @return new request
+     */
+    public static BalanceRequest runningBalances(@NotNull final String reportType,
+                                                 @NotNull final Collection<Account> accounts,
+                                                 @NotNull final LocalDate[] dates,
+                                                 @NotNull final CurrencyNode currency) {
+        return new BalanceRequest(reportType, accounts, null, dates, currency);
+    }
+
+    /**
+     * Creates a request for the balances of each account between each pair of dates.
+     *
+     * @param reportType report identifier
+     * @param accounts   accounts to compute
+     * @param startDates inclusive start dates in ascending order
+     * @param endDates   inclusive end dates in ascending order
+     * @param currency   currency to convert balances to
+     * @return new request
+     */
+    public static BalanceRequest periodBalances(@NotNull final String reportType,
+                                                @NotNull final Collection<Account> accounts,
+                                                @NotNull final LocalDate[] startDates,
+                                                @NotNull final LocalDate[] endDates,
+                                                @NotNull final CurrencyNode currency) {
+        if (startDates.length != endDates.length) {
+            throw new IllegalArgumentException("The number of start and end dates must match");
+        }
+
+        return new BalanceRequest(reportType, accounts, startDates, endDates, currency);
+    }
+
+    @NotNull
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Computes the balances of an account.
+     *
+     * @param account account to compute
+     * @return balances, one per date
+     */
+    BigDecimal[] computeBalances(final Account account) {
+        if (startDates == null) {
+            return account.getBalances(endDates, currency);
+        }
+
+        return account.getBalances(startDates, endDates, currency);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final BalanceRequest that = (BalanceRequest) o;
+
+        return hash == that.hash && reportType.equals(that.reportType) && currency.equals(that.currency)
+                && Arrays.equals(startDates, that.startDates) && Arrays.equals(endDates, that.endDates)
+                && accounts.equals(that.accounts);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
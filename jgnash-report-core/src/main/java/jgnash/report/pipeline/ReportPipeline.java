@@ -0,0 +1,305 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.report.pipeline;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import jgnash.engine.Account;
+import jgnash.engine.AccountType;
+import jgnash.engine.message.Message;
+import jgnash.engine.message.MessageBus;
+import jgnash.engine.message.MessageChannel;
+import jgnash.engine.message.MessageListener;
+import jgnash.util.DefaultDaemonThreadFactory;
+import jgnash.util.NotNull;
+import jgnash.util.Nullable;
+
+/**
+ * Background computation pipeline for reports.
+ *
+ * A report computation is submitted as a whole and runs on a background thread.  Submitting a new computation
+ * cancels the one still running, which stops at its next cancellation check.  Balances are computed on a shared
+ * worker pool with one task per top level account subtree, and each subtree is delivered as soon as it completes.
+ *
+ * Computed balances are memoized by {@link BalanceRequest} and data version.  The data version changes with every
+ * account, commodity or transaction change, so options that only affect the presentation of a report reuse the
+ * balances already computed.
+ *
+ * @author Craig Cavanaugh
+ */
+public class ReportPipeline implements MessageListener {
+
+    private static final int WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final int MAX_CACHED_RESULTS = 8;
+
+    private static final ThreadPoolExecutor workerPool = new ThreadPoolExecutor(WORKERS, WORKERS, 30L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DefaultDaemonThreadFactory("Report Pipeline Worker"));
+
+    static {
+        workerPool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs the submitted computations one at a time.  Kept separate from the worker pool so a computation waiting on
+     * its subtrees can never starve the workers.
+     */
+    private final ThreadPoolExecutor computeExecutor = new ThreadPoolExecutor(0, 1, 30L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new DefaultDaemonThreadFactory("Report Pipeline Executor"));
+
+    private final AtomicLong dataVersion = new AtomicLong();
+
+    private final Map<CacheKey, Map<Account, BigDecimal[]>> cache =
+            new LinkedHashMap<>(MAX_CACHED_RESULTS + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<CacheKey, Map<Account, BigDecimal[]>> eldest) {
+                    return size() > MAX_CACHED_RESULTS;
+                }
+            };
+
+    private CancellationToken currentToken = new CancellationToken();
+
+    /**
+     * Creates a pipeline that tracks changes of the named engine.
+     *
+     * @param engineName name of the engine
+     */
+    public ReportPipeline(@NotNull final String engineName) {
+        MessageBus.getInstance(engineName).registerListener(this, MessageChannel.ACCOUNT,
+                MessageChannel.COMMODITY, MessageChannel.TRANSACTION);
+    }
+
+    @Override
+    public void messagePosted(final Message message) {
+        dataVersion.incrementAndGet();
+    }
+
+    /**
+     * Returns the data version.  The version increases with every change that may alter a balance.
+     *
+     * @return data version
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Cancels the running computation and starts a new one in the background.
+     *
+     * @param computation computation to run, it should check the supplied token between steps
+     * @param <T>         result type
+     * @return future for the result, completed exceptionally with a {@code CancellationException} if superseded
+     */
+    public synchronized <T> CompletableFuture<T> submit(@NotNull final Function<CancellationToken, T> computation) {
+        Objects.requireNonNull(computation);
+
+        currentToken.cancel();
+
+        final CancellationToken token = new CancellationToken();
+        currentToken = token;
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        computeExecutor.execute(() -> {
+            try {
+                token.throwIfCancelled();
+                future.complete(computation.apply(token));
+            } catch (final Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Cancels the running computation.
+     */
+    public synchronized void cancel() {
+        currentToken.cancel();
+    }
+
+    /**
+     * Returns the balances for a request, computing them if they are not memoized.
+     *
+     * @param request balances to compute
+     * @return unmodifiable map of account balances
+     */
+    @NotNull
+    public Map<Account, BigDecimal[]> getBalances(@NotNull final BalanceRequest request) {
+        return getBalances(request, new CancellationToken(), null);
+    }
+
+    /**
+     * Returns the balances for a request, computing them if they are not memoized.  The balance arrays are shared
+     * and must not be modified.
+     *
+     * @param request         balances to compute
+     * @param token           cancellation token of the calling computation
+     * @param subtreeConsumer optional consumer of the balances of each account subtree as it completes.  It is
+     *                        called from a background thread
+     * @return unmodifiable map of account balances
+     * @throws CancellationException if the token is cancelled before the balances are complete
+     */
+    @NotNull
+    public Map<Account, BigDecimal[]> getBalances(@NotNull final BalanceRequest request,
+            @NotNull final CancellationToken token,
+            @Nullable final Consumer<Map<Account, BigDecimal[]>> subtreeConsumer) {
+
+        // the version is read first, so balances computed during a change are filed under a retired key
+        final CacheKey key = new CacheKey(request, dataVersion.get());
+
+        Map<Account, BigDecimal[]> balances;
+
+        synchronized (cache) {
+            balances = cache.get(key);
+        }
+
+        if (balances != null) {
+            if (subtreeConsumer != null) {
+                subtreeConsumer.accept(balances);
+            }
+
+            return balances;
+        }
+
+        final CompletionService<Map<Account, BigDecimal[]>> completionService =
+                new ExecutorCompletionService<>(workerPool);
+
+        final List<Future<Map<Account, BigDecimal[]>>> futures = new ArrayList<>();
+
+        for (final List<Account> subtree : getSubtrees(request.getAccounts())) {
+            futures.add(completionService.submit(() -> {
+                final Map<Account, BigDecimal[]> map = new HashMap<>();
+
+                for (final Account account : subtree) {
+                    token.throwIfCancelled();
+                    map.put(account, request.computeBalances(account));
+                }
+
+                return Collections.unmodifiableMap(map);
+            }));
+        }
+
+        final Map<Account, BigDecimal[]> result = new HashMap<>();
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                final Map<Account, BigDecimal[]> subtreeBalances = completionService.take().get();
+
+                result.putAll(subtreeBalances);
+
+                if (subtreeConsumer != null) {
+                    subtreeConsumer.accept(subtreeBalances);
+                }
+            }
+        } catch (final InterruptedException e) {
+            futures.forEach(future -> future.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        } catch (final ExecutionException e) {
+            futures.forEach(future -> future.cancel(false));
+
+            if (e.getCause() instanceof CancellationException) {
+                throw (CancellationException) e.getCause();
+            }
+
+            throw new CompletionException(e.getCause());
+        }
+
+        balances = Collections.unmodifiableMap(result);
+
+        synchronized (cache) {
+            cache.put(key, balances);
+        }
+
+        return balances;
+    }
+
+    /**
+     * Groups accounts by their top level ancestor while preserving order.
+     */
+    private static Collection<List<Account>> getSubtrees(final List<Account> accounts) {
+        final Map<Account, List<Account>> subtrees = new LinkedHashMap<>();
+
+        for (final Account account : accounts) {
+            Account top = account;
+
+            while (top.getParent() != null && top.getParent().getAccountType() != AccountType.ROOT) {
+                top = top.getParent();
+            }
+
+            subtrees.computeIfAbsent(top, k -> new ArrayList<>()).add(account);
+        }
+
+        return subtrees.values();
+    }
+
+    private static final class CacheKey {
+
+        private final BalanceRequest request;
+
+        private final long version;
+
+        CacheKey(final BalanceRequest request, final long version) {
+            this.request = request;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+
+            final CacheKey that = (CacheKey) o;
+
+            return version == that.version && request.equals(that.request);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * request.hashCode() + Long.hashCode(version);
+        }
+    }
+}
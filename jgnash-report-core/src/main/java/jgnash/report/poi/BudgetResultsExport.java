@@ -24,7 +24,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -32,13 +34,13 @@ import java.util.logging.Logger;
 import jgnash.engine.Account;
 import jgnash.engine.AccountGroup;
 import jgnash.engine.Comparators;
+import jgnash.engine.CurrencyNode;
 import jgnash.engine.budget.BudgetPeriodResults;
 import jgnash.engine.budget.BudgetResultsModel;
 import jgnash.resource.util.ResourceUtils;
 import jgnash.text.NumericFormats;
 import jgnash.util.FileUtils;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
@@ -53,6 +55,7 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 /**
@@ -67,23 +70,50 @@ public class BudgetResultsExport {
     }
 
     /**
-     * Exports a {@code BudgetResultsModel} to a spreadsheet.
+     * Exports a {@code BudgetResultsModel} to a spreadsheet.  Large models are streamed if the file is xlsx.
      * 
      * @param file File to save to
      * @param model Results model to export
      * @return Error message
      */
     public static String exportBudgetResultsModel(final Path file, final BudgetResultsModel model) {
-        
+        return exportBudgetResultsModel(file, model,
+                model.getAccounts().size() > jgnash.report.poi.Workbook.STREAMING_ROW_THRESHOLD);
+    }
+
+    /**
+     * Exports a {@code BudgetResultsModel} to a spreadsheet.
+     * <p>
+     * In streaming mode, only a window of rows is held in memory and column widths are estimated from the length of
+     * the values written instead of measuring every cell.  Streaming is only supported for xlsx files.
+     *
+     * @param file File to save to
+     * @param model Results model to export
+     * @param streaming {@code true} to use the streaming mode
+     * @return Error message
+     */
+    public static String exportBudgetResultsModel(final Path file, final BudgetResultsModel model,
+                                                  final boolean streaming) {
+
         String message = null;
 
         final ResourceBundle rb = ResourceUtils.getBundle();
         
         final String extension = FileUtils.getFileExtension(file.toString());
         
-        try (final Workbook wb = extension.equals("xlsx") ? new XSSFWorkbook() : new HSSFWorkbook()) {        	
+        try (final Workbook wb = jgnash.report.poi.Workbook.createWorkbook(extension, streaming)) {
         	final CreationHelper createHelper = wb.getCreationHelper();
 
+            // formulas only reference cells in the same row, so each row is evaluated as it is written
+            final FormulaEvaluator evaluator = createHelper.createFormulaEvaluator();
+
+            // longest value written to each column, used to estimate column widths when streaming
+            final Map<Integer, Integer> columnLengths = new HashMap<>();
+
+            // shared styles, creating a style per row quickly exhausts the workbook limit
+            final Map<String, CellStyle> amountStyleMap = new HashMap<>();
+            final Map<Integer, CellStyle> accountStyleMap = new HashMap<>();
+
             // create a new sheet
             final Sheet s = wb.createSheet(model.getBudget().getName());
 
@@ -133,19 +163,23 @@ public class BudgetResultsExport {
                 Cell c = r.createCell(0);
                 c.setCellValue(createHelper.createRichTextString(rb.getString("Column.Account")));
                 c.setCellStyle(headerStyle);
+                trackLength(columnLengths, 0, rb.getString("Column.Account").length());
 
                 for (int i = 0; i <= model.getDescriptorList().size(); i++) {
                     c = r.createCell(i * 3 + 1);
                     c.setCellValue(createHelper.createRichTextString(rb.getString("Column.Budgeted")));
                     c.setCellStyle(headerStyle);
+                    trackLength(columnLengths, i * 3 + 1, rb.getString("Column.Budgeted").length());
 
                     c = r.createCell(i * 3 + 2);
                     c.setCellValue(createHelper.createRichTextString(rb.getString("Column.Actual")));
                     c.setCellStyle(headerStyle);
+                    trackLength(columnLengths, i * 3 + 2, rb.getString("Column.Actual").length());
 
                     c = r.createCell(i * 3 + 3);
                     c.setCellValue(createHelper.createRichTextString(rb.getString("Column.Remaining")));
                     c.setCellStyle(headerStyle);
+                    trackLength(columnLengths, i * 3 + 3, rb.getString("Column.Remaining").length());
                 }
             }
 
@@ -155,10 +189,17 @@ public class BudgetResultsExport {
 
             // create account rows
             for (final Account account : accounts) {
-                final CellStyle amountStyle = StyleFactory.createDefaultAmountStyle(wb, account.getCurrencyNode());
+                final int depth = model.getDepth(account);
+                final CurrencyNode currencyNode = account.getCurrencyNode();
+
+                final CellStyle amountStyle = amountStyleMap.computeIfAbsent(currencyNode.getSymbol() + "-" + depth, k -> {
+                    final CellStyle style = StyleFactory.createDefaultAmountStyle(wb, currencyNode);
 
-                // Sets cell indentation, only impacts display if users changes the cell formatting to be left aligned.
-                amountStyle.setIndention((short) (model.getDepth(account) * 2));
+                    // Sets cell indentation, only impacts display if users changes the cell formatting to be left aligned.
+                    style.setIndention((short) (depth * 2));
+
+                    return style;
+                });
 
                 row++;
 
@@ -166,14 +207,21 @@ public class BudgetResultsExport {
 
                 r = s.createRow(row);
 
-                CellStyle cs = wb.createCellStyle();
-                cs.cloneStyleFrom(headerStyle);
-                cs.setAlignment(HorizontalAlignment.LEFT);
-                cs.setIndention((short) (model.getDepth(account) * 2));
+                final CellStyle cs = accountStyleMap.computeIfAbsent(depth, k -> {
+                    final CellStyle style = wb.createCellStyle();
+                    style.cloneStyleFrom(headerStyle);
+                    style.setAlignment(HorizontalAlignment.LEFT);
+                    style.setIndention((short) (depth * 2));
+
+                    return style;
+                });
 
                 Cell c = r.createCell(col);
                 c.setCellValue(createHelper.createRichTextString(account.getName()));
                 c.setCellStyle(cs);
+                trackLength(columnLengths, col, account.getName().length() + depth * 2);
+
+                final DecimalFormat format = (DecimalFormat) NumericFormats.getFullCommodityFormat(currencyNode);
 
                 List<CellReference> budgetedRefList = new ArrayList<>();
                 List<CellReference> changeRefList = new ArrayList<>();
@@ -186,6 +234,7 @@ public class BudgetResultsExport {
                     c = r.createCell(++col, CellType.NUMERIC);
                     c.setCellValue(results.getBudgeted().doubleValue());
                     c.setCellStyle(amountStyle);
+                    trackLength(columnLengths, col, format.format(results.getBudgeted()).length());
 
                     CellReference budgetedRef = new CellReference(row, col);
                     budgetedRefList.add(budgetedRef);
@@ -193,6 +242,7 @@ public class BudgetResultsExport {
                     c = r.createCell(++col, CellType.NUMERIC);
                     c.setCellValue(results.getChange().doubleValue());
                     c.setCellStyle(amountStyle);
+                    trackLength(columnLengths, col, format.format(results.getChange()).length());
 
                     CellReference changeRef = new CellReference(row, col);
                     changeRefList.add(changeRef);
@@ -209,21 +259,28 @@ public class BudgetResultsExport {
                 addSummaryCell(r, ++col, budgetedRefList, amountStyle);
                 addSummaryCell(r, ++col, changeRefList, amountStyle);
                 addSummaryCell(r, ++col, remainingRefList, amountStyle);
+
+                evaluateRow(evaluator, r, format, columnLengths);
             }
 
-            // add group summary rows
-            for (final AccountGroup group : model.getAccountGroupList()) {
-                final DataFormat df = wb.createDataFormat();
+            // group summary styles, reuse the header style but align right
+            final CellStyle groupAmountStyle = StyleFactory.createHeaderStyle(wb);
+            groupAmountStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            groupAmountStyle.setAlignment(HorizontalAlignment.RIGHT);
+            groupAmountStyle.setFont(amountFont);
+
+            final DecimalFormat format = (DecimalFormat) NumericFormats.getFullCommodityFormat(model.getBaseCurrency());
+            final String pattern = format.toLocalizedPattern().replace("¤", model.getBaseCurrency().getPrefix());
+            final DataFormat df = wb.createDataFormat();
+            groupAmountStyle.setDataFormat(df.getFormat(pattern));
 
-                // reuse the header style but align right
-                final CellStyle amountStyle = StyleFactory.createHeaderStyle(wb);
-                amountStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-                amountStyle.setAlignment(HorizontalAlignment.RIGHT);
-                amountStyle.setFont(amountFont);
+            final CellStyle groupStyle = wb.createCellStyle();
+            groupStyle.cloneStyleFrom(headerStyle);
+            groupStyle.setAlignment(HorizontalAlignment.LEFT);
 
-                final DecimalFormat format = (DecimalFormat) NumericFormats.getFullCommodityFormat(model.getBaseCurrency());
-                final String pattern = format.toLocalizedPattern().replace("¤", model.getBaseCurrency().getPrefix());
-                amountStyle.setDataFormat(df.getFormat(pattern));
+            // add group summary rows
+            for (final AccountGroup group : model.getAccountGroupList()) {
+                final CellStyle amountStyle = groupAmountStyle;
 
                 row++;
 
@@ -231,13 +288,10 @@ public class BudgetResultsExport {
 
                 r = s.createRow(row);
 
-                CellStyle cs = wb.createCellStyle();
-                cs.cloneStyleFrom(headerStyle);
-                cs.setAlignment(HorizontalAlignment.LEFT);
-
                 Cell c = r.createCell(col);
                 c.setCellValue(createHelper.createRichTextString(group.toString()));
-                c.setCellStyle(cs);
+                c.setCellStyle(groupStyle);
+                trackLength(columnLengths, col, group.toString().length());
 
                 List<CellReference> budgetedRefList = new ArrayList<>();
                 List<CellReference> changeRefList = new ArrayList<>();
@@ -250,6 +304,7 @@ public class BudgetResultsExport {
                     c = r.createCell(++col, CellType.NUMERIC);
                     c.setCellValue(results.getBudgeted().doubleValue());
                     c.setCellStyle(amountStyle);
+                    trackLength(columnLengths, col, format.format(results.getBudgeted()).length());
 
                     CellReference budgetedRef = new CellReference(row, col);
                     budgetedRefList.add(budgetedRef);
@@ -257,6 +312,7 @@ public class BudgetResultsExport {
                     c = r.createCell(++col, CellType.NUMERIC);
                     c.setCellValue(results.getChange().doubleValue());
                     c.setCellStyle(amountStyle);
+                    trackLength(columnLengths, col, format.format(results.getChange()).length());
 
                     CellReference changeRef = new CellReference(row, col);
                     changeRefList.add(changeRef);
@@ -273,18 +329,23 @@ public class BudgetResultsExport {
                 addSummaryCell(r, ++col, budgetedRefList, amountStyle);
                 addSummaryCell(r, ++col, changeRefList, amountStyle);
                 addSummaryCell(r, ++col, remainingRefList, amountStyle);
+
+                evaluateRow(evaluator, r, format, columnLengths);
             }
 
-            // force evaluation
-            FormulaEvaluator evaluator = wb.getCreationHelper().createFormulaEvaluator();
-            evaluator.evaluateAll();
+            final int columnCount = model.getDescriptorList().size() * 3 + 4;
 
-            short columnCount = s.getRow(1).getLastCellNum();
+            if (wb instanceof SXSSFWorkbook) {
+                for (int i = 0; i < columnCount; i++) {
+                    jgnash.report.poi.Workbook.setEstimatedColumnWidth(s, i, columnLengths.getOrDefault(i, 0));
+                }
+            } else {
 
-            // autosize all of the columns + 10 pixels
-            for (int i = 0; i <= columnCount; i++) {
-                s.autoSizeColumn(i);
-                s.setColumnWidth(i, s.getColumnWidth(i) + 10);
+                // autosize all of the columns + 10 pixels
+                for (int i = 0; i <= columnCount; i++) {
+                    s.autoSizeColumn(i);
+                    s.setColumnWidth(i, s.getColumnWidth(i) + 10);
+                }
             }
 
             Logger.getLogger(BudgetResultsExport.class.getName()).log(Level.INFO, "{0} cell styles were used", wb.getNumCellStyles());
@@ -292,7 +353,7 @@ public class BudgetResultsExport {
             // Save
             String filename = file.toString();
 
-            if (wb instanceof XSSFWorkbook) {
+            if (wb instanceof XSSFWorkbook || wb instanceof SXSSFWorkbook) {
                 filename = FileUtils.stripFileExtension(filename) + ".xlsx";
             } else {
                 filename = FileUtils.stripFileExtension(filename) + ".xls";
@@ -303,7 +364,9 @@ public class BudgetResultsExport {
             } catch (final Exception e) {
                 Logger.getLogger(BudgetResultsExport.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
                 message = e.getLocalizedMessage();
-            }        	        	
+            } finally {
+                jgnash.report.poi.Workbook.dispose(wb);
+            }
         } catch (IOException e) {
         	Logger.getLogger(BudgetResultsExport.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
 		}                      
@@ -311,6 +374,20 @@ public class BudgetResultsExport {
         return message;
     }
 
+    private static void evaluateRow(final FormulaEvaluator evaluator, final Row row, final DecimalFormat format,
+                                    final Map<Integer, Integer> columnLengths) {
+        for (final Cell cell : row) {
+            if (cell.getCellType() == CellType.FORMULA) {
+                evaluator.evaluateFormulaCell(cell);
+                trackLength(columnLengths, cell.getColumnIndex(), format.format(cell.getNumericCellValue()).length());
+            }
+        }
+    }
+
+    private static void trackLength(final Map<Integer, Integer> columnLengths, final int column, final int length) {
+        columnLengths.merge(column, length, Math::max);
+    }
+
     private static void addSummaryCell(final Row row, final int col, final List<CellReference> cellReferenceList, final CellStyle style) {
         final Cell c = row.createCell(col, CellType.FORMULA);
         c.setCellStyle(style);
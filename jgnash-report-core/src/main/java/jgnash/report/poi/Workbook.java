@@ -36,6 +36,7 @@ import jgnash.engine.CurrencyNode;
 import jgnash.report.table.AbstractReportTableModel;
 import jgnash.report.table.ColumnStyle;
 import jgnash.report.table.GroupInfo;
+import jgnash.report.table.ReportTableSnapshot;
 import jgnash.time.DateUtils;
 import jgnash.util.FileUtils;
 import jgnash.util.NotNull;
@@ -49,6 +50,7 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import static jgnash.report.poi.StyleFactory.DEFAULT_HEIGHT;
@@ -66,19 +68,65 @@ import static jgnash.report.poi.StyleFactory.TITLE_HEIGHT;
  */
 public class Workbook {
 
+    /**
+     * Models with more rows than this are exported using a streaming workbook.
+     */
+    static final int STREAMING_ROW_THRESHOLD = 5000;
+
+    /**
+     * Number of rows a streaming workbook keeps in memory before flushing to disk.
+     */
+    private static final int STREAMING_ROW_WINDOW = 200;
+
+    /**
+     * Approximate width of a character in 1/256th of a character unit with extra room for bold fonts.
+     */
+    private static final int CHAR_WIDTH = 300;
+
+    private static final int COLUMN_PADDING = 2 * CHAR_WIDTH;
+
+    /**
+     * Maximum column width allowed by POI.
+     */
+    private static final int MAX_COLUMN_WIDTH = 255 * 256;
+
     private Workbook() {
         // utility class
     }
 
+    /**
+     * Exports a report model to a spreadsheet.  Large models are streamed if the file is xlsx.
+     *
+     * @param reportModel report model to export
+     * @param file        file to save to, the extension determines the format
+     */
     public static void export(@NotNull final AbstractReportTableModel reportModel, @NotNull final File file) {
-        Objects.requireNonNull(reportModel);
+        export(reportModel, file, reportModel.getRowCount() > STREAMING_ROW_THRESHOLD);
+    }
+
+    /**
+     * Exports a report model to a spreadsheet.
+     * <p>
+     * In streaming mode, only a window of rows is held in memory and column widths are estimated from the column
+     * prototype values instead of measuring every cell.  Streaming is only supported for xlsx files.
+     *
+     * @param reportModel report model to export
+     * @param file        file to save to, the extension determines the format
+     * @param streaming   {@code true} to use the streaming mode
+     */
+    public static void export(@NotNull final AbstractReportTableModel model, @NotNull final File file,
+                              final boolean streaming) {
+        Objects.requireNonNull(model);
         Objects.requireNonNull(file);
 
+        // evaluate the model once, group and column widths are derived from the cell values
+        final AbstractReportTableModel reportModel = ReportTableSnapshot.of(model);
+
         final Logger logger = Logger.getLogger(Workbook.class.getName());
 
         final String extension = FileUtils.getFileExtension(file.getAbsolutePath());
 
-        try (final org.apache.poi.ss.usermodel.Workbook wb = extension.equals("xlsx") ? new XSSFWorkbook() : new HSSFWorkbook()) {
+        try (final org.apache.poi.ss.usermodel.Workbook wb = createWorkbook(extension, streaming)) {
 
             final Map<Style, CellStyle> styleMap = buildStyleMap(wb, reportModel.getCurrencyNode());
 
@@ -103,12 +151,19 @@ public class Workbook {
             }
 
 
-            // autosize the columns
+            // size the columns
             int col = 0;
             for (int c = 0; c < reportModel.getColumnCount(); c++) {
                 if (reportModel.isColumnVisible(c)) {
-                    sheet.autoSizeColumn(col);
-                    sheet.setColumnWidth(col, sheet.getColumnWidth(col) + 10);
+                    if (wb instanceof SXSSFWorkbook) {
+                        final int length = Math.max(reportModel.getColumnName(c).length(),
+                                reportModel.getColumnPrototypeValueAt(c).length());
+
+                        setEstimatedColumnWidth(sheet, col, length);
+                    } else {
+                        sheet.autoSizeColumn(col);
+                        sheet.setColumnWidth(col, sheet.getColumnWidth(col) + 10);
+                    }
 
                     col++;
                 }
@@ -119,7 +174,7 @@ public class Workbook {
             // Save the file
             final String filename;
 
-            if (wb instanceof XSSFWorkbook) {
+            if (wb instanceof XSSFWorkbook || wb instanceof SXSSFWorkbook) {
                 filename = FileUtils.stripFileExtension(file.getAbsolutePath()) + ".xlsx";
             } else {
                 filename = FileUtils.stripFileExtension(file.getAbsolutePath()) + ".xls";
@@ -129,6 +184,8 @@ public class Workbook {
                 wb.write(out);
             } catch (final Exception e) {
                 logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            } finally {
+                dispose(wb);
             }
 
         } catch (final IOException e) {
@@ -136,6 +193,47 @@ public class Workbook {
         }
     }
 
+    /**
+     * Creates a workbook for a file extension.
+     *
+     * @param extension file extension
+     * @param streaming {@code true} if a streaming workbook should be used for xlsx files
+     * @return new workbook
+     */
+    static org.apache.poi.ss.usermodel.Workbook createWorkbook(final String extension, final boolean streaming) {
+        if (extension.equals("xlsx")) {
+            if (streaming) {
+                final SXSSFWorkbook wb = new SXSSFWorkbook(STREAMING_ROW_WINDOW);
+                wb.setCompressTempFiles(true);
+                return wb;
+            }
+            return new XSSFWorkbook();
+        }
+        return new HSSFWorkbook();
+    }
+
+    /**
+     * Removes the temporary files backing a streaming workbook.
+     *
+     * @param wb workbook
+     */
+    static void dispose(final org.apache.poi.ss.usermodel.Workbook wb) {
+        if (wb instanceof SXSSFWorkbook) {
+            ((SXSSFWorkbook) wb).dispose();
+        }
+    }
+
+    /**
+     * Sets a column width based on the expected number of characters instead of measuring the cells.
+     *
+     * @param sheet  sheet
+     * @param column column index
+     * @param length expected number of characters
+     */
+    static void setEstimatedColumnWidth(final Sheet sheet, final int column, final int length) {
+        sheet.setColumnWidth(column, Math.min(length * CHAR_WIDTH + COLUMN_PADDING, MAX_COLUMN_WIDTH));
+    }
+
     private static int addReportHeader(@NotNull final AbstractReportTableModel reportModel,
                                        @NotNull final Map<Style, CellStyle> styleMap,
                                        @NotNull final org.apache.poi.ss.usermodel.Workbook wb, @NotNull final Sheet s,
@@ -255,7 +255,11 @@ public abstract class AbstractReportTableModel {
         if (getColumnClass(columnIndex).isAssignableFrom(BigDecimal.class)) {
 
             for (int i = 0; i < getRowCount(); i++) {
-                sum = sum.add((BigDecimal) getValueAt(i, columnIndex));
+                final BigDecimal value = (BigDecimal) getValueAt(i, columnIndex);
+
+                if (value != null) {    // protect against a null / filtered value
+                    sum = sum.add(value);
+                }
             }
         }
 
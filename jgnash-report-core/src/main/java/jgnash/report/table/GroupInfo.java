@@ -47,13 +47,19 @@ public class GroupInfo implements Comparable<GroupInfo> {
 
     private boolean hasSummation = false;
 
-    private GroupInfo(@NotNull final String group) {
+    GroupInfo(@NotNull final String group) {
         Objects.requireNonNull(group);
 
         this.group = group;
     }
 
     public static Set<GroupInfo> getGroups(final AbstractReportTableModel tableModel) {
+
+        // groups have already been computed
+        if (tableModel instanceof ReportTableSnapshot) {
+            return ((ReportTableSnapshot) tableModel).getGroupInfoSet();
+        }
+
         final Map<String, GroupInfo> groupInfoMap = new HashMap<>();
 
         for (int c = 0; c < tableModel.getColumnCount(); c++) {
@@ -106,7 +112,7 @@ public class GroupInfo implements Comparable<GroupInfo> {
         return false;
     }
 
-    private void addValue(final int column, final BigDecimal value) {
+    void addValue(final int column, final BigDecimal value) {
         if (value != null) {    // protect against a null / filtered value
             summationMap.put(column, getValue(column).add(value));
             hasSummation = true;
@@ -0,0 +1,281 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.report.table;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import jgnash.engine.CurrencyNode;
+import jgnash.util.NotNull;
+import jgnash.util.Nullable;
+
+/**
+ * Materialized, column oriented copy of a {@code AbstractReportTableModel}.
+ * <p>
+ * Every cell of the source model is evaluated exactly once.  Row groups, group sums and global sums are computed in
+ * the same pass and column prototype values are computed once on demand, so renderers may query the snapshot
+ * repeatedly without re-evaluating the source model.
+ *
+ * @author Craig Cavanaugh
+ */
+public class ReportTableSnapshot extends AbstractReportTableModel {
+
+    private final CurrencyNode currencyNode;
+
+    private final String title;
+
+    private final String subTitle;
+
+    private final String grandTotalLegend;
+
+    private final String groupFooterLabel;
+
+    private final int rowCount;
+
+    private final String[] columnNames;
+
+    private final ColumnStyle[] columnStyles;
+
+    private final Class<?>[] columnClasses;
+
+    private final boolean[] columnVisible;
+
+    private final boolean[] columnFixedWidth;
+
+    private final float[] columnWidthWeights;
+
+    private final int[] columnsToHide;
+
+    /**
+     * Column values.  {@code BigDecimal} columns are stored as {@code BigDecimal[]}.
+     */
+    private final Object[][] columns;
+
+    private final String[] rowGroups;
+
+    private final BigDecimal[] globalSums;
+
+    private final Set<GroupInfo> groupInfoSet;
+
+    private final String[] prototypeValues;
+
+    private ReportTableSnapshot(final AbstractReportTableModel model) {
+        currencyNode = model.getCurrencyNode();
+        title = model.getTitle();
+        subTitle = model.getSubTitle();
+        grandTotalLegend = model.getGrandTotalLegend();
+        groupFooterLabel = model.getGroupFooterLabel();
+        columnsToHide = model.getColumnsToHide().clone();
+
+        rowCount = model.getRowCount();
+
+        final int columnCount = model.getColumnCount();
+
+        columnNames = new String[columnCount];
+        columnStyles = new ColumnStyle[columnCount];
+        columnClasses = new Class<?>[columnCount];
+        columnVisible = new boolean[columnCount];
+        columnFixedWidth = new boolean[columnCount];
+        columnWidthWeights = new float[columnCount];
+        columns = new Object[columnCount][];
+        globalSums = new BigDecimal[columnCount];
+        prototypeValues = new String[columnCount];
+
+        for (int c = 0; c < columnCount; c++) {
+            columnNames[c] = model.getColumnName(c);
+            columnStyles[c] = model.getColumnStyle(c);
+            columnClasses[c] = model.getColumnClass(c);
+            columnVisible[c] = model.isColumnVisible(c);
+            columnFixedWidth[c] = model.isColumnFixedWidth(c);
+            columnWidthWeights[c] = model.getColumnWidthWeight(c);
+
+            if (columnClasses[c].isAssignableFrom(BigDecimal.class)) {
+                columns[c] = new BigDecimal[rowCount];
+                globalSums[c] = BigDecimal.ZERO;
+            } else {
+                columns[c] = new Object[rowCount];
+            }
+        }
+
+        rowGroups = new String[rowCount];
+
+        final Map<String, GroupInfo> groupInfoMap = new HashMap<>();
+
+        for (int r = 0; r < rowCount; r++) {
+            String group = DEFAULT_GROUP;   // default group if row is not assigned
+
+            for (int c = 0; c < columnCount; c++) {
+                final Object value = model.getValueAt(r, c);
+
+                columns[c][r] = value;
+
+                if (columnStyles[c] == ColumnStyle.GROUP || columnStyles[c] == ColumnStyle.GROUP_NO_HEADER) {
+                    group = value.toString();
+                }
+
+                if (globalSums[c] != null && value != null) {
+                    globalSums[c] = globalSums[c].add((BigDecimal) value);
+                }
+            }
+
+            rowGroups[r] = group;
+
+            final GroupInfo groupInfo = groupInfoMap.computeIfAbsent(group, GroupInfo::new);
+
+            for (int c = 0; c < columnCount; c++) {
+                if (columnClasses[c] == BigDecimal.class && isColumnSummed(c)) {
+                    groupInfo.addValue(c, (BigDecimal) columns[c][r]);
+                }
+            }
+        }
+
+        // create a default group for tables that do not specify one
+        if (groupInfoMap.isEmpty()) {
+            groupInfoMap.put(DEFAULT_GROUP, new GroupInfo(DEFAULT_GROUP));
+        }
+
+        groupInfoSet = Collections.unmodifiableSet(new TreeSet<>(groupInfoMap.values()));
+    }
+
+    /**
+     * Evaluates a report model once and returns a snapshot of it.
+     *
+     * @param model report model
+     * @return snapshot of the model, or the model itself if it is already a snapshot
+     */
+    public static ReportTableSnapshot of(@NotNull final AbstractReportTableModel model) {
+        Objects.requireNonNull(model);
+
+        if (model instanceof ReportTableSnapshot) {
+            return (ReportTableSnapshot) model;
+        }
+
+        return new ReportTableSnapshot(model);
+    }
+
+    /**
+     * Returns the precomputed groups and group sums.
+     *
+     * @return groups in sorted order
+     */
+    Set<GroupInfo> getGroupInfoSet() {
+        return groupInfoSet;
+    }
+
+    @Override
+    public CurrencyNode getCurrencyNode() {
+        return currencyNode;
+    }
+
+    @Override
+    public ColumnStyle getColumnStyle(final int columnIndex) {
+        return columnStyles[columnIndex];
+    }
+
+    @Override
+    public Class<?> getColumnClass(final int columnIndex) {
+        return columnClasses[columnIndex];
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public float getColumnWidthWeight(final int columnIndex) {
+        return columnWidthWeights[columnIndex];
+    }
+
+    @Override
+    public String getColumnName(final int columnIndex) {
+        return columnNames[columnIndex];
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public Object getValueAt(final int rowIndex, final int columnIndex) {
+        return columns[columnIndex][rowIndex];
+    }
+
+    @NotNull
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    @Nullable
+    @Override
+    public String getSubTitle() {
+        return subTitle;
+    }
+
+    @Override
+    public boolean isColumnFixedWidth(final int columnIndex) {
+        return columnFixedWidth[columnIndex];
+    }
+
+    @Override
+    public String getGroup(final int row) {
+        return rowGroups[row];
+    }
+
+    @NotNull
+    @Override
+    public int[] getColumnsToHide() {
+        return columnsToHide.clone();
+    }
+
+    @Override
+    public boolean isColumnVisible(final int column) {
+        return columnVisible[column];
+    }
+
+    @Override
+    public BigDecimal getGlobalSum(final int columnIndex) {
+        return globalSums[columnIndex] != null ? globalSums[columnIndex] : BigDecimal.ZERO;
+    }
+
+    @Override
+    public String getGrandTotalLegend() {
+        return grandTotalLegend;
+    }
+
+    @Override
+    public String getGroupFooterLabel() {
+        return groupFooterLabel;
+    }
+
+    @Override
+    public synchronized String getColumnPrototypeValueAt(final int columnIndex) {
+        if (prototypeValues[columnIndex] == null) {
+            prototypeValues[columnIndex] = super.getColumnPrototypeValueAt(columnIndex);
+        }
+
+        return prototypeValues[columnIndex];
+    }
+}
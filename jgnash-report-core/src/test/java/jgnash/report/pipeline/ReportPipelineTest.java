@@ -0,0 +1,160 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.report.pipeline;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import jgnash.engine.Account;
+import jgnash.engine.AccountType;
+import jgnash.engine.CurrencyNode;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.TransactionFactory;
+import jgnash.engine.message.ChannelEvent;
+import jgnash.engine.message.Message;
+import jgnash.engine.message.MessageBus;
+import jgnash.engine.message.MessageChannel;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JUnit test class for the {@code ReportPipeline}.
+ *
+ * @author Craig Cavanaugh
+ */
+class ReportPipelineTest {
+
+    private static final LocalDate DATE = LocalDate.of(2019, 1, 15);
+
+    /**
+     * Messages are delivered in order, so a blocking message ensures prior messages have been processed.
+     */
+    private static void waitForMessages(final Engine e) {
+        MessageBus.getInstance(e.getName()).fireBlockingEvent(new Message(MessageChannel.SYSTEM,
+                ChannelEvent.BACKGROUND_PROCESS_STOPPED, e));
+    }
+
+    @Test
+    void testBalancesAndCancellation() throws Exception {
+        final String file = Files.createTempFile("pipeline-",
+                DataStoreType.XML.getDataStore().getFileExt()).toString();
+
+        EngineFactory.deleteDatabase(file);
+
+        final Engine e = EngineFactory.bootLocalEngine(file, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+        e.setCreateBackups(false);
+
+        final CurrencyNode node = e.getDefaultCurrency();
+
+        final Account bank = new Account(AccountType.BANK, node);
+        bank.setName("Bank");
+        e.addAccount(e.getRootAccount(), bank);
+
+        final Account expense = new Account(AccountType.EXPENSE, node);
+        expense.setName("Expense");
+        e.addAccount(e.getRootAccount(), expense);
+
+        final Account groceries = new Account(AccountType.EXPENSE, node);
+        groceries.setName("Groceries");
+        e.addAccount(expense, groceries);
+
+        assertTrue(e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(groceries, bank,
+                new BigDecimal("25.00"), DATE, "", "", "")));
+
+        waitForMessages(e);
+
+        final ReportPipeline pipeline = new ReportPipeline(EngineFactory.DEFAULT);
+
+        final LocalDate[] dates = {DATE.minusDays(1), DATE};
+        final BalanceRequest request = BalanceRequest.runningBalances("test", List.of(bank, expense, groceries),
+                dates, node);
+
+        // one delivery per top level subtree
+        final List<Map<Account, BigDecimal[]>> subtrees = new ArrayList<>();
+        final Map<Account, BigDecimal[]> balances = pipeline.getBalances(request, new CancellationToken(),
+                subtrees::add);
+
+        assertEquals(2, subtrees.size());
+        assertEquals(3, balances.size());
+        assertEquals(0, BigDecimal.ZERO.compareTo(balances.get(groceries)[0]));
+        assertEquals(0, groceries.getBalance(DATE).compareTo(balances.get(groceries)[1]));
+        assertEquals(0, bank.getBalance(DATE).compareTo(balances.get(bank)[1]));
+
+        // memoized until the data changes
+        assertSame(balances, pipeline.getBalances(request));
+
+        assertTrue(e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(groceries, bank,
+                new BigDecimal("5.00"), DATE, "", "", "")));
+
+        waitForMessages(e);
+
+        final Map<Account, BigDecimal[]> updated = pipeline.getBalances(request);
+
+        assertNotSame(balances, updated);
+        assertEquals(0, groceries.getBalance(DATE).compareTo(updated.get(groceries)[1]));
+
+        // a new submission cancels the running computation
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<Integer> first = pipeline.submit(token -> {
+            started.countDown();
+
+            try {
+                release.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            token.throwIfCancelled();
+
+            return 1;
+        });
+
+        started.await();
+
+        final CompletableFuture<Integer> second = pipeline.submit(token -> 2);
+
+        release.countDown();
+
+        assertEquals(2, second.get().intValue());
+        assertThrows(CancellationException.class, first::get);
+        assertTrue(first.isCancelled());
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        Files.deleteIfExists(Paths.get(file));
+    }
+}
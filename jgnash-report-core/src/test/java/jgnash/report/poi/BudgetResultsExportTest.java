@@ -30,8 +30,14 @@ import jgnash.engine.EngineFactory;
 import jgnash.engine.budget.Budget;
 import jgnash.engine.budget.BudgetResultsModel;
 import jgnash.time.Period;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -44,6 +50,15 @@ class BudgetResultsExportTest {
 
     @Test
     void testExportBudgetResultsModel() throws Exception {
+        exportBudgetResultsModel(".xls", false);
+    }
+
+    @Test
+    void testStreamingExportBudgetResultsModel() throws Exception {
+        exportBudgetResultsModel(".xlsx", true);
+    }
+
+    private static void exportBudgetResultsModel(final String extension, final boolean streaming) throws Exception {
 
         final String file = Files.createTempFile("budget-",
                 DataStoreType.XML.getDataStore().getFileExt()).toString();
@@ -73,14 +88,25 @@ class BudgetResultsExportTest {
 
         BudgetResultsModel model = new BudgetResultsModel(budget, 2012, node, false);
 
-        final Path exportFile = Files.createTempFile("testworkbook", ".xls");
+        final Path exportFile = Files.createTempFile("testworkbook", extension);
 
-        final String errors = BudgetResultsExport.exportBudgetResultsModel(exportFile, model);
+        final String errors = BudgetResultsExport.exportBudgetResultsModel(exportFile, model, streaming);
 
         assertNull(errors);
 
         assertTrue(Files.exists(exportFile));
 
+        try (final Workbook wb = WorkbookFactory.create(exportFile.toFile())) {
+            final Sheet sheet = wb.getSheet("My Budget");
+
+            assertNotNull(sheet);
+
+            // two header rows, one row per account and one per account group
+            assertEquals(2 + model.getAccounts().size() + model.getAccountGroupList().size(),
+                    sheet.getPhysicalNumberOfRows());
+            assertEquals("Expense 1", sheet.getRow(2).getCell(0).getStringCellValue());
+        }
+
         Files.delete(exportFile);
 
         EngineFactory.closeEngine(EngineFactory.DEFAULT);
@@ -0,0 +1,166 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2019 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.report.table;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import jgnash.engine.CurrencyNode;
+import jgnash.engine.DefaultCurrencies;
+import jgnash.util.NotNull;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * JUnit test for {@code ReportTableSnapshot}.
+ *
+ * @author Craig Cavanaugh
+ */
+class ReportTableSnapshotTest {
+
+    @Test
+    void testSnapshotMatchesModel() {
+        final TestModel model = new TestModel();
+        final ReportTableSnapshot snapshot = ReportTableSnapshot.of(model);
+
+        assertEquals(model.getRowCount() * model.getColumnCount(), model.valueCount);
+
+        assertEquals(model.getRowCount(), snapshot.getRowCount());
+        assertEquals(model.getColumnCount(), snapshot.getColumnCount());
+        assertEquals(model.getVisibleColumnCount(), snapshot.getVisibleColumnCount());
+        assertEquals(model.hasGlobalSummary(), snapshot.hasGlobalSummary());
+
+        for (int r = 0; r < model.getRowCount(); r++) {
+            assertEquals(model.getGroup(r), snapshot.getGroup(r));
+
+            for (int c = 0; c < model.getColumnCount(); c++) {
+                assertEquals(model.getValueAt(r, c), snapshot.getValueAt(r, c));
+            }
+        }
+
+        for (int c = 0; c < model.getColumnCount(); c++) {
+            assertEquals(model.getGlobalSum(c), snapshot.getGlobalSum(c));
+            assertEquals(model.getColumnPrototypeValueAt(c), snapshot.getColumnPrototypeValueAt(c));
+        }
+
+        final List<GroupInfo> expected = new ArrayList<>(GroupInfo.getGroups(model));
+        final List<GroupInfo> actual = new ArrayList<>(GroupInfo.getGroups(snapshot));
+
+        assertEquals(expected, actual);
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).hasSummation(), actual.get(i).hasSummation());
+
+            for (int c = 0; c < model.getColumnCount(); c++) {
+                assertEquals(expected.get(i).getValue(c), actual.get(i).getValue(c));
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotIsReused() {
+        final TestModel model = new TestModel();
+        final ReportTableSnapshot snapshot = ReportTableSnapshot.of(model);
+
+        assertSame(snapshot, ReportTableSnapshot.of(snapshot));
+
+        final int count = model.valueCount;
+
+        final Set<GroupInfo> groups = GroupInfo.getGroups(snapshot);
+
+        for (int c = 0; c < snapshot.getColumnCount(); c++) {
+            snapshot.getGlobalSum(c);
+            snapshot.getColumnPrototypeValueAt(c);
+        }
+
+        assertEquals(2, groups.size());
+        assertEquals(count, model.valueCount);   // source model is not evaluated again
+    }
+
+    private static class TestModel extends AbstractReportTableModel {
+
+        private final ColumnStyle[] columnStyles = {ColumnStyle.GROUP, ColumnStyle.STRING, ColumnStyle.AMOUNT_SUM,
+                ColumnStyle.BALANCE_WITH_SUM_AND_GLOBAL};
+
+        private final CurrencyNode currencyNode = DefaultCurrencies.getDefault();
+
+        int valueCount;
+
+        @Override
+        public CurrencyNode getCurrencyNode() {
+            return currencyNode;
+        }
+
+        @Override
+        public ColumnStyle getColumnStyle(final int columnIndex) {
+            return columnStyles[columnIndex];
+        }
+
+        @Override
+        public Class<?> getColumnClass(final int columnIndex) {
+            return columnIndex < 2 ? String.class : BigDecimal.class;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnStyles.length;
+        }
+
+        @Override
+        public String getColumnName(final int columnIndex) {
+            return "Column " + columnIndex;
+        }
+
+        @Override
+        public int getRowCount() {
+            return 20;
+        }
+
+        @Override
+        public Object getValueAt(final int rowIndex, final int columnIndex) {
+            valueCount++;
+
+            switch (columnIndex) {
+                case 0:
+                    return rowIndex % 2 == 0 ? "Even" : "Odd";
+                case 1:
+                    return "Row " + rowIndex;
+                case 2:
+                    return new BigDecimal(rowIndex).multiply(new BigDecimal("10.25"));
+                default:
+                    return rowIndex % 3 == 0 ? null : new BigDecimal(-rowIndex);
+            }
+        }
+
+        @NotNull
+        @Override
+        public String getTitle() {
+            return "Title";
+        }
+
+        @Override
+        public String getSubTitle() {
+            return "Subtitle";
+        }
+    }
+}